@@ -0,0 +1,267 @@
+package org.geogebra.common.jre.cas;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+
+import org.geogebra.common.cas.cache.CasResultCache;
+import org.geogebra.common.util.Charsets;
+import org.geogebra.common.util.debug.GeoGebraProfiler;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Persistent CAS result cache: an append-only file of (key, result) records
+ * that is memory-mapped for reading and writing. Several processes may share
+ * the file; file locks make sure they only read complete records. When the
+ * file would grow over its size limit, it is cleared.
+ *
+ * The file starts with a header: magic number, generation (incremented when
+ * the file is cleared) and the end of the last complete record. The file is
+ * never truncated, so that mappings of other processes stay valid; the
+ * mapping grows geometrically up to the size limit.
+ *
+ * Record layout: key length, result length (both int, in bytes), UTF-8 key,
+ * UTF-8 result. The first record stores the version of the writer; files
+ * written by other versions are cleared on opening.
+ */
+public class MappedFileCasResultCache implements CasResultCache {
+
+	private static final Charset UTF8 = Charsets.getUtf8();
+	private static final int MAGIC = 0x47474243;
+	private static final int MAGIC_POS = 0;
+	private static final int GENERATION_POS = 4;
+	private static final int LENGTH_POS = 8;
+	private static final int HEADER = 16;
+	private static final int RECORD_HEADER = 8;
+	private static final int INITIAL_SIZE = 4096;
+	private static final String VERSION_KEY = "\u0000version";
+
+	private final FileChannel channel;
+	private final long maxBytes;
+	private final HashMap<String, Integer> index = new HashMap<>();
+	private MappedByteBuffer buffer;
+	private int generation;
+	private long indexedLength = HEADER;
+
+	/**
+	 * @param file
+	 *            cache file, created if needed
+	 * @param maxBytes
+	 *            maximum file size (at most 2GB)
+	 * @param version
+	 *            version of the CAS results; other versions are discarded
+	 * @throws IOException
+	 *             if the file cannot be opened
+	 */
+	public MappedFileCasResultCache(File file, long maxBytes, String version)
+			throws IOException {
+		this.maxBytes = Math.max(Math.min(maxBytes, Integer.MAX_VALUE),
+				HEADER);
+		this.channel = new RandomAccessFile(file, "rw").getChannel();
+		FileLock lock = channel.lock();
+		try {
+			map(Math.min(this.maxBytes,
+					Math.max(channel.size(), INITIAL_SIZE)));
+			long length = buffer.getLong(LENGTH_POS);
+			if (buffer.getInt(MAGIC_POS) != MAGIC || length < HEADER
+					|| length > buffer.capacity()) {
+				// new file or other format
+				buffer.putInt(MAGIC_POS, MAGIC);
+				reset();
+			}
+			scan();
+			if (!version.equals(readValue(VERSION_KEY))) {
+				reset();
+				append(VERSION_KEY, version);
+			}
+		} finally {
+			lock.release();
+		}
+	}
+
+	@Override
+	public synchronized String get(String key) {
+		try {
+			FileLock lock = channel.lock(0, Long.MAX_VALUE, true);
+			try {
+				scan();
+				return readValue(key);
+			} finally {
+				lock.release();
+			}
+		} catch (IOException e) {
+			Log.debug("CAS cache not readable: " + e.getMessage());
+			return null;
+		}
+	}
+
+	@Override
+	public synchronized void put(String key, String result) {
+		if (result == null) {
+			return;
+		}
+		try {
+			FileLock lock = channel.lock();
+			try {
+				scan();
+				if (index.containsKey(key)) {
+					return;
+				}
+				byte[] keyBytes = key.getBytes(UTF8);
+				byte[] valueBytes = result.getBytes(UTF8);
+				long recordLength = RECORD_HEADER + keyBytes.length
+						+ valueBytes.length;
+				if (indexedLength + recordLength > maxBytes) {
+					String version = readValue(VERSION_KEY);
+					GeoGebraProfiler.addCasCacheEvictions(index.size() - 1);
+					reset();
+					if (version != null) {
+						append(VERSION_KEY, version);
+					}
+					if (indexedLength + recordLength > maxBytes) {
+						return;
+					}
+				}
+				append(keyBytes, valueBytes, key);
+			} finally {
+				lock.release();
+			}
+		} catch (IOException e) {
+			Log.debug("CAS cache not writable: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		try {
+			FileLock lock = channel.lock();
+			try {
+				scan();
+				String version = readValue(VERSION_KEY);
+				reset();
+				if (version != null) {
+					append(VERSION_KEY, version);
+				}
+			} finally {
+				lock.release();
+			}
+		} catch (IOException e) {
+			Log.debug("CAS cache not writable: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @return number of cached results
+	 */
+	public synchronized int size() {
+		return Math.max(index.size() - 1, 0);
+	}
+
+	/**
+	 * Closes the file.
+	 *
+	 * @throws IOException
+	 *             if closing fails
+	 */
+	public synchronized void close() throws IOException {
+		buffer = null;
+		channel.close();
+	}
+
+	/**
+	 * Indexes records appended by other processes; needs a lock.
+	 */
+	private void scan() throws IOException {
+		if (channel.size() > buffer.capacity()) {
+			// grown by another process
+			map(Math.min(channel.size(), maxBytes));
+		}
+		int fileGeneration = buffer.getInt(GENERATION_POS);
+		if (fileGeneration != generation) {
+			// cleared by another process
+			generation = fileGeneration;
+			index.clear();
+			indexedLength = HEADER;
+		}
+		long length = Math.min(buffer.getLong(LENGTH_POS), buffer.capacity());
+		int pos = (int) indexedLength;
+		while (pos + RECORD_HEADER <= length) {
+			int keyLength = buffer.getInt(pos);
+			int valueLength = buffer.getInt(pos + 4);
+			int end = pos + RECORD_HEADER + keyLength + valueLength;
+			if (keyLength < 0 || valueLength < 0 || end > length
+					|| end < pos) {
+				// damaged record
+				break;
+			}
+			index.put(decode(pos + RECORD_HEADER, keyLength), pos);
+			pos = end;
+		}
+		indexedLength = pos;
+	}
+
+	private String readValue(String key) {
+		Integer pos = index.get(key);
+		if (pos == null) {
+			return null;
+		}
+		int keyLength = buffer.getInt(pos);
+		int valueLength = buffer.getInt(pos + 4);
+		return decode(pos + RECORD_HEADER + keyLength, valueLength);
+	}
+
+	private String decode(int pos, int length) {
+		byte[] bytes = new byte[length];
+		ByteBuffer view = buffer.duplicate();
+		view.position(pos);
+		view.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	private void append(String key, String value) throws IOException {
+		append(key.getBytes(UTF8), value.getBytes(UTF8), key);
+	}
+
+	private void append(byte[] keyBytes, byte[] valueBytes, String key)
+			throws IOException {
+		long end = indexedLength + RECORD_HEADER + keyBytes.length
+				+ valueBytes.length;
+		if (end > buffer.capacity()) {
+			map(Math.min(maxBytes, Math.max(end, 2L * buffer.capacity())));
+		}
+		ByteBuffer view = buffer.duplicate();
+		view.position((int) indexedLength);
+		view.putInt(keyBytes.length);
+		view.putInt(valueBytes.length);
+		view.put(keyBytes);
+		view.put(valueBytes);
+		// publish the record only once it is complete
+		buffer.putLong(LENGTH_POS, end);
+		index.put(key, (int) indexedLength);
+		indexedLength = end;
+	}
+
+	/**
+	 * Removes all records; other processes notice the new generation.
+	 */
+	private void reset() {
+		generation = buffer.getInt(GENERATION_POS) + 1;
+		buffer.putInt(GENERATION_POS, generation);
+		buffer.putLong(LENGTH_POS, HEADER);
+		index.clear();
+		indexedLength = HEADER;
+	}
+
+	/**
+	 * Maps the first bytes of the file, growing it if needed.
+	 */
+	private void map(long length) throws IOException {
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+	}
+}
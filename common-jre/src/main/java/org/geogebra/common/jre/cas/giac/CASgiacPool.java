@@ -0,0 +1,244 @@
+package org.geogebra.common.jre.cas.giac;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.geogebra.common.cas.CASparser;
+import org.geogebra.common.factories.CASFactory;
+import org.geogebra.common.kernel.CASException;
+import org.geogebra.common.kernel.CASGenericInterface;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.arithmetic.ExpressionValue;
+import org.geogebra.common.kernel.arithmetic.MyArbitraryConstant;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.geogebra.common.kernel.geos.GeoCasCell;
+import org.geogebra.common.kernel.parser.GParser;
+import org.geogebra.common.kernel.prover.polynomial.PVariable;
+import org.geogebra.common.main.settings.AbstractSettings;
+
+/**
+ * Pool of CAS engines: every evaluation borrows an idle engine (each with its
+ * own Giac context and parser), so evaluations from different threads run
+ * concurrently instead of waiting for a single engine. Engines are created
+ * on demand up to the pool size; their results are cleared when they are
+ * returned to the pool.
+ */
+public class CASgiacPool implements CASGenericInterface {
+
+	private final CASFactory engineFactory;
+	private final Kernel kernel;
+	private final int size;
+	private final CASparser firstParser;
+	private final ArrayBlockingQueue<Engine> idle;
+	private final ArrayList<Engine> engines = new ArrayList<>();
+	private AbstractSettings settings;
+
+	private static class Engine {
+		protected final CASGenericInterface cas;
+		protected final CASparser parser;
+
+		protected Engine(CASGenericInterface cas, CASparser parser) {
+			this.cas = cas;
+			this.parser = parser;
+		}
+	}
+
+	/**
+	 * @param engineFactory
+	 *            factory for the engines
+	 * @param parser
+	 *            CAS parser of the first engine
+	 * @param kernel
+	 *            kernel
+	 * @param size
+	 *            maximum number of engines
+	 */
+	public CASgiacPool(CASFactory engineFactory, CASparser parser,
+			Kernel kernel, int size) {
+		this.engineFactory = engineFactory;
+		this.firstParser = parser;
+		this.kernel = kernel;
+		this.size = Math.max(size, 1);
+		this.idle = new ArrayBlockingQueue<>(this.size);
+		// first engine answers the questions that don't need evaluation
+		idle.add(createEngine());
+	}
+
+	/**
+	 * @return maximum number of engines
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	private synchronized Engine createEngine() {
+		CASparser parser = engines.isEmpty() ? firstParser
+				: new CASparser(new GParser(kernel, kernel.getConstruction()),
+						kernel.getApplication().getParserFunctions());
+		Engine engine = new Engine(engineFactory.newGiac(parser, kernel),
+				parser);
+		if (settings != null) {
+			engine.cas.settingsChanged(settings);
+		}
+		engines.add(engine);
+		return engine;
+	}
+
+	private Engine borrow() {
+		Engine engine = idle.poll();
+		if (engine != null) {
+			return engine;
+		}
+		synchronized (this) {
+			if (engines.size() < size) {
+				return createEngine();
+			}
+		}
+		try {
+			return idle.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted waiting for CAS");
+		}
+	}
+
+	private void release(Engine engine) {
+		// reset per-evaluation state; Giac resets its context before each
+		// evaluation anyway
+		engine.cas.clearResult();
+		engine.parser.setNrOfVars(0);
+		idle.add(engine);
+	}
+
+	private synchronized CASGenericInterface getFirst() {
+		return engines.get(0).cas;
+	}
+
+	@Override
+	public String evaluateGeoGebraCAS(ValidExpression casInput,
+			MyArbitraryConstant arbconst, StringTemplate tpl, GeoCasCell cell,
+			Kernel kernel1) throws CASException {
+		Engine engine = borrow();
+		try {
+			return engine.cas.evaluateGeoGebraCAS(casInput, arbconst, tpl,
+					cell, kernel1);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public String evaluateRaw(String exp) throws Throwable {
+		Engine engine = borrow();
+		try {
+			return engine.cas.evaluateRaw(exp);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public ExpressionValue evaluateToExpression(
+			ValidExpression inputExpression, MyArbitraryConstant arbconst,
+			Kernel kernel1) {
+		Engine engine = borrow();
+		try {
+			return engine.cas.evaluateToExpression(inputExpression, arbconst,
+					kernel1);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public String evaluateCAS(String exp) {
+		Engine engine = borrow();
+		try {
+			return engine.cas.evaluateCAS(exp);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public double[][][] getBivarPolyCoefficientsAll(String rawResult) {
+		Engine engine = borrow();
+		try {
+			return engine.cas.getBivarPolyCoefficientsAll(rawResult);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public synchronized void settingsChanged(AbstractSettings newSettings) {
+		this.settings = newSettings;
+		for (Engine engine : engines) {
+			engine.cas.settingsChanged(newSettings);
+		}
+	}
+
+	@Override
+	public String translateAssignment(String label, String body) {
+		return getFirst().translateAssignment(label, body);
+	}
+
+	@Override
+	public void appendListStart(StringBuilder sbCASCommand) {
+		getFirst().appendListStart(sbCASCommand);
+	}
+
+	@Override
+	public void appendListEnd(StringBuilder sbCASCommand) {
+		getFirst().appendListEnd(sbCASCommand);
+	}
+
+	@Override
+	public String createEliminateFactorizedScript(String polys,
+			String elimVars) {
+		return getFirst().createEliminateFactorizedScript(polys, elimVars);
+	}
+
+	@Override
+	public String createEliminateScript(String polys, String elimVars,
+			boolean oneCurve, Long precision) {
+		return getFirst().createEliminateScript(polys, elimVars, oneCurve,
+				precision);
+	}
+
+	@Override
+	public String createGroebnerSolvableScript(
+			HashMap<PVariable, BigInteger> substitutions, String polys,
+			String freeVars, String dependantVars, boolean transcext) {
+		return getFirst().createGroebnerSolvableScript(substitutions, polys,
+				freeVars, dependantVars, transcext);
+	}
+
+	@Override
+	public String createGroebnerInitialsScript(
+			HashMap<PVariable, BigInteger> substitutions, String polys,
+			String freeVars, String dependantVars) {
+		return getFirst().createGroebnerInitialsScript(substitutions, polys,
+				freeVars, dependantVars);
+	}
+
+	@Override
+	public synchronized void clearResult() {
+		for (Engine engine : engines) {
+			engine.cas.clearResult();
+		}
+	}
+
+	@Override
+	public boolean isLoaded() {
+		return getFirst().isLoaded();
+	}
+
+	@Override
+	public boolean externalCAS() {
+		return getFirst().externalCAS();
+	}
+}
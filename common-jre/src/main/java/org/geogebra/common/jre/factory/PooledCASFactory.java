@@ -0,0 +1,41 @@
+package org.geogebra.common.jre.factory;
+
+import org.geogebra.common.cas.CASparser;
+import org.geogebra.common.factories.CASFactory;
+import org.geogebra.common.jre.cas.giac.CASgiacPool;
+import org.geogebra.common.kernel.CASGenericInterface;
+import org.geogebra.common.kernel.Kernel;
+
+/**
+ * CAS factory that gives every kernel a pool of engines for concurrent
+ * evaluation.
+ */
+public class PooledCASFactory extends CASFactory {
+
+	private final CASFactory engineFactory;
+	private final int poolSize;
+
+	/**
+	 * @param engineFactory
+	 *            factory for single engines
+	 * @param poolSize
+	 *            maximum number of engines per kernel
+	 */
+	public PooledCASFactory(CASFactory engineFactory, int poolSize) {
+		this.engineFactory = engineFactory;
+		this.poolSize = poolSize;
+	}
+
+	@Override
+	public CASGenericInterface newGiac(CASparser parser, Kernel kernel) {
+		if (poolSize <= 1) {
+			return engineFactory.newGiac(parser, kernel);
+		}
+		return new CASgiacPool(engineFactory, parser, kernel, poolSize);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return engineFactory.isEnabled();
+	}
+}
@@ -0,0 +1,42 @@
+package org.geogebra.common.jre.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import org.geogebra.common.gui.view.spreadsheet.ColumnarDataImport;
+import org.geogebra.common.util.opencsv.CSVException;
+
+/**
+ * Reads comma or tab separated data line by line into a
+ * {@link ColumnarDataImport}, without keeping the whole text in memory.
+ */
+public class DataImportJre {
+
+	/**
+	 * Reads all lines and closes the reader.
+	 *
+	 * @param reader
+	 *            reader
+	 * @param data
+	 *            import to be filled
+	 * @throws IOException
+	 *             if reading fails
+	 * @throws CSVException
+	 *             if the data cannot be parsed
+	 */
+	public static void read(Reader reader, ColumnarDataImport data)
+			throws IOException, CSVException {
+		BufferedReader input = reader instanceof BufferedReader
+				? (BufferedReader) reader : new BufferedReader(reader);
+		try {
+			String line;
+			while ((line = input.readLine()) != null) {
+				data.addLine(line);
+			}
+			data.finish();
+		} finally {
+			input.close();
+		}
+	}
+}
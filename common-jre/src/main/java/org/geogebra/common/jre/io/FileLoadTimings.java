@@ -0,0 +1,80 @@
+package org.geogebra.common.jre.io;
+
+/**
+ * Durations of the phases of loading a ggb file, see
+ * {@link MyXMLioJre#readZipFromFile(java.io.File, boolean)}.
+ */
+public class FileLoadTimings {
+
+	private long unzip;
+	private long images;
+	private long parse;
+	private long build;
+
+	/**
+	 * @return milliseconds for reading the archive directory and the small
+	 *         entries
+	 */
+	public long getUnzip() {
+		return unzip;
+	}
+
+	/**
+	 * @return milliseconds for decoding the images
+	 */
+	public long getImages() {
+		return images;
+	}
+
+	/**
+	 * @return milliseconds for parsing the XML and creating the elements
+	 */
+	public long getParse() {
+		return parse;
+	}
+
+	/**
+	 * @return milliseconds for updating the construction after parsing
+	 */
+	public long getBuild() {
+		return build;
+	}
+
+	/**
+	 * @param ms
+	 *            time to add to the unzip phase
+	 */
+	void addUnzip(long ms) {
+		unzip += ms;
+	}
+
+	/**
+	 * @param ms
+	 *            time to add to the image phase
+	 */
+	void addImages(long ms) {
+		images += ms;
+	}
+
+	/**
+	 * @param ms
+	 *            time to add to the parse phase
+	 */
+	void addParse(long ms) {
+		parse += ms;
+	}
+
+	/**
+	 * @param ms
+	 *            time to add to the build phase
+	 */
+	void addBuild(long ms) {
+		build += ms;
+	}
+
+	@Override
+	public String toString() {
+		return "unzip: " + unzip + "ms, images: " + images + "ms, parse: "
+				+ parse + "ms, construction: " + build + "ms";
+	}
+}
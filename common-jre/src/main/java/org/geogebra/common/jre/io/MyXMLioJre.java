@@ -18,7 +18,9 @@ the Free Software Foundation.
 
 package org.geogebra.common.jre.io;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -31,6 +33,7 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.TreeSet;
 import java.util.zip.ZipEntry;
@@ -43,7 +46,9 @@ import org.geogebra.common.io.QDParser;
 import org.geogebra.common.io.file.ByteArrayZipFile;
 import org.geogebra.common.io.file.ZipFile;
 import org.geogebra.common.jre.gui.MyImageJre;
+import org.geogebra.common.jre.headless.AppDI;
 import org.geogebra.common.jre.io.file.InputStreamZipFile;
+import org.geogebra.common.jre.util.StreamUtil;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.Macro;
@@ -52,6 +57,7 @@ import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.util.Charsets;
 import org.geogebra.common.util.StringUtil;
+import org.geogebra.common.util.TaskExecutor;
 import org.geogebra.common.util.debug.Log;
 
 /**
@@ -64,6 +70,9 @@ public abstract class MyXMLioJre extends MyXMLio {
 	// private static XMLReaderFactory factory;
 
 	private QDParser xmlParser;
+	/** timings of the file that is being loaded */
+	private FileLoadTimings timings;
+	private FileLoadTimings lastTimings;
 
 	/**
 	 * @param kernel
@@ -100,6 +109,244 @@ public abstract class MyXMLioJre extends MyXMLio {
 
 	}
 
+	/**
+	 * Reads a ggb or ggt file. Unlike
+	 * {@link #readZipFromInputStream(InputStream, boolean)}, the entries are
+	 * read from the archive directly: the images are decoded in parallel if
+	 * the kernel has a task executor, and the XML files are parsed while
+	 * they are inflated, without copying them to memory first.
+	 * 
+	 * @param file
+	 *            ggb or ggt file
+	 * @param isGGTfile
+	 *            true for ggt files
+	 * @throws Exception
+	 *             when file is not accessible / is not valid ggb
+	 */
+	public final void readZipFromFile(File file, boolean isGGTfile)
+			throws Exception {
+		java.util.zip.ZipFile zip = new java.util.zip.ZipFile(file);
+		timings = new FileLoadTimings();
+		try {
+			readZip(zip, isGGTfile);
+		} finally {
+			zip.close();
+			Log.debug("Loaded " + file.getName() + ": " + timings);
+			lastTimings = timings;
+			timings = null;
+		}
+	}
+
+	/**
+	 * @return durations of the phases of the last
+	 *         {@link #readZipFromFile(File, boolean)}; null if no file was
+	 *         loaded
+	 */
+	public FileLoadTimings getLastLoadTimings() {
+		return lastTimings;
+	}
+
+	private void readZip(java.util.zip.ZipFile zip, boolean isGGTfile)
+			throws Exception {
+		long start = System.currentTimeMillis();
+		ZipEntry xmlEntry = null;
+		ZipEntry macroXmlEntry = null;
+		ZipEntry defaults2dXmlEntry = null;
+		ZipEntry defaults3dXmlEntry = null;
+		boolean javaScriptFound = false;
+		boolean structureFound = false;
+		ArrayList<ImageEntry> images = new ArrayList<>();
+
+		Enumeration<? extends ZipEntry> entries = zip.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			String name = entry.getName();
+			if (name.equals("structure.json")) {
+				structureFound = true;
+			} else if (name.equals(XML_FILE)) {
+				xmlEntry = entry;
+			} else if (name.equals(XML_FILE_DEFAULTS_2D)) {
+				defaults2dXmlEntry = entry;
+			} else if (app.is3D() && name.equals(XML_FILE_DEFAULTS_3D)) {
+				defaults3dXmlEntry = entry;
+			} else if (name.equals(XML_FILE_MACRO)) {
+				macroXmlEntry = entry;
+			} else if (name.equals(JAVASCRIPT_FILE)) {
+				kernel.setLibraryJavaScript(readString(zip, entry));
+				javaScriptFound = true;
+			} else if ("".equals(name)) {
+				Log.warn("image in zip file with empty name");
+			} else if (!entry.isDirectory()) {
+				images.add(new ImageEntry(zip, entry));
+			}
+		}
+		if (xmlEntry != null || macroXmlEntry != null
+				|| defaults2dXmlEntry != null || defaults3dXmlEntry != null) {
+			handler = getGGBHandler();
+		}
+		timings.addUnzip(System.currentTimeMillis() - start);
+
+		// images are needed before the XML is processed
+		start = System.currentTimeMillis();
+		decodeImages(images);
+		timings.addImages(System.currentTimeMillis() - start);
+
+		if (!isGGTfile) {
+			// ggb file: remove all macros from kernel before processing
+			kernel.removeAllMacros();
+		}
+
+		// process macros
+		if (macroXmlEntry != null) {
+			// don't clear kernel for macro files
+			kernel.getConstruction().setFileLoading(true);
+			processXMLEntry(zip, macroXmlEntry, !isGGTfile, isGGTfile);
+			kernel.getConstruction().setFileLoading(false);
+		}
+
+		// process construction
+		if (!isGGTfile && xmlEntry != null) {
+			kernel.getConstruction().setFileLoading(true);
+			app.getCompanion().resetEuclidianViewForPlaneIds();
+			processXMLEntry(zip, xmlEntry, macroXmlEntry == null, isGGTfile);
+			kernel.getConstruction().setFileLoading(false);
+		}
+
+		// process defaults (after construction for labeling styles)
+		if (defaults2dXmlEntry != null) {
+			kernel.getConstruction().setFileLoading(true);
+			processXMLEntry(zip, defaults2dXmlEntry, false, true);
+			kernel.getConstruction().setFileLoading(false);
+		}
+		if (defaults3dXmlEntry != null) {
+			kernel.getConstruction().setFileLoading(true);
+			processXMLEntry(zip, defaults3dXmlEntry, false, true);
+			kernel.getConstruction().setFileLoading(false);
+		}
+
+		if (!javaScriptFound && !isGGTfile) {
+			kernel.resetLibraryJavaScript();
+		}
+		if (!(macroXmlEntry != null || xmlEntry != null || structureFound)) {
+			throw new Exception("No XML data found in file.");
+		}
+	}
+
+	private static String readString(java.util.zip.ZipFile zip,
+			ZipEntry entry) throws IOException {
+		Reader reader = new InputStreamReader(zip.getInputStream(entry),
+				Charsets.getUtf8());
+		try {
+			StringBuilder sb = new StringBuilder();
+			char[] buffer = new char[4096];
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				sb.append(buffer, 0, read);
+			}
+			return sb.toString();
+		} finally {
+			reader.close();
+		}
+	}
+
+	private void decodeImages(ArrayList<ImageEntry> images) {
+		TaskExecutor executor = kernel.getTaskExecutor();
+		ArrayList<ImageEntry> concurrent = new ArrayList<>();
+		for (ImageEntry image : images) {
+			if (executor != null
+					&& canReadImageConcurrently(image.entry.getName())) {
+				concurrent.add(image);
+			} else {
+				image.run();
+			}
+		}
+		if (concurrent.size() > 1) {
+			executor.invokeAll(concurrent);
+		} else if (concurrent.size() == 1) {
+			concurrent.get(0).run();
+		}
+		// the app is not thread safe
+		for (ImageEntry image : images) {
+			if (image.image != null && app instanceof AppDI) {
+				((AppDI) app).addExternalImage(image.entry.getName(),
+						image.image);
+			}
+		}
+	}
+
+	private void processXMLEntry(java.util.zip.ZipFile zip, ZipEntry entry,
+			boolean clearConstruction, boolean isGGTOrDefaults)
+			throws Exception {
+		long start = System.currentTimeMillis();
+		long parseStart = timings.getParse();
+		InputStream is = zip.getInputStream(entry);
+		try {
+			doParseXML(new XMLStreamInputStream(is), clearConstruction,
+					isGGTOrDefaults, true, true, true);
+		} finally {
+			StreamUtil.closeSilent(is);
+		}
+		long parse = timings.getParse() - parseStart;
+		timings.addBuild(System.currentTimeMillis() - start - parse);
+	}
+
+	/**
+	 * Decodes an image of a ggb file. Called from worker threads when the
+	 * kernel has a task executor (see
+	 * {@link #canReadImageConcurrently(String)}), so it must not change the
+	 * app.
+	 * 
+	 * @param name
+	 *            name of the zip entry
+	 * @param is
+	 *            image data
+	 * @return image; null if images are not supported
+	 * @throws IOException
+	 *             on read error
+	 */
+	protected MyImageJre readImage(String name, InputStream is)
+			throws IOException {
+		return null;
+	}
+
+	/**
+	 * @param name
+	 *            name of the zip entry
+	 * @return whether {@link #readImage(String, InputStream)} may decode this
+	 *         image concurrently with other images
+	 */
+	protected boolean canReadImageConcurrently(String name) {
+		return true;
+	}
+
+	/**
+	 * Image entry of a zip file, decoded by {@link #run()}.
+	 */
+	private class ImageEntry implements Runnable {
+		protected final java.util.zip.ZipFile zip;
+		protected final ZipEntry entry;
+		protected MyImageJre image;
+
+		protected ImageEntry(java.util.zip.ZipFile zip, ZipEntry entry) {
+			this.zip = zip;
+			this.entry = entry;
+		}
+
+		@Override
+		public void run() {
+			InputStream is = null;
+			try {
+				is = new BufferedInputStream(zip.getInputStream(entry));
+				image = readImage(entry.getName(), is);
+			} catch (IOException e) {
+				Log.debug("readZipFromFile: image could not be loaded: "
+						+ entry.getName());
+			} finally {
+				StreamUtil.closeSilent(is);
+			}
+		}
+	}
+
 	@Override
 	public void readZipFromString(ZipFile zipFile) throws Exception {
 		if (zipFile instanceof ByteArrayZipFile) {
@@ -572,9 +819,13 @@ public abstract class MyXMLioJre extends MyXMLio {
 	@Override
 	final protected void parseXML(MyXMLHandler xmlHandler, XMLStream stream)
 			throws Exception {
+		long start = System.currentTimeMillis();
 		XMLStreamJre streamJre = (XMLStreamJre) stream;
 		xmlParser.parse(xmlHandler, streamJre.getReader());
 		streamJre.closeReader();
+		if (timings != null) {
+			timings.addParse(System.currentTimeMillis() - start);
+		}
 
 	}
 
@@ -635,7 +886,7 @@ public abstract class MyXMLioJre extends MyXMLio {
 	protected static class XMLStreamInputStream implements XMLStreamJre {
 
 		private InputStream is;
-		private InputStreamReader reader;
+		private Reader reader;
 
 		/**
 		 * @param is
@@ -647,7 +898,9 @@ public abstract class MyXMLioJre extends MyXMLio {
 
 		@Override
 		public Reader getReader() throws Exception {
-			reader = new InputStreamReader(is, Charsets.getUtf8());
+			// the parser reads single characters
+			reader = new BufferedReader(
+					new InputStreamReader(is, Charsets.getUtf8()));
 			return reader;
 		}
 
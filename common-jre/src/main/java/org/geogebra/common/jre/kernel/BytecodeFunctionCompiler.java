@@ -0,0 +1,302 @@
+package org.geogebra.common.jre.kernel;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.geogebra.common.kernel.arithmetic.CompiledExpression;
+import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.arithmetic.ExpressionValue;
+import org.geogebra.common.kernel.arithmetic.FunctionCompiler;
+import org.geogebra.common.kernel.arithmetic.FunctionVariable;
+import org.geogebra.common.kernel.arithmetic.MyDouble;
+import org.geogebra.common.plugin.Operation;
+import org.geogebra.common.util.debug.Log;
+import org.mozilla.classfile.ByteCode;
+import org.mozilla.classfile.ClassFileWriter;
+
+/**
+ * Compiles function expressions to JVM bytecode. Enable with
+ * kernel.setFunctionCompiler(new BytecodeFunctionCompiler()).
+ *
+ * The operations that {@link ExpressionNode#evaluateDouble()} evaluates
+ * directly (+, -, *, /, ^, sin, cos, sqrt) become arithmetic instructions and
+ * calls to java.lang.Math; products that are not a number and powers of
+ * negative numbers fall back to the tree walker as there. Numbers and
+ * GeoElements (e.g. sliders) are read from an array field on every call, so
+ * the compiled class stays valid when their values change. Other subtrees are
+ * evaluated by the tree walker.
+ *
+ * All classes of one compiler are defined by the same class loader, so they
+ * can be unloaded together with the compiler of a kernel.
+ */
+public class BytecodeFunctionCompiler implements FunctionCompiler {
+
+	private static final String PACKAGE = "org.geogebra.common.jre.kernel.";
+	private static final String ARITHMETIC = "org/geogebra/common/kernel/arithmetic/";
+	private static final String EXPRESSION_VALUE = ARITHMETIC
+			+ "ExpressionValue";
+	private static final String FUNCTION_VARIABLE = ARITHMETIC
+			+ "FunctionVariable";
+	/** class with static methods called by compiled expressions */
+	private static final String HELPERS = BytecodeFunctionCompiler.class
+			.getName().replace('.', '/');
+	private static final String REFS_TYPE = "[L" + EXPRESSION_VALUE + ";";
+	private static final String VARS_TYPE = "[L" + FUNCTION_VARIABLE + ";";
+	/** ACC_VARARGS, same bit as ACC_TRANSIENT */
+	private static final short ACC_VARARGS = 0x0080;
+
+	private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+	private final Loader loader = new Loader();
+
+	@Override
+	public CompiledExpression compile(ExpressionNode expression,
+			FunctionVariable[] vars) {
+		try {
+			Generator generator = new Generator(vars);
+			byte[] bytes = generator.generate(expression);
+			Class<?> cls = loader.define(generator.className, bytes);
+			return (CompiledExpression) cls
+					.getConstructor(ExpressionValue[].class,
+							FunctionVariable[].class)
+					.newInstance(generator.getRefs(), vars);
+		} catch (Exception e) {
+			Log.debug("Function not compiled: " + e.getMessage());
+			return null;
+		} catch (LinkageError e) {
+			Log.debug("Function not compiled: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Power with an exponent a/b, called by compiled expressions.
+	 *
+	 * @param base
+	 *            base
+	 * @param exponent
+	 *            value of the exponent
+	 * @param power
+	 *            power expression, variables already set
+	 * @return base^exponent, for negative base as evaluated by the tree walker
+	 */
+	public static double powerFraction(double base, double exponent,
+			ExpressionValue power) {
+		return base < 0 ? power.evaluateDouble() : Math.pow(base, exponent);
+	}
+
+	/**
+	 * Product check, called by compiled expressions.
+	 *
+	 * @param product
+	 *            product of the factors
+	 * @param node
+	 *            product expression, variables already set
+	 * @return product, or the value from the tree walker if it is not a
+	 *         number (e.g. for vectors)
+	 */
+	public static double checkProduct(double product, ExpressionValue node) {
+		return Double.isNaN(product) ? node.evaluateDouble() : product;
+	}
+
+	/**
+	 * Class loader for the generated classes of one compiler.
+	 */
+	private static class Loader extends ClassLoader {
+		protected Loader() {
+			super(BytecodeFunctionCompiler.class.getClassLoader());
+		}
+
+		protected Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+	/**
+	 * Writes the class for one expression.
+	 */
+	private static class Generator {
+		protected final String className = PACKAGE + "CompiledFunction"
+				+ CLASS_COUNTER.incrementAndGet();
+		private final FunctionVariable[] vars;
+		private final ArrayList<ExpressionValue> refs = new ArrayList<>();
+		private ClassFileWriter cfw;
+
+		protected Generator(FunctionVariable[] vars) {
+			this.vars = vars;
+		}
+
+		protected ExpressionValue[] getRefs() {
+			return refs.toArray(new ExpressionValue[refs.size()]);
+		}
+
+		protected byte[] generate(ExpressionNode expression) {
+			cfw = new ClassFileWriter(className, "java.lang.Object", null);
+			cfw.addInterface(ARITHMETIC + "CompiledExpression");
+			short fieldFlags = (short) (ClassFileWriter.ACC_PRIVATE
+					| ClassFileWriter.ACC_FINAL);
+			cfw.addField("refs", REFS_TYPE, fieldFlags);
+			cfw.addField("vars", VARS_TYPE, fieldFlags);
+			writeConstructor();
+
+			cfw.startMethod("applyAsDouble", "([D)D",
+					(short) (ClassFileWriter.ACC_PUBLIC | ACC_VARARGS));
+			// set the variables like the tree walker: needed by subtrees
+			// that are not compiled
+			for (int i = 0; i < vars.length; i++) {
+				cfw.add(ByteCode.ALOAD_0);
+				cfw.add(ByteCode.GETFIELD, className, "vars", VARS_TYPE);
+				cfw.addPush(i);
+				cfw.add(ByteCode.AALOAD);
+				cfw.addALoad(1);
+				cfw.addPush(i);
+				cfw.add(ByteCode.DALOAD);
+				cfw.addInvoke(ByteCode.INVOKEVIRTUAL, FUNCTION_VARIABLE, "set",
+						"(D)V");
+			}
+			emit(expression);
+			cfw.add(ByteCode.DRETURN);
+			cfw.stopMethod((short) 2);
+			return cfw.toByteArray();
+		}
+
+		private void writeConstructor() {
+			cfw.startMethod("<init>", "(" + REFS_TYPE + VARS_TYPE + ")V",
+					ClassFileWriter.ACC_PUBLIC);
+			cfw.add(ByteCode.ALOAD_0);
+			cfw.addInvoke(ByteCode.INVOKESPECIAL, "java/lang/Object", "<init>",
+					"()V");
+			cfw.add(ByteCode.ALOAD_0);
+			cfw.addALoad(1);
+			cfw.add(ByteCode.PUTFIELD, className, "refs", REFS_TYPE);
+			cfw.add(ByteCode.ALOAD_0);
+			cfw.addALoad(2);
+			cfw.add(ByteCode.PUTFIELD, className, "vars", VARS_TYPE);
+			cfw.add(ByteCode.RETURN);
+			cfw.stopMethod((short) 3);
+		}
+
+		private void emit(ExpressionValue ev) {
+			if (ev instanceof ExpressionNode && ((ExpressionNode) ev).isLeaf()) {
+				emit(((ExpressionNode) ev).getLeft());
+				return;
+			}
+			int varIndex = indexOf(ev);
+			if (varIndex >= 0) {
+				cfw.addALoad(1);
+				cfw.addPush(varIndex);
+				cfw.add(ByteCode.DALOAD);
+			} else if (ev instanceof MyDouble || ev.isGeoElement()) {
+				// read on every call: sliders may change
+				emitEvaluate(ev);
+			} else if (ev instanceof ExpressionNode) {
+				emitNode((ExpressionNode) ev);
+			} else {
+				emitTree(ev);
+			}
+		}
+
+		private void emitNode(ExpressionNode node) {
+			ExpressionValue left = node.getLeft();
+			ExpressionValue right = node.getRight();
+			switch (node.getOperation()) {
+			case PLUS:
+				emitBinary(left, right, ByteCode.DADD);
+				break;
+			case MINUS:
+				emitBinary(left, right, ByteCode.DSUB);
+				break;
+			case MULTIPLY:
+				emitBinary(left, right, ByteCode.DMUL);
+				// same fallback as ExpressionNode.evaluateMultiplyDouble
+				emitRef(node);
+				emitHelper("checkProduct", "(DL" + EXPRESSION_VALUE + ";)D");
+				break;
+			case DIVIDE:
+				emitBinary(left, right, ByteCode.DDIV);
+				break;
+			case SIN:
+				emitMath(left, "sin");
+				break;
+			case COS:
+				emitMath(left, "cos");
+				break;
+			case SQRT:
+				emitMath(left, "sqrt");
+				break;
+			case POWER:
+				emitPower(node);
+				break;
+			default:
+				emitTree(node);
+				break;
+			}
+		}
+
+		private void emitBinary(ExpressionValue left, ExpressionValue right,
+				int opcode) {
+			emit(left);
+			emit(right);
+			cfw.add(opcode);
+		}
+
+		private void emitMath(ExpressionValue arg, String method) {
+			emit(arg);
+			cfw.addInvoke(ByteCode.INVOKESTATIC, "java/lang/Math", method,
+					"(D)D");
+		}
+
+		/**
+		 * Same cases as ExpressionNode.evaluatePowerDouble
+		 */
+		private void emitPower(ExpressionNode node) {
+			ExpressionValue right = node.getRight();
+			if (!node.getLeft().evaluatesToNumber(false)) {
+				emitTree(node);
+				return;
+			}
+			emit(node.getLeft());
+			emit(right);
+			if (right instanceof ExpressionNode && ((ExpressionNode) right)
+					.getOperation() == Operation.DIVIDE) {
+				emitRef(node);
+				emitHelper("powerFraction", "(DDL" + EXPRESSION_VALUE + ";)D");
+			} else {
+				cfw.addInvoke(ByteCode.INVOKESTATIC, "java/lang/Math", "pow",
+						"(DD)D");
+			}
+		}
+
+		private void emitHelper(String method, String descriptor) {
+			cfw.addInvoke(ByteCode.INVOKESTATIC, HELPERS, method, descriptor);
+		}
+
+		private void emitTree(ExpressionValue ev) {
+			// variables are already set
+			emitEvaluate(ev);
+		}
+
+		private void emitEvaluate(ExpressionValue ev) {
+			emitRef(ev);
+			cfw.addInvoke(ByteCode.INVOKEINTERFACE, EXPRESSION_VALUE,
+					"evaluateDouble", "()D");
+		}
+
+		private void emitRef(ExpressionValue ev) {
+			refs.add(ev);
+			cfw.add(ByteCode.ALOAD_0);
+			cfw.add(ByteCode.GETFIELD, className, "refs", REFS_TYPE);
+			cfw.addPush(refs.size() - 1);
+			cfw.add(ByteCode.AALOAD);
+		}
+
+		private int indexOf(ExpressionValue ev) {
+			for (int i = 0; i < vars.length; i++) {
+				if (vars[i] == ev) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+}
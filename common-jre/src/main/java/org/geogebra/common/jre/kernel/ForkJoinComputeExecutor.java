@@ -0,0 +1,74 @@
+package org.geogebra.common.jre.kernel;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.geogebra.common.kernel.algos.AlgoElement;
+import org.geogebra.common.kernel.algos.ParallelComputeExecutor;
+
+/**
+ * Computes independent algorithms on a fork/join pool. Enable with
+ * kernel.setParallelComputeExecutor(new ForkJoinComputeExecutor()).
+ */
+public class ForkJoinComputeExecutor implements ParallelComputeExecutor {
+
+	/** number of algos computed by one task without further splitting */
+	private static final int BATCH_SIZE = 4;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Uses a pool with one thread per available processor.
+	 */
+	public ForkJoinComputeExecutor() {
+		this(new ForkJoinPool());
+	}
+
+	/**
+	 * @param pool
+	 *            pool for compute() calls
+	 */
+	public ForkJoinComputeExecutor(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void computeAll(List<AlgoElement> algos) {
+		pool.invoke(new ComputeTask(algos, 0, algos.size()));
+	}
+
+	/**
+	 * Stops the worker threads.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	private static class ComputeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final List<AlgoElement> algos;
+		private final int from;
+		private final int to;
+
+		protected ComputeTask(List<AlgoElement> algos, int from, int to) {
+			this.algos = algos;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= BATCH_SIZE) {
+				for (int i = from; i < to; i++) {
+					algos.get(i).compute();
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new ComputeTask(algos, from, middle),
+					new ComputeTask(algos, middle, to));
+		}
+	}
+}
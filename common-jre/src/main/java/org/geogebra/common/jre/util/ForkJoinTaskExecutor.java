@@ -0,0 +1,91 @@
+package org.geogebra.common.jre.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.geogebra.common.util.TaskExecutor;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Task executor backed by a fork/join pool. Enable with
+ * kernel.setTaskExecutor(new ForkJoinTaskExecutor()).
+ */
+public class ForkJoinTaskExecutor implements TaskExecutor {
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Uses a pool with one thread per available processor.
+	 */
+	public ForkJoinTaskExecutor() {
+		this(new ForkJoinPool());
+	}
+
+	/**
+	 * @param parallelism
+	 *            number of worker threads
+	 */
+	public ForkJoinTaskExecutor(int parallelism) {
+		this(new ForkJoinPool(parallelism));
+	}
+
+	/**
+	 * @param pool
+	 *            pool for the tasks
+	 */
+	public ForkJoinTaskExecutor(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void execute(final Runnable task) {
+		pool.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					task.run();
+				} catch (RuntimeException e) {
+					Log.error("Background task failed: " + e.getMessage());
+				}
+			}
+		});
+	}
+
+	@Override
+	public void invokeAll(List<? extends Runnable> tasks) {
+		final List<ForkJoinTask<?>> forkJoinTasks = new ArrayList<>(
+				tasks.size());
+		for (Runnable task : tasks) {
+			forkJoinTasks.add(ForkJoinTask.adapt(task));
+		}
+		if (ForkJoinTask.inForkJoinPool()) {
+			ForkJoinTask.invokeAll(forkJoinTasks);
+			return;
+		}
+		pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				invokeAll(forkJoinTasks);
+			}
+		});
+	}
+
+	/**
+	 * @return number of worker threads
+	 */
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Stops the worker threads.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
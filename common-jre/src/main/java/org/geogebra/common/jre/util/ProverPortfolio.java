@@ -0,0 +1,264 @@
+package org.geogebra.common.jre.util;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.geogebra.common.util.Prover;
+import org.geogebra.common.util.Prover.EngineRun;
+import org.geogebra.common.util.Prover.ProofResult;
+import org.geogebra.common.util.Prover.ProverEngine;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Runs the engines of the AUTO prover concurrently, each on its own copy of
+ * the prover (see {@link Prover#copyForEngine(ProverEngine)}). The symbolic
+ * data stored in the construction is built before the engines start (see
+ * {@link Prover#preparePolynomials()}).
+ *
+ * The first conclusive result wins, so a slow engine does not delay the
+ * answer of a faster one. If several results are available at that moment,
+ * the first of them in order of the engines wins. The remaining engines are
+ * cancelled: their prover is marked as cancelled and their thread is
+ * interrupted. Engines which exceed their timeout are cancelled the same way.
+ * The portfolio returns only after the cancelled engines have stopped.
+ */
+public class ProverPortfolio {
+
+	private static final ExecutorService EXECUTOR = Executors
+			.newCachedThreadPool(new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r,
+							"ProverPortfolio" + count.getAndIncrement());
+					t.setDaemon(true);
+					return t;
+				}
+			});
+
+	private final Prover prover;
+
+	/**
+	 * One engine working on its copy of the prover.
+	 */
+	private static class EngineTask implements Callable<Prover> {
+		private final ProverEngine engine;
+		private final Prover copy;
+		private final CountDownLatch finished;
+		private final AtomicBoolean started = new AtomicBoolean();
+
+		EngineTask(ProverEngine engine, Prover copy,
+				CountDownLatch finished) {
+			this.engine = engine;
+			this.copy = copy;
+			this.finished = finished;
+		}
+
+		@Override
+		public Prover call() {
+			if (!started.compareAndSet(false, true)) {
+				// cancelled before it started
+				return copy;
+			}
+			try {
+				copy.proveWith(engine);
+				return copy;
+			} finally {
+				finished.countDown();
+			}
+		}
+
+		void cancel(Future<Prover> future) {
+			copy.cancel();
+			if (started.compareAndSet(false, true)) {
+				finished.countDown();
+			} else {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * @param prover
+	 *            prover that gets the result
+	 */
+	public ProverPortfolio(Prover prover) {
+		this.prover = prover;
+	}
+
+	/**
+	 * Runs the engines and stores the result and NDG conditions of the winner
+	 * in the prover. The winner is the first conclusive result; among results
+	 * available at the same time the order of the engines decides. If no
+	 * result is conclusive, the last one which is not UNKNOWN wins.
+	 *
+	 * @param engines
+	 *            engines in order of preference
+	 */
+	public void run(List<ProverEngine> engines) {
+		prover.preparePolynomials();
+		int n = engines.size();
+		CompletionService<Prover> completion = new ExecutorCompletionService<>(
+				EXECUTOR);
+		CountDownLatch finished = new CountDownLatch(n);
+		EngineTask[] tasks = new EngineTask[n];
+		@SuppressWarnings("unchecked")
+		Future<Prover>[] futures = new Future[n];
+		long[] deadlines = new long[n];
+		ProofResult[] results = new ProofResult[n];
+		long start = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			ProverEngine pe = engines.get(i);
+			tasks[i] = new EngineTask(pe, prover.copyForEngine(pe), finished);
+			deadlines[i] = start
+					+ TimeUnit.SECONDS.toNanos(prover.getEngineTimeout(pe));
+			futures[i] = completion.submit(tasks[i]);
+		}
+		try {
+			while (!isDecided(results)) {
+				long now = System.nanoTime();
+				long next = Long.MAX_VALUE;
+				for (int i = 0; i < n; i++) {
+					if (results[i] == null && deadlines[i] <= now) {
+						Log.debug(engines.get(i) + " timed out");
+						cancel(tasks[i], futures[i], now - start);
+						results[i] = ProofResult.UNKNOWN;
+					} else if (results[i] == null) {
+						next = Math.min(next, deadlines[i]);
+					}
+				}
+				if (isDecided(results)) {
+					break;
+				}
+				addResult(completion.poll(next - now, TimeUnit.NANOSECONDS),
+						engines, futures, results, start);
+			}
+		} catch (InterruptedException e) {
+			// timeout of the whole prover
+			Thread.currentThread().interrupt();
+		}
+		// results which are already available take part in the choice
+		Future<Prover> done;
+		while ((done = completion.poll()) != null) {
+			addResult(done, engines, futures, results, start);
+		}
+		for (int i = 0; i < n; i++) {
+			if (results[i] == null) {
+				cancel(tasks[i], futures[i], System.nanoTime() - start);
+				results[i] = ProofResult.UNKNOWN;
+			}
+		}
+		awaitEngines(finished);
+		int winner = getWinner(results);
+		if (winner >= 0) {
+			prover.adoptResult(tasks[winner].copy);
+		}
+	}
+
+	private void addResult(Future<Prover> done, List<ProverEngine> engines,
+			Future<Prover>[] futures, ProofResult[] results, long start) {
+		int i = indexOf(futures, done);
+		if (i < 0 || results[i] != null) {
+			return;
+		}
+		results[i] = getResult(done);
+		prover.addEngineRun(new EngineRun(engines.get(i), results[i],
+				millis(System.nanoTime() - start), true));
+	}
+
+	/**
+	 * @param results
+	 *            results of the engines so far (null if still running)
+	 * @return whether some result is conclusive or all engines are done
+	 */
+	private static boolean isDecided(ProofResult[] results) {
+		boolean done = true;
+		for (ProofResult result : results) {
+			if (Prover.isConclusive(result)) {
+				return true;
+			}
+			done &= result != null;
+		}
+		return done;
+	}
+
+	/**
+	 * @param results
+	 *            results of all engines, UNKNOWN for cancelled ones
+	 * @return index of the first conclusive result, otherwise of the last
+	 *         result which is not UNKNOWN; -1 if all results are UNKNOWN
+	 */
+	private static int getWinner(ProofResult[] results) {
+		int winner = -1;
+		for (int i = 0; i < results.length; i++) {
+			if (Prover.isConclusive(results[i])) {
+				return i;
+			}
+			if (results[i] != ProofResult.UNKNOWN) {
+				winner = i;
+			}
+		}
+		return winner;
+	}
+
+	/**
+	 * Waits until the cancelled engines stop using the construction, at most
+	 * for the timeout of the prover.
+	 *
+	 * @param finished
+	 *            counts the engines which have stopped
+	 */
+	private void awaitEngines(CountDownLatch finished) {
+		try {
+			if (!finished.await(prover.getTimeout(), TimeUnit.SECONDS)) {
+				Log.debug("Cancelled prover engines are still running");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void cancel(EngineTask task, Future<Prover> future,
+			long elapsed) {
+		task.cancel(future);
+		prover.addEngineRun(new EngineRun(task.engine, ProofResult.UNKNOWN,
+				millis(elapsed), false));
+	}
+
+	private static ProofResult getResult(Future<Prover> future) {
+		try {
+			ProofResult result = future.get().getProofResult();
+			return result == null ? ProofResult.UNKNOWN : result;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			Log.debug("Prover engine failed: " + e.getCause());
+		}
+		return ProofResult.UNKNOWN;
+	}
+
+	private static int indexOf(Future<Prover>[] futures, Future<Prover> f) {
+		for (int i = 0; i < futures.length; i++) {
+			if (futures[i] == f) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1E6;
+	}
+}
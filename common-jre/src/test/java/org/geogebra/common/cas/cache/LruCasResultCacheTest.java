@@ -0,0 +1,75 @@
+package org.geogebra.common.cas.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.kernel.Kernel;
+import org.junit.Test;
+
+public class LruCasResultCacheTest {
+
+	@Test
+	public void leastRecentlyUsedIsEvicted() {
+		LruCasResultCache cache = new LruCasResultCache(2, 1024);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.get("a");
+		cache.put("c", "3");
+		assertThat(cache.get("a"), is("1"));
+		assertThat(cache.get("b"), nullValue());
+		assertThat(cache.get("c"), is("3"));
+	}
+
+	@Test
+	public void byteLimitIsRespected() {
+		LruCasResultCache cache = new LruCasResultCache(100, 100);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		assertThat(cache.size(), is(1));
+		assertThat(cache.get("b"), is("2"));
+		assertThat(cache.getByteSize() <= 100, is(true));
+	}
+
+	@Test
+	public void secondTierHitIsPromoted() {
+		LruCasResultCache first = new LruCasResultCache(10, 1024);
+		LruCasResultCache second = new LruCasResultCache(10, 1024);
+		TieredCasResultCache cache = new TieredCasResultCache(first, second);
+		second.put("a", "1");
+		assertThat(cache.get("a"), is("1"));
+		assertThat(first.get("a"), is("1"));
+		cache.clear();
+		assertThat(second.get("a"), nullValue());
+	}
+
+	@Test
+	public void assumptionsArePartOfKey() throws Throwable {
+		Kernel kernel = AppCommonFactory.create().getKernel();
+		String key = kernel.getCasCacheKey("Integral(1/a, 1, 2)");
+		kernel.evaluateRawGeoGebraCAS("assume(a>0)");
+		assertThat(kernel.getCasCacheKey("Integral(1/a, 1, 2)").equals(key),
+				is(false));
+		kernel.clearConstruction(true);
+		assertThat(kernel.getCasCacheKey("Integral(1/a, 1, 2)"), is(key));
+	}
+
+	@Test
+	public void repeatedAssumptionKeepsKey() throws Throwable {
+		Kernel kernel = AppCommonFactory.create().getKernel();
+		kernel.evaluateRawGeoGebraCAS("assume(a>0)");
+		String key = kernel.getCasCacheKey("Integral(1/a, 1, 2)");
+		kernel.evaluateRawGeoGebraCAS("assume(a>0)");
+		assertThat(kernel.getCasCacheKey("Integral(1/a, 1, 2)"), is(key));
+	}
+
+	@Test
+	public void onlyAssumptionCommandsArePartOfKey() throws Throwable {
+		Kernel kernel = AppCommonFactory.create().getKernel();
+		String key = kernel.getCasCacheKey("Integral(1/a, 1, 2)");
+		kernel.evaluateRawGeoGebraCAS("assumed:=1");
+		kernel.evaluateRawGeoGebraCAS("\"assume(b>0)\"");
+		assertThat(kernel.getCasCacheKey("Integral(1/a, 1, 2)"), is(key));
+	}
+}
@@ -0,0 +1,181 @@
+package org.geogebra.common.euclidian;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.awt.GBufferedImage;
+import org.geogebra.common.awt.GBufferedImageCommon;
+import org.geogebra.common.awt.GGraphics2D;
+import org.geogebra.common.awt.GGraphicsCommon;
+import org.geogebra.common.factories.AwtFactoryCommon;
+import org.geogebra.common.jre.headless.EuclidianViewNoGui;
+import org.geogebra.common.jre.headless.LocalizationCommon;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.kernel.geos.GeoSegment;
+import org.geogebra.common.main.AppCommon3D;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DrawableLayerTest {
+	private AppCommon3D app;
+	private EuclidianView view;
+	/** x, y, width, height of cleared areas */
+	private final ArrayList<int[]> cleared = new ArrayList<>();
+
+	@Before
+	public void setupApp() {
+		app = new AppCommon3D(new LocalizationCommon(3),
+				new AwtFactoryCommon());
+		view = new EuclidianViewNoGui(
+				app.getEuclidianView1().getEuclidianController(), 1,
+				app.getSettings().getEuclidian(1), new GGraphicsCommon()) {
+			@Override
+			protected GBufferedImage newDrawableLayerImage(final int width,
+					final int height) {
+				return new GBufferedImageCommon() {
+					@Override
+					public int getWidth() {
+						return width;
+					}
+
+					@Override
+					public int getHeight() {
+						return height;
+					}
+				};
+			}
+
+			@Override
+			protected void clearDrawableLayer(GGraphics2D g, int x, int y,
+					int width, int height) {
+				cleared.add(new int[] { x, y, width, height });
+			}
+		};
+		view.setDrawableLayerCached(true);
+	}
+
+	private GeoPoint point(String label, double x, double y) {
+		Construction cons = app.getKernel().getConstruction();
+		GeoPoint pt = new GeoPoint(cons, x, y, 1);
+		pt.setLabel(label);
+		return pt;
+	}
+
+	private void assertFullRedraw() {
+		assertEquals(1, cleared.size());
+		assertEquals(view.getWidth(), cleared.get(0)[2]);
+		assertEquals(view.getHeight(), cleared.get(0)[3]);
+		cleared.clear();
+	}
+
+	private void assertClearedAround(GeoPoint... points) {
+		for (GeoPoint pt : points) {
+			int x = view.toScreenCoordX(pt.getInhomX());
+			int y = view.toScreenCoordY(pt.getInhomY());
+			boolean found = false;
+			for (int[] rect : cleared) {
+				found |= rect[0] <= x && x <= rect[0] + rect[2] && rect[1] <= y
+						&& y <= rect[1] + rect[3];
+				assertTrue(rect[2] < view.getWidth() / 2);
+			}
+			assertTrue(found);
+		}
+		cleared.clear();
+	}
+
+	@Test
+	public void movedPointShouldBeRedrawnInOldAndNewArea() {
+		GeoPoint a = point("A", -1, -1);
+		point("B", 5, 4);
+		cleared.clear();
+		view.invalidateDrawableLayer();
+		view.repaint();
+		assertFullRedraw();
+
+		GeoPoint old = a.copy();
+		a.setCoords(-3, 3, 1);
+		a.updateRepaint();
+		view.repaint();
+		assertClearedAround(old, a);
+
+		view.repaint();
+		assertTrue(cleared.isEmpty());
+
+		old = a.copy();
+		a.remove();
+		view.repaint();
+		assertClearedAround(old);
+	}
+
+	@Test
+	public void changedSegmentShouldBeRedrawnInItsBounds() {
+		GeoPoint a = point("A", 1, 1);
+		GeoPoint b = point("B", 2, 2);
+		GeoSegment s = app.getKernel().getAlgoDispatcher().segment("s", a, b);
+		cleared.clear();
+		view.invalidateDrawableLayer();
+		view.repaint();
+		assertFullRedraw();
+
+		s.setLineThickness(7);
+		s.updateRepaint();
+		view.repaint();
+		assertClearedAround(a, b);
+	}
+
+	@Test
+	public void polygonAndCircleShouldBeRedrawnInTheirBounds() {
+		GeoPoint a = point("A", 1, 1);
+		GeoPoint b = point("B", 2, 1);
+		GeoPoint c = point("C", 2, 2);
+		app.getKernel().getAlgoDispatcher().polygon(null,
+				new GeoPoint[] { a, b, c });
+		app.getKernel().getAlgoDispatcher().circle("k", b, c);
+		cleared.clear();
+		view.invalidateDrawableLayer();
+		view.repaint();
+		assertFullRedraw();
+
+		GeoPoint old = b.copy();
+		b.setCoords(2.5, 0.5, 1);
+		b.updateRepaint();
+		view.repaint();
+		assertClearedAround(old, b);
+	}
+
+	@Test
+	public void selectionShouldRedrawOnlyTheSelectedElement() {
+		GeoPoint a = point("A", 1, 1);
+		point("B", -5, -4);
+		cleared.clear();
+		view.invalidateDrawableLayer();
+		view.repaint();
+		assertFullRedraw();
+
+		a.setSelected(true);
+		view.repaint();
+		assertClearedAround(a);
+		a.setSelected(false);
+		view.repaint();
+		assertClearedAround(a);
+		view.repaint();
+		assertTrue(cleared.isEmpty());
+	}
+
+	@Test
+	public void updatingAllDrawablesShouldCauseFullRedraw() {
+		point("A", 1, 1);
+		cleared.clear();
+		view.invalidateDrawableLayer();
+		view.repaint();
+		assertFullRedraw();
+
+		view.repaint();
+		assertTrue(cleared.isEmpty());
+		view.updateAllDrawables(true);
+		assertFullRedraw();
+	}
+}
@@ -0,0 +1,80 @@
+package org.geogebra.common.euclidian;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.awt.GPoint;
+import org.geogebra.common.euclidian.event.PointerEventType;
+import org.geogebra.common.factories.AwtFactoryCommon;
+import org.geogebra.common.jre.headless.LocalizationCommon;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.main.AppCommon3D;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HitDetectorTest {
+	private AppCommon3D app;
+	private EuclidianView view;
+
+	@Before
+	public void setupApp() {
+		app = new AppCommon3D(new LocalizationCommon(3),
+				new AwtFactoryCommon());
+		view = app.getEuclidianView1();
+	}
+
+	private GeoPoint point(String label, double x, double y) {
+		Construction cons = app.getKernel().getConstruction();
+		GeoPoint pt = new GeoPoint(cons, x, y, 1);
+		pt.setLabel(label);
+		return pt;
+	}
+
+	private GPoint screen(GeoPoint pt) {
+		return new GPoint(view.toScreenCoordX(pt.getInhomX()),
+				view.toScreenCoordY(pt.getInhomY()));
+	}
+
+	private void assertHits(GPoint p, GeoPoint... expected) {
+		HitDetector detector = view.getHitDetector();
+		detector.setHits(p, PointerEventType.MOUSE);
+		assertEquals(expected.length, detector.getHits().size());
+		for (GeoPoint pt : expected) {
+			assertTrue(detector.getHits().contains(pt));
+		}
+	}
+
+	@Test
+	public void pointsShouldBeHitNearPointer() {
+		GeoPoint[][] points = new GeoPoint[10][10];
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 10; j++) {
+				points[i][j] = point("P_{" + i + "," + j + "}", 2 * i - 9,
+						2 * j - 9);
+			}
+		}
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 10; j++) {
+				assertHits(screen(points[i][j]), points[i][j]);
+			}
+		}
+		GPoint p = screen(points[3][4]);
+		p.x += 5;
+		assertHits(p, points[3][4]);
+	}
+
+	@Test
+	public void movedPointShouldBeHitAtNewPosition() {
+		GeoPoint a = point("A", -5, -5);
+		GeoPoint b = point("B", 5, 5);
+		GPoint old = screen(a);
+		assertHits(old, a);
+		a.setCoords(5, 5, 1);
+		a.updateRepaint();
+		assertHits(old);
+		assertHits(screen(a), a, b);
+		a.remove();
+		assertHits(screen(b), b);
+	}
+}
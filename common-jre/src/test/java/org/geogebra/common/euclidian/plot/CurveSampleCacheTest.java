@@ -0,0 +1,153 @@
+package org.geogebra.common.euclidian.plot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.euclidian.EuclidianView;
+import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.arithmetic.Function;
+import org.geogebra.common.kernel.arithmetic.FunctionVariable;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.kernelND.CurveEvaluable;
+import org.geogebra.common.plugin.Operation;
+import org.junit.Test;
+
+public class CurveSampleCacheTest extends BaseUnitTest {
+
+	@Test
+	public void panShouldReuseSamples() {
+		CountingCurve counting = new CountingCurve(sine());
+		CurveSampleCache cache = new CurveSampleCache(counting);
+		EuclidianView view = getApp().getActiveEuclidianView();
+
+		CurvePlotter.plotCurve(cache, -5, 5, view,
+				new GeneralPathClippedForCurvePlotter(view), false,
+				CurvePlotter.Gap.MOVE_TO);
+		int first = counting.evaluations;
+		counting.evaluations = 0;
+		CurvePlotter.plotCurve(cache, -4.3, 5.7, view,
+				new GeneralPathClippedForCurvePlotter(view), false,
+				CurvePlotter.Gap.MOVE_TO);
+		assertTrue(counting.evaluations * 3 < first);
+	}
+
+	@Test
+	public void cachedSamplesShouldMatchCurve() {
+		GeoFunction sine = sine();
+		CurveSampleCache cache = new CurveSampleCache(sine);
+		double[] out = new double[2];
+		double[] expected = new double[2];
+		for (int i = 0; i < 2; i++) {
+			for (double t = -3; t < 3; t += 0.125) {
+				cache.evaluateCurve(t, out);
+				sine.evaluateCurve(t, expected);
+				assertEquals(expected[0], out[0], 0);
+				assertEquals(expected[1], out[1], 0);
+			}
+		}
+		assertEquals(48, cache.size());
+	}
+
+	@Test
+	public void updateShouldInvalidateCache() {
+		GeoFunction sine = sine();
+		CurveSampleCache cache = new CurveSampleCache(sine);
+		assertTrue(cache.isCacheFor(sine));
+		assertFalse(cache.isCacheFor(sine()));
+		sine.update();
+		assertFalse(cache.isCacheFor(sine));
+	}
+
+	@Test
+	public void recycledListElementShouldInvalidateCache() {
+		GeoList list = new GeoList(getConstruction());
+		list.add(sine());
+		GeoList other = new GeoList(getConstruction());
+		other.add(sine());
+		// copying the elements reuses the cached function via set()
+		list.set(other);
+		GeoFunction element = (GeoFunction) list.get(0);
+		CurveSampleCache cache = new CurveSampleCache(element);
+		double[] out = new double[2];
+		cache.evaluateCurve(1, out);
+		assertEquals(Math.sin(1), out[1], 0);
+
+		FunctionVariable x = new FunctionVariable(getKernel(), "x");
+		GeoList changed = new GeoList(getConstruction());
+		changed.add(new GeoFunction(getConstruction(), new Function(
+				new ExpressionNode(getKernel(), x, Operation.COS, null), x)));
+		list.set(changed);
+		assertTrue(list.get(0) == element);
+		assertFalse(cache.isCacheFor(element));
+	}
+
+	private GeoFunction sine() {
+		FunctionVariable x = new FunctionVariable(getKernel(), "x");
+		return new GeoFunction(getConstruction(), new Function(
+				new ExpressionNode(getKernel(), x, Operation.SIN, null), x));
+	}
+
+	private static class CountingCurve implements CurveEvaluable {
+		protected int evaluations = 0;
+		private final CurveEvaluable curve;
+
+		protected CountingCurve(CurveEvaluable curve) {
+			this.curve = curve;
+		}
+
+		@Override
+		public void evaluateCurve(double t, double[] out) {
+			evaluations++;
+			curve.evaluateCurve(t, out);
+		}
+
+		@Override
+		public double getMinParameter() {
+			return curve.getMinParameter();
+		}
+
+		@Override
+		public double getMaxParameter() {
+			return curve.getMaxParameter();
+		}
+
+		@Override
+		public double[] newDoubleArray() {
+			return curve.newDoubleArray();
+		}
+
+		@Override
+		public double distanceMax(double[] p1, double[] p2) {
+			return curve.distanceMax(p1, p2);
+		}
+
+		@Override
+		public double[] getDefinedInterval(double a, double b) {
+			return curve.getDefinedInterval(a, b);
+		}
+
+		@Override
+		public boolean getTrace() {
+			return false;
+		}
+
+		@Override
+		public boolean isClosedPath() {
+			return false;
+		}
+
+		@Override
+		public boolean isFunctionInX() {
+			return true;
+		}
+
+		@Override
+		public GeoElement toGeoElement() {
+			return curve.toGeoElement();
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package org.geogebra.common.euclidian.plot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.awt.GPathIterator;
+import org.geogebra.common.euclidian.GeneralPathClipped;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.SegmentType;
+import org.junit.Test;
+
+public class PathDecimatorTest extends BaseUnitTest {
+
+	private static double curve(double x) {
+		return 200 + 100 * Math.sin(x / 30) + 5 * Math.sin(x * 7);
+	}
+
+	@Test
+	public void decimatedPathShouldStayWithinTolerance() {
+		PathDecimator decimator = new PathDecimator(true);
+		int n = 50000;
+		double[] xs = new double[n];
+		double[] ys = new double[n];
+		for (int i = 0; i < n; i++) {
+			xs[i] = i * 600.0 / n;
+			ys[i] = curve(xs[i]);
+			decimator.lineTo(xs[i], ys[i]);
+		}
+		decimator.decimate(PathDecimator.TOLERANCE);
+		assertEquals(n, decimator.getInputSize());
+		assertTrue(decimator.size() < 4 * 600);
+
+		ArrayList<MyPoint> out = drawnPoints(decimator);
+		assertEquals(decimator.size(), out.size());
+		int segment = 0;
+		for (int i = 0; i < n; i++) {
+			while (out.get(segment + 1).getX() < xs[i] - 1) {
+				segment++;
+			}
+			// points of one pixel column are not sorted by x
+			double dist = Double.MAX_VALUE;
+			for (int j = segment; j + 1 < out.size()
+					&& out.get(j).getX() <= xs[i] + 1; j++) {
+				dist = Math.min(dist,
+						distance(xs[i], ys[i], out.get(j), out.get(j + 1)));
+			}
+			// removed points of a column are less than a pixel from the
+			// line between lowest and highest point
+			assertTrue(dist <= 1 + PathDecimator.TOLERANCE);
+		}
+	}
+
+	@Test
+	public void partsAndSinglePointsShouldBeKept() {
+		PathDecimator decimator = new PathDecimator(true);
+		decimator.moveTo(10, 10);
+		decimator.moveTo(20, 20);
+		for (int i = 0; i < 100; i++) {
+			decimator.lineTo(20 + i, 20);
+		}
+		decimator.moveTo(50, 50);
+		decimator.decimate(PathDecimator.TOLERANCE);
+		assertEquals(4, decimator.size());
+
+		ArrayList<MyPoint> out = drawnPoints(decimator);
+		assertEquals("[M(10,10), L(10,10), M(20,20), L(119,20), M(50,50),"
+				+ " L(50,50)]", format(out));
+
+		decimator = new PathDecimator(false);
+		decimator.moveTo(10, 10);
+		decimator.moveTo(20, 20);
+		decimator.lineTo(30, 20);
+		decimator.decimate(PathDecimator.TOLERANCE);
+		// GeneralPath ignores moves without lines
+		assertEquals("[M(20,20), L(30,20)]",
+				format(drawnPoints(decimator)));
+	}
+
+	private ArrayList<MyPoint> drawnPoints(PathDecimator decimator) {
+		GeneralPathClipped gp = new GeneralPathClipped(
+				getApp().getActiveEuclidianView());
+		decimator.drawTo(gp, 0, 0);
+		ArrayList<MyPoint> points = new ArrayList<>();
+		double[] coords = new double[6];
+		for (GPathIterator it = gp.getPathIterator(null); !it.isDone(); it
+				.next()) {
+			int type = it.currentSegment(coords);
+			points.add(new MyPoint(coords[0], coords[1],
+					type == GPathIterator.SEG_MOVETO ? SegmentType.MOVE_TO
+							: SegmentType.LINE_TO));
+		}
+		return points;
+	}
+
+	private static String format(ArrayList<MyPoint> points) {
+		StringBuilder sb = new StringBuilder("[");
+		for (MyPoint p : points) {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(p.getLineTo() ? "L(" : "M(");
+			sb.append(Math.round(p.getX()));
+			sb.append(',');
+			sb.append(Math.round(p.getY()));
+			sb.append(')');
+		}
+		return sb.append(']').toString();
+	}
+
+	private static double distance(double x, double y, MyPoint a, MyPoint b) {
+		double dx = b.getX() - a.getX();
+		double dy = b.getY() - a.getY();
+		double len2 = dx * dx + dy * dy;
+		double t = len2 == 0 ? 0
+				: ((x - a.getX()) * dx + (y - a.getY()) * dy) / len2;
+		t = Math.max(0, Math.min(1, t));
+		return Math.hypot(x - a.getX() - t * dx, y - a.getY() - t * dy);
+	}
+}
@@ -0,0 +1,145 @@
+package org.geogebra.common.gui.view.spreadsheet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.jre.io.DataImportJre;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.GeoText;
+import org.geogebra.common.kernel.statistics.ListStatistics;
+import org.geogebra.common.util.AsyncOperation;
+import org.geogebra.common.util.opencsv.CSVException;
+import org.junit.Test;
+
+public class ColumnarDataImportTest {
+
+	private static ColumnarDataImport read(String source, int maxRows,
+			AsyncOperation<Integer> progress) {
+		ColumnarDataImport data = new ColumnarDataImport(maxRows, progress);
+		try {
+			DataImportJre.read(new StringReader(source), data);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		} catch (CSVException e) {
+			throw new IllegalStateException(e);
+		}
+		return data;
+	}
+
+	private static ColumnarDataImport read(String source) {
+		return read(source, Integer.MAX_VALUE, null);
+	}
+
+	@Test
+	public void stringsShouldMatchParseExternalData() {
+		String[] sources = { "1,2,3\n4,5,6\n", "a,b\n1,2,3\n\n4\n",
+				"x\ty\n1,5\t\"1,234\"\n-2\t3%\n", "\"1,234,567\",0.5,,text\n",
+				"1\r\n2\r\n3" };
+		for (String source : sources) {
+			assertTrue(source, Arrays.deepEquals(
+					DataImport.parseExternalData(null, source, true),
+					read(source).getStrings()));
+		}
+	}
+
+	@Test
+	public void numbersShouldBeStoredInColumns() {
+		ColumnarDataImport data = read(
+				"x,y,name\n1,-2.5,a\n\"1,234\",50%,b\n,1E3,c\n");
+		assertEquals(4, data.getRowCount());
+		assertEquals(3, data.getColumnCount());
+		assertEquals(1234, data.getValue(2, 0), 0);
+		assertTrue(Double.isNaN(data.getValue(3, 0)));
+		assertNull(data.getText(3, 0));
+		assertEquals(-2.5, data.getValue(1, 1), 0);
+		assertEquals(0.5, data.getValue(2, 1), 0);
+		assertEquals(1000, data.getValue(3, 1), 0);
+		assertEquals("b", data.getText(2, 2));
+		assertTrue(Double.isNaN(data.getValue(2, 2)));
+		// texts below the first row in the third column
+		assertFalse(data.hasHeader());
+		assertTrue(read("x,y\n1,2\n3,\n").hasHeader());
+	}
+
+	@Test
+	public void quotedFieldsMaySpanLines() {
+		ColumnarDataImport data = read("a,\"b\nc\nd\",e\n1,2,3\n4,\"5");
+		assertEquals(3, data.getRowCount());
+		assertEquals("b\nc\nd", data.getText(0, 1));
+		assertEquals("e", data.getText(0, 2));
+		assertEquals(2, data.getValue(1, 1), 0);
+		// unterminated quote at the end
+		assertEquals(5, data.getValue(2, 1), 0);
+	}
+
+	@Test
+	public void listsShouldHaveOneElementPerRow() {
+		AppCommon app = AppCommonFactory.create();
+		ColumnarDataImport data = read("x,y\n1,a\n,b\n3,4\n");
+		assertFalse(data.hasHeader());
+		GeoList[] lists = data.createLists(app.getKernel().getConstruction());
+		assertEquals(2, lists.length);
+		assertEquals(4, lists[0].size());
+		assertTrue(lists[0].get(0) instanceof GeoText);
+		assertEquals(1, ((GeoNumeric) lists[0].get(1)).getValue(), 0);
+		assertFalse(lists[0].get(2).isDefined());
+		assertEquals("b", ((GeoText) lists[1].get(2)).getTextString());
+		assertTrue(lists[0].isLabelSet());
+
+		data = read("x,y\n1,2\n3,4\n");
+		lists = data.createLists(app.getKernel().getConstruction());
+		assertEquals(2, lists[1].size());
+		assertEquals(4, ((GeoNumeric) lists[1].get(1)).getValue(), 0);
+	}
+
+	@Test
+	public void numberListsShouldShareImportedValues() {
+		AppCommon app = AppCommonFactory.create();
+		ColumnarDataImport data = read("1,a\n2,b\n3,4\n");
+		GeoList[] lists = data.createLists(app.getKernel().getConstruction());
+		ListStatistics stats = lists[0].getNumberStatistics();
+		assertEquals(6, stats.getSumX(), 0);
+		assertEquals(3, stats.getSortedX()[2], 0);
+		assertSame(stats, lists[0].getNumberStatistics());
+		assertNull(lists[1].getNumberStatistics());
+
+		data = read("size,weight\n1,2\n,4\n");
+		lists = data.createLists(app.getKernel().getConstruction());
+		assertTrue(data.hasHeader());
+		assertEquals(6, lists[1].getNumberStatistics().getSumX(), 0);
+		assertTrue(Double.isNaN(lists[0].getNumberStatistics().getSumX()));
+	}
+
+	@Test
+	public void largeFileShouldReportProgress() {
+		int rows = 25000;
+		StringBuilder sb = new StringBuilder("time,value,label\n");
+		for (int i = 0; i < rows; i++) {
+			sb.append(i * 0.01).append(',').append(Math.sin(i * 0.01))
+					.append(",p").append(i % 7).append('\n');
+		}
+		final ArrayList<Integer> reports = new ArrayList<>();
+		ColumnarDataImport data = read(sb.toString(), 9999,
+				new AsyncOperation<Integer>() {
+					@Override
+					public void callback(Integer obj) {
+						reports.add(obj);
+					}
+				});
+		assertNull(data.getStrings());
+		assertEquals(rows + 1, data.getRowCount());
+		assertEquals(Math.sin(0.5), data.getValue(51, 1), 1E-12);
+		assertEquals(Arrays.asList(10000, 20000), reports);
+	}
+}
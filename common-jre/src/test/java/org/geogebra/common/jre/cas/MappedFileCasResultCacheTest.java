@@ -0,0 +1,102 @@
+package org.geogebra.common.jre.cas;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedFileCasResultCacheTest {
+
+	private File file;
+
+	@Before
+	public void createFile() throws IOException {
+		file = File.createTempFile("cascache", ".bin");
+	}
+
+	@After
+	public void deleteFile() {
+		file.delete();
+	}
+
+	@Test
+	public void resultsArePersisted() throws IOException {
+		MappedFileCasResultCache cache = new MappedFileCasResultCache(file,
+				1024, "1.0");
+		cache.put("Solve(x^2=4)", "{x = -2, x = 2}");
+		cache.close();
+
+		cache = new MappedFileCasResultCache(file, 1024, "1.0");
+		assertThat(cache.get("Solve(x^2=4)"), is("{x = -2, x = 2}"));
+		assertThat(cache.size(), is(1));
+		cache.close();
+	}
+
+	@Test
+	public void otherVersionIsDiscarded() throws IOException {
+		MappedFileCasResultCache cache = new MappedFileCasResultCache(file,
+				1024, "1.0");
+		cache.put("a", "1");
+		cache.close();
+
+		cache = new MappedFileCasResultCache(file, 1024, "2.0");
+		assertThat(cache.get("a"), nullValue());
+		cache.close();
+	}
+
+	@Test
+	public void fullFileIsCleared() throws IOException {
+		MappedFileCasResultCache cache = new MappedFileCasResultCache(file,
+				64, "1.0");
+		cache.put("a", "0123456789");
+		cache.put("b", "0123456789");
+		cache.put("c", "0123456789");
+		assertThat(cache.get("c"), is("0123456789"));
+		assertThat(cache.size() < 3, is(true));
+		cache.close();
+	}
+
+	@Test
+	public void mappingGrowsWithFile() throws IOException {
+		MappedFileCasResultCache cache = new MappedFileCasResultCache(file,
+				1 << 20, "1.0");
+		for (int i = 0; i < 2000; i++) {
+			cache.put("Factor(x^" + i + "-1)", "result " + i);
+		}
+		assertThat(cache.size(), is(2000));
+		cache.close();
+		assertThat(file.length() < 1 << 20, is(true));
+
+		cache = new MappedFileCasResultCache(file, 1 << 20, "1.0");
+		assertThat(cache.get("Factor(x^1999-1)"), is("result 1999"));
+		assertThat(cache.size(), is(2000));
+		cache.close();
+	}
+
+	@Test
+	public void writesOfOtherInstancesAreVisible() throws IOException {
+		MappedFileCasResultCache first = new MappedFileCasResultCache(file,
+				1 << 20, "1.0");
+		MappedFileCasResultCache second = new MappedFileCasResultCache(file,
+				1 << 20, "1.0");
+		first.put("a", "1");
+		assertThat(second.get("a"), is("1"));
+		for (int i = 0; i < 1000; i++) {
+			second.put("b" + i, "2");
+		}
+		assertThat(first.get("b999"), is("2"));
+		first.clear();
+		assertThat(second.get("a"), nullValue());
+		assertThat(second.size(), is(0));
+		second.put("c", "3");
+		assertThat(first.get("c"), is("3"));
+		first.close();
+		second.close();
+	}
+}
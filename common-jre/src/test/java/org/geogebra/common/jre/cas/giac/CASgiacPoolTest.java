@@ -0,0 +1,162 @@
+package org.geogebra.common.jre.cas.giac;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.cas.CASparser;
+import org.geogebra.common.cas.giac.CASgiac;
+import org.geogebra.common.cas.giac.CASgiacB;
+import org.geogebra.common.cas.giac.binding.CASGiacBinding;
+import org.geogebra.common.cas.giac.binding.Context;
+import org.geogebra.common.cas.giac.binding.Gen;
+import org.geogebra.common.factories.CASDummy;
+import org.geogebra.common.factories.CASFactory;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.CASGenericInterface;
+import org.geogebra.common.kernel.Kernel;
+import org.junit.Test;
+
+public class CASgiacPoolTest {
+
+	private final CountDownLatch bothRunning = new CountDownLatch(2);
+	private final AtomicInteger created = new AtomicInteger();
+
+	private class BlockingFactory extends CASFactory {
+		@Override
+		public CASGenericInterface newGiac(CASparser parser, Kernel kernel) {
+			created.incrementAndGet();
+			return new CASDummy(parser) {
+				@Override
+				public String evaluateCAS(String exp) {
+					bothRunning.countDown();
+					try {
+						return bothRunning.await(5, TimeUnit.SECONDS) ? exp
+								: "timeout";
+					} catch (InterruptedException e) {
+						return "interrupted";
+					}
+				}
+			};
+		}
+	}
+
+	@Test
+	public void evaluationsRunConcurrently() throws InterruptedException {
+		AppCommon app = AppCommonFactory.create();
+		Kernel kernel = app.getKernel();
+		CASparser parser = new CASparser(kernel.getParser(),
+				app.getParserFunctions());
+		final CASgiacPool pool = new CASgiacPool(new BlockingFactory(), parser,
+				kernel, 2);
+		final String[] results = new String[2];
+		Thread[] threads = new Thread[2];
+		for (int i = 0; i < 2; i++) {
+			final int index = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					results[index] = pool.evaluateCAS("x" + index);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertThat(results[0], is("x0"));
+		assertThat(results[1], is("x1"));
+		assertThat(created.get(), is(2));
+	}
+
+	/**
+	 * Giac engine with a binding that answers every evaluation with an
+	 * arbitrary constant, once all engines are busy.
+	 */
+	private class FakeBindingFactory extends CASFactory {
+		@Override
+		public CASGenericInterface newGiac(CASparser parser, Kernel kernel) {
+			created.incrementAndGet();
+			return new CASgiacB(parser) {
+				@Override
+				protected CASGiacBinding createBinding() {
+					return new ConstantBinding();
+				}
+
+				@Override
+				protected void callEvaluateFunction(Runnable evaluateFunction) {
+					evaluateFunction.run();
+				}
+			};
+		}
+	}
+
+	private class ConstantBinding implements CASGiacBinding {
+		@Override
+		public Context createContext() {
+			return new Context() {
+				// no state
+			};
+		}
+
+		@Override
+		public Gen createGen(final String string, Context context) {
+			return new Gen() {
+				@Override
+				public Gen eval(int level, Context ctx) {
+					return this;
+				}
+
+				@Override
+				public String print(Context ctx) {
+					if (string.startsWith("caseval(")
+							&& !CASgiac.initString.equals(string)) {
+						bothRunning.countDown();
+						try {
+							bothRunning.await(5, TimeUnit.SECONDS);
+						} catch (InterruptedException e) {
+							return "interrupted";
+						}
+						return "c_0";
+					}
+					return "1";
+				}
+			};
+		}
+	}
+
+	@Test
+	public void enginesNumberArbitraryConstantsSeparately()
+			throws InterruptedException {
+		AppCommon app = AppCommonFactory.create();
+		Kernel kernel = app.getKernel();
+		CASparser parser = new CASparser(kernel.getParser(),
+				app.getParserFunctions());
+		final CASgiacPool pool = new CASgiacPool(new FakeBindingFactory(),
+				parser, kernel, 2);
+		final String[] results = new String[2];
+		Thread[] threads = new Thread[2];
+		for (int i = 0; i < 2; i++) {
+			final int index = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					results[index] = pool.evaluateCAS("y" + index);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertThat(created.get(), is(2));
+		// each engine counts its own replaced constants
+		assertThat(results[0], is("arbconst(0+9)"));
+		assertThat(results[1], is("arbconst(0+9)"));
+		assertThat(pool.evaluateCAS("y"), is("arbconst(0+18)"));
+	}
+}
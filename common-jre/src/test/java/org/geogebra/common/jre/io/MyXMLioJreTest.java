@@ -0,0 +1,77 @@
+package org.geogebra.common.jre.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.io.MyXMLio;
+import org.geogebra.common.jre.util.ForkJoinTaskExecutor;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.util.Charsets;
+import org.junit.Test;
+
+public class MyXMLioJreTest extends BaseUnitTest {
+
+	private static File createFile() throws IOException {
+		File file = File.createTempFile("test", ".ggb");
+		file.deleteOnExit();
+		ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file));
+		try {
+			addEntry(zip, "image1.png", "not an image");
+			addEntry(zip, "image2.png", "not an image");
+			addEntry(zip, MyXMLio.JAVASCRIPT_FILE, "function f() {}");
+			addEntry(zip, MyXMLio.XML_FILE,
+					"<geogebra format=\"5.0\"><construction>"
+							+ "<element type=\"point\" label=\"A\">"
+							+ "<coords x=\"1\" y=\"2\" z=\"1\"/>"
+							+ "</element></construction></geogebra>");
+		} finally {
+			zip.close();
+		}
+		return file;
+	}
+
+	private static void addEntry(ZipOutputStream zip, String name,
+			String content) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		zip.write(content.getBytes(Charsets.getUtf8()));
+		zip.closeEntry();
+	}
+
+	private MyXMLioJre getXMLio() {
+		return (MyXMLioJre) getApp().getXMLio();
+	}
+
+	private void checkConstruction() {
+		GeoPoint a = (GeoPoint) getKernel().lookupLabel("A");
+		assertNotNull(a);
+		assertEquals(2, a.getInhomY(), 0);
+		assertEquals("function f() {}", getKernel().getLibraryJavaScript());
+	}
+
+	@Test
+	public void fileShouldLoadWithTimings() throws Exception {
+		getXMLio().readZipFromFile(createFile(), false);
+		checkConstruction();
+		assertNotNull(getXMLio().getLastLoadTimings());
+	}
+
+	@Test
+	public void fileShouldLoadWithExecutor() throws Exception {
+		ForkJoinTaskExecutor executor = new ForkJoinTaskExecutor(2);
+		getKernel().setTaskExecutor(executor);
+		try {
+			getXMLio().readZipFromFile(createFile(), false);
+		} finally {
+			getKernel().setTaskExecutor(null);
+			executor.shutdown();
+		}
+		checkConstruction();
+	}
+}
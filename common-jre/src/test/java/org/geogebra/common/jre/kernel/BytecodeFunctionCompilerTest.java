@@ -0,0 +1,125 @@
+package org.geogebra.common.jre.kernel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.arithmetic.CompiledExpression;
+import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.arithmetic.ExpressionValue;
+import org.geogebra.common.kernel.arithmetic.Function;
+import org.geogebra.common.kernel.arithmetic.FunctionVariable;
+import org.geogebra.common.kernel.arithmetic.MyDouble;
+import org.geogebra.common.kernel.arithmetic.MyVecNode;
+import org.geogebra.common.plugin.Operation;
+import org.junit.Test;
+
+public class BytecodeFunctionCompilerTest extends BaseUnitTest {
+
+	@Test
+	public void compiledMatchesTreeWalker() {
+		FunctionVariable x = new FunctionVariable(getKernel(), "x");
+		MyDouble a = new MyDouble(getKernel(), 2);
+		// x^(1/3) * sin(x) + a * tan(x) / sqrt(x * x + 1)
+		ExpressionNode exp = node(
+				node(node(x, Operation.POWER,
+						node(num(1), Operation.DIVIDE, num(3))),
+						Operation.MULTIPLY, node(x, Operation.SIN, null)),
+				Operation.PLUS,
+				node(node(a, Operation.MULTIPLY, node(x, Operation.TAN, null)),
+						Operation.DIVIDE,
+						node(node(node(x, Operation.MULTIPLY, x), Operation.PLUS,
+								num(1)), Operation.SQRT, null)));
+		Function f = new Function(exp, x);
+		CompiledExpression compiled = new BytecodeFunctionCompiler()
+				.compile(exp, f.getFunctionVariables());
+		assertNotNull(compiled);
+		for (double t = -5; t < 5; t += 0.37) {
+			assertEquals(f.value(t), compiled.applyAsDouble(t), 0);
+		}
+		// constants are read on every call
+		a.set(-3);
+		assertEquals(f.value(1.5), compiled.applyAsDouble(1.5), 0);
+	}
+
+	@Test
+	public void functionUsesCompiler() {
+		getKernel().setFunctionCompiler(new BytecodeFunctionCompiler());
+		try {
+			FunctionVariable x = new FunctionVariable(getKernel(), "x");
+			Function f = new Function(
+					node(node(x, Operation.COS, null), Operation.MINUS, x), x);
+			for (int i = 0; i < 200; i++) {
+				assertEquals(Math.cos(i) - i, f.value(i), 0);
+			}
+		} finally {
+			getKernel().setFunctionCompiler(null);
+		}
+	}
+
+	@Test
+	public void productOfVectorsUsesTreeWalker() {
+		FunctionVariable x = new FunctionVariable(getKernel(), "x");
+		// (x, 1) * (1, 2): not a number as product of doubles
+		ExpressionNode exp = node(new MyVecNode(getKernel(), x, num(1)),
+				Operation.MULTIPLY,
+				new MyVecNode(getKernel(), num(1), num(2)));
+		CompiledExpression compiled = new BytecodeFunctionCompiler()
+				.compile(exp, new FunctionVariable[] { x });
+		assertEquals(5, compiled.applyAsDouble(3), 0);
+		// negative base with fractional exponent
+		exp = node(x, Operation.POWER, node(num(1), Operation.DIVIDE, num(3)));
+		compiled = new BytecodeFunctionCompiler().compile(exp,
+				new FunctionVariable[] { x });
+		assertEquals(-2, compiled.applyAsDouble(-8), 1E-15);
+	}
+
+	@Test
+	public void compiledFunctionCanBeEvaluatedConcurrently()
+			throws InterruptedException {
+		getKernel().setFunctionCompiler(new BytecodeFunctionCompiler());
+		try {
+			FunctionVariable x = new FunctionVariable(getKernel(), "x");
+			final Function f = new Function(
+					node(node(x, Operation.MULTIPLY, x), Operation.PLUS,
+							num(1)), x);
+			// the tree walker shares the variable, compile before forking
+			for (int i = 0; i < 100; i++) {
+				f.value(i);
+			}
+			final AtomicInteger errors = new AtomicInteger();
+			Thread[] threads = new Thread[4];
+			for (int t = 0; t < threads.length; t++) {
+				final int offset = t * 100000;
+				threads[t] = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						for (int i = offset; i < offset + 20000; i++) {
+							if (f.value(i) != (double) i * i + 1) {
+								errors.incrementAndGet();
+							}
+						}
+					}
+				});
+				threads[t].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			assertEquals(0, errors.get());
+		} finally {
+			getKernel().setFunctionCompiler(null);
+		}
+	}
+
+	private ExpressionNode node(ExpressionValue left, Operation op,
+			ExpressionValue right) {
+		return new ExpressionNode(getKernel(), left, op, right);
+	}
+
+	private MyDouble num(double value) {
+		return new MyDouble(getKernel(), value);
+	}
+}
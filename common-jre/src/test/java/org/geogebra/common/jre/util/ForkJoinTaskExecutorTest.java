@@ -0,0 +1,32 @@
+package org.geogebra.common.jre.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ForkJoinTaskExecutorTest {
+
+	@Test
+	public void invokeAllRunsEveryTask() {
+		ForkJoinTaskExecutor executor = new ForkJoinTaskExecutor(2);
+		final AtomicInteger counter = new AtomicInteger();
+		ArrayList<Runnable> tasks = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			tasks.add(new Runnable() {
+				@Override
+				public void run() {
+					counter.incrementAndGet();
+				}
+			});
+		}
+		try {
+			executor.invokeAll(tasks);
+			assertEquals(50, counter.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package org.geogebra.common.jre.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.geogebra.common.kernel.prover.AbstractProverReciosMethod;
+import org.geogebra.common.util.ExtendedBoolean;
+import org.geogebra.common.util.Prover;
+import org.geogebra.common.util.Prover.EngineRun;
+import org.geogebra.common.util.Prover.ProofResult;
+import org.geogebra.common.util.Prover.ProverEngine;
+import org.junit.Test;
+
+public class ProverPortfolioTest {
+
+	private static final List<ProverEngine> ENGINES = Arrays.asList(
+			ProverEngine.RECIOS_PROVER, ProverEngine.BOTANAS_PROVER,
+			ProverEngine.OPENGEOPROVER_WU);
+
+	private final EnumMap<ProverEngine, Long> delays = new EnumMap<>(
+			ProverEngine.class);
+	private final EnumMap<ProverEngine, ProofResult> results = new EnumMap<>(
+			ProverEngine.class);
+	private final EnumMap<ProverEngine, FakeProver> copies = new EnumMap<>(
+			ProverEngine.class);
+	private final AtomicInteger running = new AtomicInteger();
+
+	/**
+	 * Engines wait for a given time, unless they are cancelled.
+	 */
+	private class FakeProver extends Prover {
+		private boolean prepared = false;
+
+		@Override
+		public Prover copyForEngine(ProverEngine pe) {
+			FakeProver copy = new FakeProver();
+			copy.setProverEngine(pe);
+			copies.put(pe, copy);
+			return copy;
+		}
+
+		@Override
+		public void preparePolynomials() {
+			prepared = true;
+		}
+
+		@Override
+		public ProofResult proveWith(ProverEngine pe) {
+			running.incrementAndGet();
+			try {
+				return waitAndProve(pe);
+			} finally {
+				running.decrementAndGet();
+			}
+		}
+
+		private ProofResult waitAndProve(ProverEngine pe) {
+			long end = System.currentTimeMillis() + delays.get(pe);
+			while (System.currentTimeMillis() < end) {
+				try {
+					Thread.sleep(1);
+				} catch (InterruptedException e) {
+					// keep running until the flag is checked, like the engines
+				}
+				if (isCancelled()) {
+					return ProofResult.UNKNOWN;
+				}
+			}
+			result = results.get(pe);
+			return result;
+		}
+
+		@Override
+		protected ProofResult openGeoProver(ProverEngine pe) {
+			return ProofResult.UNKNOWN;
+		}
+
+		@Override
+		protected AbstractProverReciosMethod getNewReciosProver() {
+			return null;
+		}
+	}
+
+	private void engine(ProverEngine pe, long delay, ProofResult result) {
+		delays.put(pe, delay);
+		results.put(pe, result);
+	}
+
+	private static EngineRun run(Prover prover, ProverEngine pe) {
+		for (EngineRun run : prover.getEngineRuns()) {
+			if (run.getEngine() == pe) {
+				return run;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void firstConclusiveResultShouldWin() {
+		engine(ProverEngine.RECIOS_PROVER, 10, ProofResult.UNKNOWN);
+		engine(ProverEngine.BOTANAS_PROVER, 50, ProofResult.FALSE);
+		engine(ProverEngine.OPENGEOPROVER_WU, 10000, ProofResult.TRUE);
+		Prover prover = new FakeProver();
+		long start = System.currentTimeMillis();
+		new ProverPortfolio(prover).run(ENGINES);
+		assertTrue(System.currentTimeMillis() - start < 5000);
+
+		assertEquals(ProofResult.FALSE, prover.getProofResult());
+		assertTrue(run(prover, ProverEngine.RECIOS_PROVER).isCompleted());
+		assertTrue(run(prover, ProverEngine.BOTANAS_PROVER).isCompleted());
+		assertFalse(run(prover, ProverEngine.OPENGEOPROVER_WU).isCompleted());
+		assertTrue(copies.get(ProverEngine.OPENGEOPROVER_WU).isCancelled());
+		assertEquals(3, prover.getEngineRuns().size());
+	}
+
+	@Test
+	public void stuckEarlierEngineShouldNotDelayResult() {
+		engine(ProverEngine.RECIOS_PROVER, 10000, ProofResult.TRUE);
+		engine(ProverEngine.BOTANAS_PROVER, 10, ProofResult.FALSE);
+		engine(ProverEngine.OPENGEOPROVER_WU, 10000, ProofResult.TRUE);
+		Prover prover = new FakeProver();
+		long start = System.currentTimeMillis();
+		new ProverPortfolio(prover).run(ENGINES);
+		assertTrue(System.currentTimeMillis() - start < 5000);
+
+		assertEquals(ProofResult.FALSE, prover.getProofResult());
+		assertFalse(run(prover, ProverEngine.RECIOS_PROVER).isCompleted());
+		assertTrue(copies.get(ProverEngine.RECIOS_PROVER).isCancelled());
+		assertFalse(run(prover, ProverEngine.OPENGEOPROVER_WU).isCompleted());
+	}
+
+	@Test
+	public void cancelledEnginesShouldStopBeforeReturning() {
+		engine(ProverEngine.RECIOS_PROVER, 10, ProofResult.TRUE);
+		engine(ProverEngine.BOTANAS_PROVER, 10000, ProofResult.FALSE);
+		engine(ProverEngine.OPENGEOPROVER_WU, 10000, ProofResult.FALSE);
+		FakeProver prover = new FakeProver();
+		new ProverPortfolio(prover).run(ENGINES);
+
+		assertEquals(ProofResult.TRUE, prover.getProofResult());
+		assertTrue(prover.prepared);
+		assertEquals(0, running.get());
+	}
+
+	@Test
+	public void inconclusiveResultsShouldWaitForAllEngines() {
+		engine(ProverEngine.RECIOS_PROVER, 10, ProofResult.UNKNOWN);
+		engine(ProverEngine.BOTANAS_PROVER, 50, ProofResult.UNKNOWN);
+		engine(ProverEngine.OPENGEOPROVER_WU, 100,
+				ProofResult.TRUE_NDG_UNREADABLE);
+		Prover prover = new FakeProver();
+		new ProverPortfolio(prover).run(ENGINES);
+
+		assertEquals(ProofResult.TRUE_NDG_UNREADABLE, prover.getProofResult());
+		for (EngineRun run : prover.getEngineRuns()) {
+			assertTrue(run.isCompleted());
+		}
+	}
+
+	@Test
+	public void slowEngineShouldTimeOut() {
+		engine(ProverEngine.RECIOS_PROVER, 10000, ProofResult.TRUE);
+		engine(ProverEngine.BOTANAS_PROVER, 10, ProofResult.UNKNOWN);
+		engine(ProverEngine.OPENGEOPROVER_WU, 10, ProofResult.UNKNOWN);
+		Prover prover = new FakeProver();
+		prover.setTimeout(10);
+		prover.setEngineTimeout(ProverEngine.RECIOS_PROVER, 1);
+		long start = System.currentTimeMillis();
+		new ProverPortfolio(prover).run(ENGINES);
+
+		assertTrue(System.currentTimeMillis() - start < 5000);
+		assertEquals(ExtendedBoolean.UNKNOWN, prover.getYesNoAnswer());
+		EngineRun recio = run(prover, ProverEngine.RECIOS_PROVER);
+		assertFalse(recio.isCompleted());
+		assertTrue(recio.getTime() >= 1000);
+	}
+}
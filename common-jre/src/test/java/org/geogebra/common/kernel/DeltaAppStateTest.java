@@ -0,0 +1,93 @@
+package org.geogebra.common.kernel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.number.OrderingComparison.lessThan;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.junit.Test;
+
+public class DeltaAppStateTest {
+
+	private static String constructionXML(int size, int moved, double x) {
+		StringBuilder sb = new StringBuilder("<geogebra format=\"5.0\">\n");
+		sb.append("<construction title=\"\">\n");
+		for (int i = 0; i < size; i++) {
+			sb.append("<element type=\"point\" label=\"A_{").append(i)
+					.append("}\">\n");
+			sb.append("\t<show object=\"true\" label=\"true\"/>\n");
+			double px = i == moved || i == size - 1 ? x : i;
+			sb.append("\t<coords x=\"").append(px)
+					.append("\" y=\"0\" z=\"1\"/>\n");
+			sb.append("</element>\n");
+		}
+		sb.append("</construction>\n</geogebra>");
+		return sb.toString();
+	}
+
+	@Test
+	public void restoresAllStates() {
+		ArrayList<String> xmls = new ArrayList<>();
+		ArrayList<DeltaAppState> states = new ArrayList<>();
+		DeltaAppState previous = null;
+		for (int step = 0; step < 40; step++) {
+			String xml = constructionXML(50 + step % 3, step % 7, step);
+			previous = DeltaAppState.create(previous, xml);
+			xmls.add(xml);
+			states.add(previous);
+		}
+		for (int i = 0; i < xmls.size(); i++) {
+			assertThat(states.get(i).getXml(), is(xmls.get(i)));
+		}
+		states.get(20).materialize();
+		assertThat(states.get(20).isDelta(), is(false));
+		assertThat(states.get(25).getXml(), is(xmls.get(25)));
+	}
+
+	@Test
+	public void equalStatesAreDetected() {
+		String xml = constructionXML(10, 1, 5);
+		DeltaAppState first = DeltaAppState.create(null, xml);
+		DeltaAppState same = DeltaAppState.create(first, xml);
+		DeltaAppState moved = DeltaAppState
+				.create(same, constructionXML(10, 1, 6));
+		assertThat(first.equalsTo(same), is(true));
+		assertThat(same.equalsTo(moved), is(false));
+	}
+
+	@Test
+	public void deltaStorageUsesLessMemoryThanSnapshots() {
+		int size = 10000;
+		long snapshotBytes = 0;
+		long deltaBytes = 0;
+		DeltaAppState previous = null;
+		for (int step = 0; step < 50; step++) {
+			String xml = constructionXML(size, step, -step);
+			snapshotBytes += 2L * xml.length();
+			previous = DeltaAppState.create(previous, xml);
+			deltaBytes += previous.getByteSize();
+		}
+		assertThat(deltaBytes * 10, lessThan(snapshotBytes));
+	}
+
+	@Test
+	public void historyIsLimitedByMemoryBudget() {
+		AppCommon app = AppCommonFactory.create();
+		DefaultUndoManager undoManager = new DefaultUndoManager(
+				app.getKernel().getConstruction());
+		undoManager.setDeltaStorage(true);
+		String xml = constructionXML(1000, 0, 0);
+		undoManager.setMemoryBudget(8L * xml.length());
+		for (int step = 0; step < 200; step++) {
+			undoManager.storeUndoInfo(
+					new StringBuilder(constructionXML(1000, step % 1000, -step)),
+					false);
+		}
+		// snapshots would only fit 4 steps
+		assertThat(undoManager.getHistorySize() > 20, is(true));
+		assertThat(undoManager.getHistorySize() < 199, is(true));
+	}
+}
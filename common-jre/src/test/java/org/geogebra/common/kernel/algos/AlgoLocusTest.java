@@ -0,0 +1,94 @@
+package org.geogebra.common.kernel.algos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.jre.util.ForkJoinTaskExecutor;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.PathMover;
+import org.geogebra.common.kernel.geos.GeoLocus;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.kernel.geos.GeoSegment;
+import org.junit.Test;
+
+public class AlgoLocusTest extends BaseUnitTest {
+
+	private GeoLocus midpointLocus() {
+		return locus(false);
+	}
+
+	/**
+	 * @param mirror
+	 *            whether the locus point is the midpoint mirrored at A
+	 * @return locus of the midpoint of C and a point on segment AB
+	 */
+	private GeoLocus locus(boolean mirror) {
+		GeoPoint a = new GeoPoint(getConstruction(), -2, 0, 1);
+		a.setLabel("A");
+		GeoPoint b = new GeoPoint(getConstruction(), 2, 0, 1);
+		b.setLabel("B");
+		GeoPoint c = new GeoPoint(getConstruction(), 0, 2, 1);
+		c.setLabel("C");
+		GeoSegment s = new AlgoJoinPointsSegment(getConstruction(), "s", a,
+				b).getSegment();
+		GeoPoint p = (GeoPoint) new AlgoPointOnPath(getConstruction(), s, 0,
+				0).getP();
+		p.setLabel("P");
+		GeoPoint q = new AlgoMidpoint(getConstruction(), p, c).getPoint();
+		if (mirror) {
+			q.setLabel("M");
+			q = (GeoPoint) new AlgoMirror(getConstruction(), q, a).getResult();
+		}
+		q.setLabel("Q");
+		AlgoLocus algo = new AlgoLocus(getConstruction(), q, p,
+				PathMover.MIN_STEPS, false);
+		return (GeoLocus) algo.getLocus();
+	}
+
+	@Test
+	public void parallelLocusShouldCoverPath() {
+		ForkJoinTaskExecutor executor = new ForkJoinTaskExecutor(4);
+		getKernel().setTaskExecutor(executor);
+		try {
+			GeoLocus locus = midpointLocus();
+			assertTrue(locus.isDefined());
+			ArrayList<MyPoint> points = locus.getPoints();
+			assertTrue(points.size() > PathMover.MIN_STEPS / 2);
+			double prevX = Double.NEGATIVE_INFINITY;
+			for (MyPoint pt : points) {
+				assertEquals(1, pt.getY(), 1E-10);
+				// merged in parameter order
+				assertTrue(pt.getX() >= prevX);
+				prevX = pt.getX();
+			}
+			assertEquals(-1, points.get(0).getX(), 1E-10);
+			assertEquals(1, prevX, 1E-10);
+		} finally {
+			getKernel().setTaskExecutor(null);
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void locusWithOtherAlgosShouldBeSequential() {
+		ForkJoinTaskExecutor executor = new ForkJoinTaskExecutor(4);
+		getKernel().setTaskExecutor(executor);
+		try {
+			// AlgoMirror is not ParallelComputable
+			GeoLocus locus = locus(true);
+			assertTrue(locus.isDefined());
+			ArrayList<MyPoint> points = locus.getPoints();
+			assertTrue(points.size() > PathMover.MIN_STEPS / 2);
+			for (MyPoint pt : points) {
+				assertEquals(-1, pt.getY(), 1E-10);
+				assertTrue(pt.getX() >= -5 - 1E-10 && pt.getX() <= -3 + 1E-10);
+			}
+		} finally {
+			getKernel().setTaskExecutor(null);
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package org.geogebra.common.kernel.algos;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.jre.kernel.ForkJoinComputeExecutor;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.junit.Test;
+
+public class LevelwiseAlgoUpdaterTest extends BaseUnitTest {
+
+	@Test
+	public void independentAlgosShareLevel() {
+		add("A = (0, 0)");
+		add("B = (3, 4)");
+		add("C = (6, 8)");
+		GeoNumeric d1 = add("d1 = Distance(A, B)");
+		GeoNumeric d2 = add("d2 = Distance(A, C)");
+		GeoNumeric sum = add("s = d1 + d2");
+		List<AlgoElement> algos = new ArrayList<>();
+		algos.add(d1.getParentAlgorithm());
+		algos.add(d2.getParentAlgorithm());
+		algos.add(sum.getParentAlgorithm());
+
+		ArrayList<ArrayList<AlgoElement>> levels = LevelwiseAlgoUpdater
+				.getLevels(algos);
+		assertThat(levels.size(), is(2));
+		assertThat(levels.get(0).size(), is(2));
+		assertThat(levels.get(1).get(0), is(sum.getParentAlgorithm()));
+	}
+
+	@Test
+	public void parallelUpdateGivesSameResult() {
+		ForkJoinComputeExecutor executor = new ForkJoinComputeExecutor();
+		getKernel().setParallelComputeExecutor(executor);
+		try {
+			GeoPoint a = add("A = (0, 0)");
+			add("B = (3, 4)");
+			add("C = (3, 8)");
+			add("d1 = Distance(A, B)");
+			add("d2 = Distance(A, C)");
+			GeoNumeric mean = add("m = Mean({d1, d2})");
+			a.setCoords(3, 0, 1);
+			a.updateCascade();
+			assertThat(mean.getValue(), is(6.0));
+
+			getKernel().updateConstruction(false);
+			assertThat(mean.getValue(), is(6.0));
+		} finally {
+			getKernel().setParallelComputeExecutor(null);
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package org.geogebra.common.kernel.algos;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.junit.Test;
+
+public class UpdatePlanCacheTest extends BaseUnitTest {
+
+	@Test
+	public void updateOfSeveralGeosUpdatesDependentObjects() {
+		GeoPoint a = add("A = (0, 0)");
+		GeoPoint b = add("B = (2, 0)");
+		GeoPoint m = add("M = Midpoint(A, B)");
+		a.setCoords(2, 2, 1);
+		b.setCoords(4, 2, 1);
+		GeoElement.updateCascade(list(a, b), new TreeSet<AlgoElement>(),
+				false);
+		assertThat(m.getInhomX(), is(3.0));
+		assertThat(m.getInhomY(), is(2.0));
+	}
+
+	@Test
+	public void planIsReusedUntilConstructionChanges() {
+		GeoPoint a = add("A = (0, 0)");
+		GeoPoint b = add("B = (2, 0)");
+		add("M = Midpoint(A, B)");
+		ArrayList<GeoElement> geos = list(a, b);
+		UpdatePlanCache cache = getConstruction().getUpdatePlanCache();
+		TreeSet<AlgoElement> tempSet = new TreeSet<>();
+
+		AlgoElement[] plan = cache.getPlan(geos, false, tempSet);
+		assertThat(plan.length, is(1));
+		assertThat(cache.getPlan(geos, false, tempSet), sameInstance(plan));
+
+		GeoPoint n = add("N = Midpoint(A, M)");
+		assertThat(cache.isValid(), is(false));
+		assertThat(cache.getPlan(geos, false, tempSet).length, is(2));
+
+		a.setCoords(4, 0, 1);
+		GeoElement.updateCascade(geos, tempSet, false);
+		assertThat(n.getInhomX(), is(3.5));
+	}
+
+	@Test
+	public void planDependsOnSelection() {
+		GeoPoint a = add("A = (0, 0)");
+		GeoPoint b = add("B = (2, 0)");
+		GeoPoint c = add("C = (4, 0)");
+		add("M = Midpoint(A, B)");
+		UpdatePlanCache cache = getConstruction().getUpdatePlanCache();
+		TreeSet<AlgoElement> tempSet = new TreeSet<>();
+
+		assertThat(cache.getPlan(list(a, b), false, tempSet).length, is(1));
+		assertThat(cache.getPlan(list(a, c), false, tempSet).length, is(1));
+		assertThat(cache.getPlan(list(b, c), false, tempSet).length, is(1));
+		assertThat(cache.getPlan(list(c), false, tempSet).length, is(0));
+	}
+
+	private static ArrayList<GeoElement> list(GeoElement... geos) {
+		ArrayList<GeoElement> list = new ArrayList<>();
+		for (GeoElement geo : geos) {
+			list.add(geo);
+		}
+		return list;
+	}
+}
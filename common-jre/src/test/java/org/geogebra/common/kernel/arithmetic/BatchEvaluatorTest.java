@@ -0,0 +1,102 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.plugin.Operation;
+import org.junit.Test;
+
+public class BatchEvaluatorTest extends BaseUnitTest {
+
+	@Test
+	public void batchMatchesTreeWalker() {
+		FunctionVariable x = new FunctionVariable(getKernel(), "x");
+		// sin(x) * x^(1/3) + tan(x) / (x - 2)
+		ExpressionNode cbrt = node(x, Operation.POWER,
+				node(num(1), Operation.DIVIDE, num(3)));
+		ExpressionNode tan = node(x, Operation.TAN, null);
+		ExpressionNode exp = node(
+				node(node(x, Operation.SIN, null), Operation.MULTIPLY, cbrt),
+				Operation.PLUS,
+				node(tan, Operation.DIVIDE, node(x, Operation.MINUS, num(2))));
+		Function f = new Function(exp, x);
+		assertEquals(false, BatchEvaluator
+				.compile(exp, f.getFunctionVariables()).isFullyCompiled());
+
+		double[] xs = new double[300];
+		for (int i = 0; i < xs.length; i++) {
+			xs[i] = -15 + i * 0.1;
+		}
+		double[] out = new double[xs.length];
+		f.value(xs, out);
+		for (int i = 0; i < xs.length; i++) {
+			assertEquals(f.value(xs[i]), out[i], 0);
+		}
+	}
+
+	@Test
+	public void batchForTwoVariables() {
+		FunctionVariable x = new FunctionVariable(getKernel(), "x");
+		FunctionVariable y = new FunctionVariable(getKernel(), "y");
+		// sqrt(x^2 + y^2) - cos(2 * 3)
+		ExpressionNode exp = node(
+				node(node(node(x, Operation.POWER, num(2)), Operation.PLUS,
+						node(y, Operation.POWER, num(2))), Operation.SQRT,
+						null),
+				Operation.MINUS, node(node(num(2), Operation.MULTIPLY, num(3)),
+						Operation.COS, null));
+		FunctionNVar f = new FunctionNVar(exp,
+				new FunctionVariable[] { x, y });
+		assertEquals(true, BatchEvaluator
+				.compile(exp, f.getFunctionVariables()).isFullyCompiled());
+
+		double[][] vals = new double[][] { { 3, 0, -1 }, { 4, 0, 1 } };
+		double[] out = new double[3];
+		f.evaluate(vals, out);
+		for (int k = 0; k < out.length; k++) {
+			assertEquals(f.evaluate(new double[] { vals[0][k], vals[1][k] }),
+					out[k], 0);
+		}
+		assertEquals(5 - Math.cos(6), out[0], 0);
+	}
+
+	@Test
+	public void productOfVectorsUsesTreeWalker() {
+		FunctionVariable x = new FunctionVariable(getKernel(), "x");
+		// (x, 1) * (1, 2): not a number as product of doubles
+		ExpressionNode exp = node(new MyVecNode(getKernel(), x, num(1)),
+				Operation.MULTIPLY,
+				new MyVecNode(getKernel(), num(1), num(2)));
+		Function f = new Function(exp, x);
+		double[] out = new double[2];
+		f.value(new double[] { 3, -1 }, out);
+		assertEquals(5, out[0], 0);
+		assertEquals(1, out[1], 0);
+	}
+
+	@Test
+	public void evaluatorIsKeptUntilExpressionChanges() {
+		FunctionVariable x = new FunctionVariable(getKernel(), "x");
+		Function f = new Function(node(x, Operation.PLUS, num(1)), x);
+		BatchEvaluator batch = f.getBatchEvaluator();
+		assertSame(batch, f.getBatchEvaluator());
+
+		double[] out = new double[1];
+		// changes the expression in place
+		f.translateY(2);
+		f.value(new double[] { 1 }, out);
+		assertEquals(4, out[0], 0);
+		assertNotSame(batch, f.getBatchEvaluator());
+	}
+
+	private ExpressionNode node(ExpressionValue left, Operation op,
+			ExpressionValue right) {
+		return new ExpressionNode(getKernel(), left, op, right);
+	}
+
+	private MyDouble num(double value) {
+		return new MyDouble(getKernel(), value);
+	}
+}
@@ -0,0 +1,325 @@
+package org.geogebra.common.kernel.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.LayerView;
+import org.geogebra.common.kernel.ModeSetter;
+import org.geogebra.common.kernel.geos.GProperty;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.util.GTimer;
+import org.junit.Test;
+
+public class ViewNotificationQueueTest extends BaseUnitTest {
+
+	private final ArrayList<String> log = new ArrayList<>();
+
+	private class RecordingView implements QueuedView {
+		private final String name;
+		private final int priority;
+
+		RecordingView(String name, int priority) {
+			this.name = name;
+			this.priority = priority;
+		}
+
+		private void record(String event, GeoElementND geo) {
+			log.add(name + event + " " + geo.getLabelSimple());
+		}
+
+		@Override
+		public ViewDelivery getDelivery() {
+			return ViewDelivery.FRAME;
+		}
+
+		@Override
+		public int getNotificationPriority() {
+			return priority;
+		}
+
+		@Override
+		public void add(GeoElement geo) {
+			record("add", geo);
+		}
+
+		@Override
+		public void remove(GeoElement geo) {
+			record("remove", geo);
+		}
+
+		@Override
+		public void rename(GeoElement geo) {
+			record("rename", geo);
+		}
+
+		@Override
+		public void update(GeoElement geo) {
+			record("update", geo);
+		}
+
+		@Override
+		public void updateVisualStyle(GeoElement geo, GProperty prop) {
+			record("style " + prop, geo);
+		}
+
+		@Override
+		public void updateHighlight(GeoElementND geo) {
+			record("highlight", geo);
+		}
+
+		@Override
+		public void updateAuxiliaryObject(GeoElement geo) {
+			record("auxiliary", geo);
+		}
+
+		@Override
+		public void repaintView() {
+			log.add(name + "repaint");
+		}
+
+		@Override
+		public boolean suggestRepaint() {
+			return false;
+		}
+
+		@Override
+		public void reset() {
+			log.add(name + "reset");
+		}
+
+		@Override
+		public void clearView() {
+			log.add(name + "clear");
+		}
+
+		@Override
+		public void setMode(int mode, ModeSetter m) {
+			// not needed
+		}
+
+		@Override
+		public int getViewID() {
+			return 0;
+		}
+
+		@Override
+		public boolean hasFocus() {
+			return false;
+		}
+
+		@Override
+		public void startBatchUpdate() {
+			log.add(name + "start");
+		}
+
+		@Override
+		public void endBatchUpdate() {
+			log.add(name + "end");
+		}
+
+		@Override
+		public void updatePreviewFromInputBar(GeoElement[] geos) {
+			// not needed
+		}
+	}
+
+	private GeoNumeric number(String label) {
+		GeoNumeric num = new GeoNumeric(getConstruction(), 1);
+		num.setLabel(label);
+		return num;
+	}
+
+	@Test
+	public void notificationsShouldBeMergedPerElement() {
+		GeoNumeric a = number("a");
+		GeoNumeric b = number("b");
+		ViewNotificationQueue queue = new ViewNotificationQueue(
+				new RecordingView("", 0), null);
+		queue.update(b);
+		queue.updateVisualStyle(a, GProperty.COLOR);
+		queue.update(a);
+		queue.update(b);
+		queue.updateVisualStyle(a, GProperty.LABEL_STYLE);
+		queue.updateVisualStyle(a, GProperty.COLOR);
+		queue.rename(a);
+		queue.repaintView();
+		assertTrue(log.isEmpty());
+
+		queue.flush();
+		assertEquals("[start, update b, rename a, update a, style "
+				+ GProperty.COLOR + " a, style " + GProperty.LABEL_STYLE
+				+ " a, repaint, end]", log.toString());
+		log.clear();
+		queue.flush();
+		assertTrue(log.isEmpty());
+	}
+
+	@Test
+	public void removeShouldDropEarlierNotifications() {
+		GeoNumeric a = number("a");
+		ViewNotificationQueue queue = new ViewNotificationQueue(
+				new RecordingView("", 0), null);
+		queue.add(a);
+		queue.update(a);
+		queue.remove(a);
+		queue.flush();
+		assertEquals("[start, remove a, end]", log.toString());
+
+		log.clear();
+		queue.update(a);
+		queue.remove(a);
+		queue.add(a);
+		queue.flush();
+		assertEquals("[start, remove a, add a, end]", log.toString());
+	}
+
+	@Test
+	public void notificationsDuringFlushShouldBeDeliveredNextTime() {
+		final GeoNumeric a = number("a");
+		final GeoNumeric b = number("b");
+		final ViewNotificationQueue[] queue = new ViewNotificationQueue[1];
+		queue[0] = new ViewNotificationQueue(new RecordingView("", 0) {
+			@Override
+			public void update(GeoElement geo) {
+				super.update(geo);
+				queue[0].update(b);
+			}
+		}, null);
+		queue[0].update(a);
+		queue[0].flush();
+		assertEquals("[start, update a, end]", log.toString());
+		log.clear();
+		queue[0].flush();
+		assertEquals("[start, update b, end]", log.toString());
+	}
+
+	@Test
+	public void frameViewsShouldBeNotifiedOnRepaintByPriority() {
+		RecordingView low = new RecordingView("low ", 1);
+		RecordingView high = new RecordingView("high ", 2);
+		getKernel().attach(low);
+		getKernel().attach(high);
+		try {
+			GeoNumeric a = new GeoNumeric(getConstruction(), 1);
+			getKernel().setNotifyRepaintActive(false);
+			a.setLabel("a");
+			a.setValue(2);
+			a.updateCascade();
+			a.updateCascade();
+			assertTrue(log.isEmpty());
+
+			getKernel().setNotifyRepaintActive(true);
+			assertEquals("[high start, high add a, high update a, high repaint,"
+					+ " high end, low start, low add a, low update a,"
+					+ " low repaint, low end]", log.toString());
+		} finally {
+			getKernel().detach(low);
+			getKernel().detach(high);
+		}
+		log.clear();
+		number("c");
+		getKernel().notifyRepaint();
+		assertTrue(log.isEmpty());
+	}
+
+	private class LayerRecordingView extends RecordingView
+			implements LayerView {
+
+		LayerRecordingView() {
+			super("", 0);
+		}
+
+		@Override
+		public void changeLayer(GeoElement geo, int oldLayer, int newLayer) {
+			log.add("layer " + newLayer + " " + geo.getLabelSimple());
+		}
+	}
+
+	@Test
+	public void queuedViewsShouldBeFoundByType() {
+		LayerRecordingView view = new LayerRecordingView();
+		getKernel().attach(view);
+		try {
+			getKernel().setNotifyRepaintActive(false);
+			GeoNumeric a = number("a");
+			a.setLayer(2);
+			getKernel().setNotifyRepaintActive(true);
+		} finally {
+			getKernel().detach(view);
+		}
+		assertEquals("[start, add a, end, layer 2 a, start, repaint, end]",
+				log.toString());
+	}
+
+	@Test
+	public void resetShouldDeliverPendingNotificationsFirst() {
+		RecordingView view = new RecordingView("", 0);
+		getKernel().attach(view);
+		try {
+			getKernel().setNotifyRepaintActive(false);
+			number("a");
+			getKernel().notifyReset();
+			getKernel().setNotifyRepaintActive(true);
+		} finally {
+			getKernel().detach(view);
+		}
+		assertEquals("[start, add a, end, reset, start, repaint, end]",
+				log.toString());
+	}
+
+	@Test
+	public void clearViewShouldDropPendingNotifications() {
+		ViewNotificationQueue queue = new ViewNotificationQueue(
+				new RecordingView("", 0), null);
+		queue.add(number("a"));
+		queue.repaintView();
+		queue.clearView();
+		queue.flush();
+		assertEquals("[clear]", log.toString());
+	}
+
+	@Test
+	public void firstNotificationShouldStartTimer() {
+		final int[] starts = new int[1];
+		GTimer timer = new GTimer() {
+			private boolean running = false;
+
+			@Override
+			public void start() {
+				running = true;
+				starts[0]++;
+			}
+
+			@Override
+			public void startRepeat() {
+				start();
+			}
+
+			@Override
+			public void stop() {
+				running = false;
+			}
+
+			@Override
+			public boolean isRunning() {
+				return running;
+			}
+
+			@Override
+			public void setDelay(int delay) {
+				// not needed
+			}
+		};
+		ViewNotificationQueue queue = new ViewNotificationQueue(
+				new RecordingView("", 0), timer);
+		GeoNumeric a = number("a");
+		queue.add(a);
+		queue.update(a);
+		assertEquals(1, starts[0]);
+	}
+}
@@ -0,0 +1,231 @@
+package org.geogebra.common.kernel.discrete;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.collections15.Transformer;
+import org.junit.Test;
+
+import edu.uci.ics.jung.algorithms.shortestpath.DijkstraShortestPath;
+import edu.uci.ics.jung.graph.SparseMultigraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+
+public class CompactGraphTest {
+
+	private final Random random = new Random(42);
+
+	private CompactGraph randomGraph(int n, int m, int[] from, int[] to,
+			double[] weights) {
+		for (int e = 0; e < m; e++) {
+			from[e] = random.nextInt(n);
+			to[e] = random.nextInt(n);
+		}
+		CompactGraph graph = new CompactGraph(n, from, to, m);
+		for (int e = 0; e < m; e++) {
+			weights[e] = random.nextInt(20);
+			graph.setWeight(e, weights[e]);
+		}
+		return graph;
+	}
+
+	private static double[][] distances(int n, int m, int[] from, int[] to,
+			double[] weights) {
+		double[][] dist = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			Arrays.fill(dist[i], Double.POSITIVE_INFINITY);
+			dist[i][i] = 0;
+		}
+		for (int e = 0; e < m; e++) {
+			double w = Math.min(weights[e], dist[from[e]][to[e]]);
+			dist[from[e]][to[e]] = w;
+			dist[to[e]][from[e]] = w;
+		}
+		for (int k = 0; k < n; k++) {
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					dist[i][j] = Math.min(dist[i][j], dist[i][k] + dist[k][j]);
+				}
+			}
+		}
+		return dist;
+	}
+
+	@Test
+	public void shortestPathsShouldMatchFloydWarshall() {
+		int n = 30;
+		int m = 45;
+		int[] from = new int[m];
+		int[] to = new int[m];
+		double[] weights = new double[m];
+		for (int run = 0; run < 20; run++) {
+			CompactGraph graph = randomGraph(n, m, from, to, weights);
+			double[][] dist = distances(n, m, from, to, weights);
+			double[] ones = new double[m];
+			Arrays.fill(ones, 1);
+			double[][] hops = distances(n, m, from, to, ones);
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					int[] path = graph.shortestPath(i, j, true);
+					if (Double.isInfinite(dist[i][j])) {
+						assertNull(path);
+						continue;
+					}
+					assertEquals(i, path[0]);
+					assertEquals(j, path[path.length - 1]);
+					assertEquals(dist[i][j], length(graph, path, true), 0);
+					path = graph.shortestPath(i, j, false);
+					assertEquals(hops[i][j], path.length - 1, 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return length of the path, fails if consecutive vertices are not
+	 *         connected
+	 */
+	private static double length(CompactGraph graph, int[] path,
+			boolean weighted) {
+		double length = 0;
+		for (int k = 0; k + 1 < path.length; k++) {
+			double best = Double.POSITIVE_INFINITY;
+			for (int e = 0; e < graph.getEdgeCount(); e++) {
+				int u = graph.getFrom(e);
+				int v = graph.getTo(e);
+				if ((u == path[k] && v == path[k + 1])
+						|| (v == path[k] && u == path[k + 1])) {
+					best = Math.min(best, weighted ? graph.getWeight(e) : 1);
+				}
+			}
+			assertTrue(best < Double.POSITIVE_INFINITY);
+			length += best;
+		}
+		return length;
+	}
+
+	@Test
+	public void spanningForestShouldHaveMinimalWeight() {
+		int n = 40;
+		int m = 70;
+		int[] from = new int[m];
+		int[] to = new int[m];
+		double[] weights = new double[m];
+		for (int run = 0; run < 20; run++) {
+			CompactGraph graph = randomGraph(n, m, from, to, weights);
+			int[] forest = graph.minimumSpanningForest();
+			double total = 0;
+			for (int e : forest) {
+				total += weights[e];
+			}
+			assertEquals(primForestWeight(n, m, from, to, weights), total, 0);
+			assertEquals(n - components(n, m, from, to), forest.length);
+		}
+	}
+
+	private static double primForestWeight(int n, int m, int[] from, int[] to,
+			double[] weights) {
+		double[][] w = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			Arrays.fill(w[i], Double.POSITIVE_INFINITY);
+		}
+		for (int e = 0; e < m; e++) {
+			if (from[e] != to[e]) {
+				w[from[e]][to[e]] = Math.min(w[from[e]][to[e]], weights[e]);
+				w[to[e]][from[e]] = w[from[e]][to[e]];
+			}
+		}
+		boolean[] inTree = new boolean[n];
+		double[] best = new double[n];
+		Arrays.fill(best, Double.POSITIVE_INFINITY);
+		double total = 0;
+		for (int k = 0; k < n; k++) {
+			int next = -1;
+			for (int v = 0; v < n; v++) {
+				if (!inTree[v] && (next < 0 || best[v] < best[next])) {
+					next = v;
+				}
+			}
+			inTree[next] = true;
+			if (best[next] < Double.POSITIVE_INFINITY) {
+				total += best[next];
+			}
+			for (int v = 0; v < n; v++) {
+				best[v] = Math.min(best[v], w[next][v]);
+			}
+		}
+		return total;
+	}
+
+	private static int components(int n, int m, int[] from, int[] to) {
+		int[] label = new int[n];
+		Arrays.fill(label, -1);
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			if (label[i] < 0) {
+				label[i] = count;
+				boolean changed = true;
+				while (changed) {
+					changed = false;
+					for (int e = 0; e < m; e++) {
+						if ((label[from[e]] == count) != (label[to[e]] == count)) {
+							label[from[e]] = count;
+							label[to[e]] = count;
+							changed = true;
+						}
+					}
+				}
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void gridPathShouldMatchJung() {
+		int side = 10;
+		int n = side * side;
+		int m = 2 * side * (side - 1);
+		int[] from = new int[m];
+		int[] to = new int[m];
+		final double[] weights = new double[m];
+		int e = 0;
+		for (int i = 0; i < side; i++) {
+			for (int j = 0; j < side; j++) {
+				if (j + 1 < side) {
+					from[e] = i * side + j;
+					to[e++] = i * side + j + 1;
+				}
+				if (i + 1 < side) {
+					from[e] = i * side + j;
+					to[e++] = (i + 1) * side + j;
+				}
+			}
+		}
+		CompactGraph graph = new CompactGraph(n, from, to, m);
+		SparseMultigraph<Integer, Integer> g = new SparseMultigraph<>();
+		for (int k = 0; k < m; k++) {
+			weights[k] = 1 + random.nextDouble();
+			graph.setWeight(k, weights[k]);
+			g.addEdge(k, from[k], to[k], EdgeType.UNDIRECTED);
+		}
+		DijkstraShortestPath<Integer, Integer> dijkstra = new DijkstraShortestPath<>(
+				g, new Transformer<Integer, Double>() {
+					@Override
+					public Double transform(Integer edge) {
+						return weights[edge];
+					}
+				});
+		List<Integer> jungPath = dijkstra.getPath(0, n - 1);
+		double jungLength = 0;
+		for (int edge : jungPath) {
+			jungLength += weights[edge];
+		}
+		int[] path = graph.shortestPath(0, n - 1, true);
+		assertEquals(jungLength, length(graph, path, true), 1E-9);
+	}
+}
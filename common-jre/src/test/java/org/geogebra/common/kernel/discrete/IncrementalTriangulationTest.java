@@ -0,0 +1,177 @@
+package org.geogebra.common.kernel.discrete;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.discrete.AlgoDelauneyTriangulation.DelaunayEdges;
+import org.geogebra.common.kernel.discrete.AlgoVoronoi.VoronoiEdges;
+import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
+import org.geogebra.common.kernel.discrete.delaunay.PointDt;
+import org.geogebra.common.kernel.discrete.delaunay.TriangleDt;
+import org.junit.Test;
+
+public class IncrementalTriangulationTest {
+
+	private final Random random = new Random(42);
+
+	@Test
+	public void delaunayUpdatesShouldMatchRebuild() {
+		checkUpdates(false);
+	}
+
+	@Test
+	public void voronoiUpdatesShouldMatchRebuild() {
+		checkUpdates(true);
+	}
+
+	private static IncrementalTriangulation create(boolean voronoi) {
+		return voronoi ? new VoronoiEdges() : new DelaunayEdges();
+	}
+
+	private void checkUpdates(boolean voronoi) {
+		IncrementalTriangulation incremental = create(voronoi);
+		int n = 300;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = random.nextDouble() * 10;
+			y[i] = random.nextDouble() * 10;
+		}
+		int steps = 200;
+		for (int step = 0; step < steps; step++) {
+			int changes = 1 + random.nextInt(3);
+			for (int j = 0; j < changes; j++) {
+				int i = random.nextInt(n);
+				if (random.nextInt(10) == 0) {
+					x[i] = Double.NaN;
+				} else {
+					x[i] = random.nextDouble() * 10;
+					y[i] = random.nextDouble() * 10;
+				}
+			}
+			assertTrue(incremental.update(x, y, n));
+			IncrementalTriangulation rebuilt = create(voronoi);
+			assertTrue(rebuilt.update(x, y, n));
+			assertEquals(segments(rebuilt), segments(incremental));
+		}
+		// only changes of points on the hull need a rebuild
+		assertTrue(incremental.getRebuilds() < steps / 4);
+	}
+
+	@Test
+	public void voronoiShouldMatchCells() {
+		for (int run = 0; run < 10; run++) {
+			int n = 5 + run * 10;
+			double[] x = new double[n];
+			double[] y = new double[n];
+			PointDt[] points = new PointDt[n];
+			for (int i = 0; i < n; i++) {
+				x[i] = random.nextDouble() * 10;
+				y[i] = random.nextDouble() * 10;
+				points[i] = new PointDt(x[i], y[i]);
+			}
+			assertEquals(cellEdges(new DelaunayTriangulation(points)),
+					segments(new VoronoiEdges(), x, y));
+		}
+	}
+
+	/**
+	 * Edges of the Voronoi diagram as drawn by taking the cell of every
+	 * corner of every triangle.
+	 */
+	private static TreeSet<String> cellEdges(DelaunayTriangulation dt) {
+		TreeSet<String> segments = new TreeSet<>();
+		Iterator<TriangleDt> it = dt.trianglesIterator();
+		while (it.hasNext()) {
+			TriangleDt triangle = it.next();
+			for (int index = 0; index < 3; index++) {
+				PointDt corner = triangle.getCorner(index);
+				PointDt[] cell = corner == null ? null
+						: dt.calcVoronoiCell(triangle, corner);
+				for (int i = 0; cell != null && i < cell.length - 1; i++) {
+					String start = format(cell[i]);
+					String end = format(cell[i + 1]);
+					segments.add(start.compareTo(end) < 0 ? start + end
+							: end + start);
+				}
+			}
+		}
+		return segments;
+	}
+
+	@Test
+	public void duplicatePointsShouldBeIgnored() {
+		double[] x = { 0, 4, 0, 4, 1, 1 };
+		double[] y = { 0, 0, 4, 4, 2, 2 };
+		IncrementalTriangulation triangulation = new DelaunayEdges();
+		assertTrue(triangulation.update(x, y, x.length));
+		// 4 hull edges, 4 edges to the inner point
+		assertEquals(8, segments(triangulation).size());
+		x[5] = 3;
+		assertTrue(triangulation.update(x, y, x.length));
+		assertEquals(segments(new DelaunayEdges(), x, y),
+				segments(triangulation));
+
+		double[] collinear = { 0, 1, 2 };
+		assertTrue(!triangulation.update(collinear, collinear, 3));
+	}
+
+	@Test
+	public void draggingOnePointShouldNotRebuild() {
+		int n = 200;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = random.nextDouble() * 100;
+			y[i] = random.nextDouble() * 100;
+		}
+		IncrementalTriangulation delaunay = new DelaunayEdges();
+		IncrementalTriangulation voronoi = new VoronoiEdges();
+		for (int frame = 0; frame < 20; frame++) {
+			x[0] = 50 + 10 * Math.cos(frame * 0.1);
+			y[0] = 50 + 10 * Math.sin(frame * 0.1);
+			delaunay.update(x, y, n);
+			voronoi.update(x, y, n);
+		}
+		assertEquals(1, delaunay.getRebuilds());
+		assertEquals(1, voronoi.getRebuilds());
+	}
+
+	private static TreeSet<String> segments(
+			IncrementalTriangulation triangulation, double[] x, double[] y) {
+		triangulation.update(x, y, x.length);
+		return segments(triangulation);
+	}
+
+	private static TreeSet<String> segments(
+			IncrementalTriangulation triangulation) {
+		ArrayList<MyPoint> points = new ArrayList<>();
+		triangulation.getSegments(points);
+		TreeSet<String> segments = new TreeSet<>();
+		for (int i = 0; i < points.size(); i += 2) {
+			assertTrue(!points.get(i).getLineTo());
+			assertTrue(points.get(i + 1).getLineTo());
+			String start = format(points.get(i));
+			String end = format(points.get(i + 1));
+			segments.add(start.compareTo(end) < 0 ? start + end : end + start);
+		}
+		// no duplicate segments
+		assertEquals(points.size() / 2, segments.size());
+		return segments;
+	}
+
+	private static String format(MyPoint p) {
+		return "(" + Math.round(p.getX() * 1E6) + "," + Math.round(p.getY() * 1E6)
+				+ ")";
+	}
+
+	private static String format(PointDt p) {
+		return format(new MyPoint(p.x(), p.y()));
+	}
+}
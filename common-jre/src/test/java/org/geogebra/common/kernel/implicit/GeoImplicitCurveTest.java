@@ -0,0 +1,118 @@
+package org.geogebra.common.kernel.implicit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.jre.util.ForkJoinTaskExecutor;
+import org.geogebra.common.kernel.MyPoint;
+import org.junit.Test;
+
+public class GeoImplicitCurveTest extends BaseUnitTest {
+
+	private double[] viewBounds = { -5, 5, -5, 5, 40, 40 };
+
+	@Test
+	public void parallelPathShouldLieOnCurve() {
+		ForkJoinTaskExecutor executor = new ForkJoinTaskExecutor(4);
+		getKernel().setTaskExecutor(executor);
+		try {
+			GeoImplicitCurve circle = circle();
+			circle.updatePath();
+			checkOnCircle(circle.getLocus().getPoints());
+
+			// pan: most of the grid is reused
+			viewBounds = new double[] { -3.3, 6.7, -4.1, 5.9, 40, 40 };
+			circle.updatePath();
+			checkOnCircle(circle.getLocus().getPoints());
+		} finally {
+			getKernel().setTaskExecutor(null);
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void parallelPathShouldMatchSequential() {
+		List<String> sequential = lemniscatePaths();
+		ForkJoinTaskExecutor executor = new ForkJoinTaskExecutor(4);
+		getKernel().setTaskExecutor(executor);
+		try {
+			assertEquals(sequential, lemniscatePaths());
+		} finally {
+			getKernel().setTaskExecutor(null);
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * @return paths of a lemniscate before and after a pan
+	 */
+	private List<String> lemniscatePaths() {
+		viewBounds = new double[] { -5, 5, -5, 5, 40, 40 };
+		GeoImplicitCurve lemniscate = curve(new double[][] {
+				{ 0, 0, 8, 0, 1 }, { 0, 0, 0, 0, 0 }, { -8, 0, 2, 0, 0 },
+				{ 0, 0, 0, 0, 0 }, { 1, 0, 0, 0, 0 } });
+		lemniscate.updatePath();
+		assertTrue(lemniscate.getLocus().getPoints().size() > 20);
+		String path = format(lemniscate.getLocus().getPoints());
+		viewBounds = new double[] { -3.3, 6.7, -4.1, 5.9, 40, 40 };
+		lemniscate.updatePath();
+		return Arrays.asList(path,
+				format(lemniscate.getLocus().getPoints()));
+	}
+
+	private static String format(ArrayList<MyPoint> points) {
+		StringBuilder sb = new StringBuilder();
+		for (MyPoint point : points) {
+			sb.append(point.getLineTo() ? 'L' : 'M').append(point.x)
+					.append(',').append(point.y).append(' ');
+		}
+		return sb.toString();
+	}
+
+	@Test
+	public void pathShouldLieOnCurve() {
+		GeoImplicitCurve circle = circle();
+		circle.updatePath();
+		checkOnCircle(circle.getLocus().getPoints());
+	}
+
+	private static void checkOnCircle(ArrayList<MyPoint> points) {
+		assertTrue(points.size() > 20);
+		for (MyPoint point : points) {
+			assertEquals(2, Math.hypot(point.x, point.y), 0.05);
+		}
+	}
+
+	private GeoImplicitCurve circle() {
+		// x^2 + y^2 - 4
+		return curve(new double[][] { { -4, 0, 1 }, { 0, 0, 0 },
+				{ 1, 0, 0 } });
+	}
+
+	/**
+	 * @param coeff
+	 *            coefficients, coeff[i][j] belongs to x^i y^j
+	 */
+	private GeoImplicitCurve curve(double[][] coeff) {
+		GeoImplicitCurve curve = new GeoImplicitCurve(
+				getKernel().getConstruction()) {
+			@Override
+			protected double[] getViewBounds() {
+				return viewBounds;
+			}
+
+			@Override
+			protected long getMillisecondTime() {
+				// same plot depth, however long plotting takes
+				return 0;
+			}
+		};
+		curve.setCoeff(coeff);
+		return curve;
+	}
+}
@@ -0,0 +1,267 @@
+package org.geogebra.common.kernel.prover.polynomial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.geogebra.common.BaseUnitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PPolynomialTest extends BaseUnitTest {
+
+	private final Random random = new Random(42);
+	private PVariable[] vars;
+
+	@Before
+	public void createVariables() {
+		vars = new PVariable[9];
+		for (int i = 0; i < vars.length; i++) {
+			vars[i] = new PVariable(getKernel());
+		}
+	}
+
+	@Test
+	public void operationsShouldMatchTermMaps() {
+		for (int run = 0; run < 200; run++) {
+			PPolynomial p = randomPolynomial();
+			PPolynomial q = randomPolynomial();
+			TreeMap<PTerm, BigInteger> mapP = p.getTerms();
+			TreeMap<PTerm, BigInteger> mapQ = q.getTerms();
+			assertEquals(add(mapP, mapQ), p.add(q).getTerms());
+			assertEquals(add(mapP, negate(mapQ)), p.subtract(q).getTerms());
+			assertEquals(multiply(mapP, mapQ), p.multiply(q).getTerms());
+			assertTrue(p.subtract(p).isZero());
+
+			HashMap<PVariable, BigInteger> values = new HashMap<>();
+			values.put(vars[run % vars.length], BigInteger.valueOf(run % 3));
+			values.put(vars[(run + 4) % vars.length], BigInteger.valueOf(-7));
+			assertEquals(substitute(mapP, values),
+					p.substitute(values).getTerms());
+		}
+	}
+
+	@Test
+	public void orderShouldMatchTermMaps() {
+		ArrayList<PPolynomial> polys = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			polys.add(randomPolynomial());
+		}
+		// same leading terms
+		polys.add(polys.get(0).add(new PPolynomial(1)));
+		polys.add(polys.get(0).add(new PPolynomial(vars[8])));
+		polys.add(new PPolynomial());
+		for (PPolynomial p : polys) {
+			for (PPolynomial q : polys) {
+				assertEquals(Integer.signum(compare(p.getTerms(), q.getTerms())),
+						Integer.signum(p.compareTo(q)));
+			}
+		}
+	}
+
+	@Test
+	public void equalPolynomialsShouldHaveEqualHashCodes() {
+		PPolynomial a = randomPolynomial();
+		PPolynomial b = randomPolynomial();
+		PPolynomial c = randomPolynomial();
+		PPolynomial left = a.add(b).multiply(c);
+		PPolynomial right = c.multiply(b).add(a.multiply(c));
+		assertEquals(left, right);
+		assertEquals(left.hashCode(), right.hashCode());
+		// variable that cancels out
+		PPolynomial x = new PPolynomial(vars[0]);
+		assertEquals(a, a.add(x).subtract(x));
+		assertEquals(a.hashCode(), a.add(x).subtract(x).hashCode());
+	}
+
+	@Test
+	public void stringsShouldListTermsInAscendingOrder() {
+		// variables created later come first
+		PPolynomial x = new PPolynomial(vars[0]);
+		PPolynomial y = new PPolynomial(vars[1]);
+		PPolynomial p = PPolynomial.sqr(x.subtract(y)).add(new PPolynomial(3));
+		String v0 = vars[0].toString();
+		String v1 = vars[1].toString();
+		assertEquals("3+" + v1 + "^2-2*" + v1 + "*" + v0 + "+" + v0 + "^2",
+				p.toString());
+		assertEquals("3+v_{" + vars[1].getId() + "}^{2}-2v_{"
+				+ vars[1].getId() + "}v_{" + vars[0].getId() + "}+v_{"
+				+ vars[0].getId() + "}^{2}", p.toTeX());
+		assertEquals("0", new PPolynomial(0).toString());
+		assertEquals("-" + v0, x.negate().toString());
+	}
+
+	@Test
+	public void largeCoefficientsShouldBePromoted() {
+		BigInteger big = BigInteger.ONE.shiftLeft(62);
+		PPolynomial p = new PPolynomial(big, vars[0]);
+		PPolynomial sum = p.add(p);
+		assertEquals(big.shiftLeft(1), sum.getTerms().firstEntry().getValue());
+		PPolynomial square = sum.multiply(sum);
+		assertEquals(big.shiftLeft(1).pow(2),
+				square.getTerms().firstEntry().getValue());
+		assertTrue(square.subtract(sum.multiply(sum)).isZero());
+		assertTrue(sum.subtract(p).subtract(p).isZero());
+		PPolynomial min = new PPolynomial(Long.MIN_VALUE);
+		assertEquals(BigInteger.valueOf(Long.MIN_VALUE).negate(),
+				min.negate().getConstant());
+		assertTrue(min.isConstant());
+	}
+
+	@Test
+	public void substitutedVariablesShouldBeCombined() {
+		PPolynomial p = new PPolynomial(vars[0]).add(new PPolynomial(vars[1]))
+				.multiply(new PPolynomial(vars[2]));
+		PPolynomial q = p.substitute(vars[0], vars[1]);
+		assertEquals(new PPolynomial(BigInteger.valueOf(2), vars[1])
+				.multiply(new PPolynomial(vars[2])), q);
+		assertEquals(p, p.substitute(vars[3], vars[1]));
+		assertEquals(2, q.getVars().size());
+	}
+
+	@Test
+	public void proverHypothesesShouldMatchTermMaps() {
+		// hypotheses as created by the Botana prover for chains of
+		// collinear, perpendicular and equidistant points
+		ArrayList<PPolynomial> hypotheses = new ArrayList<>();
+		PVariable[] p = new PVariable[12];
+		for (int i = 0; i < p.length; i++) {
+			p[i] = new PVariable(getKernel());
+		}
+		for (int i = 0; i + 7 < p.length; i += 2) {
+			hypotheses.add(PPolynomial.collinear(p[i], p[i + 1], p[i + 2],
+					p[i + 3], p[i + 4], p[i + 5]));
+			hypotheses.add(PPolynomial.perpendicular(p[i], p[i + 1], p[i + 2],
+					p[i + 3], p[i + 4], p[i + 5], p[i + 6], p[i + 7]));
+			hypotheses.add(PPolynomial.equidistant(p[i], p[i + 1], p[i + 2],
+					p[i + 3], p[i + 4], p[i + 5]));
+		}
+		HashMap<PVariable, BigInteger> values = new HashMap<>();
+		for (int i = 0; i < 4; i++) {
+			values.put(p[i], BigInteger.valueOf(i % 2));
+		}
+		ArrayList<TreeMap<PTerm, BigInteger>> maps = new ArrayList<>();
+		for (PPolynomial h : hypotheses) {
+			maps.add(h.getTerms());
+		}
+
+		PPolynomial packed = new PPolynomial();
+		TreeMap<PTerm, BigInteger> reference = new TreeMap<>();
+		for (int i = 0; i + 1 < hypotheses.size(); i++) {
+			packed = packed.add(hypotheses.get(i)
+					.multiply(hypotheses.get(i + 1)).substitute(values));
+			reference = add(reference, substitute(
+					multiply(maps.get(i), maps.get(i + 1)), values));
+		}
+		packed = packed.multiply(hypotheses.get(0));
+		reference = multiply(reference, maps.get(0));
+		assertEquals(reference, packed.getTerms());
+	}
+
+	private PPolynomial randomPolynomial() {
+		PPolynomial p = new PPolynomial();
+		int size = random.nextInt(8);
+		for (int i = 0; i < size; i++) {
+			TreeMap<PVariable, Integer> powers = new TreeMap<>();
+			for (PVariable v : vars) {
+				if (random.nextInt(3) == 0) {
+					powers.put(v, 1 + random.nextInt(3));
+				}
+			}
+			BigInteger coeff = random.nextInt(10) == 0
+					? new BigInteger(70, random).negate()
+					: BigInteger.valueOf(random.nextInt(11) - 5);
+			p = p.add(new PPolynomial(coeff, new PTerm(powers)));
+		}
+		return p;
+	}
+
+	// term map arithmetic as in the former implementation of PPolynomial
+
+	private static TreeMap<PTerm, BigInteger> add(TreeMap<PTerm, BigInteger> a,
+			TreeMap<PTerm, BigInteger> b) {
+		TreeMap<PTerm, BigInteger> result = new TreeMap<>(a);
+		for (Entry<PTerm, BigInteger> entry : b.entrySet()) {
+			put(result, entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+
+	private static void put(TreeMap<PTerm, BigInteger> result, PTerm t,
+			BigInteger coeff) {
+		BigInteger old = result.get(t);
+		BigInteger sum = old == null ? coeff : old.add(coeff);
+		if (sum.signum() == 0) {
+			result.remove(t);
+		} else {
+			result.put(t, sum);
+		}
+	}
+
+	private static TreeMap<PTerm, BigInteger> negate(
+			TreeMap<PTerm, BigInteger> a) {
+		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
+		for (Entry<PTerm, BigInteger> entry : a.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().negate());
+		}
+		return result;
+	}
+
+	private static TreeMap<PTerm, BigInteger> multiply(
+			TreeMap<PTerm, BigInteger> a, TreeMap<PTerm, BigInteger> b) {
+		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
+		for (Entry<PTerm, BigInteger> entry1 : a.entrySet()) {
+			for (Entry<PTerm, BigInteger> entry2 : b.entrySet()) {
+				put(result, entry1.getKey().times(entry2.getKey()),
+						entry1.getValue().multiply(entry2.getValue()));
+			}
+		}
+		return result;
+	}
+
+	private static TreeMap<PTerm, BigInteger> substitute(
+			TreeMap<PTerm, BigInteger> a, Map<PVariable, BigInteger> values) {
+		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
+		for (Entry<PTerm, BigInteger> entry : a.entrySet()) {
+			TreeMap<PVariable, Integer> term = new TreeMap<>(
+					entry.getKey().getTerm());
+			BigInteger product = entry.getValue();
+			for (Entry<PVariable, BigInteger> value : values.entrySet()) {
+				Integer exponent = term.remove(value.getKey());
+				if (exponent != null) {
+					product = product.multiply(value.getValue().pow(exponent));
+				}
+			}
+			put(result, new PTerm(term), product);
+		}
+		return result;
+	}
+
+	private static int compare(TreeMap<PTerm, BigInteger> a,
+			TreeMap<PTerm, BigInteger> b) {
+		Iterator<Entry<PTerm, BigInteger>> itA = a.descendingMap().entrySet()
+				.iterator();
+		Iterator<Entry<PTerm, BigInteger>> itB = b.descendingMap().entrySet()
+				.iterator();
+		while (itA.hasNext() && itB.hasNext()) {
+			Entry<PTerm, BigInteger> entryA = itA.next();
+			Entry<PTerm, BigInteger> entryB = itB.next();
+			int compare = entryA.getKey().compareTo(entryB.getKey());
+			if (compare == 0) {
+				compare = entryA.getValue().compareTo(entryB.getValue());
+			}
+			if (compare != 0) {
+				return compare;
+			}
+		}
+		return itA.hasNext() ? 1 : (itB.hasNext() ? -1 : 0);
+	}
+}
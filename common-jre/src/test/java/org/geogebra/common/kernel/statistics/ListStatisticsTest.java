@@ -0,0 +1,89 @@
+package org.geogebra.common.kernel.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.algos.AlgoMedian;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.junit.Test;
+
+public class ListStatisticsTest extends BaseUnitTest {
+
+	private GeoList numbers(GeoNumeric... elements) {
+		GeoList list = new GeoList(getConstruction());
+		for (GeoNumeric num : elements) {
+			list.add(num);
+		}
+		return list;
+	}
+
+	private GeoNumeric number(double value) {
+		GeoNumeric num = new GeoNumeric(getConstruction(), value);
+		num.setLabel(null);
+		return num;
+	}
+
+	@Test
+	public void statisticsShouldBeSharedUntilUpdate() {
+		GeoNumeric a = number(4);
+		GeoList list = numbers(number(3), a, number(-1));
+		ListStatistics stats = list.getNumberStatistics();
+		assertSame(stats, list.getNumberStatistics());
+		assertEquals(6, stats.getSumX(), 0);
+		assertEquals(26, stats.getSumXX(), 0);
+		assertEquals(-12, stats.getProductX(), 0);
+		assertEquals(-1, stats.getSortedX()[0], 0);
+
+		a.setValue(10);
+		a.updateRepaint();
+		ListStatistics updated = list.getNumberStatistics();
+		assertNotSame(stats, updated);
+		assertEquals(12, updated.getSumX(), 0);
+		assertEquals(10, updated.getSortedX()[2], 0);
+	}
+
+	@Test
+	public void statisticsShouldNotBeSharedAfterElementReplaced() {
+		GeoList list = numbers(number(3), number(4));
+		ListStatistics stats = list.getNumberStatistics();
+		list.clear();
+		list.add(number(5));
+		list.add(number(6));
+		ListStatistics replaced = list.getNumberStatistics();
+		assertNotSame(stats, replaced);
+		assertEquals(11, replaced.getSumX(), 0);
+	}
+
+	@Test
+	public void medianShouldUseSortedValues() {
+		GeoNumeric a = number(5);
+		GeoList list = numbers(number(1), a, number(2), number(8));
+		list.setLabel("l");
+		AlgoMedian median = new AlgoMedian(getConstruction(), list);
+		assertEquals(3.5, median.getMedian().getValue(), 0);
+		a.setValue(0);
+		a.updateRepaint();
+		median.compute();
+		assertEquals(1.5, median.getMedian().getValue(), 0);
+	}
+
+	@Test
+	public void pointStatisticsShouldNeedPoints() {
+		GeoList list = new GeoList(getConstruction());
+		list.add(new GeoPoint(getConstruction(), 1, 2, 1));
+		list.add(new GeoPoint(getConstruction(), 3, 4, 1));
+		ListStatistics stats = list.getPointStatistics();
+		assertEquals(4, stats.getSumX(), 0);
+		assertEquals(6, stats.getSumY(), 0);
+		assertEquals(14, stats.getSumXY(), 0);
+		assertNull(list.getNumberStatistics());
+
+		list.add(number(1));
+		assertNull(list.getPointStatistics());
+	}
+}
@@ -0,0 +1,160 @@
+package org.geogebra.common.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.util.TaskExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncEventQueueTest extends BaseUnitTest {
+
+	private final ArrayList<Runnable> tasks = new ArrayList<>();
+	private final ArrayList<String> log = new ArrayList<>();
+	private EventDispatcher dispatcher;
+
+	private class RecordingListener implements EventListener {
+		private final String name;
+
+		RecordingListener(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void sendEvent(Event evt) {
+			log.add(name + evt.type + " " + evt.argument);
+		}
+
+		@Override
+		public void reset() {
+			// not needed
+		}
+	}
+
+	private class AsyncListener extends RecordingListener
+			implements AsyncEventListener {
+
+		AsyncListener() {
+			super("async ");
+		}
+	}
+
+	private final TaskExecutor executor = new TaskExecutor() {
+		@Override
+		public void execute(Runnable task) {
+			tasks.add(task);
+		}
+
+		@Override
+		public void invokeAll(List<? extends Runnable> all) {
+			tasks.addAll(all);
+		}
+	};
+
+	private void runTasks() {
+		while (!tasks.isEmpty()) {
+			tasks.remove(0).run();
+		}
+	}
+
+	private GeoNumeric number(String label) {
+		GeoNumeric num = new GeoNumeric(getConstruction(), 1);
+		num.setLabel(label);
+		return num;
+	}
+
+	@Before
+	public void setUpDispatcher() {
+		dispatcher = getApp().getEventDispatcher();
+	}
+
+	@After
+	public void resetDispatcher() {
+		dispatcher.setAsyncExecutor(null, 0);
+	}
+
+	@Test
+	public void updatesShouldBeMergedAndDeliveredInOrder() {
+		GeoNumeric a = number("a");
+		GeoNumeric b = number("b");
+		dispatcher.addEventListener(new RecordingListener("sync "));
+		dispatcher.addEventListener(new AsyncListener());
+		dispatcher.setAsyncExecutor(executor, 16);
+
+		dispatcher.update(a);
+		dispatcher.update(b);
+		dispatcher.update(a);
+		dispatcher.rename(a);
+		dispatcher.update(a);
+		assertEquals("[sync UPDATE a, sync UPDATE b, sync UPDATE a,"
+				+ " sync RENAME a, sync UPDATE a]", log.toString());
+		assertEquals(1, tasks.size());
+
+		log.clear();
+		runTasks();
+		assertEquals("[async UPDATE a, async UPDATE b, async RENAME a,"
+				+ " async UPDATE a]", log.toString());
+		AsyncEventQueue queue = dispatcher.getAsyncEventQueue();
+		assertEquals(1, queue.getCoalesced());
+		assertEquals(4, queue.getDelivered());
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void fullQueueShouldBeDeliveredByCaller() {
+		GeoNumeric a = number("a");
+		GeoNumeric b = number("b");
+		GeoNumeric c = number("c");
+		dispatcher.addEventListener(new AsyncListener());
+		dispatcher.setAsyncExecutor(executor, 2);
+
+		dispatcher.update(a);
+		dispatcher.update(b);
+		dispatcher.update(c);
+		assertEquals("[async UPDATE a, async UPDATE b]", log.toString());
+		assertEquals(1, dispatcher.getAsyncEventQueue().getOverflows());
+		assertEquals(2, dispatcher.getAsyncEventQueue().getMaxSize());
+
+		runTasks();
+		assertEquals("[async UPDATE a, async UPDATE b, async UPDATE c]",
+				log.toString());
+	}
+
+	@Test
+	public void eventsFromListenersShouldBeDeliveredImmediately() {
+		final GeoNumeric a = number("a");
+		final GeoNumeric b = number("b");
+		dispatcher.addEventListener(new AsyncListener() {
+			@Override
+			public void sendEvent(Event evt) {
+				super.sendEvent(evt);
+				if (evt.target == a) {
+					dispatcher.update(b);
+				}
+			}
+		});
+		dispatcher.setAsyncExecutor(executor, 16);
+		dispatcher.update(a);
+		assertTrue(log.isEmpty());
+		runTasks();
+		assertEquals("[async UPDATE a, async UPDATE b]", log.toString());
+		assertTrue(tasks.isEmpty());
+	}
+
+	@Test
+	public void pendingEventsShouldBeDroppedForNewConstruction() {
+		GeoNumeric a = number("a");
+		dispatcher.addEventListener(new AsyncListener());
+		dispatcher.setAsyncExecutor(executor, 16);
+		dispatcher.update(a);
+		dispatcher.clearView();
+		runTasks();
+		assertTrue(log.isEmpty());
+	}
+}
@@ -173,7 +173,11 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 			MyArbitraryConstant arbconst, StringTemplate tpl, Kernel kernel)
 			throws CASException {
 		try {
-			ValidExpression inVE = casParser.parseGeoGebraCASInput(exp, null);
+			ValidExpression inVE;
+			// the parser is shared by all threads, CAS engines may not be
+			synchronized (casParser) {
+				inVE = casParser.parseGeoGebraCASInput(exp, null);
+			}
 			String ret = evaluateGeoGebraCAS(inVE, arbconst, tpl, null, kernel);
 			if (ret == null) {
 				throw new CASException(new Exception(
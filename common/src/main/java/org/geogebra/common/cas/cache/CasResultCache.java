@@ -0,0 +1,28 @@
+package org.geogebra.common.cas.cache;
+
+/**
+ * Cache for CAS results, keyed by CAS input and the kernel settings that
+ * influence the result (see Kernel.getCasCacheKey).
+ */
+public interface CasResultCache {
+
+	/**
+	 * @param key
+	 *            cache key
+	 * @return cached result or null
+	 */
+	String get(String key);
+
+	/**
+	 * @param key
+	 *            cache key
+	 * @param result
+	 *            CAS result; null results are not cached
+	 */
+	void put(String key, String result);
+
+	/**
+	 * Removes all entries.
+	 */
+	void clear();
+}
@@ -0,0 +1,98 @@
+package org.geogebra.common.cas.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.geogebra.common.util.debug.GeoGebraProfiler;
+
+/**
+ * In-memory CAS result cache that evicts least recently used entries when
+ * either the number of entries or the estimated memory usage exceeds its
+ * limit.
+ */
+public class LruCasResultCache implements CasResultCache {
+
+	/** estimated memory used by one map entry besides the strings */
+	private static final int ENTRY_OVERHEAD = 64;
+
+	private final LinkedHashMap<String, String> map;
+	private final int maxEntries;
+	private final long maxBytes;
+	private long bytes;
+
+	/**
+	 * @param maxEntries
+	 *            maximum number of entries
+	 * @param maxBytes
+	 *            maximum estimated size of all entries in bytes
+	 */
+	public LruCasResultCache(int maxEntries, long maxBytes) {
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+		this.map = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	@Override
+	public synchronized String get(String key) {
+		return map.get(key);
+	}
+
+	@Override
+	public synchronized void put(String key, String result) {
+		if (result == null) {
+			return;
+		}
+		String old = map.put(key, result);
+		if (old != null) {
+			bytes -= sizeOf(key, old);
+		}
+		bytes += sizeOf(key, result);
+		evict();
+	}
+
+	private void evict() {
+		int evicted = 0;
+		Iterator<Map.Entry<String, String>> it = map.entrySet().iterator();
+		while ((map.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+			Map.Entry<String, String> eldest = it.next();
+			bytes -= sizeOf(eldest.getKey(), eldest.getValue());
+			it.remove();
+			evicted++;
+		}
+		if (evicted > 0) {
+			GeoGebraProfiler.addCasCacheEvictions(evicted);
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		map.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * @return number of entries
+	 */
+	public synchronized int size() {
+		return map.size();
+	}
+
+	/**
+	 * @return estimated memory used by the entries in bytes
+	 */
+	public synchronized long getByteSize() {
+		return bytes;
+	}
+
+	/**
+	 * @param key
+	 *            key
+	 * @param value
+	 *            value
+	 * @return estimated memory used by an entry in bytes
+	 */
+	static long sizeOf(String key, String value) {
+		return ENTRY_OVERHEAD + 2L * (key.length() + value.length());
+	}
+}
@@ -0,0 +1,47 @@
+package org.geogebra.common.cas.cache;
+
+/**
+ * Combines a fast cache with a larger (e.g. persistent) one: lookups go to
+ * the fast cache first, results found in the second tier are copied to the
+ * first one.
+ */
+public class TieredCasResultCache implements CasResultCache {
+
+	private final CasResultCache first;
+	private final CasResultCache second;
+
+	/**
+	 * @param first
+	 *            fast cache, e.g. in memory
+	 * @param second
+	 *            larger cache, e.g. on disk
+	 */
+	public TieredCasResultCache(CasResultCache first, CasResultCache second) {
+		this.first = first;
+		this.second = second;
+	}
+
+	@Override
+	public String get(String key) {
+		String result = first.get(key);
+		if (result == null) {
+			result = second.get(key);
+			if (result != null) {
+				first.put(key, result);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void put(String key, String result) {
+		first.put(key, result);
+		second.put(key, result);
+	}
+
+	@Override
+	public void clear() {
+		first.clear();
+		second.clear();
+	}
+}
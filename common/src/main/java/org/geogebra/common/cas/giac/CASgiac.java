@@ -476,7 +476,7 @@ public abstract class CASgiac implements CASGenericInterface {
 	/** CAS parser */
 	public CASparser casParser;
 
-	private static int nrOfReplacedConst = 0;
+	private int nrOfReplacedConst = 0;
 	/**
 	 * Timeout for CAS in milliseconds. This can be changed in the CAS options.
 	 */
@@ -117,6 +117,20 @@ public abstract class Drawable extends DrawableND {
 	 */
 	protected boolean firstCall = true;
 	private GeoElement geoForLabel;
+	/** cells in the hit index of the view, null if not indexed */
+	int[] hitIndexCells;
+	/** last hit index query that found this */
+	int hitIndexQuery;
+	/** whether this is drawn in the cached layer of the view */
+	boolean inLayer;
+	/** whether this changed since it was drawn in the cached layer */
+	boolean layerChanged;
+	/** paint bounds in the cached layer, null if unknown */
+	GRectangle layerBounds;
+
+	/** paint bounds of drawables that draw nothing */
+	public static final GRectangle EMPTY_PAINT_BOUNDS = AwtFactory
+			.getPrototype().newRectangle(0, 0);
 
 	/**
 	 * Create a default drawable. GeoElement and the view must be set
@@ -168,6 +182,81 @@ public abstract class Drawable extends DrawableND {
 	 */
 	public abstract boolean isInside(GRectangle rect);
 
+	/**
+	 * Bounds used to index this drawable for hit testing:
+	 * {@link #hit(int, int, int)} may only succeed within hitThreshold
+	 * pixels of them, {@link #isInside(GRectangle)} and
+	 * {@link #intersectsRectangle(GRectangle)} only for rectangles that
+	 * intersect them.
+	 * Subclasses that return bounds call {@link #updateHitIndex()} when the
+	 * bounds change.
+	 * 
+	 * @return hit bounds, null if unknown
+	 */
+	public GRectangle getHitBounds() {
+		return null;
+	}
+
+	/**
+	 * Area that {@link #draw(GGraphics2D)} may change, including highlighting
+	 * and label, so that the view can redraw only the areas of changed
+	 * drawables. Called after the drawable was updated.
+	 * 
+	 * @return paint bounds, {@link #EMPTY_PAINT_BOUNDS} if nothing is drawn,
+	 *         null if unknown
+	 */
+	public GRectangle getPaintBounds() {
+		return null;
+	}
+
+	/**
+	 * @param shapeBounds
+	 *            bounds of the drawn shape
+	 * @param withLabel
+	 *            whether the label is drawn
+	 * @return paint bounds with room for the stroke, highlighting and
+	 *         decorations
+	 */
+	protected GRectangle getStrokePaintBounds(GRectangle shapeBounds,
+			boolean withLabel) {
+		int margin = getGeoElement().getLineThickness() + 8;
+		GRectangle bounds = AwtFactory.getPrototype().newRectangle(
+				(int) shapeBounds.getX() - margin,
+				(int) shapeBounds.getY() - margin,
+				(int) shapeBounds.getWidth() + 2 * margin + 1,
+				(int) shapeBounds.getHeight() + 2 * margin + 1);
+		return withLabel ? addLabelPaintBounds(bounds) : bounds;
+	}
+
+	/**
+	 * Adds the label at the current label position to paint bounds; the size
+	 * of the label is taken from the last time it was drawn.
+	 * 
+	 * @param bounds
+	 *            paint bounds without label
+	 * @return bounds
+	 */
+	protected GRectangle addLabelPaintBounds(GRectangle bounds) {
+		int width = (int) labelRectangle.getWidth();
+		int height = (int) labelRectangle.getHeight();
+		if (width > 0 || height > 0) {
+			// labels are drawn with outline and index below the baseline
+			bounds.add(AwtFactory.getPrototype().newRectangle(xLabel - 2,
+					yLabel - height - 2, width + 4, 3 * height / 2 + 4));
+		}
+		return bounds;
+	}
+
+	/**
+	 * Moves this drawable in the hit index of the view after its hit bounds
+	 * changed.
+	 */
+	protected void updateHitIndex() {
+		if (hitIndexCells != null && view != null) {
+			view.getHitDetector().updateIndex(this);
+		}
+	}
+
 	/**
 	 * @param rect
 	 *            rectangle
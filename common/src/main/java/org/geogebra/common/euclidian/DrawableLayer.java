@@ -0,0 +1,303 @@
+package org.geogebra.common.euclidian;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.awt.GBufferedImage;
+import org.geogebra.common.awt.GGraphics2D;
+import org.geogebra.common.awt.GRectangle;
+
+/**
+ * Image with the drawables of the view that is updated incrementally: on
+ * repaint, only the regions covered by changed drawables (old and new
+ * bounds, see {@link Drawable#getPaintBounds()}) are cleared and drawn again,
+ * clipped, with the drawables that intersect them. The view reports the
+ * drawables it adds, updates or (un)highlights, so a repaint without changes
+ * only copies the image; everything else that changes the drawables (zoom,
+ * fonts, drawing order, mode) invalidates the whole image.
+ *
+ * A changed drawable without paint bounds causes a full redraw, and
+ * drawables without paint bounds are drawn again in every region, so the
+ * cache only saves work for views where most objects report their bounds.
+ */
+class DrawableLayer {
+
+	/** more regions are merged into one */
+	private static final int MAX_REGIONS = 16;
+	/** pixels added around the regions for antialiasing */
+	private static final int MARGIN = 2;
+	/** more changed drawables cause a full redraw */
+	private static final int MAX_CHANGED = 256;
+
+	private final EuclidianView view;
+	private GBufferedImage image;
+	private GGraphics2D graphics;
+	private boolean valid = false;
+	/** minX, minY, maxX, maxY of each dirty region */
+	private final int[] regions = new int[4 * MAX_REGIONS];
+	private int regionCount = 0;
+	private int regionArea = 0;
+	/** drawables changed since the last repaint */
+	private final ArrayList<Drawable> changed = new ArrayList<>();
+
+	/**
+	 * @param view
+	 *            view
+	 */
+	DrawableLayer(EuclidianView view) {
+		this.view = view;
+	}
+
+	/**
+	 * Makes sure the next repaint draws all drawables.
+	 */
+	void invalidate() {
+		valid = false;
+		clearChanged();
+	}
+
+	private void clearChanged() {
+		for (Drawable d : changed) {
+			d.layerChanged = false;
+		}
+		changed.clear();
+	}
+
+	/**
+	 * @param d
+	 *            drawable that was added, updated or (un)highlighted
+	 */
+	void drawableChanged(Drawable d) {
+		if (!valid || d.layerChanged) {
+			return;
+		}
+		if (changed.size() == MAX_CHANGED) {
+			invalidate();
+			return;
+		}
+		d.layerChanged = true;
+		changed.add(d);
+	}
+
+	/**
+	 * @param d
+	 *            drawable that was removed from the view
+	 */
+	void drawableRemoved(Drawable d) {
+		if (d.layerChanged) {
+			changed.remove(d);
+			d.layerChanged = false;
+		}
+		if (valid && d.inLayer) {
+			if (d.layerBounds == null) {
+				invalidate();
+			} else {
+				addRegion(d.layerBounds);
+			}
+		}
+		d.inLayer = false;
+	}
+
+	/**
+	 * Updates the image and draws it.
+	 *
+	 * @param g2
+	 *            graphics of the view
+	 * @param list
+	 *            drawables in drawing order
+	 */
+	void paint(GGraphics2D g2, DrawableList list) {
+		if (!ensureImage()) {
+			list.drawAll(g2);
+			return;
+		}
+		if (valid) {
+			collectRegions();
+		}
+		if (valid && regionCount > 0) {
+			drawRegions(list);
+		}
+		if (!valid) {
+			drawAll(list);
+		}
+		regionCount = 0;
+		regionArea = 0;
+		g2.drawImage(image, 0, 0);
+	}
+
+	private boolean ensureImage() {
+		int width = view.getWidth();
+		int height = view.getHeight();
+		if (width <= 0 || height <= 0) {
+			return false;
+		}
+		if (image == null || image.getWidth() != width
+				|| image.getHeight() != height) {
+			image = view.newDrawableLayerImage(width, height);
+			if (image == null) {
+				return false;
+			}
+			graphics = image.createGraphics();
+			graphics.setAntialiasing();
+			invalidate();
+		}
+		return true;
+	}
+
+	/**
+	 * Adds old and new bounds of changed drawables to the regions.
+	 */
+	private void collectRegions() {
+		// invalidate() empties the list
+		for (int i = 0; i < changed.size(); i++) {
+			Drawable d = changed.get(i);
+			if (d.inLayer) {
+				if (d.layerBounds == null) {
+					invalidate();
+					return;
+				}
+				addRegion(d.layerBounds);
+			}
+			d.layerBounds = null;
+			if (DrawableList.isDrawn(d)) {
+				d.updateIfNeeded();
+				GRectangle bounds = d.getPaintBounds();
+				if (bounds == null) {
+					invalidate();
+					return;
+				}
+				// estimate, checked after drawing
+				d.layerBounds = bounds;
+				addRegion(bounds);
+			}
+		}
+	}
+
+	private void addRegion(GRectangle bounds) {
+		int minX = Math.max(0, (int) Math.floor(bounds.getMinX()) - MARGIN);
+		int minY = Math.max(0, (int) Math.floor(bounds.getMinY()) - MARGIN);
+		int maxX = Math.min(view.getWidth(),
+				(int) Math.ceil(bounds.getMaxX()) + MARGIN);
+		int maxY = Math.min(view.getHeight(),
+				(int) Math.ceil(bounds.getMaxY()) + MARGIN);
+		if (bounds.getWidth() <= 0 && bounds.getHeight() <= 0
+				|| minX >= maxX || minY >= maxY) {
+			return;
+		}
+		for (int i = 0; i < regionCount; i++) {
+			int j = 4 * i;
+			if (minX <= regions[j + 2] && maxX >= regions[j]
+					&& minY <= regions[j + 3] && maxY >= regions[j + 1]) {
+				regionArea -= area(j);
+				regions[j] = Math.min(regions[j], minX);
+				regions[j + 1] = Math.min(regions[j + 1], minY);
+				regions[j + 2] = Math.max(regions[j + 2], maxX);
+				regions[j + 3] = Math.max(regions[j + 3], maxY);
+				regionArea += area(j);
+				checkArea();
+				return;
+			}
+		}
+		if (regionCount == MAX_REGIONS) {
+			for (int i = 1; i < regionCount; i++) {
+				int j = 4 * i;
+				regions[0] = Math.min(regions[0], regions[j]);
+				regions[1] = Math.min(regions[1], regions[j + 1]);
+				regions[2] = Math.max(regions[2], regions[j + 2]);
+				regions[3] = Math.max(regions[3], regions[j + 3]);
+			}
+			regionCount = 1;
+			regionArea = area(0);
+			addRegion(bounds);
+			return;
+		}
+		int j = 4 * regionCount;
+		regions[j] = minX;
+		regions[j + 1] = minY;
+		regions[j + 2] = maxX;
+		regions[j + 3] = maxY;
+		regionCount++;
+		regionArea += area(j);
+		checkArea();
+	}
+
+	private int area(int j) {
+		return (regions[j + 2] - regions[j]) * (regions[j + 3] - regions[j + 1]);
+	}
+
+	/**
+	 * Drawing half of the view clipped is not faster than drawing all.
+	 */
+	private void checkArea() {
+		if (2 * regionArea > view.getWidth() * view.getHeight()) {
+			invalidate();
+		}
+	}
+
+	private void drawRegions(DrawableList list) {
+		drawClipped(list);
+		regionCount = 0;
+		regionArea = 0;
+		for (int i = 0; i < changed.size(); i++) {
+			Drawable d = changed.get(i);
+			GRectangle estimate = d.layerBounds;
+			storeState(d);
+			if (estimate != null && d.layerBounds != null
+					&& !contains(estimate, d.layerBounds)) {
+				// e.g. label drawn for the first time
+				addRegion(d.layerBounds);
+			}
+		}
+		changed.clear();
+		if (valid) {
+			drawClipped(list);
+		}
+	}
+
+	private void drawClipped(DrawableList list) {
+		for (int i = 0; i < regionCount; i++) {
+			int j = 4 * i;
+			int x = regions[j];
+			int y = regions[j + 1];
+			int width = regions[j + 2] - x;
+			int height = regions[j + 3] - y;
+			graphics.setClip(x, y, width, height);
+			view.clearDrawableLayer(graphics, x, y, width, height);
+			for (Drawable d : list) {
+				// unknown bounds: may intersect
+				if (DrawableList.isDrawn(d) && (d.layerBounds == null
+						|| d.layerBounds.intersects(x, y, width, height))) {
+					d.updateIfNeeded();
+					d.draw(graphics);
+				}
+			}
+		}
+		graphics.resetClip();
+	}
+
+	private static boolean contains(GRectangle outer, GRectangle inner) {
+		return inner.getWidth() <= 0 && inner.getHeight() <= 0
+				|| (outer.getMinX() - MARGIN <= inner.getMinX()
+						&& outer.getMinY() - MARGIN <= inner.getMinY()
+						&& outer.getMaxX() + MARGIN >= inner.getMaxX()
+						&& outer.getMaxY() + MARGIN >= inner.getMaxY());
+	}
+
+	private void drawAll(DrawableList list) {
+		graphics.resetClip();
+		view.clearDrawableLayer(graphics, 0, 0, image.getWidth(),
+				image.getHeight());
+		list.drawAll(graphics);
+		for (Drawable d : list) {
+			storeState(d);
+		}
+		clearChanged();
+		valid = true;
+	}
+
+	private static void storeState(Drawable d) {
+		d.inLayer = true;
+		d.layerChanged = false;
+		d.layerBounds = DrawableList.isDrawn(d) ? d.getPaintBounds()
+				: Drawable.EMPTY_PAINT_BOUNDS;
+	}
+}
@@ -63,16 +63,26 @@ public class DrawableList extends ArrayList<Drawable> {
 	 */
 	public final void drawAll(GGraphics2D g2) {
 		for (Drawable d : this) {
-			GeoElement geo = d.getGeoElement();
-			if (geo.isDefined()
-					&& !(geo.isGeoList() && ((GeoList) geo).drawAsComboBox())
-					&& !geo.isGeoInputBox() && !geo.isMask()) {
+			if (isDrawn(d)) {
 				d.updateIfNeeded();
 				d.draw(g2);
 			}
 		}
 	}
 
+	/**
+	 * @param d
+	 *            drawable
+	 * @return whether {@link #drawAll(GGraphics2D)} draws it; drop down
+	 *         lists, input boxes and masks are drawn separately
+	 */
+	static boolean isDrawn(Drawable d) {
+		GeoElement geo = d.getGeoElement();
+		return geo.isDefined()
+				&& !(geo.isGeoList() && ((GeoList) geo).drawAsComboBox())
+				&& !geo.isGeoInputBox() && !geo.isMask();
+	}
+
 	/**
 	 * Updates all drawables in list
 	 */
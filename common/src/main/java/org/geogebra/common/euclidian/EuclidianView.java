@@ -286,6 +286,9 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	// on add: change resetLists()
 	/** list of background images */
 	private DrawableList bgImageList;
+	/** cached image of allDrawableList, null if disabled */
+	private DrawableLayer drawableLayer;
+	private boolean paintingScreen = false;
 
 	protected boolean[] piAxisUnit;
 
@@ -711,6 +714,8 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			return;
 		}
 		this.mode = mode;
+		// highlighting depends on the mode
+		invalidateDrawableLayer();
 		initCursor();
 		getEuclidianController().clearJustCreatedGeos();
 		getEuclidianController().setMode(mode, m);
@@ -1680,6 +1685,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			return;
 		}
 		allDrawableList.updateAll();
+		invalidateDrawableLayer();
 		if (repaint) {
 			repaint();
 		}
@@ -1690,6 +1696,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	 */
 	public void invalidateDrawableList() {
 		allDrawableList.sort();
+		invalidateDrawableLayer();
 		repaintView();
 	}
 
@@ -1706,6 +1713,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		for (Drawable d : allDrawableList) {
 			d.updateForView();
 		}
+		invalidateDrawableLayer();
 		for (Drawable d : bgImageList) {
 			d.updateForView();
 		}
@@ -1735,6 +1743,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		this.batchUpdate = false;
 		if (this.needsAllDrawablesUpdate) {
 			allDrawableList.updateAll();
+			invalidateDrawableLayer();
 			repaint();
 		}
 	}
@@ -1868,6 +1877,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		Object d = drawableMap.get(geo);
 		if (d != null) {
 			((Drawable) d).update();
+			drawableChanged((Drawable) d);
 			repaint();
 		}
 	}
@@ -1881,6 +1891,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 				add(geo);
 				return;
 			}
+			drawableChanged(d);
 			if (d instanceof DrawImage) {
 				this.updateBackgroundOnNextRepaint = ((DrawImage) d)
 						.checkInBackground()
@@ -1950,6 +1961,8 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		if (d != null) {
 			if (!bgImageList.contains(d)) {
 				allDrawableList.add((Drawable) d);
+				hitDetector.addToIndex((Drawable) d);
+				drawableChanged(d);
 			}
 			return true;
 		}
@@ -2028,6 +2041,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		if (drawableMap.containsKey(geo)) {
 			DrawableND drawable = drawableMap.get(geo);
 			drawable.setNeedsUpdate(true);
+			drawableChanged(drawable);
 			return true;
 		}
 		return false;
@@ -2091,6 +2105,10 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		}
 
 		allDrawableList.remove(d);
+		hitDetector.removeFromIndex(d);
+		if (drawableLayer != null) {
+			drawableLayer.drawableRemoved(d);
+		}
 		resetBoundingBoxes();
 
 		if (d instanceof RemoveNeeded) {
@@ -2333,7 +2351,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 
 	@Override
 	public void updateHighlight(GeoElementND geo) {
-		// nothing to do here
+		drawableChanged(drawableMap.get(geo));
 	}
 
 	@Override
@@ -2358,6 +2376,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		for (Drawable d : allDrawableList) {
 			d.updateFontSize();
 		}
+		invalidateDrawableLayer();
 		repaint();
 	}
 
@@ -3425,7 +3444,11 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	 */
 	final private void drawGeometricObjects(GGraphics2D g2) {
 		// only draw drawables we need
-		allDrawableList.drawAll(g2);
+		if (drawableLayer != null && paintingScreen) {
+			drawableLayer.paint(g2, allDrawableList);
+		} else {
+			allDrawableList.drawAll(g2);
+		}
 
 		if (getEuclidianController().isMultiSelection()) {
 			getEuclidianController()
@@ -3543,7 +3566,12 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			// these blocks... as there is only one lock object and
 			// these methods probably do not call other synchronized
 			// code blocks, it probably does not cause any problem
-			companion.paint(g2);
+			paintingScreen = true;
+			try {
+				companion.paint(g2);
+			} finally {
+				paintingScreen = false;
+			}
 			getEuclidianController().getPen().repaintIfNeeded(g2);
 		}
 	}
@@ -3591,6 +3619,70 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		if (bgGraphics != null) {
 			drawBackgroundWithImages(bgGraphics, false);
 		}
+		invalidateDrawableLayer();
+	}
+
+	/**
+	 * Enables or disables the cached image of the drawables: repaints then
+	 * only redraw the areas of drawables that changed since the last repaint
+	 * (see {@link Drawable#getPaintBounds()}) and copy the rest from the
+	 * image. Needs {@link #newDrawableLayerImage(int, int)}; off by default.
+	 * Desktop views enable it unless started with --cacheDrawables=false;
+	 * drawables without paint bounds are redrawn in full, so the output does
+	 * not depend on this setting.
+	 * 
+	 * @param cached
+	 *            whether to cache the drawables
+	 */
+	public void setDrawableLayerCached(boolean cached) {
+		drawableLayer = cached ? new DrawableLayer(this) : null;
+	}
+
+	/**
+	 * Makes sure the next repaint draws all drawables; needed when drawables
+	 * change without {@link #update(GeoElement)}.
+	 */
+	public void invalidateDrawableLayer() {
+		if (drawableLayer != null) {
+			drawableLayer.invalidate();
+		}
+	}
+
+	private void drawableChanged(DrawableND d) {
+		if (drawableLayer != null && d instanceof Drawable) {
+			drawableLayer.drawableChanged((Drawable) d);
+		}
+	}
+
+	/**
+	 * @param width
+	 *            width in pixels
+	 * @param height
+	 *            height in pixels
+	 * @return transparent image for the cached drawables, null if not
+	 *         supported
+	 */
+	protected GBufferedImage newDrawableLayerImage(int width, int height) {
+		return null;
+	}
+
+	/**
+	 * Makes a part of the image for the cached drawables transparent.
+	 * 
+	 * @param g
+	 *            graphics of the image
+	 * @param x
+	 *            left
+	 * @param y
+	 *            top
+	 * @param width
+	 *            width
+	 * @param height
+	 *            height
+	 */
+	protected void clearDrawableLayer(GGraphics2D g, int x, int y, int width,
+			int height) {
+		g.clearRect(x, y, width, height);
 	}
 
 	/**
@@ -4242,6 +4334,8 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	final public void addBackgroundImage(DrawImage img) {
 		bgImageList.add(img);
 		allDrawableList.remove(img);
+		hitDetector.removeFromIndex(img);
+		invalidateDrawableLayer();
 	}
 
 	/**
@@ -4251,6 +4345,8 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	final public void removeBackgroundImage(DrawImage img) {
 		bgImageList.remove(img);
 		allDrawableList.add(img);
+		hitDetector.addToIndex(img);
+		invalidateDrawableLayer();
 	}
 
 	/**
@@ -4260,6 +4356,8 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		drawableMap.clear();
 		stickyPointList.clear();
 		allDrawableList.clear();
+		hitDetector.clearIndex();
+		invalidateDrawableLayer();
 		bgImageList.clear();
 		previewFromInputBarGeos = null;
 		this.geosWaiting.clear();
@@ -6368,6 +6466,9 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		for (Drawable draw : this.allDrawableList) {
 			deselected = draw.resetPartialHitClip(x, y) || deselected;
 		}
+		if (deselected) {
+			invalidateDrawableLayer();
+		}
 		return deselected;
 	}
 
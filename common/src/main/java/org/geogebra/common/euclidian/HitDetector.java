@@ -18,9 +18,42 @@ public class HitDetector {
 	private ArrayList<GeoElement> hitLabel;
 	private final EuclidianView view;
 	private Hits hits;
+	private final HitIndex index;
 
 	public HitDetector(EuclidianView view) {
 		this.view = view;
+		this.index = new HitIndex(view);
+	}
+
+	/**
+	 * @param d
+	 *            drawable added to the view
+	 */
+	public void addToIndex(Drawable d) {
+		index.add(d);
+	}
+
+	/**
+	 * @param d
+	 *            drawable removed from the view
+	 */
+	public void removeFromIndex(Drawable d) {
+		index.remove(d);
+	}
+
+	/**
+	 * Removes all drawables from the index.
+	 */
+	public void clearIndex() {
+		index.clear();
+	}
+
+	/**
+	 * @param d
+	 *            drawable with changed hit bounds
+	 */
+	public void updateIndex(Drawable d) {
+		index.update(d);
 	}
 
 	private void setHits(GPoint p, int hitThreshold) {
@@ -38,10 +71,12 @@ public class HitDetector {
 			return;
 		}
 		boolean hitMask = false;
+		index.query(p.x - hitThreshold, p.y - hitThreshold,
+				p.x + hitThreshold, p.y + hitThreshold);
 
 		for (Drawable d : view.allDrawableList) {
 			if (d.isEuclidianVisible()) {
-				if (d.hit(p.x, p.y, hitThreshold)) {
+				if (index.mayHit(d) && d.hit(p.x, p.y, hitThreshold)) {
 					GeoElement geo = d.getGeoElement();
 					hitMask = hitMask || geo.isMask();
 
@@ -166,17 +201,24 @@ public class HitDetector {
 		if (rect == null) {
 			return;
 		}
+		queryIndex(rect);
 
 		for (Drawable d : view.allDrawableList) {
 			GeoElement geo = d.getGeoElement();
 			if (geo.isEuclidianVisible() && filter.check(geo) && !hits.contains(geo)
-					&& d.intersectsRectangle(rect)) {
+					&& index.mayHit(d) && d.intersectsRectangle(rect)) {
 				d.setPartialHitClip(rect);
 				hits.add(geo);
 			}
 		}
 	}
 
+	private void queryIndex(GRectangle rect) {
+		index.query((int) Math.floor(rect.getMinX()),
+				(int) Math.floor(rect.getMinY()),
+				(int) Math.ceil(rect.getMaxX()), (int) Math.ceil(rect.getMaxY()));
+	}
+
 	/**
 	 * @return objects that were hit
 	 */
@@ -196,10 +238,12 @@ public class HitDetector {
 		if (rect == null) {
 			return;
 		}
+		queryIndex(rect);
 
 		for (Drawable d : view.allDrawableList) {
 			GeoElement geo = d.getGeoElement();
-			if (geo.isEuclidianVisible() && d.isInside(rect)) {
+			if (geo.isEuclidianVisible() && index.mayHit(d)
+					&& d.isInside(rect)) {
 				hits.add(geo);
 			}
 		}
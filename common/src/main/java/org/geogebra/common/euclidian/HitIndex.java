@@ -0,0 +1,179 @@
+package org.geogebra.common.euclidian;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.awt.GRectangle;
+
+/**
+ * Uniform grid over the view that contains the drawables with known hit
+ * bounds ({@link Drawable#getHitBounds()}), so that hit testing only needs to
+ * test the drawables near the pointer. Drawables move in the grid when they
+ * are updated; drawables without hit bounds are always tested.
+ */
+class HitIndex {
+
+	private static final int CELL_SIZE = 32;
+	/** larger drawables are not indexed */
+	private static final int MAX_CELLS = 64;
+	/** cells of drawables that are always tested */
+	private static final int[] UNBOUNDED = new int[0];
+
+	private final EuclidianView view;
+	private ArrayList<ArrayList<Drawable>> cells;
+	private int columns;
+	private int rows;
+	private int width = -1;
+	private int height = -1;
+	private int query = 0;
+
+	/**
+	 * @param view
+	 *            view
+	 */
+	HitIndex(EuclidianView view) {
+		this.view = view;
+	}
+
+	/**
+	 * Marks the drawables that may be hit in the rectangle; check them with
+	 * {@link #mayHit(Drawable)}.
+	 */
+	void query(int minX, int minY, int maxX, int maxY) {
+		if (cells == null || width != view.getWidth()
+				|| height != view.getHeight()) {
+			rebuild();
+		}
+		query++;
+		int col1 = column(minX);
+		int col2 = column(maxX);
+		int row2 = row(maxY);
+		for (int row = row(minY); row <= row2; row++) {
+			for (int col = col1; col <= col2; col++) {
+				for (Drawable d : cells.get(row * columns + col)) {
+					d.hitIndexQuery = query;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param d
+	 *            drawable
+	 * @return false if the drawable can't be hit in the rectangle of the last
+	 *         query
+	 */
+	boolean mayHit(Drawable d) {
+		return d.hitIndexCells == null || d.hitIndexCells == UNBOUNDED
+				|| d.hitIndexQuery == query;
+	}
+
+	private void rebuild() {
+		width = view.getWidth();
+		height = view.getHeight();
+		columns = Math.max(width, 0) / CELL_SIZE + 1;
+		rows = Math.max(height, 0) / CELL_SIZE + 1;
+		cells = new ArrayList<>(columns * rows);
+		for (int i = 0; i < columns * rows; i++) {
+			cells.add(new ArrayList<Drawable>());
+		}
+		for (Drawable d : view.allDrawableList) {
+			d.hitIndexCells = null;
+			add(d);
+		}
+	}
+
+	/**
+	 * @param d
+	 *            new drawable
+	 */
+	void add(Drawable d) {
+		if (cells == null) {
+			return;
+		}
+		d.hitIndexCells = UNBOUNDED;
+		update(d);
+	}
+
+	/**
+	 * @param d
+	 *            removed drawable
+	 */
+	void remove(Drawable d) {
+		if (cells != null && d.hitIndexCells != null) {
+			removeFromCells(d);
+		}
+		d.hitIndexCells = null;
+	}
+
+	/**
+	 * Removes all drawables.
+	 */
+	void clear() {
+		if (cells != null) {
+			for (ArrayList<Drawable> cell : cells) {
+				for (Drawable d : cell) {
+					d.hitIndexCells = null;
+				}
+			}
+		}
+		cells = null;
+	}
+
+	/**
+	 * Moves an indexed drawable to the cells of its current hit bounds.
+	 *
+	 * @param d
+	 *            updated drawable
+	 */
+	void update(Drawable d) {
+		if (cells == null || d.hitIndexCells == null) {
+			return;
+		}
+		removeFromCells(d);
+		GRectangle bounds = d.getHitBounds();
+		if (bounds == null) {
+			d.hitIndexCells = UNBOUNDED;
+			return;
+		}
+		// one pixel for rounding
+		int col1 = column((int) bounds.getMinX() - 1);
+		int col2 = column((int) bounds.getMaxX() + 1);
+		int row1 = row((int) bounds.getMinY() - 1);
+		int row2 = row((int) bounds.getMaxY() + 1);
+		if ((col2 - col1 + 1) * (row2 - row1 + 1) > MAX_CELLS) {
+			d.hitIndexCells = UNBOUNDED;
+			return;
+		}
+		d.hitIndexCells = new int[] { col1, row1, col2, row2 };
+		for (int row = row1; row <= row2; row++) {
+			for (int col = col1; col <= col2; col++) {
+				cells.get(row * columns + col).add(d);
+			}
+		}
+	}
+
+	private void removeFromCells(Drawable d) {
+		int[] old = d.hitIndexCells;
+		if (old == UNBOUNDED) {
+			return;
+		}
+		for (int row = old[1]; row <= old[3]; row++) {
+			for (int col = old[0]; col <= old[2]; col++) {
+				cells.get(row * columns + col).remove(d);
+			}
+		}
+	}
+
+	/** positions outside of the view are in the border cells */
+	private int column(int x) {
+		return Math.max(0, Math.min(columns - 1, floorDiv(x)));
+	}
+
+	private int row(int y) {
+		return Math.max(0, Math.min(rows - 1, floorDiv(y)));
+	}
+
+	private static int floorDiv(int a) {
+		return a >= 0 ? a / CELL_SIZE : -1;
+	}
+}
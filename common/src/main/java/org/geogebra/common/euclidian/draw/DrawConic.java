@@ -1535,6 +1535,24 @@ public class DrawConic extends SetDrawable implements Previewable {
 		}
 	}
 
+	@Override
+	public GRectangle getPaintBounds() {
+		if (!isVisible) {
+			return EMPTY_PAINT_BOUNDS;
+		}
+		if ((type != GeoConicNDConstants.CONIC_CIRCLE
+				&& type != GeoConicNDConstants.CONIC_ELLIPSE)
+				|| conic.isInverseFill() || fillShape == null) {
+			return null;
+		}
+		GRectangle bounds = AwtFactory.getPrototype()
+				.newRectangle(fillShape.getBounds());
+		if (arcFiller != null) {
+			bounds.add(arcFiller.getBounds());
+		}
+		return getStrokePaintBounds(bounds, labelVisible);
+	}
+
 	private GRectangle rectForRotatedEllipse() {
 		double sin = conic.eigenvec[1].getX();
 		double cos = conic.eigenvec[1].getY();
@@ -23,8 +23,10 @@ import org.geogebra.common.euclidian.Drawable;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian.plot.CurvePlotter;
 import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
+import org.geogebra.common.euclidian.plot.PathDecimator;
 import org.geogebra.common.factories.AwtFactory;
 import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoLocusND;
@@ -57,6 +59,14 @@ public class DrawLocus extends Drawable {
 
 	private GRectangle partialHitClip;
 
+	/** screen points of long loci relative to the origin of the view */
+	private PathDecimator decimator;
+	private double decimatedXscale = Double.NaN;
+	private double decimatedYscale = Double.NaN;
+	private double[] decimatedLabelPosition;
+	/** whether the last update was caused by a change of the view only */
+	private boolean viewChanged = false;
+
 	/**
 	 * Creates new drawable for given locus
 	 * 
@@ -76,11 +86,20 @@ public class DrawLocus extends Drawable {
 		update();
 	}
 
+	@Override
+	public void updateForView() {
+		viewChanged = true;
+		update();
+	}
+
 	@Override
 	final public void update() {
+		boolean pointsChanged = !viewChanged;
+		viewChanged = false;
 		isVisible = geo.isEuclidianVisible();
 		bitmap = null;
 		if (!isVisible) {
+			decimatedXscale = Double.NaN;
 			return;
 		}
 
@@ -89,16 +108,18 @@ public class DrawLocus extends Drawable {
 			AlgoLocusEquation ale = (AlgoLocusEquation) geo.getParentAlgorithm();
 			if (ale.resetFingerprint(geo.getKernel(), false)) {
 				ale.update();
+				pointsChanged = true;
 			}
 		}
 		if (algo instanceof AlgoEnvelope) {
 			AlgoEnvelope ae = (AlgoEnvelope) geo.getParentAlgorithm();
 			if (ae.resetFingerprint(geo.getKernel(), false)) {
 				ae.update();
+				pointsChanged = true;
 			}
 		}
 
-		buildGeneralPath(locus.getPoints());
+		buildGeneralPath(locus.getPoints(), pointsChanged);
 
 		// line on screen?
 		if (!geo.isInverseFill() && !view.intersects(gp)) {
@@ -190,7 +211,8 @@ public class DrawLocus extends Drawable {
 				(int) this.getBounds().getHeight() + 2 * BITMAP_PADDING, g2p);
 	}
 
-	private void buildGeneralPath(ArrayList<? extends MyPoint> pointList) {
+	private void buildGeneralPath(ArrayList<? extends MyPoint> pointList,
+			boolean pointsChanged) {
 		if (gp == null) {
 			gp = new GeneralPathClippedForCurvePlotter(view);
 		} else {
@@ -198,7 +220,11 @@ public class DrawLocus extends Drawable {
 		}
 
 		// Use the last plotted point for positioning the label:
-		labelPosition = CurvePlotter.draw(gp, pointList, transformSys);
+		if (pointList.size() < PathDecimator.MIN_POINTS
+				|| !buildDecimatedPath(pointList, pointsChanged)) {
+			decimator = null;
+			labelPosition = CurvePlotter.draw(gp, pointList, transformSys);
+		}
 		/*
 		 * Due to numerical instability of the curve plotter algorithm this
 		 * position may be changing too quickly which results in an annoying
@@ -217,6 +243,60 @@ public class DrawLocus extends Drawable {
 		}
 	}
 
+	/**
+	 * Draws the visible points of a long locus; the reduced points are reused
+	 * while only the origin of the view changes.
+	 * 
+	 * @return false if the locus can't be reduced (curve segments)
+	 */
+	private boolean buildDecimatedPath(ArrayList<? extends MyPoint> pointList,
+			boolean pointsChanged) {
+		boolean linear = !view.getXaxisLog() && !view.getYaxisLog();
+		double dx = linear ? view.getXZero() : 0;
+		double dy = linear ? view.getYZero() : 0;
+		if (pointsChanged || !linear || decimator == null
+				|| decimatedXscale != view.getXscale()
+				|| decimatedYscale != view.getYscale()) {
+			decimatedXscale = Double.NaN;
+			if (!gp.supports(transformSys)) {
+				return false;
+			}
+			if (decimator == null) {
+				decimator = new PathDecimator(true);
+			}
+			decimator.reset();
+			double[] coords = gp.newDoubleArray();
+			decimatedLabelPosition = gp.newDoubleArray();
+			boolean lineToFirst = true;
+			for (MyPoint p : pointList) {
+				if (p.getSegmentType() != SegmentType.LINE_TO
+						&& p.getSegmentType() != SegmentType.MOVE_TO) {
+					return false;
+				}
+				if (p.isFinite() && gp.copyCoords(p, coords, transformSys)) {
+					decimatedLabelPosition[0] = coords[0];
+					decimatedLabelPosition[1] = coords[1];
+					view.toScreenCoords(coords);
+					if (p.getLineTo() && !lineToFirst) {
+						decimator.lineTo(coords[0] - dx, coords[1] - dy);
+					} else {
+						decimator.moveTo(coords[0] - dx, coords[1] - dy);
+					}
+					lineToFirst = false;
+				} else {
+					lineToFirst = true;
+				}
+			}
+			decimator.decimate(PathDecimator.TOLERANCE);
+			decimatedXscale = view.getXscale();
+			decimatedYscale = view.getYscale();
+		}
+		decimator.drawTo(gp, dx, dy);
+		labelPosition = new double[] { decimatedLabelPosition[0],
+				decimatedLabelPosition[1] };
+		return true;
+	}
+
 	@Override
 	final public void draw(GGraphics2D g2) {
 		if (isVisible) {
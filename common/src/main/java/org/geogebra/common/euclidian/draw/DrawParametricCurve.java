@@ -24,6 +24,7 @@ import org.geogebra.common.awt.GShape;
 import org.geogebra.common.euclidian.Drawable;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian.plot.CurvePlotter;
+import org.geogebra.common.euclidian.plot.CurveSampleCache;
 import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
 import org.geogebra.common.factories.AwtFactory;
 import org.geogebra.common.kernel.StringTemplate;
@@ -69,6 +70,7 @@ public class DrawParametricCurve extends Drawable {
 	private ExpressionNode dataExpression;
 	private FunctionVariable invFV;
 	private ExpressionNode invert;
+	private CurveSampleCache sampleCache;
 
 	private static final Inspecting containsLog = new Inspecting() {
 		@Override
@@ -163,7 +165,10 @@ public class DrawParametricCurve extends Drawable {
 			view.toScreenCoords(eval);
 			labelPoint = new GPoint((int) eval[0], (int) eval[1]);
 		} else {
-			labelPoint = CurvePlotter.plotCurve(toPlot, min, max, view, gp,
+			if (sampleCache == null || !sampleCache.isCacheFor(toPlot)) {
+				sampleCache = new CurveSampleCache(toPlot);
+			}
+			labelPoint = CurvePlotter.plotCurve(sampleCache, min, max, view, gp,
 					labelVisible, fillCurve ? CurvePlotter.Gap.CORNER
 							: CurvePlotter.Gap.MOVE_TO);
 		}
@@ -326,6 +326,7 @@ public final class DrawPoint extends SetDrawable {
 		// selection area
 		circleHighlight.setFrame(xUL - HIGHLIGHT_OFFSET, yUL - HIGHLIGHT_OFFSET,
 				hightlightDiameter, hightlightDiameter);
+		updateHitIndex();
 
 		// draw trace
 		if (P.getTrace()) {
@@ -535,6 +536,30 @@ public final class DrawPoint extends SetDrawable {
 		return rect.contains(circle.getBounds());
 	}
 
+	@Override
+	public GRectangle getHitBounds() {
+		// preview points double the threshold
+		if (coords == null || isPreview) {
+			return null;
+		}
+		int r = Math.max(pointSize, SELECTION_RADIUS_MIN) + 1;
+		return AwtFactory.getPrototype().newRectangle((int) coords[0] - r,
+				(int) coords[1] - r, 2 * r, 2 * r);
+	}
+
+	@Override
+	public GRectangle getPaintBounds() {
+		if (!isVisible || coords == null) {
+			return EMPTY_PAINT_BOUNDS;
+		}
+		// trimmed intersection lines are clipped to a circle of radius 30
+		int r = geo.getShowTrimmedIntersectionLines() ? 31
+				: hightlightDiameter / 2 + 2;
+		GRectangle bounds = AwtFactory.getPrototype().newRectangle(
+				(int) coords[0] - r, (int) coords[1] - r, 2 * r, 2 * r);
+		return labelVisible ? addLabelPaintBounds(bounds) : bounds;
+	}
+
 	@Override
 	public boolean intersectsRectangle(GRectangle rect) {
 		return circle.intersects(rect);
@@ -650,6 +675,7 @@ public final class DrawPoint extends SetDrawable {
 	 */
 	public void setPreview(boolean isPreview) {
 		this.isPreview = isPreview;
+		updateHitIndex();
 	}
 
 }
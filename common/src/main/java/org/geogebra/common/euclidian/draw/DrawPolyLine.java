@@ -26,6 +26,7 @@ import org.geogebra.common.euclidian.EuclidianStatic;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian.GeneralPathClipped;
 import org.geogebra.common.euclidian.Previewable;
+import org.geogebra.common.euclidian.plot.PathDecimator;
 import org.geogebra.common.factories.AwtFactory;
 import org.geogebra.common.kernel.ConstructionDefaults;
 import org.geogebra.common.kernel.geos.GeoElement;
@@ -47,6 +48,7 @@ public class DrawPolyLine extends Drawable implements Previewable {
 	private boolean labelVisible;
 
 	private GeneralPathClipped gp;
+	private PathDecimator decimator;
 	private double[] coords = new double[2];
 	private ArrayList<? extends GeoPointND> points;
 	// list of single points created by pen
@@ -138,6 +140,16 @@ public class DrawPolyLine extends Drawable implements Previewable {
 
 		pointList.clear();
 
+		// long polylines (e.g. from traces) are reduced to the visible points
+		PathDecimator decimate = null;
+		if (pts.length >= PathDecimator.MIN_POINTS) {
+			if (decimator == null) {
+				decimator = new PathDecimator(false);
+			}
+			decimate = decimator;
+			decimate.reset();
+		}
+
 		// for centroid calculation (needed for label pos)
 		double xsum = 0;
 		double ysum = 0;
@@ -181,9 +193,17 @@ public class DrawPolyLine extends Drawable implements Previewable {
 							}
 						}
 					}
-					gp.moveTo(coords[0], coords[1]);
+					if (decimate != null) {
+						decimate.moveTo(coords[0], coords[1]);
+					} else {
+						gp.moveTo(coords[0], coords[1]);
+					}
 				} else {
-					gp.lineTo(coords[0], coords[1]);
+					if (decimate != null) {
+						decimate.lineTo(coords[0], coords[1]);
+					} else {
+						gp.lineTo(coords[0], coords[1]);
+					}
 					// if point was added as start of segment
 					// then remove it
 					if (!pointList.isEmpty() && startPointAdded && view
@@ -198,6 +218,10 @@ public class DrawPolyLine extends Drawable implements Previewable {
 				skipNextPoint = true;
 			}
 		}
+		if (decimate != null) {
+			decimate.decimate(PathDecimator.TOLERANCE);
+			decimate.drawTo(gp, 0, 0);
+		}
 
 		if (labelVisible) {
 			labelDesc = geo.getLabelDescription();
@@ -380,6 +380,16 @@ public class DrawPolygon extends Drawable implements Previewable {
 		return gp.getBounds();
 	}
 
+	@Override
+	public GRectangle getPaintBounds() {
+		if (!isVisible) {
+			return EMPTY_PAINT_BOUNDS;
+		}
+		// inverse fill covers the view
+		return fillShape ? null
+				: getStrokePaintBounds(gp.getBounds(), labelVisible);
+	}
+
 	@Override
 	public GArea getShape() {
 		if (super.getShape() != null) {
@@ -171,6 +171,7 @@ public class DrawSegment extends SetDrawable implements Previewable {
 					view.getMaxYScreen() + EuclidianStatic.CLIP_DISTANCE,
 					tmpClipPoints);
 		}
+		updateHitIndex();
 
 		// draw trace
 		if (s.getTrace()) {
@@ -571,6 +572,19 @@ public class DrawSegment extends SetDrawable implements Previewable {
 		return line.intersects(rect);
 	}
 
+	@Override
+	public GRectangle getHitBounds() {
+		return line == null ? null : line.getBounds();
+	}
+
+	@Override
+	public GRectangle getPaintBounds() {
+		if (line == null || !isVisible || geo.getLineThickness() == 0) {
+			return EMPTY_PAINT_BOUNDS;
+		}
+		return getStrokePaintBounds(line.getBounds(), labelVisible);
+	}
+
 	@Override
 	public GeoElement getGeoElement() {
 		return geo;
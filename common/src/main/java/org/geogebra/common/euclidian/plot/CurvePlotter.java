@@ -46,6 +46,9 @@ public class CurvePlotter {
 
 	private static final double MAX_JUMP = 5;
 
+	// cached curves are plotted in at least this many aligned blocks
+	private static final int MIN_ALIGNED_BLOCKS = 8;
+
 	/** ways to overcome discontinuity */
 	public enum Gap {
 		/** draw a line */
@@ -92,8 +95,14 @@ public class CurvePlotter {
 		double minSamplePoints = Math.max(MIN_SAMPLE_POINTS, view.getWidth() / 6);
 		double max_param_step = Math.abs(t2 - t1) / minSamplePoints;
 		// plot Interval [t1, t2]
-		GPoint labelPoint = plotInterval(curve, t1, t2, 0, max_param_step, view,
-				gp, calcLabelPos, moveToAllowed);
+		GPoint labelPoint;
+		if (curve instanceof CurveSampleCache) {
+			labelPoint = plotAlignedBlocks(curve, t1, t2, max_param_step, view,
+					gp, calcLabelPos, moveToAllowed);
+		} else {
+			labelPoint = plotInterval(curve, t1, t2, 0, max_param_step, view,
+					gp, calcLabelPos, moveToAllowed, false);
+		}
 		if (moveToAllowed == Gap.CORNER) {
 			gp.corner();
 		}
@@ -101,6 +110,45 @@ public class CurvePlotter {
 		return labelPoint;
 	}
 
+	/**
+	 * Plots [t1, t2] as blocks [k * b, (k + 1) * b] where b is a power of two,
+	 * so that the bisection parameters are dyadic numbers that don't depend on
+	 * t1 and t2: after a pan or zoom most of them are in the sample cache.
+	 */
+	private static GPoint plotAlignedBlocks(CurveEvaluable curve, double t1,
+			double t2, double max_param_step, EuclidianView view,
+			PathPlotter gp, boolean calcLabelPos, Gap moveToAllowed) {
+		double block = Math.pow(2, Math.floor(
+				Math.log((t2 - t1) / MIN_ALIGNED_BLOCKS) / Math.log(2)));
+		if (!(t1 < t2) || isUndefined(block) || t1 + block == t1
+				|| t2 - block == t2) {
+			return plotInterval(curve, t1, t2, 0, max_param_step, view, gp,
+					calcLabelPos, moveToAllowed, false);
+		}
+		GPoint labelPoint = null;
+		double[] eval = curve.newDoubleArray();
+		double start = t1;
+		double end = Math.ceil(t1 / block) * block;
+		if (end <= t1) {
+			end += block;
+		}
+		while (start < t2) {
+			end = Math.min(end, t2);
+			// continue the path if the previous block ended at c(start)
+			curve.evaluateCurve(start, eval);
+			boolean continuePath = start > t1 && !isUndefined(eval);
+			GPoint blockLabel = plotInterval(curve, start, end, 0,
+					max_param_step, view, gp, calcLabelPos && labelPoint == null,
+					moveToAllowed, continuePath);
+			if (labelPoint == null) {
+				labelPoint = blockLabel;
+			}
+			start = end;
+			end = start + block;
+		}
+		return labelPoint;
+	}
+
 	/**
 	 * Draws a parametric curve (x(t), y(t)) for t in [t1, t2].
 	 * 
@@ -112,13 +160,15 @@ public class CurvePlotter {
 	 *            whether label position should be calculated and returned
 	 * @param moveToAllowed
 	 *            whether moveTo() may be used for gp
+	 * @param continuePath
+	 *            whether the path already ends at c(t1)
 	 * @return label position as Point
 	 * @author Markus Hohenwarter, based on an algori5thm by John Gillam
 	 */
 	private static GPoint plotInterval(CurveEvaluable curve, double t1,
 			double t2, int intervalDepth, double max_param_step,
 			EuclidianView view, PathPlotter gp, boolean calcLabelPos,
-			Gap moveToAllowed) {
+			Gap moveToAllowed, boolean continuePath) {
 		// plot interval for t in [t1, t2]
 		// If we run into a problem, i.e. an undefined point f(t), we bisect
 		// the interval and plot both intervals [left, (left + right)/2] and
@@ -157,7 +207,9 @@ public class CurvePlotter {
 		eval1 = Cloner.clone(eval);
 
 		// first point
-		gp.firstPoint(eval0, moveToAllowed);
+		if (!continuePath) {
+			gp.firstPoint(eval0, moveToAllowed);
+		}
 
 		// TODO
 		// INIT plotting algorithm
@@ -387,12 +439,14 @@ public class CurvePlotter {
 			// bisect interval
 			calcLabel = calcLabel && labelPoint == null;
 			labelPoint1 = plotInterval(curve, t1, splitParam, intervalDepth + 1,
-					max_param_step, view, gp, calcLabel, moveToAllowed);
+					max_param_step, view, gp, calcLabel, moveToAllowed,
+					false);
 
 			// plot interval [(t1+t2)/2, t2]
 			calcLabel = calcLabel && labelPoint1 == null;
 			labelPoint2 = plotInterval(curve, splitParam, t2, intervalDepth + 1,
-					max_param_step, view, gp, calcLabel, moveToAllowed);
+					max_param_step, view, gp, calcLabel, moveToAllowed,
+					false);
 		} else {
 			// look at the end points of the intervals [t1, (t1+t2)/2] and
 			// [(t1+t2)/2, t2]
@@ -408,14 +462,14 @@ public class CurvePlotter {
 			calcLabel = calcLabel && labelPoint == null;
 			labelPoint1 = plotInterval(curve, borders[0], borders[1],
 					intervalDepth + 1, max_param_step, view, gp, calcLabel,
-					moveToAllowed);
+					moveToAllowed, false);
 
 			// plot interval [(t1+t2)/2, t2]
 			getDefinedInterval(curve, splitParam, t2, borders);
 			calcLabel = calcLabel && labelPoint1 == null;
 			labelPoint2 = plotInterval(curve, borders[0], borders[1],
 					intervalDepth + 1, max_param_step, view, gp, calcLabel,
-					moveToAllowed);
+					moveToAllowed, false);
 		}
 
 		if (labelPoint != null) {
@@ -0,0 +1,160 @@
+package org.geogebra.common.euclidian.plot;
+
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.kernelND.CurveEvaluable;
+
+/**
+ * Curve that remembers its evaluated samples by parameter value, so that
+ * plotting the same curve again after a pan or zoom only evaluates new
+ * samples. {@link CurvePlotter} aligns the samples of such curves to dyadic
+ * parameter values, which makes samples of different views coincide.
+ *
+ * The samples are valid until the geo of the curve is updated.
+ */
+public class CurveSampleCache implements CurveEvaluable {
+
+	/** maximum number of samples, the cache is cleared when reached */
+	private static final int MAX_SIZE = 1 << 14;
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final CurveEvaluable curve;
+	private final int updateVersion;
+	private long[] keys;
+	private double[][] samples;
+	private int size;
+
+	/**
+	 * @param curve
+	 *            evaluated curve
+	 */
+	public CurveSampleCache(CurveEvaluable curve) {
+		this.curve = curve;
+		this.updateVersion = getUpdateVersion(curve);
+		clear();
+	}
+
+	private static int getUpdateVersion(CurveEvaluable curve) {
+		GeoElement geo = curve.toGeoElement();
+		return geo == null ? 0 : geo.getUpdateVersion();
+	}
+
+	/**
+	 * @param other
+	 *            curve
+	 * @return whether the samples of this cache are valid for the curve
+	 */
+	public boolean isCacheFor(CurveEvaluable other) {
+		return other == curve && getUpdateVersion(curve) == updateVersion;
+	}
+
+	/**
+	 * @return number of cached samples
+	 */
+	public int size() {
+		return size;
+	}
+
+	private void clear() {
+		keys = new long[INITIAL_CAPACITY];
+		samples = new double[INITIAL_CAPACITY][];
+		size = 0;
+	}
+
+	@Override
+	public void evaluateCurve(double t, double[] out) {
+		long key = Double.doubleToLongBits(t);
+		int mask = keys.length - 1;
+		int index = hash(key) & mask;
+		while (samples[index] != null) {
+			if (keys[index] == key) {
+				double[] sample = samples[index];
+				System.arraycopy(sample, 0, out, 0,
+						Math.min(sample.length, out.length));
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+		curve.evaluateCurve(t, out);
+		if (size >= MAX_SIZE) {
+			clear();
+		} else if (2 * (size + 1) > keys.length) {
+			grow();
+		}
+		put(key, out.clone());
+	}
+
+	private void put(long key, double[] sample) {
+		int mask = keys.length - 1;
+		int index = hash(key) & mask;
+		while (samples[index] != null) {
+			index = (index + 1) & mask;
+		}
+		keys[index] = key;
+		samples[index] = sample;
+		size++;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		double[][] oldSamples = samples;
+		keys = new long[oldKeys.length * 2];
+		samples = new double[oldKeys.length * 2][];
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldSamples[i] != null) {
+				put(oldKeys[i], oldSamples[i]);
+			}
+		}
+	}
+
+	private static int hash(long key) {
+		// dyadic parameters have zeros in the low bits
+		int h = (int) (key ^ (key >>> 32)) * 0x45d9f3b;
+		return h ^ (h >>> 16);
+	}
+
+	@Override
+	public double getMinParameter() {
+		return curve.getMinParameter();
+	}
+
+	@Override
+	public double getMaxParameter() {
+		return curve.getMaxParameter();
+	}
+
+	@Override
+	public double[] newDoubleArray() {
+		return curve.newDoubleArray();
+	}
+
+	@Override
+	public double distanceMax(double[] p1, double[] p2) {
+		return curve.distanceMax(p1, p2);
+	}
+
+	@Override
+	public double[] getDefinedInterval(double a, double b) {
+		return curve.getDefinedInterval(a, b);
+	}
+
+	@Override
+	public boolean getTrace() {
+		return curve.getTrace();
+	}
+
+	@Override
+	public boolean isClosedPath() {
+		return curve.isClosedPath();
+	}
+
+	@Override
+	public boolean isFunctionInX() {
+		return curve.isFunctionInX();
+	}
+
+	@Override
+	public GeoElement toGeoElement() {
+		return curve.toGeoElement();
+	}
+}
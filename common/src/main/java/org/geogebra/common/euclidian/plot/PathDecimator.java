@@ -0,0 +1,300 @@
+package org.geogebra.common.euclidian.plot;
+
+import org.geogebra.common.euclidian.GeneralPathClipped;
+
+/**
+ * Reduces polylines with many points to the points that are visible on
+ * screen. Points are collected in screen coordinates (possibly shifted by the
+ * origin of the view, so that the result can be reused after panning) and
+ * reduced in two steps for each part of the path:
+ * <ul>
+ * <li>consecutive points in the same pixel column are replaced by the first,
+ * lowest, highest and last of them</li>
+ * <li>Douglas-Peucker: points closer than the tolerance to the segment between
+ * the kept neighbours are removed</li>
+ * </ul>
+ * Single points (move followed by move) may be kept as very short lines, like
+ * in {@link CurvePlotter#draw}.
+ */
+public class PathDecimator {
+
+	/** paths with fewer points are drawn as they are */
+	public static final int MIN_POINTS = 1000;
+	/** maximal distance of removed points from the path, in pixels */
+	public static final double TOLERANCE = 0.5;
+
+	private static final double EPSILON = 0.0001;
+
+	private double[] xs = new double[64];
+	private double[] ys = new double[64];
+	/** index of the first point of each part */
+	private int[] starts = new int[8];
+	private int size = 0;
+	private int partCount = 0;
+	private int inputSize = 0;
+	private boolean decimated = false;
+
+	private boolean[] keep = new boolean[0];
+	private int[] stack = new int[0];
+	private final boolean drawSinglePoints;
+
+	/**
+	 * @param drawSinglePoints
+	 *            whether parts with one point should be drawn as very short
+	 *            lines (otherwise they are just moves)
+	 */
+	public PathDecimator(boolean drawSinglePoints) {
+		this.drawSinglePoints = drawSinglePoints;
+	}
+
+	/**
+	 * Removes all points.
+	 */
+	public void reset() {
+		size = 0;
+		partCount = 0;
+		inputSize = 0;
+		decimated = false;
+	}
+
+	/**
+	 * Starts a new part of the path.
+	 *
+	 * @param x
+	 *            screen x-coord
+	 * @param y
+	 *            screen y-coord
+	 */
+	public void moveTo(double x, double y) {
+		if (partCount == starts.length) {
+			int[] newStarts = new int[2 * partCount];
+			System.arraycopy(starts, 0, newStarts, 0, partCount);
+			starts = newStarts;
+		}
+		starts[partCount++] = size;
+		add(x, y);
+	}
+
+	/**
+	 * Adds a point to the current part; starts a new part if there is none.
+	 *
+	 * @param x
+	 *            screen x-coord
+	 * @param y
+	 *            screen y-coord
+	 */
+	public void lineTo(double x, double y) {
+		if (partCount == 0) {
+			moveTo(x, y);
+		} else {
+			add(x, y);
+		}
+	}
+
+	private void add(double x, double y) {
+		if (size == xs.length) {
+			double[] newXs = new double[2 * size];
+			double[] newYs = new double[2 * size];
+			System.arraycopy(xs, 0, newXs, 0, size);
+			System.arraycopy(ys, 0, newYs, 0, size);
+			xs = newXs;
+			ys = newYs;
+		}
+		xs[size] = x;
+		ys[size] = y;
+		size++;
+		inputSize++;
+		decimated = false;
+	}
+
+	/**
+	 * @return number of points added since last reset
+	 */
+	public int getInputSize() {
+		return inputSize;
+	}
+
+	/**
+	 * @return number of points drawn by {@link #drawTo}
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes the points that are not visible with given tolerance.
+	 *
+	 * @param tolerance
+	 *            maximal distance of removed points from the path, in pixels
+	 */
+	public void decimate(double tolerance) {
+		if (decimated) {
+			return;
+		}
+		int out = 0;
+		for (int part = 0; part < partCount; part++) {
+			int start = starts[part];
+			int end = part + 1 < partCount ? starts[part + 1] : size;
+			starts[part] = out;
+			int columns = reduceColumns(start, end, out);
+			out += simplify(out, out + columns, tolerance);
+		}
+		size = out;
+		decimated = true;
+	}
+
+	/**
+	 * Replaces runs of points in the same pixel column by their first, lowest,
+	 * highest and last point, in their original order. Writes the result
+	 * starting at out &lt;= start.
+	 *
+	 * @return number of points written
+	 */
+	private int reduceColumns(int start, int end, int out) {
+		int w = out;
+		int i = start;
+		while (i < end) {
+			double column = Math.floor(xs[i]);
+			int min = i;
+			int max = i;
+			int j = i + 1;
+			while (j < end && Math.floor(xs[j]) == column) {
+				if (ys[j] < ys[min]) {
+					min = j;
+				} else if (ys[j] > ys[max]) {
+					max = j;
+				}
+				j++;
+			}
+			int last = j - 1;
+			// points in original order, without duplicates
+			w = copy(i, w);
+			int first = Math.min(min, max);
+			int second = Math.max(min, max);
+			if (first != i) {
+				w = copy(first, w);
+			}
+			if (second != first && second != i) {
+				w = copy(second, w);
+			}
+			if (last != second && last != i) {
+				w = copy(last, w);
+			}
+			i = j;
+		}
+		return w - out;
+	}
+
+	private int copy(int from, int to) {
+		xs[to] = xs[from];
+		ys[to] = ys[from];
+		return to + 1;
+	}
+
+	/**
+	 * Douglas-Peucker with explicit stack, keeps first and last point.
+	 *
+	 * @return number of kept points, moved to the beginning of the range
+	 */
+	private int simplify(int start, int end, double tolerance) {
+		int n = end - start;
+		if (n < 3) {
+			return n;
+		}
+		if (keep.length < n) {
+			keep = new boolean[Math.max(n, 2 * keep.length)];
+		}
+		for (int i = 0; i < n; i++) {
+			keep[i] = false;
+		}
+		keep[0] = true;
+		keep[n - 1] = true;
+		int top = push(0, 0, n - 1);
+		double tolerance2 = tolerance * tolerance;
+		while (top > 0) {
+			int last = stack[--top];
+			int first = stack[--top];
+			double x0 = xs[start + first];
+			double y0 = ys[start + first];
+			double dx = xs[start + last] - x0;
+			double dy = ys[start + last] - y0;
+			double len2 = dx * dx + dy * dy;
+			int farthest = -1;
+			// distances to the segment, multiplied by len2 to avoid division
+			double maxDist2 = len2 == 0 ? tolerance2 : tolerance2 * len2;
+			for (int i = first + 1; i < last; i++) {
+				double px = xs[start + i] - x0;
+				double py = ys[start + i] - y0;
+				double dot = px * dx + py * dy;
+				double dist2;
+				if (len2 == 0) {
+					dist2 = px * px + py * py;
+				} else if (dot <= 0) {
+					dist2 = (px * px + py * py) * len2;
+				} else if (dot >= len2) {
+					double qx = px - dx;
+					double qy = py - dy;
+					dist2 = (qx * qx + qy * qy) * len2;
+				} else {
+					double cross = px * dy - py * dx;
+					dist2 = cross * cross;
+				}
+				if (dist2 > maxDist2) {
+					maxDist2 = dist2;
+					farthest = i;
+				}
+			}
+			if (farthest >= 0) {
+				keep[farthest] = true;
+				top = push(top, first, farthest);
+				top = push(top, farthest, last);
+			}
+		}
+		int w = start;
+		for (int i = 0; i < n; i++) {
+			if (keep[i]) {
+				w = copy(start + i, w);
+			}
+		}
+		return w - start;
+	}
+
+	private int push(int top, int first, int last) {
+		if (last - first < 2) {
+			return top;
+		}
+		if (top + 2 > stack.length) {
+			int[] newStack = new int[Math.max(64, 2 * stack.length)];
+			System.arraycopy(stack, 0, newStack, 0, top);
+			stack = newStack;
+		}
+		stack[top] = first;
+		stack[top + 1] = last;
+		return top + 2;
+	}
+
+	/**
+	 * Adds the points to a path.
+	 *
+	 * @param gp
+	 *            path
+	 * @param dx
+	 *            added to x-coords
+	 * @param dy
+	 *            added to y-coords
+	 */
+	public void drawTo(GeneralPathClipped gp, double dx, double dy) {
+		for (int part = 0; part < partCount; part++) {
+			int start = starts[part];
+			int end = part + 1 < partCount ? starts[part + 1] : size;
+			gp.moveTo(xs[start] + dx, ys[start] + dy);
+			if (end - start == 1 && drawSinglePoints) {
+				// single point
+				gp.lineTo(xs[start] + dx + EPSILON, ys[start] + dy);
+			}
+			for (int i = start + 1; i < end; i++) {
+				gp.lineTo(xs[i] + dx, ys[i] + dy);
+			}
+		}
+	}
+}
@@ -30,6 +30,7 @@ import org.geogebra.common.kernel.matrix.Coords3;
 import org.geogebra.common.kernel.matrix.CoordsDouble3;
 import org.geogebra.common.plugin.EuclidianStyleConstants;
 import org.geogebra.common.util.DoubleUtil;
+import org.geogebra.common.util.TaskExecutor;
 import org.geogebra.common.util.debug.Log;
 
 /**
@@ -44,6 +45,15 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 	/** The function being rendered */
 	SurfaceEvaluable surfaceGeo;
+	/** tessellation running on a worker thread, null if none */
+	private TessellationJob tessellationJob;
+	/**
+	 * drawable whose corners are drawn: this, or the one filled by the last
+	 * background tessellation
+	 */
+	private DrawSurface3D tessellation = this;
+	/** finished background tessellation, reused by the next job */
+	private DrawSurface3D spareTessellation;
 
 	// number of intervals in root mesh (for each parameters, if parameters
 	// delta are equals)
@@ -327,11 +337,17 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 			}
 		}
 
+		TaskExecutor executor = getView3D().getKernel().getTaskExecutor();
+		if (executor != null || tessellationJob != null) {
+			return updateInBackground(executor);
+		}
+
 		boolean drawOccured = false;
 
 		if (drawFromScratch) {
 			borders.clear();
 			drawUpToDate = false;
+			tessellation = this;
 
 			if (levelOfDetail == LevelOfDetail.QUALITY
 					&& splitsStartedNotFinished) {
@@ -339,60 +355,15 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 				drawOccured = true;
 			}
 
-			// maybe set to null after redefine
-			surfaceGeo.setDerivatives();
-
-			// calc min/max values
-			uParam.initBorder(surfaceGeo, getView3D(), 0);
-			vParam.initBorder(surfaceGeo, getView3D(), 1);
-
-			if (DoubleUtil.isZero(uParam.delta)
-					|| DoubleUtil.isZero(vParam.delta)) {
+			if (!initParameters()) {
 				setSurfaceIndex(-1);
 				setWireframeInvisible();
 				return true;
 			}
-
-			// max values
-			setLevelOfDetail();
-			setTolerances();
-
-			updateCullingBox();
-
 			initBounds();
 
-			debug("\nmax distances = " + maxRWDistance + ", "
-					+ maxRWDistanceNoAngleCheck);
-
-			// create root mesh
-			double uOverVFactor = uParam.delta / vParam.delta;
-			if (uOverVFactor > ROOT_MESH_INTERVALS_SPEED) {
-				uOverVFactor = ROOT_MESH_INTERVALS_SPEED;
-			} else if (uOverVFactor < 1.0 / ROOT_MESH_INTERVALS_SPEED) {
-				uOverVFactor = 1.0 / ROOT_MESH_INTERVALS_SPEED;
-			}
-			uParam.n = (int) (ROOT_MESH_INTERVALS_SPEED * uOverVFactor);
-			vParam.n = ROOT_MESH_INTERVALS_SPEED_SQUARE / uParam.n;
-			uParam.n += 2;
-			vParam.n += 2;
-
-			uParam.init(levelOfDetail);
-			vParam.init(levelOfDetail);
-
-			debug("grids: " + uParam.n + ", " + vParam.n);
-			cornerListIndex = 0;
-
 			try {
-				firstCorner = createRootMesh();
-
-				// split root mesh as start
-				currentSplitIndex = 0;
-				currentSplitStoppedIndex = 0;
-				nextSplitIndex = 0;
-				drawListIndex = 0;
-				notDrawn = 0;
-				splitRootMesh(firstCorner);
-				debug("\nnot drawn after split root mesh: " + notDrawn);
+				startFromRootMesh();
 
 				// now splitted root mesh is ready
 				drawFromScratch = false;
@@ -471,6 +442,205 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 	}
 
+	/**
+	 * Sets parameter ranges, tolerances and root mesh size for a new
+	 * tessellation.
+	 * 
+	 * @return false if the parameter ranges are empty
+	 */
+	private boolean initParameters() {
+		// maybe set to null after redefine
+		surfaceGeo.setDerivatives();
+
+		// calc min/max values
+		uParam.initBorder(surfaceGeo, getView3D(), 0);
+		vParam.initBorder(surfaceGeo, getView3D(), 1);
+
+		if (DoubleUtil.isZero(uParam.delta) || DoubleUtil.isZero(vParam.delta)) {
+			return false;
+		}
+
+		// max values
+		setLevelOfDetail();
+		setTolerances();
+
+		updateCullingBox();
+
+		debug("\nmax distances = " + maxRWDistance + ", "
+				+ maxRWDistanceNoAngleCheck);
+
+		// create root mesh
+		double uOverVFactor = uParam.delta / vParam.delta;
+		if (uOverVFactor > ROOT_MESH_INTERVALS_SPEED) {
+			uOverVFactor = ROOT_MESH_INTERVALS_SPEED;
+		} else if (uOverVFactor < 1.0 / ROOT_MESH_INTERVALS_SPEED) {
+			uOverVFactor = 1.0 / ROOT_MESH_INTERVALS_SPEED;
+		}
+		uParam.n = (int) (ROOT_MESH_INTERVALS_SPEED * uOverVFactor);
+		vParam.n = ROOT_MESH_INTERVALS_SPEED_SQUARE / uParam.n;
+		uParam.n += 2;
+		vParam.n += 2;
+
+		uParam.init(levelOfDetail);
+		vParam.init(levelOfDetail);
+
+		debug("grids: " + uParam.n + ", " + vParam.n);
+		cornerListIndex = 0;
+		return true;
+	}
+
+	/**
+	 * Creates the root mesh and splits it once.
+	 */
+	private void startFromRootMesh() throws NotEnoughCornersException {
+		firstCorner = createRootMesh();
+
+		// split root mesh as start
+		currentSplitIndex = 0;
+		currentSplitStoppedIndex = 0;
+		nextSplitIndex = 0;
+		drawListIndex = 0;
+		notDrawn = 0;
+		splitRootMesh(firstCorner);
+		debug("\nnot drawn after split root mesh: " + notDrawn);
+	}
+
+	/**
+	 * Tessellates on a worker thread; the previous geometry stays visible
+	 * until the new one is ready. The job fills its own drawable (corners,
+	 * draw list, evaluation helpers, bounds, on a copy of the surface), which
+	 * is swapped in here on the UI thread once the job is done. A
+	 * tessellation that is outdated by a new update (e.g. while dragging a
+	 * slider) is cancelled.
+	 * 
+	 * @param executor
+	 *            executor, may be null if only a running job needs to be
+	 *            finished
+	 * @return true if the update is finished
+	 */
+	private boolean updateInBackground(TaskExecutor executor) {
+		if (tessellationJob != null) {
+			if (drawFromScratch) {
+				tessellationJob.cancel();
+			}
+			if (!tessellationJob.isFinished()) {
+				return false;
+			}
+			TessellationJob job = tessellationJob;
+			tessellationJob = null;
+			if (job.isCancelled()) {
+				spareTessellation = job.tessellation;
+			} else {
+				if (tessellation != this) {
+					spareTessellation = tessellation;
+				}
+				tessellation = job.tessellation;
+				boundsMin.set(tessellation.boundsMin);
+				boundsMax.set(tessellation.boundsMax);
+				oldThickness = -1;
+				draw();
+				drawUpToDate = true;
+				return true;
+			}
+		}
+
+		if (drawFromScratch) {
+			borders.clear();
+			drawUpToDate = false;
+			DrawSurface3D next = spareTessellation;
+			spareTessellation = null;
+			SurfaceEvaluable copy = surfaceGeo.copyForEvaluation();
+			if (next == null) {
+				next = newTessellation(copy);
+			} else {
+				next.surfaceGeo = copy;
+				next.setGeoElement((GeoElement) copy);
+			}
+			if (!next.initParameters()) {
+				spareTessellation = next;
+				setSurfaceIndex(-1);
+				setWireframeInvisible();
+				return true;
+			}
+			drawFromScratch = false;
+			tessellationJob = new TessellationJob(next);
+			if (executor == null) {
+				tessellationJob.run();
+			} else {
+				executor.execute(tessellationJob);
+			}
+			return updateInBackground(null);
+		}
+
+		if (wireframeNeeded() && drawUpToDate) {
+			// update is called for visual style, i.e. line thickness
+			drawWireframe(getView3D().getRenderer());
+		}
+		return true;
+	}
+
+	/**
+	 * @param surface
+	 *            copy of the surface
+	 * @return drawable of the same type, only used to tessellate the copy
+	 */
+	protected DrawSurface3D newTessellation(SurfaceEvaluable surface) {
+		return new DrawSurface3D(getView3D(), surface);
+	}
+
+	/**
+	 * Root mesh creation and all splits of one surface, run on a worker thread
+	 * with a drawable of its own. Splits stay sequential since neighbouring
+	 * cells share corners; several surfaces are tessellated in parallel.
+	 */
+	private static class TessellationJob implements Runnable {
+		protected final DrawSurface3D tessellation;
+		private volatile boolean cancelled = false;
+		private volatile boolean finished = false;
+
+		protected TessellationJob(DrawSurface3D tessellation) {
+			this.tessellation = tessellation;
+		}
+
+		@Override
+		public void run() {
+			DrawSurface3D t = tessellation;
+			try {
+				t.initBounds();
+				t.startFromRootMesh();
+				while (!cancelled) {
+					t.loopSplitIndex = 0;
+					t.stillRoomLeft = t.split();
+					if (!t.stillRoomLeft || (t.currentSplitIndex
+							- t.currentSplitStoppedIndex)
+							+ t.nextSplitIndex == 0) {
+						break;
+					}
+				}
+			} catch (NotEnoughCornersException e) {
+				t.stillRoomLeft = false;
+			} catch (RuntimeException e) {
+				// surface changed while evaluating
+				Log.debug("Tessellation failed: " + e.getMessage());
+				cancelled = true;
+			} finally {
+				finished = true;
+			}
+		}
+
+		protected void cancel() {
+			cancelled = true;
+		}
+
+		protected boolean isCancelled() {
+			return cancelled;
+		}
+
+		protected boolean isFinished() {
+			return finished;
+		}
+	}
+
 	/**
 	 * ends geometry
 	 * 
@@ -498,6 +668,18 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 	}
 
 	private void draw() {
+		tessellation.drawTessellation(this);
+	}
+
+	/**
+	 * Creates the surface and wireframe geometry of the target from the
+	 * corners of this drawable.
+	 * 
+	 * @param target
+	 *            drawable owning the geometry, this or the one for which this
+	 *            was tessellated
+	 */
+	private void drawTessellation(DrawSurface3D target) {
 
 		Renderer renderer = getView3D().getRenderer();
 
@@ -506,8 +688,8 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 		// draw splitted, still to split, and next to split
 		PlotterSurface surface = renderer.getGeometryManager().getSurface();
-		setPackSurface(true);
-		surface.start(getReusableSurfaceIndex());
+		target.setPackSurface(true);
+		surface.start(target.getReusableSurfaceIndex());
 
 		if (!stillRoomLeft) {
 			try {
@@ -552,11 +734,11 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 			}
 		}
 
-		setSurfaceIndex(surface.end());
-		endPacking();
+		target.setSurfaceIndex(surface.end());
+		target.endPacking();
 		renderer.getGeometryManager().setScalerView();
 
-		drawWireframe(renderer);
+		target.drawWireframe(renderer);
 	}
 
 	static final private boolean isDefinedForWireframe(Corner corner) {
@@ -607,8 +789,8 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 		brush.setAffineTexture(0f, 0f);
 		brush.setLength(1f);
 
-		for (int i = 0; i < wireframeBottomCornersLength; i++) {
-			Corner above = wireframeBottomCorners[i];
+		for (int i = 0; i < tessellation.wireframeBottomCornersLength; i++) {
+			Corner above = tessellation.wireframeBottomCorners[i];
 			boolean currentPointIsDefined = isDefinedForWireframe(above);
 			if (currentPointIsDefined) {
 				brush.moveTo(above.p.getXd(), above.p.getYd(), above.p.getZd());
@@ -632,8 +814,8 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 			brush.endPlot();
 		}
 
-		for (int i = 0; i < wireframeRightCornersLength; i++) {
-			Corner left = wireframeRightCorners[i];
+		for (int i = 0; i < tessellation.wireframeRightCornersLength; i++) {
+			Corner left = tessellation.wireframeRightCorners[i];
 			boolean currentPointIsDefined = isDefinedForWireframe(left);
 			if (currentPointIsDefined) {
 				brush.moveTo(left.p.getXd(), left.p.getYd(), left.p.getZd());
@@ -33,6 +33,11 @@ public class DrawSurface3DElements extends DrawSurface3D {
 		super(a_view3d, surface);
 	}
 
+	@Override
+	protected DrawSurface3D newTessellation(SurfaceEvaluable surface) {
+		return new DrawSurface3DElements(getView3D(), surface);
+	}
+
 	@Override
 	protected void drawTriangle(PlotterSurface surface, CornerAndCenter cc,
 			Corner c1, Corner c2) {
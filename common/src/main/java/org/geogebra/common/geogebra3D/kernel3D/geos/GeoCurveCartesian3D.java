@@ -178,6 +178,7 @@ public class GeoCurveCartesian3D extends GeoCurveCartesianND implements
 		}
 
 		GeoCurveCartesianND geoCurve = (GeoCurveCartesianND) geo;
+		valueChanged();
 
 		// fun = new Function[3];
 		for (int i = 0; i < 2; i++) {
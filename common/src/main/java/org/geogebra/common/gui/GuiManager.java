@@ -35,6 +35,7 @@ import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.Macro;
 import org.geogebra.common.kernel.ModeSetter;
 import org.geogebra.common.kernel.View;
+import org.geogebra.common.kernel.batch.ViewDelivery;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoImage;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
@@ -922,6 +923,8 @@ public abstract class GuiManager implements GuiManagerInterface {
 	 * @return TableValuesView
 	 */
 	protected TableValuesView createTableValuesView() {
-		return new TableValuesView(kernel);
+		TableValuesView view = new TableValuesView(kernel);
+		view.setDelivery(ViewDelivery.FRAME);
+		return view;
 	}
 }
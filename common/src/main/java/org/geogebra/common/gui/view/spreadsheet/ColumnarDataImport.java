@@ -0,0 +1,325 @@
+package org.geogebra.common.gui.view.spreadsheet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.GeoText;
+import org.geogebra.common.kernel.geos.LabelManager;
+import org.geogebra.common.util.AsyncOperation;
+import org.geogebra.common.util.opencsv.CSVException;
+import org.geogebra.common.util.opencsv.CSVParser;
+
+import com.himamis.retex.editor.share.util.Unicode;
+
+/**
+ * Streaming import of comma or tab separated data. Lines are added one at a
+ * time and stored column by column: numbers in a double array, text only for
+ * the cells which are not numbers. Numbers are recognized directly (see
+ * {@link RelativeCopy#isNumber(String)}), without the algebra processor.
+ *
+ * Small data can be pasted into the spreadsheet via {@link #getStrings()};
+ * data with more rows than the spreadsheet can be turned into one list per
+ * column via {@link #createLists(Construction)}.
+ */
+public class ColumnarDataImport {
+
+	/** rows between two progress reports */
+	private static final int PROGRESS_ROWS = 10000;
+
+	private final int maxStringRows;
+	private final AsyncOperation<Integer> progress;
+	private CSVParser parser;
+	/** complete fields of a row whose last field continues on next line */
+	private ArrayList<String> partialRow;
+	private final ArrayList<Column> columns = new ArrayList<>();
+	private int rows;
+	/** rows formatted for the spreadsheet, null if there are too many */
+	private ArrayList<String[]> strings = new ArrayList<>();
+	private int maxLength;
+
+	private static class Column {
+		/** values, NaN for empty and text cells */
+		double[] values = new double[16];
+		/** text cells, null as long as there are none */
+		String[] texts;
+		int size;
+		int textCount;
+
+		Column() {
+			Arrays.fill(values, Double.NaN);
+		}
+
+		void set(int row, double value, String text) {
+			if (row >= values.length) {
+				int length = values.length;
+				values = Arrays.copyOf(values, Math.max(row + 1, 2 * length));
+				Arrays.fill(values, length, values.length, Double.NaN);
+			}
+			values[row] = value;
+			if (text != null) {
+				if (texts == null) {
+					texts = new String[values.length];
+				} else if (texts.length < values.length) {
+					texts = Arrays.copyOf(texts, values.length);
+				}
+				texts[row] = text;
+				textCount++;
+			}
+			size = row + 1;
+		}
+
+		double getValue(int row) {
+			return row < size ? values[row] : Double.NaN;
+		}
+
+		String getText(int row) {
+			return texts != null && row < texts.length ? texts[row] : null;
+		}
+	}
+
+	/**
+	 * @param maxStringRows
+	 *            number of rows up to which the data is also kept formatted
+	 *            for the spreadsheet
+	 * @param progress
+	 *            called with the number of rows read so far, may be null
+	 */
+	public ColumnarDataImport(int maxStringRows,
+			AsyncOperation<Integer> progress) {
+		this.maxStringRows = maxStringRows;
+		this.progress = progress;
+	}
+
+	/**
+	 * Parses one line. The separator is tab if the first line contains one,
+	 * comma otherwise. Quoted fields may span several lines.
+	 *
+	 * @param line
+	 *            line without line terminator
+	 * @throws CSVException
+	 *             if the line cannot be parsed
+	 */
+	public void addLine(String line) throws CSVException {
+		if (parser == null) {
+			parser = new CSVParser(line.indexOf('\t') == -1 ? ',' : '\t');
+		}
+		String[] fields = parser.parseLineMulti(line);
+		if (partialRow != null) {
+			// the first field completes the one which was pending
+			partialRow.addAll(Arrays.asList(fields));
+			fields = partialRow.toArray(new String[partialRow.size()]);
+			partialRow = null;
+		}
+		if (parser.isPending()) {
+			partialRow = new ArrayList<>(Arrays.asList(fields));
+			return;
+		}
+		addRow(fields);
+	}
+
+	/**
+	 * Adds the rest of an unterminated quoted field, if any, as last row.
+	 *
+	 * @throws CSVException
+	 *             if the data cannot be parsed
+	 */
+	public void finish() throws CSVException {
+		if (partialRow != null) {
+			partialRow.addAll(Arrays.asList(parser.parseLineMulti(null)));
+			addRow(partialRow.toArray(new String[partialRow.size()]));
+			partialRow = null;
+		}
+	}
+
+	private void addRow(String[] fields) {
+		for (int col = 0; col < fields.length; col++) {
+			if (col == columns.size()) {
+				columns.add(new Column());
+			}
+			String field = fields[col];
+			// same formatting as DataImport.parseExternalData, which only
+			// changes numbers with commas
+			String text = field.length() == 0 ? " "
+					: field.indexOf(',') == -1 ? field
+							: DataImport.adjustNumberString(field);
+			fields[col] = text;
+			double value = parseNumber(text);
+			if (!Double.isNaN(value)) {
+				columns.get(col).set(rows, value, null);
+			} else if (text.trim().length() > 0) {
+				columns.get(col).set(rows, Double.NaN, text);
+			}
+		}
+		maxLength = Math.max(maxLength, fields.length);
+		if (strings != null) {
+			if (rows < maxStringRows) {
+				strings.add(fields);
+			} else {
+				strings = null;
+			}
+		}
+		rows++;
+		if (progress != null && rows % PROGRESS_ROWS == 0) {
+			progress.callback(rows);
+		}
+	}
+
+	/**
+	 * @param s
+	 *            cell content
+	 * @return value of a cell containing a plain number, optionally followed
+	 *         by % or degree sign; NaN otherwise
+	 */
+	static double parseNumber(String s) {
+		if (!RelativeCopy.isNumber(s)) {
+			return Double.NaN;
+		}
+		String str = s.trim();
+		double factor = 1;
+		char last = str.charAt(str.length() - 1);
+		if (last == '%') {
+			factor = 0.01;
+		} else if (last == Unicode.DEGREE_CHAR) {
+			factor = Kernel.PI_180;
+		}
+		if (factor != 1) {
+			str = str.substring(0, str.length() - 1);
+		}
+		try {
+			return Double.parseDouble(str.replace(Unicode.MINUS, '-')) * factor;
+		} catch (NumberFormatException e) {
+			// eg 1E
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * @return number of rows
+	 */
+	public int getRowCount() {
+		return rows;
+	}
+
+	/**
+	 * @return number of columns
+	 */
+	public int getColumnCount() {
+		return maxLength;
+	}
+
+	/**
+	 * @param row
+	 *            row
+	 * @param col
+	 *            column
+	 * @return value of the cell, NaN if it is empty or not a number
+	 */
+	public double getValue(int row, int col) {
+		return col < columns.size() ? columns.get(col).getValue(row)
+				: Double.NaN;
+	}
+
+	/**
+	 * @param row
+	 *            row
+	 * @param col
+	 *            column
+	 * @return content of the cell if it is not empty and not a number, null
+	 *         otherwise
+	 */
+	public String getText(int row, int col) {
+		return col < columns.size() ? columns.get(col).getText(row) : null;
+	}
+
+	/**
+	 * @return whether the first row contains text and all other cells are
+	 *         numbers or empty
+	 */
+	public boolean hasHeader() {
+		if (rows < 2) {
+			return false;
+		}
+		boolean header = false;
+		for (Column column : columns) {
+			boolean text = column.getText(0) != null;
+			if (column.textCount > (text ? 1 : 0)) {
+				return false;
+			}
+			header |= text;
+		}
+		return header;
+	}
+
+	/**
+	 * @return data formatted for the spreadsheet as by
+	 *         {@link DataImport#parseExternalData(org.geogebra.common.main.App, String, boolean)},
+	 *         null if there were more rows than given in the constructor
+	 */
+	public String[][] getStrings() {
+		if (strings == null) {
+			return null;
+		}
+		String[][] data = new String[rows][maxLength];
+		for (int row = 0; row < rows; row++) {
+			String[] fields = strings.get(row);
+			System.arraycopy(fields, 0, data[row], 0, fields.length);
+			Arrays.fill(data[row], fields.length, maxLength, " ");
+		}
+		return data;
+	}
+
+	/**
+	 * Creates one list per column, containing numbers and texts. Empty cells
+	 * become undefined numbers, so that the lists have the same length. If
+	 * there is a header, the lists are named after it where possible. Lists of
+	 * numbers share the imported values with their statistics (see
+	 * {@link GeoList#setNumberValues(double[])}).
+	 *
+	 * @param cons
+	 *            construction
+	 * @return lists, labeled
+	 */
+	public GeoList[] createLists(Construction cons) {
+		boolean header = hasHeader();
+		int start = header ? 1 : 0;
+		GeoList[] lists = new GeoList[maxLength];
+		for (int col = 0; col < maxLength; col++) {
+			Column column = columns.get(col);
+			GeoList list = new GeoList(cons);
+			list.ensureCapacity(rows - start);
+			double[] values = null;
+			// below a header all cells are numbers or empty
+			if (header || column.textCount == 0) {
+				values = new double[rows - start];
+				for (int row = start; row < rows; row++) {
+					values[row - start] = column.getValue(row);
+					list.add(new GeoNumeric(cons, values[row - start]));
+				}
+			} else {
+				for (int row = start; row < rows; row++) {
+					String text = column.getText(row);
+					if (text != null) {
+						list.add(new GeoText(cons, text));
+					} else {
+						list.add(new GeoNumeric(cons, column.getValue(row)));
+					}
+				}
+			}
+			String label = header ? column.getText(0) : null;
+			if (label != null && (!LabelManager.isValidLabel(label,
+					cons.getKernel(), null) || !cons.isFreeLabel(label))) {
+				label = null;
+			}
+			list.setLabel(label);
+			if (values != null) {
+				list.setNumberValues(values);
+			}
+			lists[col] = list;
+		}
+		return lists;
+	}
+}
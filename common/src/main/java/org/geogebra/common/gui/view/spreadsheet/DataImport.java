@@ -184,8 +184,12 @@ public class DataImport {
 	 * 
 	 * if the given string is a number that Geogebra's parser recognizes. If
 	 * cannot be parsed to a number, then the original string is returned.
+	 * 
+	 * @param s
+	 *            cell content
+	 * @return number without formatting, or s if it is not a number
 	 */
-	private static String adjustNumberString(String s) {
+	static String adjustNumberString(String s) {
 
 		if (s == null || "".equals(s)) {
 			return s;
@@ -11,6 +11,8 @@ import org.geogebra.common.gui.view.table.dimensions.TableValuesViewDimensions;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.ModeSetter;
 import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.batch.QueuedView;
+import org.geogebra.common.kernel.batch.ViewDelivery;
 import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
@@ -26,7 +28,8 @@ import org.geogebra.common.util.DoubleUtil;
 /**
  * The TableValuesView implementation.
  */
-public class TableValuesView implements TableValues, SettingListener {
+public class TableValuesView
+		implements TableValues, QueuedView, SettingListener {
 
 	private static final int MAX_ROWS = 200;
 
@@ -37,6 +40,7 @@ public class TableValuesView implements TableValues, SettingListener {
 	private TableSettings settings;
 	private Kernel kernel;
 	private App app;
+	private ViewDelivery delivery = ViewDelivery.IMMEDIATE;
 
 	/**
 	 * Create a new Table Value View.
@@ -297,6 +301,25 @@ public class TableValuesView implements TableValues, SettingListener {
 		return App.VIEW_TABLE;
 	}
 
+	@Override
+	public ViewDelivery getDelivery() {
+		return delivery;
+	}
+
+	/**
+	 * @param delivery
+	 *            when the view receives notifications; takes effect when
+	 *            the view is attached
+	 */
+	public void setDelivery(ViewDelivery delivery) {
+		this.delivery = delivery;
+	}
+
+	@Override
+	public int getNotificationPriority() {
+		return 0;
+	}
+
 	@Override
 	public boolean hasFocus() {
 		return false;
@@ -22,6 +22,8 @@ import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.algos.AlgoJoinPointsSegment;
 import org.geogebra.common.kernel.algos.AlgorithmSet;
 import org.geogebra.common.kernel.algos.ConstructionElement;
+import org.geogebra.common.kernel.algos.LevelwiseAlgoUpdater;
+import org.geogebra.common.kernel.algos.UpdatePlanCache;
 import org.geogebra.common.kernel.arithmetic.Equation;
 import org.geogebra.common.kernel.arithmetic.ExpressionNode;
 import org.geogebra.common.kernel.arithmetic.ExpressionNodeConstants;
@@ -153,6 +155,8 @@ public class Construction {
 	private TreeSet<GeoElement> randomElements;
 	/** algo set currently updated by GeoElement.updateDependentObjects() */
 	private AlgorithmSet algoSetCurrentlyUpdated;
+	/** cached update order for updates of several geos at once */
+	private final UpdatePlanCache updatePlanCache = new UpdatePlanCache();
 
 	private final TreeSet<String> casDummies = new TreeSet<>();
 
@@ -1250,21 +1254,15 @@ public class Construction {
 					algoList);
 
 			// update all algorithms
+			LevelwiseAlgoUpdater updater = kernel.getLevelwiseAlgoUpdater();
+			if (updater != null) {
+				updater.updateAll(tempList,
+						new UpdateConstructionPreparation(randomize));
+				return;
+			}
 			for (int i = 0; i < size; ++i) {
 				AlgoElement algo = tempList.get(i);
-
-				// reinit near to relationship to make sure points stay at their
-				// saved position
-				// keep this line, see
-				// http://code.google.com/p/geogebra/issues/detail?id=62
-				algo.initForNearToRelationship();
-
-				// update algorithm
-				if (algo instanceof AlgoLocusEquation) {
-					((AlgoLocusEquation) algo).resetFingerprint(kernel, true);
-				}
-				if (randomize || !(algo instanceof SetRandomValue)
-						|| !((SetRandomValue) algo).setRandomValue(algo.getOutput(0))) {
+				if (prepareUpdate(algo, randomize)) {
 					algo.update();
 				}
 			}
@@ -1273,6 +1271,42 @@ public class Construction {
 		}
 	}
 
+	/**
+	 * @param algo
+	 *            algorithm
+	 * @param randomize
+	 *            whether random numbers should be updated
+	 * @return whether the algorithm needs to be updated
+	 */
+	private boolean prepareUpdate(AlgoElement algo, boolean randomize) {
+		// reinit near to relationship to make sure points stay at their
+		// saved position
+		// keep this line, see
+		// http://code.google.com/p/geogebra/issues/detail?id=62
+		algo.initForNearToRelationship();
+
+		// update algorithm
+		if (algo instanceof AlgoLocusEquation) {
+			((AlgoLocusEquation) algo).resetFingerprint(kernel, true);
+		}
+		return randomize || !(algo instanceof SetRandomValue)
+				|| !((SetRandomValue) algo).setRandomValue(algo.getOutput(0));
+	}
+
+	private class UpdateConstructionPreparation
+			implements LevelwiseAlgoUpdater.Preparation {
+		private final boolean randomize;
+
+		protected UpdateConstructionPreparation(boolean randomize) {
+			this.randomize = randomize;
+		}
+
+		@Override
+		public boolean prepare(AlgoElement algo) {
+			return prepareUpdate(algo, randomize);
+		}
+	}
+
 	/**
 	 * Similar to updateConstruction, but only updates CAS cells
 	 */
@@ -3386,6 +3420,21 @@ public class Construction {
 		return algoSetCurrentlyUpdated;
 	}
 
+	/**
+	 * @return cache of update plans for updates of several geos at once
+	 */
+	public UpdatePlanCache getUpdatePlanCache() {
+		return updatePlanCache;
+	}
+
+	/**
+	 * Invalidates cached update plans; needs to be called whenever update sets
+	 * or construction order change.
+	 */
+	public void invalidateUpdatePlans() {
+		updatePlanCache.invalidate();
+	}
+
 	/**
 	 * @param b
 	 *            new value of update construction flag
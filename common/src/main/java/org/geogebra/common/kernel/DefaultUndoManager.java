@@ -13,6 +13,7 @@ import org.geogebra.common.plugin.EventType;
 public class DefaultUndoManager extends UndoManager {
 
 	private ArrayList<UndoPossibleListener> mListener = new ArrayList<>();
+	private boolean deltaStorage = false;
 
 	/**
 	 * @param cons
@@ -44,7 +45,7 @@ public class DefaultUndoManager extends UndoManager {
      *            string builder with construction XML
      */
     private synchronized void doStoreUndoInfo(final StringBuilder undoXML) {
-        AppState appStateToAdd = new StringAppState(undoXML.toString());
+        AppState appStateToAdd = createAppState(undoXML.toString());
         UndoCommand command = createUndoCommand(appStateToAdd);
         maybeStoreUndoCommand(command);
         pruneStateList();
@@ -52,6 +53,27 @@ public class DefaultUndoManager extends UndoManager {
         updateUndoActions();
     }
 
+    private AppState createAppState(String xml) {
+        if (deltaStorage) {
+            AppState previous = getLatestAppState();
+            return DeltaAppState.create(previous instanceof DeltaAppState
+                    ? (DeltaAppState) previous : null, xml);
+        }
+        return new StringAppState(xml);
+    }
+
+    /**
+     * Store undo points as differences to the previous state instead of full
+     * copies of the construction XML; best combined with
+     * {@link #setMemoryBudget(long)}.
+     *
+     * @param deltaStorage
+     *            whether to store differences
+     */
+    public void setDeltaStorage(boolean deltaStorage) {
+        this.deltaStorage = deltaStorage;
+    }
+
     protected UndoCommand createUndoCommand(AppState appState) {
     	return new UndoCommand(appState);
     }
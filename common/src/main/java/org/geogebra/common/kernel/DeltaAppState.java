@@ -0,0 +1,244 @@
+package org.geogebra.common.kernel;
+
+import java.util.HashMap;
+
+/**
+ * App state that stores only the lines of the construction XML that changed
+ * since a base state. Unchanged lines are stored as runs of line indices of
+ * the base, so moving a point in a large construction costs a few lines
+ * instead of a full copy of the XML. Every few states (or when the delta is
+ * not much smaller than the XML) a full copy is stored to keep
+ * reconstruction cheap.
+ */
+public class DeltaAppState implements AppState {
+
+	/** maximum number of deltas between two full copies */
+	private static final int MAX_CHAIN_LENGTH = 16;
+	/** run start for literal lines */
+	private static final int LITERAL = -1;
+	private static final int OBJECT_BYTES = 64;
+
+	private DeltaAppState base;
+	private int chainLength;
+	private String xml;
+	private int[] runs;
+	private String literals;
+	private int lineCount;
+	/** lines of the newest state, kept to diff the next state cheaply */
+	private String[] cachedLines;
+
+	private DeltaAppState(String xml, String[] lines) {
+		this.xml = xml;
+		this.lineCount = lines.length;
+		this.cachedLines = lines;
+	}
+
+	/**
+	 * Creates a state for the XML, stored as delta to the previous state if
+	 * that saves memory.
+	 *
+	 * @param previous
+	 *            previous state, may be null
+	 * @param xml
+	 *            construction XML
+	 * @return new state
+	 */
+	public static DeltaAppState create(DeltaAppState previous, String xml) {
+		String[] lines = xml.split("\n", -1);
+		if (previous == null || previous.chainLength >= MAX_CHAIN_LENGTH) {
+			return keyframe(previous, xml, lines);
+		}
+		String[] baseLines = previous.getLines();
+		previous.cachedLines = null;
+
+		HashMap<String, Integer> baseIndex = new HashMap<>(
+				baseLines.length * 2);
+		for (int i = baseLines.length - 1; i >= 0; i--) {
+			baseIndex.put(baseLines[i], i);
+		}
+
+		IntList newRuns = new IntList();
+		StringBuilder newLiterals = new StringBuilder();
+		int basePos = 0;
+		for (String line : lines) {
+			if (basePos < baseLines.length && baseLines[basePos].equals(line)) {
+				newRuns.addCopy(basePos);
+				basePos++;
+				continue;
+			}
+			Integer index = baseIndex.get(line);
+			if (index != null) {
+				newRuns.addCopy(index);
+				basePos = index + 1;
+			} else {
+				if (newRuns.literalCount > 0) {
+					newLiterals.append('\n');
+				}
+				newRuns.addLiteral();
+				newLiterals.append(line);
+			}
+		}
+
+		if (2L * newLiterals.length() + 4L * newRuns.size > xml.length()) {
+			// delta too big: a full copy is cheaper to restore
+			return keyframe(previous, xml, lines);
+		}
+		DeltaAppState state = new DeltaAppState(null, lines);
+		state.base = previous;
+		state.chainLength = previous.chainLength + 1;
+		state.runs = newRuns.toArray();
+		state.literals = newLiterals.toString();
+		return state;
+	}
+
+	private static DeltaAppState keyframe(DeltaAppState previous, String xml,
+			String[] lines) {
+		if (previous != null) {
+			previous.cachedLines = null;
+		}
+		return new DeltaAppState(xml, lines);
+	}
+
+	/**
+	 * @return lines of the construction XML
+	 */
+	String[] getLines() {
+		if (cachedLines != null) {
+			return cachedLines;
+		}
+		if (xml != null) {
+			return xml.split("\n", -1);
+		}
+		String[] baseLines = base.getLines();
+		String[] literalLines = literals.split("\n", -1);
+		String[] lines = new String[lineCount];
+		int pos = 0;
+		int literalPos = 0;
+		for (int i = 0; i < runs.length; i += 2) {
+			int count = runs[i + 1];
+			if (runs[i] == LITERAL) {
+				System.arraycopy(literalLines, literalPos, lines, pos, count);
+				literalPos += count;
+			} else {
+				System.arraycopy(baseLines, runs[i], lines, pos, count);
+			}
+			pos += count;
+		}
+		return lines;
+	}
+
+	@Override
+	public String getXml() {
+		if (xml != null) {
+			return xml;
+		}
+		String[] lines = getLines();
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < lines.length; i++) {
+			if (i > 0) {
+				sb.append('\n');
+			}
+			sb.append(lines[i]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Stores the full XML so that this no longer depends on older states.
+	 */
+	public void materialize() {
+		if (base != null) {
+			xml = getXml();
+			base = null;
+			runs = null;
+			literals = null;
+			chainLength = 0;
+		}
+	}
+
+	/**
+	 * @return whether this is stored as delta
+	 */
+	public boolean isDelta() {
+		return base != null;
+	}
+
+	/**
+	 * @return estimated memory used by this state, excluding its base
+	 */
+	public long getByteSize() {
+		if (xml != null) {
+			return OBJECT_BYTES + 2L * xml.length();
+		}
+		if (runs == null) {
+			return 0;
+		}
+		return OBJECT_BYTES + 4L * runs.length + 2L * literals.length();
+	}
+
+	/**
+	 * Newer states may still depend on this one; their references keep the
+	 * data alive until they are deleted or materialized.
+	 */
+	@Override
+	public void delete() {
+		cachedLines = null;
+	}
+
+	@Override
+	public boolean equalsTo(AppState state) {
+		if (state instanceof DeltaAppState
+				&& ((DeltaAppState) state).base == this) {
+			return ((DeltaAppState) state).isCopyOfBase(lineCount);
+		}
+		return state != null && getXml().equals(state.getXml());
+	}
+
+	private boolean isCopyOfBase(int baseLineCount) {
+		return lineCount == baseLineCount && runs.length == 2 && runs[0] == 0
+				&& runs[1] == lineCount;
+	}
+
+	/**
+	 * Growable list of (start, count) pairs.
+	 */
+	private static class IntList {
+		protected int[] data = new int[16];
+		protected int size = 0;
+		protected int literalCount = 0;
+
+		protected void addCopy(int basePos) {
+			if (size > 0 && data[size - 2] != LITERAL
+					&& data[size - 2] + data[size - 1] == basePos) {
+				data[size - 1]++;
+			} else {
+				add(basePos, 1);
+			}
+		}
+
+		protected void addLiteral() {
+			literalCount++;
+			if (size > 0 && data[size - 2] == LITERAL) {
+				data[size - 1]++;
+			} else {
+				add(LITERAL, 1);
+			}
+		}
+
+		private void add(int start, int count) {
+			if (size + 2 > data.length) {
+				int[] grown = new int[data.length * 2];
+				System.arraycopy(data, 0, grown, 0, size);
+				data = grown;
+			}
+			data[size++] = start;
+			data[size++] = count;
+		}
+
+		protected int[] toArray() {
+			int[] ret = new int[size];
+			System.arraycopy(data, 0, ret, 0, size);
+			return ret;
+		}
+	}
+}
@@ -5,11 +5,14 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.TreeSet;
 
 import org.geogebra.common.GeoGebraConstants;
 import org.geogebra.common.cas.GeoGebraCAS;
+import org.geogebra.common.cas.cache.CasResultCache;
+import org.geogebra.common.cas.cache.LruCasResultCache;
 import org.geogebra.common.euclidian.EmbedManager;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian.EuclidianViewInterfaceCommon;
@@ -31,16 +34,23 @@ import org.geogebra.common.kernel.algos.AlgoPointVector;
 import org.geogebra.common.kernel.algos.AlgoVectorPoint;
 import org.geogebra.common.kernel.algos.ConstructionElement;
 import org.geogebra.common.kernel.algos.DependentAlgo;
+import org.geogebra.common.kernel.algos.LevelwiseAlgoUpdater;
+import org.geogebra.common.kernel.algos.ParallelComputeExecutor;
 import org.geogebra.common.kernel.arithmetic.ExpressionNode;
 import org.geogebra.common.kernel.arithmetic.ExpressionNodeConstants.StringType;
 import org.geogebra.common.kernel.arithmetic.ExpressionNodeEvaluator;
 import org.geogebra.common.kernel.arithmetic.ExpressionValue;
+import org.geogebra.common.kernel.arithmetic.FunctionCompiler;
 import org.geogebra.common.kernel.arithmetic.MyArbitraryConstant;
 import org.geogebra.common.kernel.arithmetic.MyDouble;
 import org.geogebra.common.kernel.arithmetic.MyDoubleDegreesMinutesSeconds;
 import org.geogebra.common.kernel.arithmetic.MySpecialDouble;
 import org.geogebra.common.kernel.arithmetic.SymbolicMode;
 import org.geogebra.common.kernel.arithmetic.Traversing;
+import org.geogebra.common.kernel.batch.QueuedView;
+import org.geogebra.common.kernel.batch.ViewDelivery;
+import org.geogebra.common.kernel.batch.ViewNotificationBus;
+import org.geogebra.common.kernel.batch.ViewNotificationQueue;
 import org.geogebra.common.kernel.cas.AlgoUsingTempCASalgo;
 import org.geogebra.common.kernel.cas.UsesCAS;
 import org.geogebra.common.kernel.commands.AlgebraProcessor;
@@ -87,11 +97,12 @@ import org.geogebra.common.plugin.script.GgbScript;
 import org.geogebra.common.plugin.script.Script;
 import org.geogebra.common.util.DoubleUtil;
 import org.geogebra.common.util.LRUMap;
-import org.geogebra.common.util.MaxSizeHashMap;
 import org.geogebra.common.util.MyMath;
 import org.geogebra.common.util.NumberFormatAdapter;
 import org.geogebra.common.util.ScientificFormatAdapter;
 import org.geogebra.common.util.StringUtil;
+import org.geogebra.common.util.TaskExecutor;
+import org.geogebra.common.util.debug.GeoGebraProfiler;
 import org.geogebra.common.util.debug.Log;
 
 import com.himamis.retex.editor.share.util.Unicode;
@@ -241,6 +252,8 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 
 	/** maximum CAS results cached */
 	final public static int GEOGEBRA_CAS_CACHE_SIZE = 500;
+	/** maximum estimated memory used by cached CAS results */
+	final public static long GEOGEBRA_CAS_CACHE_BYTES = 4 * 1024 * 1024;
 	private MySpecialDouble eulerConstant;
 
 	/** print precision */
@@ -374,7 +387,19 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	private String libraryJavaScript = defaultLibraryJavaScript;
 
 	private boolean isSaving;
-	private MaxSizeHashMap<String, String> ggbCasCache;
+	private CasResultCache ggbCasCache;
+	/**
+	 * CAS inputs with assumptions evaluated since the construction was
+	 * cleared; part of the CAS cache key
+	 */
+	/** assumptions evaluated in the CAS, normalized as in the cache key */
+	private final LinkedHashSet<String> casAssumptions = new LinkedHashSet<>();
+	/** the assumptions joined for the CAS cache key */
+	private volatile String casAssumptionsKey = "";
+	private LevelwiseAlgoUpdater levelwiseAlgoUpdater;
+	private TaskExecutor taskExecutor;
+	private ViewNotificationBus viewNotifications;
+	private FunctionCompiler functionCompiler;
 	/** min real world x for all views */
 	protected double[] xmin = new double[1];
 	/** max real world x for all views */
@@ -2774,8 +2799,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 			MyArbitraryConstant arbconst, StringTemplate tpl)
 			throws CASException {
 		String result = null;
-		if (useCaching && hasCasCache()) {
-			result = getCasCache().get(exp);
+		boolean assumption = isCasAssumption(exp);
+		if (useCaching && !assumption && hasCasCache()) {
+			result = getCachedCasResult(exp);
 			if (result != null) {
 				// caching worked
 				return result;
@@ -2785,8 +2811,10 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		// evaluate in GeoGebraCAS
 		result = getGeoGebraCAS().evaluateGeoGebraCAS(exp, arbconst, tpl, this);
 
-		if (useCaching) {
-			getCasCache().put(exp, result);
+		if (assumption) {
+			addCasAssumption(exp);
+		} else if (useCaching) {
+			putToCasCache(exp, result);
 		}
 		return result;
 	}
@@ -2800,8 +2828,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 */
 	public String evaluateRawGeoGebraCAS(String exp) throws Throwable {
 		String result = null;
-		if (hasCasCache()) {
-			result = getCasCache().get(exp);
+		boolean assumption = isCasAssumption(exp);
+		if (hasCasCache() && !assumption) {
+			result = getCachedCasResult(exp);
 			if (result != null) {
 				// Log.debug("result from cache " + result);
 				// caching worked
@@ -2812,8 +2841,87 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		// evaluate in GeoGebraCAS
 		result = getGeoGebraCAS().evaluateRaw(exp);
 
-		getCasCache().put(exp, result);
+		if (assumption) {
+			addCasAssumption(exp);
+		} else {
+			putToCasCache(exp, result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * @param exp
+	 *            CAS input
+	 * @return whether the input calls a command that adds assumptions
+	 *         (Assume, AssumeInteger or Giac's assume and additionally); such
+	 *         input is never cached
+	 */
+	private static boolean isCasAssumption(String exp) {
+		boolean quoted = false;
+		int i = 0;
+		while (i < exp.length()) {
+			char c = exp.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			}
+			if (quoted || !StringUtil.isLetter(c)) {
+				i++;
+				continue;
+			}
+			int start = i;
+			while (i < exp.length()
+					&& StringUtil.isLetterOrDigitOrUnderscore(exp.charAt(i))) {
+				i++;
+			}
+			String name = exp.substring(start, i);
+			while (i < exp.length() && StringUtil.isWhitespace(exp.charAt(i))) {
+				i++;
+			}
+			if (i < exp.length()
+					&& (exp.charAt(i) == '(' || exp.charAt(i) == '[')
+					&& isAssumptionCommand(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isAssumptionCommand(String name) {
+		return "Assume".equals(name) || "AssumeInteger".equals(name)
+				|| "assume".equals(name) || "additionally".equals(name);
+	}
+
+	/**
+	 * Remembers an assumption for the CAS cache key; evaluating the same
+	 * assumption again (e.g. when its cell is recomputed) does not change the
+	 * key.
+	 */
+	private synchronized void addCasAssumption(String exp) {
+		StringBuilder sb = new StringBuilder(exp.length());
+		appendNormalized(sb, exp);
+		if (casAssumptions.add(sb.toString())) {
+			StringBuilder key = new StringBuilder();
+			for (String assumption : casAssumptions) {
+				key.append(assumption);
+				key.append('|');
+			}
+			casAssumptionsKey = key.toString();
+		}
+	}
+
+	private synchronized void clearCasAssumptions() {
+		casAssumptions.clear();
+		casAssumptionsKey = "";
+	}
 
+	private String getCachedCasResult(String exp) {
+		String result = getCasCache().get(getCasCacheKey(exp));
+		if (result == null) {
+			GeoGebraProfiler.addCasCacheMiss();
+		} else {
+			GeoGebraProfiler.addCasCacheHit();
+		}
 		return result;
 	}
 
@@ -2824,7 +2932,58 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 *            result
 	 */
 	public void putToCasCache(String exp, String result) {
-		getCasCache().put(exp, result);
+		if (isCasAssumption(exp)) {
+			return;
+		}
+		getCasCache().put(getCasCacheKey(exp), result);
+	}
+
+	/**
+	 * Builds the cache key for CAS input: whitespace outside of quotes is
+	 * normalized and the settings that influence CAS output (angle unit,
+	 * rounding) are appended, as well as the assumptions evaluated since the
+	 * construction was cleared.
+	 * 
+	 * @param exp
+	 *            CAS input
+	 * @return cache key
+	 */
+	public String getCasCacheKey(String exp) {
+		StringBuilder sb = new StringBuilder(exp.length() + 16);
+		appendNormalized(sb, exp);
+		sb.append('|');
+		sb.append(getAngleUnit());
+		sb.append('|');
+		sb.append(getPrintDecimals());
+		sb.append('|');
+		sb.append(getPrintFigures());
+		sb.append('|');
+		sb.append(casAssumptionsKey);
+		return sb.toString();
+	}
+
+	/**
+	 * Appends CAS input with whitespace outside of quotes normalized.
+	 */
+	private static void appendNormalized(StringBuilder sb, String exp) {
+		int start = sb.length();
+		boolean quoted = false;
+		boolean space = false;
+		for (int i = 0; i < exp.length(); i++) {
+			char c = exp.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			}
+			if (!quoted && StringUtil.isWhitespace(c)) {
+				space = sb.length() > start;
+				continue;
+			}
+			if (space) {
+				sb.append(' ');
+				space = false;
+			}
+			sb.append(c);
+		}
 	}
 
 	/**
@@ -2872,16 +3031,26 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	}
 
 	/**
-	 * @return Hash map for caching CAS results.
+	 * @return cache for CAS results.
 	 */
-	public MaxSizeHashMap<String, String> getCasCache() {
+	public CasResultCache getCasCache() {
 		if (ggbCasCache == null) {
-			ggbCasCache = new MaxSizeHashMap<>(
-					GEOGEBRA_CAS_CACHE_SIZE);
+			ggbCasCache = new LruCasResultCache(GEOGEBRA_CAS_CACHE_SIZE,
+					GEOGEBRA_CAS_CACHE_BYTES);
 		}
 		return ggbCasCache;
 	}
 
+	/**
+	 * Replaces the CAS result cache, e.g. by one with persistent storage.
+	 * 
+	 * @param cache
+	 *            cache for CAS results
+	 */
+	public void setCasCache(CasResultCache cache) {
+		ggbCasCache = cache;
+	}
+
 	/**
 	 * @return Whether kernel is already using CAS caching.
 	 */
@@ -2889,6 +3058,57 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		return ggbCasCache != null;
 	}
 
+	/**
+	 * Enables or disables parallel computation of independent algorithms
+	 * during update cascades and construction updates.
+	 * 
+	 * @param executor
+	 *            executor for compute() calls, null for sequential updates
+	 */
+	public void setParallelComputeExecutor(ParallelComputeExecutor executor) {
+		levelwiseAlgoUpdater = executor == null ? null
+				: new LevelwiseAlgoUpdater(executor);
+	}
+
+	/**
+	 * @return updater for parallel updates, null if updates are sequential
+	 */
+	public LevelwiseAlgoUpdater getLevelwiseAlgoUpdater() {
+		return levelwiseAlgoUpdater;
+	}
+
+	/**
+	 * @param executor
+	 *            executor for expensive drawing tasks (e.g. surface
+	 *            tessellation), null to run them on the calling thread
+	 */
+	public void setTaskExecutor(TaskExecutor executor) {
+		this.taskExecutor = executor;
+	}
+
+	/**
+	 * @return executor for expensive drawing tasks, null if not available
+	 */
+	public TaskExecutor getTaskExecutor() {
+		return taskExecutor;
+	}
+
+	/**
+	 * @param compiler
+	 *            compiler for functions that are evaluated often, null to
+	 *            always evaluate the expression tree
+	 */
+	public void setFunctionCompiler(FunctionCompiler compiler) {
+		this.functionCompiler = compiler;
+	}
+
+	/**
+	 * @return compiler for functions, null if not available
+	 */
+	public FunctionCompiler getFunctionCompiler() {
+		return functionCompiler;
+	}
+
 	/**
 	 * Tells this kernel about the bounds and the scales for x-Axis and y-Axis
 	 * used in EudlidianView. The scale is the number of pixels per unit.
@@ -3043,6 +3263,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		if (this.ggbCAS != null) {
 			this.ggbCAS.clearResult();
 		}
+		clearCasAssumptions();
 		if (macroManager != null) {
 			macroManager.setAllMacrosUnused();
 		}
@@ -3538,9 +3759,53 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public final void notifyRepaint() {
 		if (notifyRepaint && notifyViewsActive) {
 			for (View view : views) {
-				view.repaintView();
+				getReceiver(view).repaintView();
+			}
+			if (viewNotifications != null) {
+				viewNotifications.flushFrame();
+			}
+		}
+	}
+
+	/**
+	 * @return queues of the views that receive notifications in batches
+	 */
+	public ViewNotificationBus getViewNotifications() {
+		if (viewNotifications == null) {
+			viewNotifications = new ViewNotificationBus(app);
+		}
+		return viewNotifications;
+	}
+
+	/**
+	 * @param view
+	 *            attached view
+	 * @return queue of the view if it receives notifications in batches, the
+	 *         view otherwise
+	 */
+	private View getReceiver(View view) {
+		if (view instanceof QueuedView && viewNotifications != null) {
+			ViewNotificationQueue queue = viewNotifications.getQueue(view);
+			if (queue != null) {
+				return queue;
 			}
 		}
+		return view;
+	}
+
+	/**
+	 * Delivers the pending notifications of a queued view, so that a
+	 * notification which cannot be queued arrives in order, or so that the
+	 * view is up to date for a synchronous call (e.g. from the API).
+	 * 
+	 * @param view
+	 *            attached view
+	 */
+	public void flushQueue(View view) {
+		View receiver = getReceiver(view);
+		if (receiver != view) {
+			((ViewNotificationQueue) receiver).flush();
+		}
 	}
 
 	/**
@@ -3587,7 +3852,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	final public void notifyReset() {
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.reset();
+				getReceiver(view).reset();
 			}
 		}
 	}
@@ -3597,7 +3862,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 */
 	protected final void notifyClearView() {
 		for (View view : views) {
-			view.clearView();
+			getReceiver(view).clearView();
 		}
 
 	}
@@ -3625,7 +3890,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public void notifyConstructionProtocol(GeoElement geo) {
 		for (View view : views) {
 			if (view.getViewID() == App.VIEW_CONSTRUCTION_PROTOCOL) {
-				view.add(geo);
+				getReceiver(view).add(geo);
 			}
 		}
 	}
@@ -3693,6 +3958,10 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		if (!views.contains(view)) {
 			views.add(view);
 		}
+		if (view instanceof QueuedView && ((QueuedView) view)
+				.getDelivery() != ViewDelivery.IMMEDIATE) {
+			getViewNotifications().attach((QueuedView) view);
+		}
 
 		if (view instanceof EuclidianView) {
 			lastAttachedEV = (EuclidianView) view;
@@ -3730,6 +3999,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 *            view
 	 */
 	public void detach(View view) {
+		if (viewNotifications != null) {
+			viewNotifications.detach(view);
+		}
 		views.remove(view);
 		printAttachedViews();
 
@@ -3858,13 +4130,14 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		if (!notifyViewsActive) {
 			return;
 		}
-
+		// queued after pending removals of the same elements
+		View receiver = getReceiver(view);
 		for (GeoElement geo : cons.getGeoSetWithCasCellsConstructionOrder()) {
 			// stop when not visible for current construction step
 			if (!geo.isAvailableAtConstructionStep(consStep)) {
 				break;
 			}
-			view.add(geo);
+			receiver.add(geo);
 		}
 
 		if (getUpdateAgain()) {
@@ -3890,7 +4163,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 			for (View view : views) {
 				if ((view.getViewID() != App.VIEW_CONSTRUCTION_PROTOCOL)
 						|| isNotifyConstructionProtocolViewAboutAddRemoveActive()) {
-					view.add(geo);
+					getReceiver(view).add(geo);
 				}
 			}
 		}
@@ -3948,7 +4221,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 					if (view.getViewID() == App.VIEW_CAS) {
 						removeFromCAS(view, geo);
 					} else {
-						view.remove(geo);
+						getReceiver(view).remove(geo);
 					}
 				}
 			}
@@ -4003,7 +4276,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		// event dispatcher should not collect calls to stay compatible with 4.0
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.update(geo);
+				getReceiver(view).update(geo);
 			}
 		}
 	}
@@ -4020,9 +4293,10 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 			for (View view : views) {
 				// we already told event dispatcher
 				if (view instanceof UpdateLocationView) {
+					flushQueue(view);
 					((UpdateLocationView) view).updateLocation(geo);
 				} else {
-					view.update(geo);
+					getReceiver(view).update(geo);
 				}
 			}
 		}
@@ -4039,7 +4313,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public final void notifyUpdateVisualStyle(GeoElement geo, GProperty prop) {
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.updateVisualStyle(geo, prop);
+				getReceiver(view).updateVisualStyle(geo, prop);
 			}
 		}
 	}
@@ -4053,7 +4327,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public final void notifyUpdateHightlight(GeoElement geo) {
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.updateHighlight(geo);
+				getReceiver(view).updateHighlight(geo);
 			}
 		}
 	}
@@ -4067,7 +4341,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public final void notifyUpdateAuxiliaryObject(GeoElement geo) {
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.updateAuxiliaryObject(geo);
+				getReceiver(view).updateAuxiliaryObject(geo);
 			}
 		}
 	}
@@ -4081,7 +4355,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public final void notifyRename(GeoElement geo) {
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.rename(geo);
+				getReceiver(view).rename(geo);
 			}
 		}
 
@@ -4098,7 +4372,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		if (notifyViewsActive) {
 			for (View view : views) {
 				if (view.getViewID() == App.VIEW_ALGEBRA) {
-					view.rename(geo);
+					getReceiver(view).rename(geo);
 				}
 			}
 		}
@@ -4877,6 +5151,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		if (notifyViewsActive) {
 			for (View view : views) {
 				if (view instanceof LayerView) {
+					flushQueue(view);
 					((LayerView) view).changeLayer(geo, layer, layer2);
 				}
 			}
@@ -5123,7 +5398,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public void notifyBatchUpdate() {
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.startBatchUpdate();
+				getReceiver(view).startBatchUpdate();
 			}
 		}
 	}
@@ -5134,7 +5409,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public void notifyEndBatchUpdate() {
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.endBatchUpdate();
+				getReceiver(view).endBatchUpdate();
 			}
 		}
 	}
@@ -5313,7 +5588,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		// event dispatcher should not collect calls to stay compatible with 4.0
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.updatePreviewFromInputBar(geos);
+				getReceiver(view).updatePreviewFromInputBar(geos);
 			}
 		}
 	}
@@ -32,6 +32,8 @@ public abstract class UndoManager {
 	private ListIterator<UndoCommand> iterator;
 	private boolean storeUndoInfoNeededForProperties = false;
 	private List<UndoInfoStoredListener> undoInfoStoredListeners;
+	/** memory limit for stored states in bytes; 0 to limit step count */
+	private long memoryBudget = 0;
 
 	/**
 	 * @param cons
@@ -313,7 +315,7 @@ public abstract class UndoManager {
 		}
 
 		// delete first if too many in list
-		if (undoInfoList.size() > MAX_CAPACITY) {
+		while (isOverCapacity()) {
 			// use iterator to delete to avoid
 			// ConcurrentModificationException
 			// go to beginning of list
@@ -323,6 +325,13 @@ public abstract class UndoManager {
 
 			iterator.remove();
 			appState.delete();
+			if (iterator.hasNext()) {
+				// later states must not depend on the deleted one
+				AppState first = iterator.next().getAppState();
+				if (first instanceof DeltaAppState) {
+					((DeltaAppState) first).materialize();
+				}
+			}
 
 			while (iterator.hasNext()) {
 				iterator.next();
@@ -335,6 +344,53 @@ public abstract class UndoManager {
 		// debugStates();
 	}
 
+	private boolean isOverCapacity() {
+		if (memoryBudget <= 0) {
+			return undoInfoList.size() > MAX_CAPACITY;
+		}
+		// always keep current state and one undo step
+		if (undoInfoList.size() <= 2) {
+			return false;
+		}
+		long bytes = 0;
+		for (UndoCommand command : undoInfoList) {
+			AppState state = command.getAppState();
+			if (state instanceof DeltaAppState) {
+				bytes += ((DeltaAppState) state).getByteSize();
+			} else if (state instanceof StringAppState) {
+				bytes += 2L * state.getXml().length();
+			}
+		}
+		return bytes > memoryBudget;
+	}
+
+	/**
+	 * Limits the undo history by the memory used by stored states instead of
+	 * the number of steps. Only states kept in memory are counted.
+	 *
+	 * @param bytes
+	 *            memory budget in bytes, 0 to limit the number of steps
+	 */
+	public void setMemoryBudget(long bytes) {
+		this.memoryBudget = bytes;
+	}
+
+	/**
+	 * @return latest stored state up to the current position, null if none
+	 */
+	protected AppState getLatestAppState() {
+		AppState state = null;
+		int steps = 0;
+		while (state == null && iterator.hasPrevious()) {
+			state = iterator.previous().getAppState();
+			steps++;
+		}
+		for (int i = 0; i < steps; i++) {
+			iterator.next();
+		}
+		return state;
+	}
+
 	/**
 	 * This stores the undo command, if the state changed.
 	 *
@@ -36,7 +36,8 @@ import org.geogebra.common.kernel.prover.polynomial.PVariable;
  * @author Markus
  */
 public class AlgoDistancePoints extends AlgoElement
-		implements DistanceAlgo, SymbolicParametersBotanaAlgo {
+		implements DistanceAlgo, SymbolicParametersBotanaAlgo,
+		ParallelComputable {
 
 	private GeoPointND P; // input
 	private GeoPointND Q; // input
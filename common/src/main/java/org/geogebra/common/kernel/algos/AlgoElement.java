@@ -605,6 +605,28 @@ public abstract class AlgoElement extends ConstructionElement
 		// updateTime += (endTime - startTime );
 	}
 
+	/**
+	 * First part of {@link #update()} when compute() is called separately, see
+	 * {@link LevelwiseAlgoUpdater}.
+	 * 
+	 * @return whether compute() and {@link #finishUpdate()} need to be called
+	 */
+	public final boolean prepareCompute() {
+		if (stopUpdateCascade) {
+			return false;
+		}
+		updateUnlabeledRandomGeos();
+		return true;
+	}
+
+	/**
+	 * Last part of {@link #update()} when compute() is called separately, see
+	 * {@link LevelwiseAlgoUpdater}.
+	 */
+	public final void finishUpdate() {
+		updateDependentGeos();
+	}
+
 	/**
 	 * update input random numbers without label
 	 * 
@@ -43,7 +43,8 @@ import org.geogebra.common.kernel.prover.polynomial.PVariable;
  * @author Markus
  */
 public class AlgoIntersectLines extends AlgoIntersectAbstract
-		implements SymbolicParametersAlgo, SymbolicParametersBotanaAlgo {
+		implements SymbolicParametersAlgo, SymbolicParametersBotanaAlgo,
+		ParallelComputable {
 
 	private GeoLine g; // input
 	private GeoLine h; // input
@@ -42,7 +42,8 @@ import org.geogebra.common.util.debug.Log;
  * @author Markus
  */
 public class AlgoJoinPoints extends AlgoElement
-		implements SymbolicParametersAlgo, SymbolicParametersBotanaAlgo {
+		implements SymbolicParametersAlgo, SymbolicParametersBotanaAlgo,
+		ParallelComputable {
 
 	private GeoPoint P; // input
 	private GeoPoint Q; // input
@@ -12,6 +12,7 @@ the Free Software Foundation.
 
 package org.geogebra.common.kernel.algos;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.TreeSet;
@@ -26,6 +27,7 @@ import org.geogebra.common.kernel.MacroKernel;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.Path;
 import org.geogebra.common.kernel.PathMover;
+import org.geogebra.common.kernel.PathParameter;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.arithmetic.ExpressionNode;
 import org.geogebra.common.kernel.arithmetic.MyDouble;
@@ -34,6 +36,7 @@ import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoLocusND;
 import org.geogebra.common.kernel.implicit.GeoImplicit;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
+import org.geogebra.common.util.TaskExecutor;
 import org.geogebra.common.util.debug.Log;
 
 /**
@@ -50,6 +53,11 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 	/** maximum time for the computation of one locus point in millis **/
 	public static final int MAX_TIME_FOR_ONE_STEP = 500;
 
+	/** number of macro construction copies for parallel computation */
+	private static final int PARALLEL_WORKERS = 4;
+	/** maximum number of bisections between two samples of a worker */
+	private static final int MAX_REFINE_DEPTH = 10;
+
 	private int minStepsInstance = PathMover.MIN_STEPS;
 
 	protected static final int MAX_X_PIXEL_DIST = 5;
@@ -98,6 +106,9 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 	// list with all original elements used for the macro construction
 	private TreeSet<ConstructionElement> locusConsOrigElements;
 	private TreeSet<GeoElement> Qin;
+	// XML of the macro construction, to create copies for workers
+	private String locusConsXML;
+	private ArrayList<LocusWorker> workers;
 
 	private int views = 1;
 	protected boolean[] visibleEV = { false, false, false };
@@ -361,11 +372,11 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 		return locus;
 	}
 
-	private void buildLocusMacroConstruction(
+	private MacroKernel newMacroKernel(
 			TreeSet<ConstructionElement> locusConsElements) {
 		// build macro construction
-		macroKernel = kernel.newMacroKernel();
-		macroKernel.setGlobalVariableLookup(true);
+		MacroKernel mk = kernel.newMacroKernel();
+		mk.setGlobalVariableLookup(true);
 
 		// tell the macro construction about reserved names:
 		// these names will not be looked up in the parent
@@ -375,14 +386,21 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 			ConstructionElement ce = it.next();
 			if (ce.isGeoElement()) {
 				GeoElement geo = (GeoElement) ce;
-				macroKernel.addReservedLabel(
+				mk.addReservedLabel(
 						geo.getLabel(StringTemplate.defaultTemplate));
 			}
 		}
+		return mk;
+	}
+
+	private void buildLocusMacroConstruction(
+			TreeSet<ConstructionElement> locusConsElements) {
+		macroKernel = newMacroKernel(locusConsElements);
+		workers = null;
 
 		try {
 			// get XML for macro construction of P -> Q
-			String locusConsXML = Macro.buildMacroXML(kernel, locusConsElements)
+			locusConsXML = Macro.buildMacroXML(kernel, locusConsElements)
 					.toString();
 			macroKernel.loadXML(locusConsXML);
 
@@ -432,6 +450,10 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 	 * construction
 	 */
 	private void resetMacroConstruction() {
+		resetMacroConstruction(macroCons);
+	}
+
+	private void resetMacroConstruction(Construction macroCons) {
 		Iterator<ConstructionElement> it = locusConsOrigElements.iterator();
 		while (it.hasNext()) {
 			ConstructionElement ce = it.next();
@@ -487,6 +509,10 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 		resetMacroConstruction();
 		macroCons.updateConstruction(false);
 
+		if (!continuous && computeParallel()) {
+			return;
+		}
+
 		// lines: start from startpoint to avoid inf. problems.
 		// Otherwise go from endpoint to endpoint
 		if (!MyDouble.isFinite(path.getMinParameter())
@@ -663,6 +689,269 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 		// ", cache used: " + useCache);
 	}
 
+	/**
+	 * Computes the locus with copies of the macro construction on worker
+	 * threads: each worker samples one part of the path parameter range and
+	 * the samples are merged in parameter order. Only used for 2D points on
+	 * paths with finite parameter range when the kernel has a task executor
+	 * and all algorithms between the moving point and the locus point are
+	 * {@link ParallelComputable}.
+	 * 
+	 * @return false if the locus has to be computed sequentially
+	 */
+	private boolean computeParallel() {
+		TaskExecutor executor = kernel.getTaskExecutor();
+		double min = path.getMinParameter();
+		double max = path.getMaxParameter();
+		if (executor == null || !MyDouble.isFinite(min)
+				|| !MyDouble.isFinite(max) || !(max > min)
+				|| locusPoint.isGeoElement3D() || copyQ.isGeoElement3D()) {
+			return false;
+		}
+		if (workers == null) {
+			workers = createWorkers();
+		}
+		int count = workers.size();
+		if (count == 0) {
+			return false;
+		}
+
+		int steps = Math.max(minStepsInstance / count, 2);
+		int maxSamples = PathMover.MAX_POINTS * views / count;
+		double chunk = (max - min) / count;
+		for (int i = 0; i < count; i++) {
+			LocusWorker worker = workers.get(i);
+			// copies are updated here, they read the main construction
+			resetMacroConstruction(worker.macroCons);
+			worker.macroCons.updateConstruction(false);
+			worker.init(min + i * chunk,
+					i == count - 1 ? max : min + (i + 1) * chunk, steps,
+					maxSamples);
+		}
+		executor.invokeAll(workers);
+
+		mergeSamples();
+		for (LocusWorker worker : workers) {
+			if (worker.maxTimeExceeded) {
+				maxTimeExceeded = true;
+				Log.error("AlgoLocus: max time exceeded");
+				return true;
+			}
+		}
+		locus.setDefined(foundDefined);
+		return true;
+	}
+
+	private ArrayList<LocusWorker> createWorkers() {
+		ArrayList<LocusWorker> ret = new ArrayList<>(PARALLEL_WORKERS);
+		try {
+			for (int i = 0; i < PARALLEL_WORKERS; i++) {
+				ret.add(new LocusWorker());
+			}
+		} catch (Exception e) {
+			Log.debug("AlgoLocus: no parallel computation: " + e.getMessage());
+			ret.clear();
+		}
+		return ret;
+	}
+
+	/**
+	 * Inserts the samples of all workers, connecting them like the
+	 * sequential computation does.
+	 */
+	private void mergeSamples() {
+		ExpressionNode qDef = copyQ.getDefinition();
+		boolean prevDefined = false;
+		for (int w = 0; w < workers.size(); w++) {
+			LocusWorker worker = workers.get(w);
+			// the first sample is the last one of the previous worker
+			int first = w > 0 && workers.get(w - 1).complete ? 1 : 0;
+			for (int i = first; i < worker.size; i++) {
+				if (Double.isNaN(worker.xs[i])) {
+					prevDefined = false;
+					continue;
+				}
+				if (pointCount > PathMover.MAX_POINTS * views) {
+					break;
+				}
+				copyQ.setCoords(worker.xs[i], worker.ys[i], 1.0);
+				if (!foundDefined) {
+					foundDefined = true;
+					insertPoint(copyQ, false);
+				} else {
+					insertPoint(copyQ,
+							prevDefined && distanceSmall(copyQ, true));
+				}
+				prevDefined = true;
+			}
+		}
+		copyQ.setDefinition(qDef);
+	}
+
+	/**
+	 * Samples a part of the path parameter range on a copy of the macro
+	 * construction. Between two samples whose locus points are too far apart
+	 * the parameter interval is bisected.
+	 * 
+	 * The dependent algorithms are computed directly rather than by
+	 * updateCascade(), which uses static temporary sets.
+	 */
+	private class LocusWorker implements Runnable {
+		protected final Construction macroCons;
+		private final GeoPointND copyP;
+		private final GeoPointND copyQ;
+		/** algorithms depending on copyP, in construction order */
+		private final ArrayList<AlgoElement> algos = new ArrayList<>();
+		protected double[] xs = new double[64];
+		protected double[] ys = new double[64];
+		protected int size;
+		protected boolean complete;
+		protected boolean maxTimeExceeded;
+		private double start;
+		private double end;
+		private int steps;
+		private int maxSamples;
+		// coords of the last evaluated locus point, NaN if undefined
+		private double qx;
+		private double qy;
+
+		protected LocusWorker() throws Exception {
+			MacroKernel mk = newMacroKernel(locusConsOrigElements);
+			mk.setContinuous(false);
+			mk.loadXML(locusConsXML);
+			copyP = (GeoPointND) mk
+					.lookupLabel(((GeoElement) movingPoint).getLabelSimple());
+			copyQ = (GeoPointND) mk
+					.lookupLabel(((GeoElement) locusPoint).getLabelSimple());
+			if (copyP == null || copyQ == null) {
+				throw new IllegalStateException("points not found");
+			}
+			for (AlgoElement algo : ((GeoElement) copyP).getAlgoUpdateSet()) {
+				if (!(algo instanceof ParallelComputable)) {
+					throw new IllegalStateException(
+							algo.getClassName() + " is not thread-confined");
+				}
+				algos.add(algo);
+			}
+			((GeoElement) copyP).setFixed(false);
+			copyP.setPath(path);
+			macroCons = mk.getConstruction();
+		}
+
+		protected void init(double start0, double end0, int steps0,
+				int maxSamples0) {
+			this.start = start0;
+			this.end = end0;
+			this.steps = steps0;
+			this.maxSamples = maxSamples0;
+		}
+
+		@Override
+		public void run() {
+			size = 0;
+			complete = false;
+			maxTimeExceeded = false;
+			double step = (end - start) / steps;
+			double t1 = start;
+			evaluate(t1);
+			double x1 = qx;
+			double y1 = qy;
+			add(x1, y1);
+			for (int k = 1; k <= steps; k++) {
+				if (maxTimeExceeded || size >= maxSamples) {
+					return;
+				}
+				double t2 = k == steps ? end : start + k * step;
+				evaluate(t2);
+				double x2 = qx;
+				double y2 = qy;
+				refine(t1, x1, y1, t2, x2, y2, 0);
+				add(x2, y2);
+				t1 = t2;
+				x1 = x2;
+				y1 = y2;
+			}
+			complete = true;
+		}
+
+		private void refine(double t1, double x1, double y1, double t2,
+				double x2, double y2, int depth) {
+			if (depth >= MAX_REFINE_DEPTH || maxTimeExceeded
+					|| size >= maxSamples || isClose(x1, y1, x2, y2)) {
+				return;
+			}
+			double t = (t1 + t2) / 2;
+			evaluate(t);
+			double x = qx;
+			double y = qy;
+			refine(t1, x1, y1, t, x, y, depth + 1);
+			add(x, y);
+			refine(t, x, y, t2, x2, y2, depth + 1);
+		}
+
+		/**
+		 * Same criterion as distanceSmall(Q, false); a defined and an
+		 * undefined point are refined to find the border of the locus.
+		 */
+		private boolean isClose(double x1, double y1, double x2, double y2) {
+			boolean undefined1 = Double.isNaN(x1);
+			if (undefined1 || Double.isNaN(x2)) {
+				return undefined1 && Double.isNaN(x2);
+			}
+			for (int i = 0; i < visibleEV.length; i++) {
+				if (visibleEV[i] && !(Math.abs(x2 - x1) < maxXdist[i]
+						&& Math.abs(y2 - y1) < maxYdist[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void evaluate(double t) {
+			long startTime = System.currentTimeMillis();
+			try {
+				PathParameter pp = copyP.getPathParameter();
+				// the path is shared by all workers
+				synchronized (path) {
+					pp.t = t;
+					path.pathChanged(copyP);
+				}
+				copyP.updateCoords();
+				for (AlgoElement algo : algos) {
+					algo.compute();
+				}
+			} catch (Exception e) {
+				qx = Double.NaN;
+				qy = Double.NaN;
+				return;
+			}
+			if (System.currentTimeMillis() - startTime > MAX_TIME_FOR_ONE_STEP) {
+				maxTimeExceeded = true;
+			}
+			if (copyQ.isDefined() && !copyQ.isInfinite()) {
+				qx = copyQ.getInhomX();
+				qy = copyQ.getInhomY();
+			} else {
+				qx = Double.NaN;
+				qy = Double.NaN;
+			}
+		}
+
+		private void add(double x, double y) {
+			if (size == xs.length) {
+				double[] grownX = new double[2 * size];
+				double[] grownY = new double[2 * size];
+				System.arraycopy(xs, 0, grownX, 0, size);
+				System.arraycopy(ys, 0, grownY, 0, size);
+				xs = grownX;
+				ys = grownY;
+			}
+			xs[size] = x;
+			ys[size] = y;
+			size++;
+		}
+	}
+
 	/**
 	 * 
 	 * @param point
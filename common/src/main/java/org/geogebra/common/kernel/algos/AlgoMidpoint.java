@@ -37,7 +37,8 @@ import org.geogebra.common.kernel.prover.polynomial.PVariable;
  * @author Markus
  */
 public class AlgoMidpoint extends AlgoMidpointND
-		implements SymbolicParametersAlgo, SymbolicParametersBotanaAlgo {
+		implements SymbolicParametersAlgo, SymbolicParametersBotanaAlgo,
+		ParallelComputable {
 
 	private PPolynomial[] polynomials;
 	private PPolynomial[] botanaPolynomials;
@@ -21,6 +21,7 @@ import org.geogebra.common.kernel.geos.GeoAngle.AngleStyle;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.statistics.ListStatistics;
 
 /**
  * Mean, variance, sum, sum of squares, standard deviation of a list adapted
@@ -190,9 +191,19 @@ public abstract class AlgoStats1D extends AlgoElement {
 		GeoElement geo, geoFreq, geo2;
 		boolean useMidpoint = false;
 		double n = 0;
+		// shared copy of the values of the whole list
+		ListStatistics stats = geoList2 == null && Truncate == null
+				? geoList.getNumberStatistics() : null;
+
+		if (stats != null) {
+			sumVal = stats.getSumX();
+			sumSquares = stats.getSumXX();
+			product = stats.getProductX();
+			n = size;
+		}
 
 		// list of numbers only, no frequencies
-		if (geoList2 == null) {
+		else if (geoList2 == null) {
 			double val;
 			for (int i = 0; i < size; i++) {
 				geo = geoList.get(i);
@@ -268,7 +279,12 @@ public abstract class AlgoStats1D extends AlgoElement {
 		case STATS_MEAN_ABSOLUTE_DEVIATION:
 
 			double sumAbsoluteDeviation = 0;
-			if (geoList2 == null) {
+			if (stats != null) {
+				double[] values = stats.getX();
+				for (int i = 0; i < values.length; i++) {
+					sumAbsoluteDeviation += Math.abs(mu - values[i]);
+				}
+			} else if (geoList2 == null) {
 				double val;
 				for (int i = 0; i < size; i++) {
 					geo = geoList.get(i);
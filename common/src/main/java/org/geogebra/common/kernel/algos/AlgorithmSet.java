@@ -27,6 +27,10 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 	private Link head;
 	private Link tail;
 	private int size;
+	/** number of structural modifications, used to detect outdated plans */
+	private int modCount;
+	/** links in update order, rebuilt lazily after modifications */
+	private Link[] updatePlan;
 
 	/**
 	 * Creates new algorithm set
@@ -77,6 +81,7 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 			setHead(new Link(algo, null));
 			tail = getHead();
 			size++;
+			planChanged();
 			return true;
 		}
 
@@ -118,6 +123,7 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 
 		hashMap.put(algo, algo);
 		size++;
+		planChanged();
 
 		return true;
 	}
@@ -137,6 +143,7 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 			setHead(new Link(algo, null));
 			tail = getHead();
 			size++;
+			planChanged();
 			return true;
 		}
 
@@ -183,6 +190,7 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 
 		hashMap.put(algo, algo);
 		size++;
+		planChanged();
 
 		return true;
 
@@ -266,6 +274,7 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 					}
 				}
 				size--;
+				planChanged();
 				return true;
 			}
 			// not yet found
@@ -280,13 +289,46 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 	 * Updates all algorithms of this set.
 	 */
 	final public void updateAll() {
-		Link cur = getHead();
-		while (cur != null) {
-			cur.algo.update();
-			cur = cur.next;
+		Link[] plan = getUpdatePlan();
+		int expectedModCount = modCount;
+		for (int i = 0; i < plan.length; i++) {
+			plan[i].algo.update();
+			if (modCount != expectedModCount) {
+				// algos were added or removed during the update (e.g. new
+				// segments of a regular polygon): the plan is outdated,
+				// continue in list order
+				Link cur = plan[i].next;
+				while (cur != null) {
+					cur.algo.update();
+					cur = cur.next;
+				}
+				return;
+			}
 		}
 	}
 
+	/**
+	 * @return links of this set in update order; the array is cached until
+	 *         the next modification of this set
+	 */
+	private Link[] getUpdatePlan() {
+		if (updatePlan == null) {
+			Link[] plan = new Link[size];
+			Link cur = getHead();
+			for (int i = 0; i < size; i++) {
+				plan[i] = cur;
+				cur = cur.next;
+			}
+			updatePlan = plan;
+		}
+		return updatePlan;
+	}
+
+	private void planChanged() {
+		modCount++;
+		updatePlan = null;
+	}
+
 	/**
 	 * Updates all algorithms of this set until the given algorithm is reached.
 	 * 
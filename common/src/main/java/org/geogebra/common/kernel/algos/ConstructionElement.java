@@ -107,6 +107,9 @@ public abstract class ConstructionElement
 	 *            new construction index
 	 */
 	public void setConstructionIndex(int index) {
+		if (constIndex != index && cons != null) {
+			cons.invalidateUpdatePlans();
+		}
 		constIndex = index;
 	}
 
@@ -0,0 +1,183 @@
+package org.geogebra.common.kernel.algos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.geogebra.common.kernel.geos.GeoElement;
+
+/**
+ * Updates a set of algorithms level by level: each algorithm is put on the
+ * level after the highest level of the algorithms it depends on. Within a
+ * level, compute() of all {@link ParallelComputable} algorithms is run by a
+ * {@link ParallelComputeExecutor}; all other algorithms and the notification
+ * of output objects are updated on the calling thread.
+ *
+ * Algorithms that are not {@link ParallelComputable} keep their relative
+ * order, so this only reorders algorithms that are known to be independent.
+ */
+public class LevelwiseAlgoUpdater {
+
+	private final ParallelComputeExecutor executor;
+	/** copy of the algorithms to update, reused between cascades */
+	private final ArrayList<AlgoElement> buffer = new ArrayList<>();
+	private boolean bufferInUse;
+
+	/**
+	 * Steps that need to run on the calling thread right before an algorithm
+	 * is updated.
+	 */
+	public interface Preparation {
+		/**
+		 * @param algo
+		 *            algorithm to be updated
+		 * @return whether the algorithm still needs to be updated
+		 */
+		boolean prepare(AlgoElement algo);
+	}
+
+	/**
+	 * @param executor
+	 *            executor for compute() calls of independent algorithms
+	 */
+	public LevelwiseAlgoUpdater(ParallelComputeExecutor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * @param algos
+	 *            algorithms in update order
+	 */
+	public void updateAll(AlgoElement[] algos) {
+		updateAll(Arrays.asList(algos), null);
+	}
+
+	/**
+	 * @param algos
+	 *            algorithms in update order
+	 */
+	public void updateAll(Iterable<AlgoElement> algos) {
+		updateAll(algos, null);
+	}
+
+	/**
+	 * @param algoSet
+	 *            algorithms in update order
+	 * @param preparation
+	 *            steps to run before each update, may be null
+	 */
+	public void updateAll(Iterable<AlgoElement> algoSet,
+			Preparation preparation) {
+		// copy: the set may change while updating; nested cascades (e.g. from
+		// scripts) need their own copy
+		boolean reuse = !bufferInUse;
+		ArrayList<AlgoElement> algos = reuse ? buffer
+				: new ArrayList<AlgoElement>();
+		bufferInUse = true;
+		try {
+			boolean hasParallel = false;
+			for (AlgoElement algo : algoSet) {
+				algos.add(algo);
+				hasParallel |= algo instanceof ParallelComputable;
+			}
+
+			if (!hasParallel) {
+				for (int i = 0; i < algos.size(); i++) {
+					update(algos.get(i), preparation);
+				}
+				return;
+			}
+
+			for (ArrayList<AlgoElement> level : getLevels(algos)) {
+				updateLevel(level, preparation);
+			}
+		} finally {
+			if (reuse) {
+				buffer.clear();
+				bufferInUse = false;
+			}
+		}
+	}
+
+	private void updateLevel(ArrayList<AlgoElement> level,
+			Preparation preparation) {
+		int size = level.size();
+		boolean[] prepared = new boolean[size];
+		ArrayList<AlgoElement> toCompute = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			AlgoElement algo = level.get(i);
+			if (algo instanceof ParallelComputable
+					&& (preparation == null || preparation.prepare(algo))
+					&& algo.prepareCompute()) {
+				prepared[i] = true;
+				toCompute.add(algo);
+			}
+		}
+
+		if (toCompute.size() > 1) {
+			executor.computeAll(toCompute);
+		} else if (toCompute.size() == 1) {
+			toCompute.get(0).compute();
+		}
+
+		for (int i = 0; i < size; i++) {
+			AlgoElement algo = level.get(i);
+			if (prepared[i]) {
+				algo.finishUpdate();
+			} else if (!(algo instanceof ParallelComputable)) {
+				update(algo, preparation);
+			}
+		}
+	}
+
+	private static void update(AlgoElement algo, Preparation preparation) {
+		if (preparation == null || preparation.prepare(algo)) {
+			algo.update();
+		}
+	}
+
+	/**
+	 * Splits algorithms into dependency levels. An algorithm is placed after
+	 * all algorithms in the list that compute its input; algorithms that are
+	 * not {@link ParallelComputable} are never placed before one that preceded
+	 * them in the list.
+	 *
+	 * @param algos
+	 *            algorithms in update order
+	 * @return levels, each in update order
+	 */
+	static ArrayList<ArrayList<AlgoElement>> getLevels(
+			List<AlgoElement> algos) {
+		HashMap<AlgoElement, Integer> levelOf = new HashMap<>();
+		ArrayList<ArrayList<AlgoElement>> levels = new ArrayList<>();
+		int sequentialLevel = 0;
+		for (AlgoElement algo : algos) {
+			int level = levelAfter(levelOf, algo.getUpdateAfterAlgo(), 0);
+			GeoElement[] input = algo.getInput();
+			if (input != null) {
+				for (GeoElement geo : input) {
+					level = levelAfter(levelOf, geo.getParentAlgorithm(),
+							level);
+				}
+			}
+			if (!(algo instanceof ParallelComputable)) {
+				level = Math.max(level, sequentialLevel);
+				sequentialLevel = level;
+			}
+			levelOf.put(algo, level);
+			while (levels.size() <= level) {
+				levels.add(new ArrayList<AlgoElement>());
+			}
+			levels.get(level).add(algo);
+		}
+		return levels;
+	}
+
+	private static int levelAfter(HashMap<AlgoElement, Integer> levelOf,
+			AlgoElement parent, int level) {
+		Integer parentLevel = parent == null ? null : levelOf.get(parent);
+		return parentLevel == null ? level
+				: Math.max(level, parentLevel + 1);
+	}
+}
@@ -0,0 +1,12 @@
+package org.geogebra.common.kernel.algos;
+
+/**
+ * Marker for algorithms whose compute() only reads their input and writes
+ * their own output objects, so that independent algorithms of this kind may
+ * be computed concurrently (see {@link LevelwiseAlgoUpdater}).
+ *
+ * Implementing classes must not override {@link AlgoElement#update()}.
+ */
+public interface ParallelComputable {
+	// marker interface
+}
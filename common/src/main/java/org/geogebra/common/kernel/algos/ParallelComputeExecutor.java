@@ -0,0 +1,19 @@
+package org.geogebra.common.kernel.algos;
+
+import java.util.List;
+
+/**
+ * Runs compute() of several independent algorithms, possibly concurrently.
+ * Platforms without threads do not provide an implementation.
+ */
+public interface ParallelComputeExecutor {
+
+	/**
+	 * Calls compute() of all given algorithms and returns when all of them
+	 * are done. Exceptions thrown by compute() are rethrown to the caller.
+	 *
+	 * @param algos
+	 *            algorithms that do not depend on each other
+	 */
+	void computeAll(List<AlgoElement> algos);
+}
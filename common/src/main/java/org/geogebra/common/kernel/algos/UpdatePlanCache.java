@@ -0,0 +1,108 @@
+package org.geogebra.common.kernel.algos;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+
+/**
+ * Caches the construction-ordered array of algorithms that need to be updated
+ * when a list of geos changes (see GeoElement.updateCascade(ArrayList,
+ * TreeSet, boolean)).
+ *
+ * Repeated updates of the same selection (e.g. dragging several points) replay
+ * the cached array instead of collecting the update sets into a sorted set
+ * again. The owning construction invalidates the cache on every structural
+ * change.
+ */
+public class UpdatePlanCache {
+
+	private static final AlgoElement[] EMPTY_PLAN = new AlgoElement[0];
+
+	private GeoElementND[] sources;
+	private boolean updateCascadeAll;
+	private AlgoElement[] plan;
+
+	/**
+	 * Drops the cached plan; called on structural changes of the construction.
+	 */
+	public void invalidate() {
+		plan = null;
+		sources = null;
+	}
+
+	/**
+	 * @return whether a plan is cached
+	 */
+	public boolean isValid() {
+		return plan != null;
+	}
+
+	/**
+	 * Returns the algorithms to update after all geos of the list were
+	 * updated, sorted by construction order. The returned array must not be
+	 * modified.
+	 *
+	 * @param geos
+	 *            updated geos
+	 * @param cascadeAll
+	 *            true to include algos depending on dependent geos as well
+	 * @param tempSet
+	 *            temporary set used to sort the algorithms if the plan needs
+	 *            to be rebuilt
+	 * @return algorithms in update order
+	 */
+	public AlgoElement[] getPlan(List<? extends GeoElementND> geos,
+			boolean cascadeAll, TreeSet<AlgoElement> tempSet) {
+		if (plan != null && matches(geos, cascadeAll)) {
+			return plan;
+		}
+
+		tempSet.clear();
+		int size = geos.size();
+		GeoElementND[] newSources = new GeoElementND[size];
+		for (int i = 0; i < size; i++) {
+			GeoElementND geo = geos.get(i);
+			newSources[i] = geo;
+			if (isUpdateSource(geo, cascadeAll)) {
+				geo.getAlgoUpdateSet().addAllToCollection(tempSet);
+			}
+		}
+
+		AlgoElement[] newPlan = tempSet.isEmpty() ? EMPTY_PLAN
+				: tempSet.toArray(new AlgoElement[tempSet.size()]);
+		tempSet.clear();
+
+		sources = newSources;
+		updateCascadeAll = cascadeAll;
+		plan = newPlan;
+		return newPlan;
+	}
+
+	private boolean matches(List<? extends GeoElementND> geos,
+			boolean cascadeAll) {
+		if (updateCascadeAll != cascadeAll || sources.length != geos.size()) {
+			return false;
+		}
+		for (int i = 0; i < sources.length; i++) {
+			if (sources[i] != geos.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param geo
+	 *            updated geo
+	 * @param cascadeAll
+	 *            true to include algos depending on dependent geos as well
+	 * @return whether the update set of the geo needs to be included in the
+	 *         plan
+	 */
+	public static boolean isUpdateSource(GeoElementND geo,
+			boolean cascadeAll) {
+		return (geo.isIndependent() || geo.isPointOnPath() || cascadeAll)
+				&& geo.hasAlgoUpdateSet();
+	}
+}
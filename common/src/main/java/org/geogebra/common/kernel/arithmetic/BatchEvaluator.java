@@ -0,0 +1,416 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.plugin.Operation;
+
+/**
+ * Expression compiled for evaluation at many points: a stack program over
+ * columns of samples, so that each instruction runs in a tight loop over a
+ * chunk of samples without creating ExpressionValue objects.
+ *
+ * Only the operations evaluated directly by
+ * {@link ExpressionNode#evaluateDouble()} are compiled, which gives exactly
+ * the same results as the tree walker: like there, products which are not a
+ * number are evaluated again by the tree walker. Subtrees without variables
+ * are evaluated once per batch, other subtrees are evaluated by the tree
+ * walker for each sample.
+ *
+ * The evaluator keeps no state between calls, so it can be reused for its
+ * expression, see {@link FunctionNVar#evaluate(double[][], double[])}.
+ */
+public final class BatchEvaluator {
+
+	/** number of samples per chunk */
+	private static final int CHUNK = 128;
+
+	private static final int VAR = 0;
+	private static final int CONST = 1;
+	private static final int TREE = 2;
+	private static final int PLUS = 3;
+	private static final int MINUS = 4;
+	private static final int MULTIPLY = 5;
+	private static final int DIVIDE = 6;
+	private static final int POWER = 7;
+	private static final int POWER_FRACTION = 8;
+	private static final int SIN = 9;
+	private static final int COS = 10;
+	private static final int SQRT = 11;
+
+	private final ExpressionNode expression;
+	private final FunctionVariable[] vars;
+	/** pairs (opcode, operand) */
+	private final int[] code;
+	private final ExpressionValue[] constants;
+	private final ExpressionValue[] trees;
+	/** exponents a/b for negative bases */
+	private final ExpressionValue[] fractions;
+	/** products, evaluated by the tree walker if not a number */
+	private final ExpressionValue[] products;
+	private final int maxDepth;
+
+	private BatchEvaluator(ExpressionNode expression, FunctionVariable[] vars,
+			Compiler compiler) {
+		this.expression = expression;
+		this.vars = vars;
+		this.code = compiler.getCode();
+		this.constants = toArray(compiler.constants);
+		this.trees = toArray(compiler.trees);
+		this.fractions = toArray(compiler.fractions);
+		this.products = toArray(compiler.products);
+		this.maxDepth = compiler.maxDepth;
+	}
+
+	private static ExpressionValue[] toArray(ArrayList<ExpressionValue> list) {
+		return list.toArray(new ExpressionValue[list.size()]);
+	}
+
+	/**
+	 * @param expression
+	 *            expression
+	 * @param vars
+	 *            function variables, their values are given as columns to
+	 *            {@link #evaluate(double[][], double[], int)}
+	 * @return compiled expression
+	 */
+	public static BatchEvaluator compile(ExpressionNode expression,
+			FunctionVariable[] vars) {
+		Compiler compiler = new Compiler(vars);
+		compiler.emit(expression);
+		return new BatchEvaluator(expression, vars, compiler);
+	}
+
+	/**
+	 * @param exp
+	 *            expression
+	 * @param fVars
+	 *            function variables
+	 * @return whether this was compiled from exactly these objects
+	 */
+	public boolean isCompiledFrom(ExpressionNode exp,
+			FunctionVariable[] fVars) {
+		return expression == exp && vars == fVars;
+	}
+
+	/**
+	 * @return whether no part of the expression needs the tree walker per
+	 *         sample
+	 */
+	public boolean isFullyCompiled() {
+		return trees.length == 0;
+	}
+
+	/**
+	 * Evaluates the expression for length samples. Like the tree walker,
+	 * sets the function variables if parts of the expression are not
+	 * compiled.
+	 *
+	 * @param vals
+	 *            values of the variables, vals[i][k] is the value of
+	 *            variable i in sample k
+	 * @param out
+	 *            output array
+	 * @param length
+	 *            number of samples
+	 */
+	public void evaluate(double[][] vals, double[] out, int length) {
+		double[] constantValues = new double[constants.length];
+		for (int i = 0; i < constants.length; i++) {
+			constantValues[i] = constants[i].evaluateDouble();
+		}
+		double[][] stack = new double[maxDepth][Math.min(CHUNK, length)];
+		for (int offset = 0; offset < length; offset += CHUNK) {
+			int size = Math.min(CHUNK, length - offset);
+			run(vals, offset, size, stack, constantValues);
+			System.arraycopy(stack[0], 0, out, offset, size);
+		}
+	}
+
+	private void run(double[][] vals, int offset, int size, double[][] stack,
+			double[] constantValues) {
+		int sp = 0;
+		for (int pc = 0; pc < code.length; pc += 2) {
+			int operand = code[pc + 1];
+			switch (code[pc]) {
+			case VAR:
+				System.arraycopy(vals[operand], offset, stack[sp], 0, size);
+				sp++;
+				break;
+			case CONST:
+				fill(stack[sp], constantValues[operand], size);
+				sp++;
+				break;
+			case TREE:
+				evaluateTree(trees[operand], vals, offset, stack[sp], size);
+				sp++;
+				break;
+			case SIN:
+				sin(stack[sp - 1], size);
+				break;
+			case COS:
+				cos(stack[sp - 1], size);
+				break;
+			case SQRT:
+				sqrt(stack[sp - 1], size);
+				break;
+			default:
+				sp--;
+				binary(code[pc], stack[sp - 1], stack[sp], size, operand);
+				if (code[pc] == MULTIPLY) {
+					checkProducts(products[operand], vals, offset,
+							stack[sp - 1], size);
+				}
+				break;
+			}
+		}
+	}
+
+	private static void fill(double[] a, double value, int size) {
+		for (int i = 0; i < size; i++) {
+			a[i] = value;
+		}
+	}
+
+	private void evaluateTree(ExpressionValue tree, double[][] vals,
+			int offset, double[] a, int size) {
+		for (int i = 0; i < size; i++) {
+			a[i] = evaluateTree(tree, vals, offset + i);
+		}
+	}
+
+	private double evaluateTree(ExpressionValue tree, double[][] vals,
+			int sample) {
+		for (int k = 0; k < vars.length; k++) {
+			vars[k].set(vals[k][sample]);
+		}
+		return tree.evaluateDouble();
+	}
+
+	/**
+	 * Products that are not a number are evaluated by the tree walker, as in
+	 * ExpressionNode.evaluateMultiplyDouble.
+	 */
+	private void checkProducts(ExpressionValue product, double[][] vals,
+			int offset, double[] a, int size) {
+		for (int i = 0; i < size; i++) {
+			if (Double.isNaN(a[i])) {
+				a[i] = evaluateTree(product, vals, offset + i);
+			}
+		}
+	}
+
+	private static void sin(double[] a, int size) {
+		for (int i = 0; i < size; i++) {
+			a[i] = Math.sin(a[i]);
+		}
+	}
+
+	private static void cos(double[] a, int size) {
+		for (int i = 0; i < size; i++) {
+			a[i] = Math.cos(a[i]);
+		}
+	}
+
+	private static void sqrt(double[] a, int size) {
+		for (int i = 0; i < size; i++) {
+			a[i] = Math.sqrt(a[i]);
+		}
+	}
+
+	private void binary(int op, double[] a, double[] b, int size,
+			int operand) {
+		switch (op) {
+		case PLUS:
+			for (int i = 0; i < size; i++) {
+				a[i] += b[i];
+			}
+			break;
+		case MINUS:
+			for (int i = 0; i < size; i++) {
+				a[i] -= b[i];
+			}
+			break;
+		case MULTIPLY:
+			for (int i = 0; i < size; i++) {
+				a[i] *= b[i];
+			}
+			break;
+		case DIVIDE:
+			for (int i = 0; i < size; i++) {
+				a[i] /= b[i];
+			}
+			break;
+		case POWER:
+			for (int i = 0; i < size; i++) {
+				a[i] = Math.pow(a[i], b[i]);
+			}
+			break;
+		case POWER_FRACTION:
+			// x^(a/b) for negative x, see ExpressionNode.evaluatePowerDouble
+			for (int i = 0; i < size; i++) {
+				a[i] = a[i] < 0
+						? ExpressionNodeEvaluator.negPower(a[i],
+								fractions[operand])
+						: Math.pow(a[i], b[i]);
+			}
+			break;
+		default:
+			throw new IllegalStateException("Unknown opcode " + op);
+		}
+	}
+
+	/**
+	 * Translates the expression tree into the stack program.
+	 */
+	private static class Compiler {
+		protected final ArrayList<ExpressionValue> constants = new ArrayList<>();
+		protected final ArrayList<ExpressionValue> trees = new ArrayList<>();
+		protected final ArrayList<ExpressionValue> fractions = new ArrayList<>();
+		protected final ArrayList<ExpressionValue> products = new ArrayList<>();
+		protected int maxDepth = 1;
+		private final FunctionVariable[] vars;
+		private int[] code = new int[32];
+		private int size = 0;
+		private int depth = 0;
+
+		protected Compiler(FunctionVariable[] vars) {
+			this.vars = vars;
+		}
+
+		protected void emit(ExpressionValue ev) {
+			if (ev instanceof ExpressionNode && ((ExpressionNode) ev).isLeaf()) {
+				emit(((ExpressionNode) ev).getLeft());
+				return;
+			}
+			int varIndex = indexOf(ev);
+			if (varIndex >= 0) {
+				push(VAR, varIndex);
+			} else if (isFoldable(ev)) {
+				push(CONST, add(constants, ev));
+			} else if (ev instanceof ExpressionNode) {
+				emitNode((ExpressionNode) ev);
+			} else {
+				push(TREE, add(trees, ev));
+			}
+		}
+
+		private void emitNode(ExpressionNode node) {
+			int op = getOpcode(node.getOperation());
+			if (op < 0 || (op == POWER
+					&& !node.getLeft().evaluatesToNumber(false))) {
+				push(TREE, add(trees, node));
+				return;
+			}
+			ExpressionValue right = node.getRight();
+			if (op == POWER && right instanceof ExpressionNode
+					&& ((ExpressionNode) right)
+							.getOperation() == Operation.DIVIDE) {
+				if (!isFoldable(right)) {
+					push(TREE, add(trees, node));
+					return;
+				}
+				op = POWER_FRACTION;
+			}
+			emit(node.getLeft());
+			if (op == SIN || op == COS || op == SQRT) {
+				append(op, 0);
+				return;
+			}
+			emit(right);
+			if (op == POWER_FRACTION) {
+				append(op, add(fractions, right));
+			} else if (op == MULTIPLY) {
+				append(op, add(products, node));
+			} else {
+				append(op, 0);
+			}
+			depth--;
+		}
+
+		/**
+		 * @return whether the value does not depend on the variables and is
+		 *         deterministic
+		 */
+		private boolean isFoldable(ExpressionValue ev) {
+			if (indexOf(ev) >= 0) {
+				return false;
+			}
+			if (ev instanceof MyDouble || ev.isGeoElement()) {
+				return true;
+			}
+			if (!(ev instanceof ExpressionNode)) {
+				return false;
+			}
+			ExpressionNode node = (ExpressionNode) ev;
+			if (node.isLeaf()) {
+				return isFoldable(node.getLeft());
+			}
+			int op = getOpcode(node.getOperation());
+			if (op < 0) {
+				return false;
+			}
+			return isFoldable(node.getLeft()) && (op == SIN || op == COS
+					|| op == SQRT || isFoldable(node.getRight()));
+		}
+
+		private int indexOf(ExpressionValue ev) {
+			for (int i = 0; i < vars.length; i++) {
+				if (vars[i] == ev) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private static int getOpcode(Operation operation) {
+			switch (operation) {
+			case PLUS:
+				return PLUS;
+			case MINUS:
+				return MINUS;
+			case MULTIPLY:
+				return MULTIPLY;
+			case DIVIDE:
+				return DIVIDE;
+			case POWER:
+				return POWER;
+			case SIN:
+				return SIN;
+			case COS:
+				return COS;
+			case SQRT:
+				return SQRT;
+			default:
+				return -1;
+			}
+		}
+
+		private static int add(ArrayList<ExpressionValue> list,
+				ExpressionValue ev) {
+			list.add(ev);
+			return list.size() - 1;
+		}
+
+		private void push(int op, int operand) {
+			append(op, operand);
+			depth++;
+			maxDepth = Math.max(maxDepth, depth);
+		}
+
+		private void append(int op, int operand) {
+			if (size + 2 > code.length) {
+				int[] grown = new int[code.length * 2];
+				System.arraycopy(code, 0, grown, 0, size);
+				code = grown;
+			}
+			code[size++] = op;
+			code[size++] = operand;
+		}
+
+		protected int[] getCode() {
+			int[] ret = new int[size];
+			System.arraycopy(code, 0, ret, 0, size);
+			return ret;
+		}
+	}
+}
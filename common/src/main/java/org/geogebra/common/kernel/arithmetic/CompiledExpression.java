@@ -0,0 +1,15 @@
+package org.geogebra.common.kernel.arithmetic;
+
+/**
+ * Expression of a function compiled by a {@link FunctionCompiler}.
+ */
+public interface CompiledExpression {
+
+	/**
+	 * @param vals
+	 *            values of the function variables
+	 * @return value of the expression, same as
+	 *         {@link ExpressionNode#evaluateDouble()} with the variables set
+	 */
+	double applyAsDouble(double... vals);
+}
@@ -214,11 +214,34 @@ public class Function extends FunctionNVar
 			return evaluateBoolean(x) ? 1 : 0;
 		}
 		// NumberValue
+		CompiledExpression compiled = getCompiledExpression();
+		if (compiled != null) {
+			return compiled.applyAsDouble(x);
+		}
 		fVars[0].set(x);
 		return expression.evaluateDouble();
 
 	}
 
+	/**
+	 * Evaluates this function at many positions, see {@link BatchEvaluator}.
+	 * 
+	 * @param x
+	 *            positions
+	 * @param out
+	 *            array for f(x[0]), f(x[1]), ...
+	 */
+	public void value(double[] x, double[] out) {
+		// subclasses may override value(double)
+		if (isBooleanFunction || getClass() != Function.class) {
+			for (int i = 0; i < x.length; i++) {
+				out[i] = value(x[i]);
+			}
+			return;
+		}
+		getBatchEvaluator().evaluate(new double[][] { x }, out, x.length);
+	}
+
 	/**
 	 * Returns this function's value at position x. (Note: use this method if
 	 * isBooleanFunction() returns true.
@@ -280,6 +303,7 @@ public class Function extends FunctionNVar
 	 */
 	final public void translateY(double vy) {
 		expression = translateY(expression, fVars, vy);
+		invalidateEvaluators();
 
 	}
 
@@ -1172,6 +1196,7 @@ public class Function extends FunctionNVar
 	 */
 	public void dilateX(double scale) {
 		dilateX(expression, scale, 0);
+		invalidateEvaluators();
 	}
 
 	/**
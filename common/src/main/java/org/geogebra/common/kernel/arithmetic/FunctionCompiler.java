@@ -0,0 +1,23 @@
+package org.geogebra.common.kernel.arithmetic;
+
+/**
+ * Compiles expressions of functions that are evaluated often, see
+ * {@link org.geogebra.common.kernel.Kernel#setFunctionCompiler}.
+ */
+public interface FunctionCompiler {
+
+	/**
+	 * Values of GeoElements and numbers in the expression are read when the
+	 * compiled expression is evaluated, so the result only needs to be
+	 * replaced when the expression object changes.
+	 *
+	 * @param expression
+	 *            function expression
+	 * @param vars
+	 *            function variables, in order of the arguments of
+	 *            {@link CompiledExpression#applyAsDouble(double...)}
+	 * @return compiled expression or null if compilation is not possible
+	 */
+	CompiledExpression compile(ExpressionNode expression,
+			FunctionVariable[] vars);
+}
@@ -72,6 +72,34 @@ public class FunctionNVar extends ValidExpression
 
 	private static ArrayList<ExpressionNode> undecided = new ArrayList<>();
 
+	/** evaluator for many points, compiled from the current expression */
+	private volatile BatchEvaluator batchEvaluator;
+	/** number of evaluations of an expression before it is compiled */
+	private final static int COMPILE_THRESHOLD = 64;
+	/** result of compiling the current expression, null until compiled */
+	private volatile CompiledForm compiledForm;
+	/** expression whose evaluations are being counted, guarded by this */
+	private ExpressionNode countedExpression;
+	private int evaluationsSinceChange;
+
+	/**
+	 * Compiled expression together with the objects it was compiled from,
+	 * published as a whole.
+	 */
+	private static final class CompiledForm {
+		protected final ExpressionNode expression;
+		protected final FunctionVariable[] vars;
+		/** null if the expression could not be compiled */
+		protected final CompiledExpression compiled;
+
+		protected CompiledForm(ExpressionNode expression,
+				FunctionVariable[] vars, CompiledExpression compiled) {
+			this.expression = expression;
+			this.vars = vars;
+			this.compiled = compiled;
+		}
+	}
+
 	private final static class RandomCheck implements Inspecting {
 		protected RandomCheck() {
 			// make this visible
@@ -212,6 +240,7 @@ public class FunctionNVar extends ValidExpression
 	public void replaceChildrenByValues(GeoElement geo) {
 		if (expression != null) {
 			expression.replaceChildrenByValues(geo);
+			invalidateEvaluators();
 		}
 	}
 
@@ -362,6 +391,7 @@ public class FunctionNVar extends ValidExpression
 			expression.simplifyConstantIntegers();
 		}
 
+		invalidateEvaluators();
 		// evaluate expression to find out about the type of function
 		ExpressionValue ev;
 		try {
@@ -398,6 +428,7 @@ public class FunctionNVar extends ValidExpression
 			en.setOperation(Operation.MULTIPLY);
 		}
 		undecided.clear();
+		invalidateEvaluators();
 	}
 
 	/**
@@ -496,6 +527,10 @@ public class FunctionNVar extends ValidExpression
 			return evaluateBoolean(vals) ? 1 : 0;
 		}
 		// NumberValue
+		CompiledExpression compiled = getCompiledExpression();
+		if (compiled != null) {
+			return compiled.applyAsDouble(vals);
+		}
 		if (fVars != null) {
 			for (int i = 0; i < fVars.length; i++) {
 				fVars[i].set(vals[i]);
@@ -504,6 +539,92 @@ public class FunctionNVar extends ValidExpression
 		return expression.evaluateDouble();
 	}
 
+	/**
+	 * Evaluates this function at many points, see {@link BatchEvaluator}.
+	 * 
+	 * @param vals
+	 *            values of variables, vals[i][k] is the value of i-th
+	 *            variable at k-th point
+	 * @param out
+	 *            array for the function values
+	 */
+	public void evaluate(double[][] vals, double[] out) {
+		int length = out.length;
+		if (isBooleanFunction || fVars == null) {
+			double[] point = new double[vals.length];
+			for (int k = 0; k < length; k++) {
+				for (int i = 0; i < point.length; i++) {
+					point[i] = vals[i][k];
+				}
+				out[k] = evaluate(point);
+			}
+			return;
+		}
+		getBatchEvaluator().evaluate(vals, out, length);
+	}
+
+	/**
+	 * @return evaluator for many points, compiled when the expression was
+	 *         replaced or changed
+	 */
+	protected BatchEvaluator getBatchEvaluator() {
+		BatchEvaluator batch = batchEvaluator;
+		if (batch == null || !batch.isCompiledFrom(expression, fVars)) {
+			batch = BatchEvaluator.compile(expression, fVars);
+			batchEvaluator = batch;
+		}
+		return batch;
+	}
+
+	/**
+	 * Discards evaluators compiled from the expression. Needed when the
+	 * expression is changed in place; replacing the expression object is
+	 * detected without this.
+	 */
+	protected void invalidateEvaluators() {
+		batchEvaluator = null;
+		synchronized (this) {
+			compiledForm = null;
+			countedExpression = null;
+		}
+	}
+
+	/**
+	 * Compiles the expression once it was evaluated often enough, see
+	 * {@link Kernel#setFunctionCompiler(FunctionCompiler)}. A compiled
+	 * expression is only used for the expression and variables it was
+	 * compiled from.
+	 * 
+	 * @return compiled expression, null to evaluate the expression tree
+	 */
+	protected CompiledExpression getCompiledExpression() {
+		CompiledForm form = compiledForm;
+		if (form != null && form.expression == expression
+				&& form.vars == fVars) {
+			return form.compiled;
+		}
+		if (fVars == null || kernel == null
+				|| kernel.getFunctionCompiler() == null) {
+			return null;
+		}
+		return countEvaluation();
+	}
+
+	private synchronized CompiledExpression countEvaluation() {
+		if (countedExpression != expression) {
+			countedExpression = expression;
+			evaluationsSinceChange = 0;
+		}
+		FunctionCompiler compiler = kernel.getFunctionCompiler();
+		if (compiler == null
+				|| ++evaluationsSinceChange < COMPILE_THRESHOLD) {
+			return null;
+		}
+		CompiledExpression compiled = compiler.compile(expression, fVars);
+		compiledForm = new CompiledForm(expression, fVars, compiled);
+		return compiled;
+	}
+
 	@Override
 	final public double evaluate(double x, double y) {
 		if (isBooleanFunction) {
@@ -511,6 +632,10 @@ public class FunctionNVar extends ValidExpression
 			return evaluateBoolean(x, y) ? 1 : 0;
 		}
 		// NumberValue
+		CompiledExpression compiled = getCompiledExpression();
+		if (compiled != null) {
+			return compiled.applyAsDouble(x, y);
+		}
 
 		fVars[0].set(x);
 		fVars[1].set(y);
@@ -1212,6 +1337,7 @@ public class FunctionNVar extends ValidExpression
 			expression = expression.replace(fVars[0], newX).wrap();
 			expression = expression.replace(fVars[1], newY).wrap();
 			expression = expression.replace(fVars[zIndex], newZ).wrap();
+			invalidateEvaluators();
 			this.initIneqs(expression, this);
 			this.translate(s.getX(), s.getY(), s.getZ());
 		} else {
@@ -1255,6 +1381,7 @@ public class FunctionNVar extends ValidExpression
 		expression = expression
 				.traverse(CopyReplacer.getReplacer(dummy, newX, kernel)).wrap();
 		invalidateIneqs();
+		invalidateEvaluators();
 	}
 
 	/**
@@ -1311,6 +1438,7 @@ public class FunctionNVar extends ValidExpression
 		expression = expression.traverse(
 				CopyReplacer.getReplacer(dummy, newX.divide(newZ), kernel))
 				.wrap();
+		invalidateEvaluators();
 		this.initIneqs(expression, this);
 	}
 
@@ -1321,6 +1449,7 @@ public class FunctionNVar extends ValidExpression
 			return ev;
 		}
 		expression = expression.traverse(t).wrap();
+		invalidateEvaluators();
 		return this;
 	}
 
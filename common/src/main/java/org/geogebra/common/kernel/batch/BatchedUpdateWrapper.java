@@ -1,22 +1,16 @@
 package org.geogebra.common.kernel.batch;
 
-import java.util.Iterator;
-
 import org.geogebra.common.factories.UtilFactory;
 import org.geogebra.common.kernel.CheckBeforeUpdateView;
 import org.geogebra.common.kernel.ModeSetter;
-import org.geogebra.common.kernel.View;
 import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
-import org.geogebra.common.util.GTimer;
 import org.geogebra.common.util.GTimerListener;
-import org.geogebra.common.util.Reflection;
-import org.geogebra.common.util.debug.Log;
 
 /**
  * This class can wrap a view, and post the notifications
- * in a batch every DELAY seconds.
+ * in a batch every DELAY milliseconds.
  */
 public class BatchedUpdateWrapper
 		implements CheckBeforeUpdateView, GTimerListener {
@@ -24,9 +18,7 @@ public class BatchedUpdateWrapper
 	private static final int DELAY = 80;
 
 	private final CheckBeforeUpdateView wrappedView;
-	private final Reflection reflection;
-	private final EventOptimizedList pendingEvents;
-	private final GTimer timer;
+	private final ViewNotificationQueue queue;
 
 	/**
 	 * Create a wrapper around View.
@@ -38,75 +30,48 @@ public class BatchedUpdateWrapper
 			UtilFactory factory) {
 		this.wrappedView = wrappedView;
 		wrappedView.setIsWrapped(true);
-		this.reflection = factory.newReflection(View.class);
-
-		pendingEvents = new EventOptimizedList();
-		timer = factory.newTimer(this, DELAY);
-	}
-
-	private void addEvent(String name) {
-		addEvent(name, new Object[] {});
-	}
-
-	private void addEvent(String name, GeoElement parameter) {
-		if (show(parameter)) {
-			Event event = new Event(name, new Object[] { parameter });
-			addEvent(event);
-		}
-	}
-
-	private void addEvent(String name, Object[] parameters) {
-		Event event = new Event(name, parameters);
-		addEvent(event);
-	}
-
-	private void addEvent(Event event) {
-		pendingEvents.add(event);
-		if (!timer.isRunning()) {
-			timer.start();
-		}
+		queue = new ViewNotificationQueue(wrappedView,
+				factory.newTimer(this, DELAY));
 	}
 
 	@Override
 	public void add(GeoElement geo) {
-		addEvent("add", geo);
+		queue.add(geo);
 	}
 
 	@Override
 	public void remove(GeoElement geo) {
-		addEvent("remove", geo);
+		queue.remove(geo);
 	}
 
 	@Override
 	public void rename(GeoElement geo) {
-		addEvent("rename", geo);
+		queue.rename(geo);
 	}
 
 	@Override
 	public void update(GeoElement geo) {
-		addEvent("update", geo);
+		queue.update(geo);
 	}
 
 	@Override
 	public void updateVisualStyle(GeoElement geo, GProperty prop) {
-		if (needsUpdateVisualstyle(prop) && show(geo)) {
-			addEvent("updateVisualStyle", new Object[] { geo, prop });
-		}
+		queue.updateVisualStyle(geo, prop);
 	}
 
 	@Override
 	public void updateHighlight(GeoElementND geo) {
-		addEvent("updateHighlight", (GeoElement) geo);
+		queue.updateHighlight(geo);
 	}
 
 	@Override
 	public void updateAuxiliaryObject(GeoElement geo) {
-		addEvent("updateAuxiliaryObject", geo);
+		queue.updateAuxiliaryObject(geo);
 	}
 
 	@Override
 	public void repaintView() {
-		addEvent("repaintView");
+		queue.repaintView();
 	}
 
 	@Override
@@ -116,13 +81,12 @@ public class BatchedUpdateWrapper
 
 	@Override
 	public void reset() {
-		wrappedView.reset();
+		queue.reset();
 	}
 
 	@Override
 	public void clearView() {
-		pendingEvents.clear();
-		wrappedView.clearView();
+		queue.clearView();
 	}
 
 	@Override
@@ -152,29 +116,12 @@ public class BatchedUpdateWrapper
 
 	@Override
 	public void updatePreviewFromInputBar(GeoElement[] geos) {
-		addEvent("updatePreviewFromInputBar", new Object[] { geos });
+		queue.updatePreviewFromInputBar(geos);
 	}
 
 	@Override
 	public void onRun() {
-		EventOptimizedList copiedEvents = pendingEvents.copy();
-		pendingEvents.clear();
-
-		wrappedView.startBatchUpdate();
-
-		Iterator<Event> iterator = copiedEvents.iterator();
-		while (iterator.hasNext()) {
-			Event event = iterator.next();
-			String name = event.getName();
-			Object[] parameters = event.getParameters();
-			try {
-				reflection.call(wrappedView, name, parameters);
-			} catch (Exception e) {
-				Log.debug(e);
-			}
-			iterator.remove();
-		}
-		wrappedView.endBatchUpdate();
+		queue.flush();
 	}
 
 	@Override
@@ -0,0 +1,24 @@
+package org.geogebra.common.kernel.batch;
+
+import org.geogebra.common.kernel.View;
+
+/**
+ * View that can receive the notifications of the kernel in batches, see
+ * {@link ViewNotificationBus}. Unless the delivery is
+ * {@link ViewDelivery#IMMEDIATE}, the kernel sends the notifications about
+ * elements to the queue of the view; the view itself stays in the list of
+ * views, so that it is still found by type.
+ */
+public interface QueuedView extends View {
+
+	/**
+	 * @return when the view receives notifications
+	 */
+	ViewDelivery getDelivery();
+
+	/**
+	 * @return priority of the view; views with higher priority receive the
+	 *         notifications of a batch first
+	 */
+	int getNotificationPriority();
+}
@@ -0,0 +1,13 @@
+package org.geogebra.common.kernel.batch;
+
+/**
+ * When a {@link QueuedView} receives the notifications of the kernel.
+ */
+public enum ViewDelivery {
+	/** every notification is delivered when it happens */
+	IMMEDIATE,
+	/** notifications are collected and delivered when the kernel repaints */
+	FRAME,
+	/** notifications are collected and delivered after a short delay */
+	DEFERRED
+}
@@ -0,0 +1,152 @@
+package org.geogebra.common.kernel.batch;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.kernel.View;
+import org.geogebra.common.main.AppInterface;
+import org.geogebra.common.util.GTimer;
+import org.geogebra.common.util.GTimerListener;
+
+/**
+ * Queues of the views that receive the notifications of the kernel in
+ * batches. Queues of {@link ViewDelivery#FRAME} views are flushed when the
+ * kernel repaints, at the latest one frame after their first notification;
+ * queues of {@link ViewDelivery#DEFERRED} views share one timer. Within one
+ * flush, views with higher priority are served first.
+ */
+public class ViewNotificationBus implements GTimerListener {
+
+	/** delay of deferred delivery in ms */
+	public static final int DEFERRED_DELAY = 80;
+	/** delay of frame delivery if the kernel does not repaint, in ms */
+	public static final int FRAME_DELAY = 16;
+
+	private final ArrayList<ViewNotificationQueue> frameQueues = new ArrayList<>();
+	private final ArrayList<ViewNotificationQueue> deferredQueues = new ArrayList<>();
+	private final ArrayList<QueuedView> frameViews = new ArrayList<>();
+	private final ArrayList<QueuedView> deferredViews = new ArrayList<>();
+	private final AppInterface app;
+	private GTimer timer;
+	private GTimer frameTimer;
+
+	/**
+	 * @param app
+	 *            application that creates the timers
+	 */
+	public ViewNotificationBus(AppInterface app) {
+		this.app = app;
+	}
+
+	/**
+	 * @param view
+	 *            view with frame or deferred delivery
+	 * @return queue that collects the notifications for the view
+	 */
+	public ViewNotificationQueue attach(QueuedView view) {
+		ViewNotificationQueue queue = getQueue(view);
+		if (queue != null) {
+			return queue;
+		}
+		if (view.getDelivery() == ViewDelivery.FRAME) {
+			queue = new ViewNotificationQueue(view, getFrameTimer());
+			insert(frameViews, frameQueues, view, queue);
+		} else {
+			queue = new ViewNotificationQueue(view, getTimer());
+			insert(deferredViews, deferredQueues, view, queue);
+		}
+		return queue;
+	}
+
+	private GTimer getTimer() {
+		if (timer == null) {
+			timer = app.newTimer(this, DEFERRED_DELAY);
+		}
+		return timer;
+	}
+
+	private GTimer getFrameTimer() {
+		if (frameTimer == null) {
+			frameTimer = app.newTimer(new GTimerListener() {
+				@Override
+				public void onRun() {
+					flushFrame();
+				}
+			}, FRAME_DELAY);
+		}
+		return frameTimer;
+	}
+
+	private static void insert(ArrayList<QueuedView> views,
+			ArrayList<ViewNotificationQueue> queues, QueuedView view,
+			ViewNotificationQueue queue) {
+		int index = 0;
+		while (index < views.size() && views.get(index)
+				.getNotificationPriority() >= view.getNotificationPriority()) {
+			index++;
+		}
+		views.add(index, view);
+		queues.add(index, queue);
+	}
+
+	/**
+	 * @param view
+	 *            view
+	 * @return queue of the view, null if the view is not attached
+	 */
+	public ViewNotificationQueue getQueue(View view) {
+		int index = frameViews.indexOf(view);
+		if (index >= 0) {
+			return frameQueues.get(index);
+		}
+		index = deferredViews.indexOf(view);
+		return index >= 0 ? deferredQueues.get(index) : null;
+	}
+
+	/**
+	 * Removes the queue of the view; pending notifications are dropped.
+	 *
+	 * @param view
+	 *            view
+	 * @return removed queue, null if the view was not attached
+	 */
+	public ViewNotificationQueue detach(View view) {
+		int index = frameViews.indexOf(view);
+		if (index >= 0) {
+			frameViews.remove(index);
+			return frameQueues.remove(index);
+		}
+		index = deferredViews.indexOf(view);
+		if (index >= 0) {
+			deferredViews.remove(index);
+			return deferredQueues.remove(index);
+		}
+		return null;
+	}
+
+	/**
+	 * Delivers the notifications to the views with frame delivery.
+	 */
+	public void flushFrame() {
+		flush(frameQueues);
+	}
+
+	/**
+	 * Delivers the notifications to all queued views.
+	 */
+	public void flushAll() {
+		flush(frameQueues);
+		flush(deferredQueues);
+	}
+
+	private static void flush(ArrayList<ViewNotificationQueue> queues) {
+		// index loop: views may be detached while they are notified
+		for (int i = 0; i < queues.size(); i++) {
+			queues.get(i).flush();
+		}
+	}
+
+	@Override
+	public void onRun() {
+		flush(deferredQueues);
+	}
+}
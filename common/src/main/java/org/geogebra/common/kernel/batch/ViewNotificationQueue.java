@@ -0,0 +1,329 @@
+package org.geogebra.common.kernel.batch;
+
+import java.util.Arrays;
+
+import org.geogebra.common.kernel.CheckBeforeUpdateView;
+import org.geogebra.common.kernel.ModeSetter;
+import org.geogebra.common.kernel.View;
+import org.geogebra.common.kernel.geos.GProperty;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.util.GTimer;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Collects the notifications for one view and delivers them as one batch in
+ * {@link #flush()}. The notifications for an element are merged into a bit
+ * set, so that a cascade of updates results in one update per element; when
+ * an element is removed, its earlier notifications are dropped. Elements
+ * are delivered in the order of their first notification.
+ *
+ * The arrays of the queue are reused between batches, so collecting a
+ * notification does not allocate.
+ */
+public class ViewNotificationQueue implements View {
+
+	private static final int ADD = 1;
+	private static final int REMOVE = 2;
+	private static final int RENAME = 4;
+	private static final int UPDATE = 8;
+	private static final int AUXILIARY = 16;
+	private static final int HIGHLIGHT = 32;
+	private static final int VISUAL_STYLE = 64;
+
+	private static final GProperty[] PROPERTIES = GProperty.values();
+
+	private final View view;
+	/** view that filters notifications, may be null */
+	private final CheckBeforeUpdateView filter;
+	private final GTimer timer;
+	private Batch pending = new Batch();
+	/** batch that is being delivered */
+	private Batch delivering = new Batch();
+	private boolean flushing = false;
+
+	/**
+	 * @param view
+	 *            view that receives the batches
+	 * @param timer
+	 *            timer to start when the first notification of a batch
+	 *            arrives; null if the batches are flushed otherwise
+	 */
+	public ViewNotificationQueue(View view, GTimer timer) {
+		this.view = view;
+		this.filter = view instanceof CheckBeforeUpdateView
+				? (CheckBeforeUpdateView) view : null;
+		this.timer = timer;
+	}
+
+	/**
+	 * @return view that receives the batches
+	 */
+	public View getView() {
+		return view;
+	}
+
+	/**
+	 * @return whether no notifications are waiting
+	 */
+	public boolean isEmpty() {
+		return pending.isEmpty();
+	}
+
+	/**
+	 * Delivers the collected notifications to the view. Notifications that
+	 * arrive during delivery are collected for the next batch.
+	 */
+	public void flush() {
+		if (flushing || pending.isEmpty()) {
+			return;
+		}
+		Batch batch = pending;
+		pending = delivering;
+		delivering = batch;
+		flushing = true;
+		view.startBatchUpdate();
+		try {
+			for (int i = 0; i < batch.size; i++) {
+				try {
+					deliver(batch.geos[i], batch.flags[i], batch.styles[i]);
+				} catch (RuntimeException e) {
+					Log.debug(e);
+				}
+			}
+			if (batch.preview != null) {
+				view.updatePreviewFromInputBar(batch.preview);
+			}
+			if (batch.repaint) {
+				view.repaintView();
+			}
+		} finally {
+			view.endBatchUpdate();
+			batch.clear();
+			flushing = false;
+		}
+	}
+
+	private void deliver(GeoElement geo, int flags, int styles) {
+		if ((flags & REMOVE) != 0) {
+			view.remove(geo);
+		}
+		if ((flags & ADD) != 0) {
+			view.add(geo);
+		}
+		if ((flags & RENAME) != 0) {
+			view.rename(geo);
+		}
+		if ((flags & UPDATE) != 0) {
+			view.update(geo);
+		}
+		if ((flags & AUXILIARY) != 0) {
+			view.updateAuxiliaryObject(geo);
+		}
+		if ((flags & HIGHLIGHT) != 0) {
+			view.updateHighlight(geo);
+		}
+		if ((flags & VISUAL_STYLE) != 0) {
+			for (int i = 0; i < PROPERTIES.length; i++) {
+				if ((styles & (1 << i)) != 0) {
+					view.updateVisualStyle(geo, PROPERTIES[i]);
+				}
+			}
+		}
+	}
+
+	private boolean show(GeoElement geo) {
+		return filter == null || filter.show(geo);
+	}
+
+	private void mark(GeoElement geo, int flag) {
+		if (show(geo)) {
+			int slot = pending.slot(geo);
+			pending.flags[slot] |= flag;
+			schedule();
+		}
+	}
+
+	private void schedule() {
+		if (timer != null && !timer.isRunning()) {
+			timer.start();
+		}
+	}
+
+	@Override
+	public void add(GeoElement geo) {
+		mark(geo, ADD);
+	}
+
+	@Override
+	public void remove(GeoElement geo) {
+		if (show(geo)) {
+			int slot = pending.slot(geo);
+			pending.flags[slot] = REMOVE;
+			pending.styles[slot] = 0;
+			schedule();
+		}
+	}
+
+	@Override
+	public void rename(GeoElement geo) {
+		mark(geo, RENAME);
+	}
+
+	@Override
+	public void update(GeoElement geo) {
+		mark(geo, UPDATE);
+	}
+
+	@Override
+	public void updateVisualStyle(GeoElement geo, GProperty prop) {
+		if ((filter == null || filter.needsUpdateVisualstyle(prop))
+				&& show(geo)) {
+			int slot = pending.slot(geo);
+			pending.flags[slot] |= VISUAL_STYLE;
+			pending.styles[slot] |= 1 << prop.ordinal();
+			schedule();
+		}
+	}
+
+	@Override
+	public void updateHighlight(GeoElementND geo) {
+		mark(geo.toGeoElement(), HIGHLIGHT);
+	}
+
+	@Override
+	public void updateAuxiliaryObject(GeoElement geo) {
+		mark(geo, AUXILIARY);
+	}
+
+	@Override
+	public void repaintView() {
+		pending.repaint = true;
+		schedule();
+	}
+
+	@Override
+	public boolean suggestRepaint() {
+		return view.suggestRepaint();
+	}
+
+	/**
+	 * Delivers the pending notifications before the view is reset, so that
+	 * no notification from before the reset arrives later; elements added
+	 * while reloading the construction are still shown.
+	 */
+	@Override
+	public void reset() {
+		flush();
+		view.reset();
+	}
+
+	@Override
+	public void clearView() {
+		pending.clear();
+		view.clearView();
+	}
+
+	@Override
+	public void setMode(int mode, ModeSetter m) {
+		view.setMode(mode, m);
+	}
+
+	@Override
+	public int getViewID() {
+		return view.getViewID();
+	}
+
+	@Override
+	public boolean hasFocus() {
+		return view.hasFocus();
+	}
+
+	@Override
+	public void startBatchUpdate() {
+		// always in batch mode
+	}
+
+	@Override
+	public void endBatchUpdate() {
+		// always in batch mode
+	}
+
+	@Override
+	public void updatePreviewFromInputBar(GeoElement[] geos) {
+		pending.preview = geos;
+		schedule();
+	}
+
+	/**
+	 * Elements with their notification bits in order of first notification,
+	 * indexed by an open addressing hash table.
+	 */
+	private static class Batch {
+		protected GeoElement[] geos = new GeoElement[16];
+		protected int[] flags = new int[16];
+		protected int[] styles = new int[16];
+		protected int size = 0;
+		protected boolean repaint = false;
+		protected GeoElement[] preview;
+		/** slot + 1 for each hash bucket, 0 for empty buckets */
+		private int[] table = new int[32];
+
+		protected boolean isEmpty() {
+			return size == 0 && !repaint && preview == null;
+		}
+
+		/**
+		 * @return slot of the element, added with no flags if new
+		 */
+		protected int slot(GeoElement geo) {
+			int mask = table.length - 1;
+			int index = hash(geo) & mask;
+			while (table[index] != 0) {
+				int slot = table[index] - 1;
+				if (geos[slot] == geo) {
+					return slot;
+				}
+				index = (index + 1) & mask;
+			}
+			if (size == geos.length) {
+				grow();
+				return slot(geo);
+			}
+			geos[size] = geo;
+			flags[size] = 0;
+			styles[size] = 0;
+			table[index] = ++size;
+			return size - 1;
+		}
+
+		private void grow() {
+			int capacity = geos.length * 2;
+			geos = Arrays.copyOf(geos, capacity);
+			flags = Arrays.copyOf(flags, capacity);
+			styles = Arrays.copyOf(styles, capacity);
+			table = new int[capacity * 2];
+			int mask = table.length - 1;
+			for (int slot = 0; slot < size; slot++) {
+				int index = hash(geos[slot]) & mask;
+				while (table[index] != 0) {
+					index = (index + 1) & mask;
+				}
+				table[index] = slot + 1;
+			}
+		}
+
+		private static int hash(GeoElement geo) {
+			int h = System.identityHashCode(geo) * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+
+		protected void clear() {
+			Arrays.fill(geos, 0, size, null);
+			Arrays.fill(table, 0);
+			size = 0;
+			repaint = false;
+			preview = null;
+		}
+	}
+}
@@ -21,6 +21,8 @@ import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoLocus;
+import org.geogebra.common.kernel.kernelND.GeoPointND;
+import org.geogebra.common.util.debug.Log;
 
 /**
  * 
@@ -65,6 +67,56 @@ public abstract class AlgoDiscrete extends AlgoElement implements GraphAlgo {
 		setDependencies(); // done by AlgoElement
 	}
 
+	/**
+	 * Updates the triangulation from the input points and copies its
+	 * segments to the locus.
+	 * 
+	 * @param triangulation
+	 *            triangulation kept between updates
+	 */
+	protected void computeTriangulation(
+			IncrementalTriangulation triangulation) {
+		try {
+			size = inputList.size();
+			if (!inputList.isDefined() || size == 0) {
+				locus.setUndefined();
+				return;
+			}
+
+			double[] inhom = new double[2];
+			double[] xs = new double[size];
+			double[] ys = new double[size];
+
+			for (int i = 0; i < size; i++) {
+				GeoElement geo = inputList.get(i);
+				if (geo.isDefined() && geo.isGeoPoint()) {
+					((GeoPointND) geo).getInhomCoords(inhom);
+					xs[i] = inhom[0];
+					ys[i] = inhom[1];
+				} else {
+					xs[i] = Double.NaN;
+					ys[i] = Double.NaN;
+				}
+			}
+
+			if (!triangulation.update(xs, ys, size)) {
+				locus.setUndefined();
+				return;
+			}
+
+			if (al == null) {
+				al = new ArrayList<>();
+			}
+			triangulation.getSegments(al);
+
+			locus.setPoints(al);
+			locus.setDefined(true);
+		} catch (Exception e) {
+			Log.error(e.getMessage());
+			locus.setUndefined();
+		}
+	}
+
 	/**
 	 * @return locus
 	 */
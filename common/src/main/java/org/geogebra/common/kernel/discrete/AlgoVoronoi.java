@@ -1,28 +1,23 @@
 package org.geogebra.common.kernel.discrete;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.TreeSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Vector;
 
-import org.geogebra.common.awt.GPoint2D;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.MyPoint;
-import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
 import org.geogebra.common.kernel.discrete.delaunay.PointDt;
 import org.geogebra.common.kernel.discrete.delaunay.TriangleDt;
-import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
-import org.geogebra.common.kernel.kernelND.GeoPointND;
-import org.geogebra.common.util.DoubleUtil;
 
 /**
  * Voronoi diagram
  */
 public class AlgoVoronoi extends AlgoDiscrete {
-	private static Comparator<GPoint2D> pointComparator;
+	private IncrementalTriangulation triangulation;
 
 	/**
 	 * @param cons
@@ -43,158 +38,114 @@ public class AlgoVoronoi extends AlgoDiscrete {
 
 	@Override
 	public final void compute() {
-
-		size = inputList.size();
-		if (!inputList.isDefined() || size == 0) {
-			locus.setUndefined();
-			return;
+		if (triangulation == null) {
+			triangulation = new VoronoiEdges();
 		}
+		computeTriangulation(triangulation);
+	}
 
-		double[] inhom = new double[2];
-
-		ArrayList<Double> xcoords = new ArrayList<>();
-		ArrayList<Double> ycoords = new ArrayList<>();
-
-		final double delta = 0.0000001;
-
-		// add to TreeSet to remove duplicates (from touching triangles)
-		TreeSet<GPoint2D> pointTree = new TreeSet<>(
-				getPointComparator());
-
-		for (int i = 0; i < size; i++) {
-			GeoElement geo = inputList.get(i);
-			if (geo.isDefined() && geo.isGeoPoint()) {
-				GeoPointND p = (GeoPointND) geo;
-				p.getInhomCoords(inhom);
-
-				pointTree.add(new GPoint2D(inhom[0], inhom[1]));
-
-			}
-		}
-
-		PointDt[] points = new PointDt[pointTree.size()];
-		int indx = 0;
-
-		Iterator<GPoint2D> it3 = pointTree.iterator();
+	/**
+	 * Edges of the Voronoi cells: for every triangle and half plane around a
+	 * vertex the polygon (or ray) returned by
+	 * {@link DelaunayTriangulation#calcVoronoiCell(TriangleDt, PointDt)}.
+	 * Cells of neighboring vertices share their edges, the duplicates are
+	 * removed when the segments are collected.
+	 */
+	static class VoronoiEdges extends IncrementalTriangulation {
+		private static final double DELTA = 0.0000001;
 
-		while (it3.hasNext()) {
-			GPoint2D p = it3.next();
-			double x = p.getX();
-			double y = p.getY();
+		private final HashSet<Double> xcoords = new HashSet<>();
+		private final HashSet<Double> ycoords = new HashSet<>();
 
+		@Override
+		protected PointDt createVertex(double x0, double y0) {
+			double x = x0;
+			double y = y0;
+			// work around a bug in the algorithm for Points with an equal x or
+			// y coordinate
 			while (xcoords.contains(x)) {
-				x += delta;
+				x += DELTA;
 			}
 			while (ycoords.contains(y)) {
-				y += delta;
+				y += DELTA;
 			}
-
-			// work around a bug in the algorithm for Points with an equal x or
-			// y coordinate
 			xcoords.add(x);
 			ycoords.add(y);
-
-			points[indx++] = new PointDt(x, y);
-
+			return new PointDt(x, y);
 		}
 
-		DelaunayTriangulation dt = new DelaunayTriangulation(points);
-
-		if (dt.allCollinear) {
-			locus.setUndefined();
-			return;
+		@Override
+		protected void removeVertex(PointDt vertex) {
+			xcoords.remove(vertex.x());
+			ycoords.remove(vertex.y());
 		}
 
-		Iterator<TriangleDt> it = dt.trianglesIterator();
-
-		if (al == null) {
-			al = new ArrayList<>();
-		} else {
-			al.clear();
+		@Override
+		protected void clearVertices() {
+			xcoords.clear();
+			ycoords.clear();
 		}
 
-		// add to TreeSet to remove duplicates (from touching triangles)
-		TreeSet<MyLine> tree = new TreeSet<>(
-				AlgoDelauneyTriangulation.getComparator());
-
-		while (it.hasNext()) {
-			TriangleDt triangle = it.next();
-
-			for (int index = 0; index < 3; index++) {
-
-				PointDt corner = triangle.getCorner(index);
-
-				if (corner != null) {
-
-					PointDt[] voronoiCell = dt.calcVoronoiCell(triangle,
-							corner);
-
-					if (voronoiCell != null) {
-						for (int i = 0; i < voronoiCell.length - 1; i++) {
-							tree.add(new MyLine(
-									new GPoint2D(voronoiCell[i].x(),
-											voronoiCell[i].y()),
-									new GPoint2D(
-											voronoiCell[(i + 1)
-													% voronoiCell.length].x(),
-											voronoiCell[(i + 1)
-													% voronoiCell.length]
-															.y())));
-
-						}
-					}
+		@Override
+		protected void addSegments(DelaunayTriangulation dt, PointDt vertex,
+				Vector<TriangleDt> star, ArrayList<MyPoint> out) {
+			for (TriangleDt triangle : star) {
+				PointDt[] cell = dt.calcVoronoiCell(triangle, vertex);
+				for (int i = 0; cell != null && i < cell.length - 1; i++) {
+					addSegment(out, cell[i], cell[i + 1]);
 				}
 			}
-
 		}
 
-		Iterator<MyLine> it2 = tree.iterator();
-
-		while (it2.hasNext()) {
-			MyLine line = it2.next();
-			al.add(new MyPoint(line.p1.getX(), line.p1.getY(),
-					SegmentType.MOVE_TO));
-			al.add(new MyPoint(line.p2.getX(), line.p2.getY(),
-					SegmentType.LINE_TO));
+		@Override
+		public void getSegments(ArrayList<MyPoint> out) {
+			super.getSegments(out);
+			HashSet<Edge> edges = new HashSet<>();
+			int size = 0;
+			for (int i = 0; i < out.size(); i += 2) {
+				if (edges.add(new Edge(out.get(i), out.get(i + 1)))) {
+					out.set(size++, out.get(i));
+					out.set(size++, out.get(i + 1));
+				}
+			}
+			out.subList(size, out.size()).clear();
 		}
-
-		locus.setPoints(al);
-		locus.setDefined(true);
-
 	}
 
 	/**
-	 * @return comparator used to eliminate duplicate objects (TreeSet deletes
-	 *         duplicates ie those that return 0)
+	 * Segment with end points in lexicographic order.
 	 */
-	public static Comparator<GPoint2D> getPointComparator() {
-		if (pointComparator == null) {
-			pointComparator = new Comparator<GPoint2D>() {
-				@Override
-				public int compare(GPoint2D p1, GPoint2D p2) {
-
-					// double p1A = itemA.getX();
-					// double p1B = itemA.getY();
-					// double p2A = itemB.getX();
-					// double p2B = itemB.getY();
-
-					// return 0 if endpoints the same
-					// so no duplicates in the TreeMap
-					if (DoubleUtil.isEqual(p1.getX(), p2.getX())
-							&& DoubleUtil.isEqual(p1.getY(), p2.getY())) {
-						// Application.debug("equal2");
-						return 0;
-					}
-
-					// need to return something sensible, otherwise tree doesn't
-					// work
-					return p1.getX() > p2.getX() ? -1 : 1;
-
-				}
-			};
+	private static final class Edge {
+		private final double x1;
+		private final double y1;
+		private final double x2;
+		private final double y2;
+
+		Edge(MyPoint start, MyPoint end) {
+			boolean ordered = start.getX() < end.getX()
+					|| (start.getX() == end.getX()
+							&& start.getY() <= end.getY());
+			MyPoint first = ordered ? start : end;
+			MyPoint second = ordered ? end : start;
+			x1 = first.getX();
+			y1 = first.getY();
+			x2 = second.getX();
+			y2 = second.getY();
+		}
 
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Edge)) {
+				return false;
+			}
+			Edge other = (Edge) o;
+			return x1 == other.x1 && y1 == other.y1 && x2 == other.x2
+					&& y2 == other.y2;
 		}
 
-		return pointComparator;
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(new double[] { x1, y1, x2, y2 });
+		}
 	}
 }
@@ -0,0 +1,296 @@
+package org.geogebra.common.kernel.discrete;
+
+import java.util.Arrays;
+
+/**
+ * Undirected multigraph with vertices 0..vertexCount-1 and primitive edge
+ * weights. The adjacency is stored in compressed sparse row format: the
+ * edges incident to vertex v are adjacentEdges[offsets[v]] ..
+ * adjacentEdges[offsets[v + 1] - 1].
+ *
+ * The structure is fixed, weights can be changed between computations.
+ */
+public class CompactGraph {
+	private final int vertexCount;
+	private final int edgeCount;
+	private final int[] from;
+	private final int[] to;
+	private final double[] weights;
+	// built on demand, not needed for spanning trees
+	private int[] offsets;
+	private int[] adjacentEdges;
+
+	/**
+	 * @param vertexCount
+	 *            number of vertices
+	 * @param from
+	 *            first vertex of each edge
+	 * @param to
+	 *            second vertex of each edge
+	 * @param edgeCount
+	 *            number of edges
+	 */
+	public CompactGraph(int vertexCount, int[] from, int[] to,
+			int edgeCount) {
+		this.vertexCount = vertexCount;
+		this.edgeCount = edgeCount;
+		this.from = Arrays.copyOf(from, edgeCount);
+		this.to = Arrays.copyOf(to, edgeCount);
+		this.weights = new double[edgeCount];
+		Arrays.fill(weights, 1);
+	}
+
+	/**
+	 * @return number of vertices
+	 */
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * @return number of edges
+	 */
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * @param edge
+	 *            edge
+	 * @return first vertex of the edge
+	 */
+	public int getFrom(int edge) {
+		return from[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            edge
+	 * @return second vertex of the edge
+	 */
+	public int getTo(int edge) {
+		return to[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            edge
+	 * @return weight of the edge
+	 */
+	public double getWeight(int edge) {
+		return weights[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            edge
+	 * @param weight
+	 *            new weight (non-negative)
+	 */
+	public void setWeight(int edge, double weight) {
+		weights[edge] = weight;
+	}
+
+	private void buildAdjacency() {
+		if (offsets != null) {
+			return;
+		}
+		offsets = new int[vertexCount + 1];
+		for (int e = 0; e < edgeCount; e++) {
+			offsets[from[e] + 1]++;
+			offsets[to[e] + 1]++;
+		}
+		for (int v = 0; v < vertexCount; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		adjacentEdges = new int[2 * edgeCount];
+		int[] next = Arrays.copyOf(offsets, vertexCount);
+		for (int e = 0; e < edgeCount; e++) {
+			adjacentEdges[next[from[e]]++] = e;
+			adjacentEdges[next[to[e]]++] = e;
+		}
+	}
+
+	/**
+	 * Finds a shortest path with Dijkstra's algorithm (binary heap).
+	 *
+	 * @param source
+	 *            start vertex
+	 * @param target
+	 *            end vertex
+	 * @param weighted
+	 *            whether to use the edge weights, otherwise each edge has
+	 *            length 1
+	 * @return vertices of the path from source to target, null if target is
+	 *         not reachable
+	 */
+	public int[] shortestPath(int source, int target, boolean weighted) {
+		buildAdjacency();
+		double[] dist = new double[vertexCount];
+		Arrays.fill(dist, Double.POSITIVE_INFINITY);
+		int[] previous = new int[vertexCount];
+		Arrays.fill(previous, -1);
+		boolean[] done = new boolean[vertexCount];
+		Heap heap = new Heap(16);
+		dist[source] = 0;
+		heap.add(0, source);
+		while (!heap.isEmpty()) {
+			int v = heap.peekValue();
+			heap.poll();
+			if (done[v]) {
+				// outdated entry
+				continue;
+			}
+			done[v] = true;
+			if (v == target) {
+				break;
+			}
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int e = adjacentEdges[i];
+				int w = from[e] == v ? to[e] : from[e];
+				double d = dist[v] + (weighted ? weights[e] : 1);
+				if (d < dist[w]) {
+					dist[w] = d;
+					previous[w] = v;
+					heap.add(d, w);
+				}
+			}
+		}
+		if (!done[target]) {
+			return null;
+		}
+		int length = 1;
+		for (int v = target; v != source; v = previous[v]) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int v = target; length > 0; v = previous[v]) {
+			path[--length] = v;
+		}
+		return path;
+	}
+
+	/**
+	 * Finds a minimum spanning forest with Kruskal's algorithm (union-find).
+	 *
+	 * @return edges of the forest in order of increasing weight
+	 */
+	public int[] minimumSpanningForest() {
+		Heap heap = new Heap(edgeCount);
+		for (int e = 0; e < edgeCount; e++) {
+			heap.append(weights[e], e);
+		}
+		heap.heapify();
+		int[] parent = new int[vertexCount];
+		for (int v = 0; v < vertexCount; v++) {
+			parent[v] = v;
+		}
+		int[] forest = new int[Math.max(vertexCount - 1, 0)];
+		int size = 0;
+		while (size < forest.length && !heap.isEmpty()) {
+			int e = heap.peekValue();
+			heap.poll();
+			int root1 = find(parent, from[e]);
+			int root2 = find(parent, to[e]);
+			if (root1 != root2) {
+				parent[root1] = root2;
+				forest[size++] = e;
+			}
+		}
+		return Arrays.copyOf(forest, size);
+	}
+
+	private static int find(int[] parent, int v) {
+		int root = v;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		// path compression
+		int current = v;
+		while (parent[current] != root) {
+			int next = parent[current];
+			parent[current] = root;
+			current = next;
+		}
+		return root;
+	}
+
+	/**
+	 * Binary min-heap of (key, value) pairs in parallel primitive arrays.
+	 */
+	private static final class Heap {
+		private double[] keys;
+		private int[] values;
+		private int size;
+
+		Heap(int capacity) {
+			keys = new double[Math.max(capacity, 1)];
+			values = new int[keys.length];
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		int peekValue() {
+			return values[0];
+		}
+
+		void append(double key, int value) {
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, 2 * size);
+				values = Arrays.copyOf(values, 2 * size);
+			}
+			keys[size] = key;
+			values[size] = value;
+			size++;
+		}
+
+		void add(double key, int value) {
+			append(key, value);
+			int i = size - 1;
+			while (i > 0) {
+				int parent = (i - 1) / 2;
+				if (keys[parent] <= key) {
+					break;
+				}
+				keys[i] = keys[parent];
+				values[i] = values[parent];
+				i = parent;
+			}
+			keys[i] = key;
+			values[i] = value;
+		}
+
+		void heapify() {
+			for (int i = size / 2 - 1; i >= 0; i--) {
+				siftDown(i, keys[i], values[i]);
+			}
+		}
+
+		void poll() {
+			size--;
+			if (size > 0) {
+				siftDown(0, keys[size], values[size]);
+			}
+		}
+
+		private void siftDown(int start, double key, int value) {
+			int i = start;
+			while (2 * i + 1 < size) {
+				int child = 2 * i + 1;
+				if (child + 1 < size && keys[child + 1] < keys[child]) {
+					child++;
+				}
+				if (key <= keys[child]) {
+					break;
+				}
+				keys[i] = keys[child];
+				values[i] = values[child];
+				i = child;
+			}
+			keys[i] = key;
+			values[i] = value;
+		}
+	}
+}
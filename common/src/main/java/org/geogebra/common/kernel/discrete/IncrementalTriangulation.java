@@ -0,0 +1,320 @@
+package org.geogebra.common.kernel.discrete;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.Vector;
+
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.SegmentType;
+import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
+import org.geogebra.common.kernel.discrete.delaunay.PointDt;
+import org.geogebra.common.kernel.discrete.delaunay.TriangleDt;
+
+/**
+ * Delaunay triangulation of a list of points which is kept between updates.
+ * When only a few points change (e.g. one of them is dragged), they are
+ * deleted from and inserted into the existing triangulation and only the
+ * segments around the affected vertices are recomputed. Otherwise the
+ * triangulation is built from scratch.
+ *
+ * Segments are stored per vertex and computed from the triangles and half
+ * planes around it only, so that they stay valid as long as these do not
+ * change.
+ */
+public abstract class IncrementalTriangulation {
+
+	/**
+	 * rebuild from scratch if more than 1/REBUILD_RATIO of the points changed
+	 */
+	private static final int REBUILD_RATIO = 8;
+
+	private DelaunayTriangulation dt;
+	/** input coordinates of last update, NaN for undefined points */
+	private double[] xs = new double[0];
+	private double[] ys = new double[0];
+	/** vertex for each input point, null for undefined points and duplicates */
+	private PointDt[] vertices = new PointDt[0];
+	/** input points which have a vertex */
+	private final TreeSet<PointDt> inputPoints = new TreeSet<>(
+			PointDt.getComparator());
+	private boolean duplicates;
+	private final HashMap<PointDt, ArrayList<MyPoint>> segments = new HashMap<>();
+	private final Comparator<PointDt> comparator = PointDt.getComparator();
+	private int rebuilds;
+
+	/**
+	 * Creates the segments which belong to the vertex, e.g. those for the
+	 * Delaunay edges (vertex, neighbor) the vertex owns (see
+	 * {@link #owns(PointDt, PointDt)}).
+	 *
+	 * @param triangulation
+	 *            triangulation
+	 * @param vertex
+	 *            vertex
+	 * @param star
+	 *            triangles and half planes around the vertex
+	 * @param out
+	 *            list for the segments (pairs of MOVE_TO, LINE_TO points)
+	 */
+	protected abstract void addSegments(DelaunayTriangulation triangulation,
+			PointDt vertex, Vector<TriangleDt> star, ArrayList<MyPoint> out);
+
+	/**
+	 * @param x
+	 *            x-coordinate of input point
+	 * @param y
+	 *            y-coordinate of input point
+	 * @return vertex for the triangulation
+	 */
+	protected PointDt createVertex(double x, double y) {
+		return new PointDt(x, y);
+	}
+
+	/**
+	 * Called when a vertex is removed from the triangulation.
+	 *
+	 * @param vertex
+	 *            vertex created by {@link #createVertex(double, double)}
+	 */
+	protected void removeVertex(PointDt vertex) {
+		// only needed by subclasses which keep track of vertices
+	}
+
+	/**
+	 * Called before the triangulation is built from scratch.
+	 */
+	protected void clearVertices() {
+		// only needed by subclasses which keep track of vertices
+	}
+
+	/**
+	 * Updates the triangulation and the segments.
+	 *
+	 * @param x
+	 *            x-coordinates of the points, NaN for undefined points
+	 * @param y
+	 *            y-coordinates of the points, NaN for undefined points
+	 * @param n
+	 *            number of points
+	 * @return false if the points are all collinear
+	 */
+	public boolean update(double[] x, double[] y, int n) {
+		if (dt == null || duplicates || dt.allCollinear || n != xs.length
+				|| !updateIncrementally(x, y)) {
+			try {
+				rebuild(x, y, n);
+			} catch (RuntimeException e) {
+				dt = null;
+				throw e;
+			}
+		}
+		return !dt.allCollinear;
+	}
+
+	private boolean updateIncrementally(double[] x, double[] y) {
+		int n = xs.length;
+		ArrayList<Integer> changed = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			if (!same(xs[i], x[i]) || !same(ys[i], y[i])) {
+				changed.add(i);
+				if (changed.size() * REBUILD_RATIO > n) {
+					return false;
+				}
+			}
+		}
+		HashSet<PointDt> affected = new HashSet<>();
+		HashSet<PointDt> deleted = new HashSet<>();
+		try {
+			for (int i : changed) {
+				PointDt vertex = vertices[i];
+				if (vertex == null) {
+					continue;
+				}
+				Vector<TriangleDt> star = dt.findStar(vertex);
+				// deletePoint does not support vertices on the hull
+				if (star == null || hasHalfplane(star)) {
+					return false;
+				}
+				addCorners(star, affected);
+				int size = dt.size();
+				dt.deletePoint(vertex);
+				if (dt.size() != size - 1) {
+					return false;
+				}
+				deleted.add(vertex);
+				inputPoints.remove(new PointDt(xs[i], ys[i]));
+				removeVertex(vertex);
+				segments.remove(vertex);
+				vertices[i] = null;
+			}
+			for (int i : changed) {
+				xs[i] = x[i];
+				ys[i] = y[i];
+				if (Double.isNaN(x[i]) || Double.isNaN(y[i])) {
+					continue;
+				}
+				PointDt input = new PointDt(x[i], y[i]);
+				if (inputPoints.contains(input)) {
+					return false;
+				}
+				PointDt vertex = createVertex(x[i], y[i]);
+				int size = dt.size();
+				dt.insertPoint(vertex);
+				Vector<TriangleDt> star = dt.findStar(vertex);
+				if (dt.size() != size + 1 || star == null) {
+					return false;
+				}
+				addCorners(star, affected);
+				inputPoints.add(input);
+				vertices[i] = vertex;
+			}
+			affected.removeAll(deleted);
+			for (PointDt vertex : affected) {
+				Vector<TriangleDt> star = dt.findStar(vertex);
+				if (star == null) {
+					return false;
+				}
+				updateSegments(vertex, star);
+			}
+		} catch (RuntimeException e) {
+			// the triangulation may be inconsistent, start from scratch
+			return false;
+		}
+		return true;
+	}
+
+	private void rebuild(double[] x, double[] y, int n) {
+		rebuilds++;
+		xs = new double[n];
+		ys = new double[n];
+		System.arraycopy(x, 0, xs, 0, n);
+		System.arraycopy(y, 0, ys, 0, n);
+		vertices = new PointDt[n];
+		inputPoints.clear();
+		segments.clear();
+		clearVertices();
+		duplicates = false;
+		dt = new DelaunayTriangulation();
+		for (int i = 0; i < n; i++) {
+			if (Double.isNaN(x[i]) || Double.isNaN(y[i])) {
+				continue;
+			}
+			if (!inputPoints.add(new PointDt(x[i], y[i]))) {
+				duplicates = true;
+				continue;
+			}
+			PointDt vertex = createVertex(x[i], y[i]);
+			int size = dt.size();
+			dt.insertPoint(vertex);
+			if (dt.size() == size) {
+				duplicates = true;
+				removeVertex(vertex);
+			} else {
+				vertices[i] = vertex;
+			}
+		}
+		if (dt.allCollinear) {
+			return;
+		}
+		HashMap<PointDt, Vector<TriangleDt>> stars = new HashMap<>();
+		Iterator<TriangleDt> it = dt.trianglesIterator();
+		while (it.hasNext()) {
+			TriangleDt triangle = it.next();
+			for (int i = 0; i < 3; i++) {
+				PointDt corner = triangle.getCorner(i);
+				if (corner != null) {
+					Vector<TriangleDt> star = stars.get(corner);
+					if (star == null) {
+						star = new Vector<>();
+						stars.put(corner, star);
+					}
+					star.add(triangle);
+				}
+			}
+		}
+		for (PointDt vertex : stars.keySet()) {
+			updateSegments(vertex, stars.get(vertex));
+		}
+	}
+
+	private void updateSegments(PointDt vertex, Vector<TriangleDt> star) {
+		ArrayList<MyPoint> out = new ArrayList<>();
+		addSegments(dt, vertex, star, out);
+		segments.put(vertex, out);
+	}
+
+	/**
+	 * @param vertex
+	 *            vertex
+	 * @param neighbor
+	 *            other vertex
+	 * @return whether the segments for the edge between the vertices belong
+	 *         to vertex
+	 */
+	protected boolean owns(PointDt vertex, PointDt neighbor) {
+		return comparator.compare(vertex, neighbor) < 0;
+	}
+
+	/**
+	 * @param out
+	 *            list to be filled with the segments of all vertices
+	 */
+	public void getSegments(ArrayList<MyPoint> out) {
+		out.clear();
+		for (ArrayList<MyPoint> list : segments.values()) {
+			out.addAll(list);
+		}
+	}
+
+	/**
+	 * @return how often the triangulation was built from scratch
+	 */
+	public int getRebuilds() {
+		return rebuilds;
+	}
+
+	/**
+	 * Adds a segment to the list.
+	 *
+	 * @param out
+	 *            list of segments
+	 * @param start
+	 *            start point
+	 * @param end
+	 *            end point
+	 */
+	protected static void addSegment(ArrayList<MyPoint> out, PointDt start,
+			PointDt end) {
+		out.add(new MyPoint(start.x(), start.y(), SegmentType.MOVE_TO));
+		out.add(new MyPoint(end.x(), end.y(), SegmentType.LINE_TO));
+	}
+
+	private static boolean same(double a, double b) {
+		return a == b || (Double.isNaN(a) && Double.isNaN(b));
+	}
+
+	private static boolean hasHalfplane(Vector<TriangleDt> star) {
+		for (TriangleDt triangle : star) {
+			if (triangle.isHalfplane()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void addCorners(Vector<TriangleDt> star,
+			HashSet<PointDt> affected) {
+		for (TriangleDt triangle : star) {
+			for (int i = 0; i < 3; i++) {
+				PointDt corner = triangle.getCorner(i);
+				if (corner != null) {
+					affected.add(corner);
+				}
+			}
+		}
+	}
+}
@@ -1277,6 +1277,44 @@ public class DelaunayTriangulation {
 		return triangles;
 	}
 
+	/**
+	 * Finds all triangles and half planes which have the given vertex as a
+	 * corner. Unlike findTriangleNeighborhood this also works for vertices on
+	 * the convex hull.
+	 * 
+	 * @param vertex
+	 *            vertex of this triangulation
+	 * @return triangles around the vertex (in no particular order), null if
+	 *         the vertex was not found
+	 */
+	public Vector<TriangleDt> findStar(PointDt vertex) {
+		TriangleDt start = find(vertex);
+		if (start == null || !hasCorner(start, vertex)) {
+			return null;
+		}
+		Vector<TriangleDt> star = new Vector<>();
+		star.add(start);
+		for (int i = 0; i < star.size(); i++) {
+			TriangleDt t = star.elementAt(i);
+			addToStar(star, t.abnext, vertex);
+			addToStar(star, t.bcnext, vertex);
+			addToStar(star, t.canext, vertex);
+		}
+		return star;
+	}
+
+	private static void addToStar(Vector<TriangleDt> star, TriangleDt t,
+			PointDt vertex) {
+		if (t != null && hasCorner(t, vertex) && !star.contains(t)) {
+			star.add(t);
+		}
+	}
+
+	// unlike TriangleDt.isCorner this works for half planes
+	private static boolean hasCorner(TriangleDt t, PointDt vertex) {
+		return t.a == vertex || t.b == vertex || t.c == vertex;
+	}
+
 	/*
 	 * find triangle to be added to the triangulation
 	 * 
@@ -64,6 +64,7 @@ import org.geogebra.common.kernel.algos.AlgorithmSet;
 import org.geogebra.common.kernel.algos.Algos;
 import org.geogebra.common.kernel.algos.ConstructionElement;
 import org.geogebra.common.kernel.algos.DrawInformationAlgo;
+import org.geogebra.common.kernel.algos.LevelwiseAlgoUpdater;
 import org.geogebra.common.kernel.algos.TableAlgo;
 import org.geogebra.common.kernel.arithmetic.Equation;
 import org.geogebra.common.kernel.arithmetic.EquationValue;
@@ -245,6 +246,8 @@ public abstract class GeoElement extends ConstructionElement
 	private boolean strLabelTextOrHTMLUpdate = true;
 	/** true if strLaTex is out of sync */
 	protected boolean strLaTeXneedsUpdate = true;
+	/** number of value changes, used to invalidate caches of the value */
+	private int updateVersion = 0;
 
 	// line thickness and line type: s
 	/**
@@ -1834,6 +1837,7 @@ public abstract class GeoElement extends ConstructionElement
 	 */
 	public void setParentAlgorithm(final AlgoElement algorithm) {
 		algoParent = algorithm;
+		cons.invalidateUpdatePlans();
 	}
 
 	@Override
@@ -3073,6 +3077,7 @@ public abstract class GeoElement extends ConstructionElement
 		final boolean added = getAlgoUpdateSet().add(algorithm);
 
 		if (added) {
+			cons.invalidateUpdatePlans();
 			// propagate up the graph if we didn't do this before
 			if (algoParent != null) {
 				final GeoElementND[] input = algoParent
@@ -3092,6 +3097,7 @@ public abstract class GeoElement extends ConstructionElement
 				&& algoUpdateSet.remove(algorithm);
 
 		if (removed) {
+			cons.invalidateUpdatePlans();
 			// propagate up the graph
 			if (algoParent != null) {
 				final GeoElementND[] input = algoParent
@@ -3154,6 +3160,23 @@ public abstract class GeoElement extends ConstructionElement
 
 		// texts need updates
 		algebraStringsNeedUpdate();
+		valueChanged();
+	}
+
+	/**
+	 * Invalidates caches of the value. Called on every update; setters that
+	 * may be used without update (e.g. for list elements) call it as well.
+	 */
+	protected final void valueChanged() {
+		updateVersion++;
+	}
+
+	/**
+	 * @return number of value changes of this geo; caches of values computed
+	 *         from this geo are valid as long as this does not change
+	 */
+	public int getUpdateVersion() {
+		return updateVersion;
 	}
 
 	/**
@@ -3198,7 +3221,12 @@ public abstract class GeoElement extends ConstructionElement
 		} else if (algoUpdateSet != null) {
 			// update all algorithms in the algorithm set of this GeoElement
 			cons.setAlgoSetCurrentlyUpdated(algoUpdateSet);
-			algoUpdateSet.updateAll();
+			LevelwiseAlgoUpdater updater = kernel.getLevelwiseAlgoUpdater();
+			if (updater == null) {
+				algoUpdateSet.updateAll();
+			} else {
+				updater.updateAll(algoUpdateSet);
+			}
 			cons.setAlgoSetCurrentlyUpdated(null);
 		}
 	}
@@ -3282,31 +3310,28 @@ public abstract class GeoElement extends ConstructionElement
 			return;
 		}
 
-		// build update set of all algorithms in construction element order
-		// clear temp set
-		tempSet1.clear();
-
 		final int size = geos.size();
+		if (size == 0) {
+			return;
+		}
 		for (int i = 0; i < size; i++) {
-			final GeoElementND geo = geos.get(i);
-
-			geo.update();
-
-			if ((geo.isIndependent() || geo.isPointOnPath() || updateCascadeAll)
-					&& (geo.hasAlgoUpdateSet())) {
-				// add all dependent algos of geo to the overall algorithm
-				// set
-				geo.getAlgoUpdateSet().addAllToCollection(tempSet1);
-			}
+			geos.get(i).update();
+		}
+
+		// all algorithms depending on the geos in construction element order,
+		// reused from previous updates unless the construction changed
+		final Construction construction = geos.get(0).getConstruction();
+		final AlgoElement[] plan = construction.getUpdatePlanCache()
+				.getPlan(geos, updateCascadeAll, tempSet1);
+		LevelwiseAlgoUpdater updater = construction.getKernel()
+				.getLevelwiseAlgoUpdater();
+		if (updater != null) {
+			updater.updateAll(plan);
+			return;
 		}
-
-		// now we have one nice algorithm set that we can update
-		if (tempSet1.size() > 0) {
-			for (AlgoElement algo : tempSet1) {
-				algo.update();
-			}
+		for (int i = 0; i < plan.length; i++) {
+			plan[i].update();
 		}
-
 	}
 
 	/**
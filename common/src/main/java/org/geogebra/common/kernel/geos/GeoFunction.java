@@ -13,6 +13,7 @@ the Free Software Foundation.
 package org.geogebra.common.kernel.geos;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map.Entry;
@@ -376,6 +377,8 @@ public class GeoFunction extends GeoElement implements VarString, Translateable,
 
 	@Override
 	public void set(GeoElementND geo) {
+		// list elements are set without update
+		valueChanged();
 		if (geo instanceof GeoFunctionable) {
 			Function geoFun = ((GeoFunctionable) geo).getFunction();
 			if (geoFun == null) {
@@ -415,6 +418,7 @@ public class GeoFunction extends GeoElement implements VarString, Translateable,
 	 */
 	public void setFunction(Function f) {
 		fun = f;
+		valueChanged();
 		// reset this for garbage collection, also the flag needs update for
 		// #5054
 		this.includesNonContinuousIntegralFun = null;
@@ -606,6 +610,22 @@ public class GeoFunction extends GeoElement implements VarString, Translateable,
 		return fun.value(x);
 	}
 
+	/**
+	 * Evaluates this function at many positions at once.
+	 * 
+	 * @param x
+	 *            positions
+	 * @param out
+	 *            array for f(x[0]), f(x[1]), ...
+	 */
+	public void value(double[] x, double[] out) {
+		if (fun == null || !isDefined) {
+			Arrays.fill(out, 0, x.length, Double.NaN);
+			return;
+		}
+		fun.value(x, out);
+	}
+
 	/**
 	 * Returns this function's value at position x.
 	 * 
@@ -2837,6 +2857,11 @@ public class GeoFunction extends GeoElement implements VarString, Translateable,
 		// TODO Auto-generated method stub
 	}
 
+	@Override
+	public SurfaceEvaluable copyForEvaluation() {
+		return new GeoFunction(this);
+	}
+
 	@Override
 	public LevelOfDetail getLevelOfDetail() {
 		// TODO Auto-generated method stub
@@ -280,6 +280,15 @@ public class GeoFunctionNVar extends GeoElement
 		fun1 = null;
 	}
 
+	@Override
+	public SurfaceEvaluable copyForEvaluation() {
+		GeoFunctionNVar copy = new GeoFunctionNVar(this);
+		copy.setShortLHS(shortLHS);
+		copy.setInterval(from, to);
+		copy.setDerivatives();
+		return copy;
+	}
+
 	@Override
 	final public FunctionNVar getFunction() {
 		return fun;
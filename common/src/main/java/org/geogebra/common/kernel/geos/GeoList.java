@@ -53,6 +53,7 @@ import org.geogebra.common.kernel.kernelND.GeoElementND;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
 import org.geogebra.common.kernel.kernelND.GeoQuadricND;
 import org.geogebra.common.kernel.matrix.Coords;
+import org.geogebra.common.kernel.statistics.ListStatistics;
 import org.geogebra.common.main.Localization;
 import org.geogebra.common.plugin.EuclidianStyleConstants;
 import org.geogebra.common.plugin.GeoClass;
@@ -79,6 +80,9 @@ public class GeoList extends GeoElement
 	// lists will often grow and shrink dynamically,
 	// so we keep a cacheList of all old list elements
 	private final ArrayList<GeoElementND> cacheList;
+	// primitive copies of the values for statistics commands
+	private ListStatistics numberStatistics;
+	private ListStatistics pointStatistics;
 
 	private boolean isDefined = true;
 	private boolean isDrawable = true;
@@ -3344,6 +3348,45 @@ public class GeoList extends GeoElement
 		return wasDefinedWithCurlyBrackets;
 	}
 
+	/**
+	 * @return values and sums of this list of numbers, null if some element
+	 *         is not a number; shared until this list or one of its elements
+	 *         is updated
+	 */
+	public ListStatistics getNumberStatistics() {
+		ListStatistics stats = numberStatistics;
+		if (stats == null || !stats.isValidFor(this)) {
+			stats = ListStatistics.forNumbers(this);
+			numberStatistics = stats;
+		}
+		return stats.isDefined() ? stats : null;
+	}
+
+	/**
+	 * Shares values which are already known with the statistics of this list,
+	 * so that they are not read from the elements again.
+	 *
+	 * @param values
+	 *            values of the elements in list order, must not be modified
+	 */
+	public void setNumberValues(double[] values) {
+		numberStatistics = ListStatistics.forNumbers(this, values);
+	}
+
+	/**
+	 * @return coordinates and sums of this list of 2D points, null if some
+	 *         element is not a 2D point; shared until this list or one of its
+	 *         elements is updated
+	 */
+	public ListStatistics getPointStatistics() {
+		ListStatistics stats = pointStatistics;
+		if (stats == null || !stats.isValidFor(this)) {
+			stats = ListStatistics.forPoints(this);
+			pointStatistics = stats;
+		}
+		return stats.isDefined() ? stats : null;
+	}
+
 	/**
 	 * @return new array with elements
 	 */
@@ -10,9 +10,11 @@ import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.DecompositionSolver;
 import org.apache.commons.math3.linear.LUDecomposition;
 import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.util.Cloner;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.EuclidianViewCE;
 import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.PathMover;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.StringTemplate;
@@ -53,6 +55,7 @@ import org.geogebra.common.plugin.GeoClass;
 import org.geogebra.common.plugin.Operation;
 import org.geogebra.common.util.DoubleUtil;
 import org.geogebra.common.util.StringUtil;
+import org.geogebra.common.util.TaskExecutor;
 import org.geogebra.common.util.debug.Log;
 
 import com.himamis.retex.editor.share.util.Unicode;
@@ -1651,20 +1654,24 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 		return out;
 	}
 
-	private static class Timer {
+	/**
+	 * @return current time in milliseconds; the plot depth is reduced if
+	 *         plotting takes long
+	 */
+	protected long getMillisecondTime() {
+		return System.currentTimeMillis();
+	}
+
+	private class Timer {
 		public long now;
 		public long elapse;
 
-		public static Timer newTimer() {
-			return new Timer();
-		}
-
 		public void reset() {
-			this.now = System.currentTimeMillis();
+			this.now = getMillisecondTime();
 		}
 
 		public void record() {
-			this.elapse = System.currentTimeMillis() - now;
+			this.elapse = getMillisecondTime() - now;
 		}
 	}
 
@@ -1674,12 +1681,16 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 	private class WebExperimentalQuadTree extends QuadTree {
 		private static final int RES_COARSE = 8;
 		private static final int MAX_SPLIT = 40;
+		/** grid rows per task */
+		private static final int TILE_ROWS = 4;
 		private int plotDepth;
 		private int segmentCheckDepth;
 		private int sw;
 		private int sh;
 		private Rect[][] grid;
-		private Timer timer = Timer.newTimer();
+		private Timer timer = new Timer();
+		/** grid values of the last update for each factor */
+		private GridValues[] gridCache = new GridValues[0];
 
 		public WebExperimentalQuadTree() {
 			super(GeoImplicitCurve.this);
@@ -1687,74 +1698,59 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 
 		@Override
 		public void updatePath() {
+			// polynomial evaluation doesn't use shared variables
+			boolean threadSafe = coeffSquarefree != null && coeff != null;
+			TaskExecutor executor = threadSafe ? kernel.getTaskExecutor()
+					: null;
+			if (gridCache.length != factorLength()) {
+				gridCache = new GridValues[factorLength()];
+			}
 			for (int factor = 0; factor < factorLength(); ++factor) {
 				try {
 					evaluateImplicitCurve(0, 0, factor);
 				} catch (Throwable e) {
 					continue;
 				}
-				this.sw = Math.min(MAX_SPLIT, (int) (w * scaleX / RES_COARSE));
-				this.sh = Math.min(MAX_SPLIT, (int) (h * scaleY / RES_COARSE));
-				if (sw == 0 || sh == 0) {
+				int cols = Math.min(MAX_SPLIT, (int) (w * scaleX / RES_COARSE));
+				int rows = Math.min(MAX_SPLIT, (int) (h * scaleY / RES_COARSE));
+				if (cols == 0 || rows == 0) {
 					return;
 				}
 
-				this.grid = new Rect[sh][sw];
-
-				double frx = w / sw;
-				double fry = h / sh;
-
-				double[] vertices = new double[sw + 1];
-				double[] xcoords = new double[sw + 1];
-				double[] ycoords = new double[sh + 1];
-				double cur, prev;
-
-				for (int i = 0; i <= sw; i++) {
-					xcoords[i] = x + i * frx;
-				}
-
-				for (int i = 0; i <= sh; i++) {
-					ycoords[i] = y + i * fry;
-				}
-
-				for (int i = 0; i <= sw; i++) {
-					vertices[i] = evaluateImplicitCurve(xcoords[i], ycoords[0],
-							factor);
-				}
+				double frx = w / cols;
+				double fry = h / rows;
+				// align the grid to multiples of the cell size, so that after
+				// a pan most vertices are evaluated already
+				long ox = (long) Math.floor(x / frx);
+				long oy = (long) Math.floor(y / fry);
+				this.sw = cols + 1;
+				this.sh = rows + 1;
 
 				// initialize grid configuration at the search depth
-				int i, j;
-				double dx, dy, fx, fy;
 				// debug = true;
 				timer.reset();
-				for (i = 1; i <= sh; i++) {
-					prev = evaluateImplicitCurve(xcoords[0], ycoords[i],
-							factor);
-					fy = ycoords[i] - 0.5 * fry;
-					for (j = 1; j <= sw; j++) {
-						cur = evaluateImplicitCurve(xcoords[j], ycoords[i],
-								factor);
-						Rect rect = new Rect(j - 1, i - 1, frx, fry, false);
-						rect.coords.val[0] = xcoords[j - 1];
-						rect.coords.val[1] = ycoords[i - 1];
-						rect.evals[0] = vertices[j - 1];
-						rect.evals[1] = vertices[j];
-						rect.evals[2] = cur;
-						rect.evals[3] = prev;
+				GridValues values = new GridValues(ox, oy, frx, fry, factor,
+						threadSafe);
+				GridValues previous = gridCache[factor];
+				values.evaluate(previous != null && values.matches(previous)
+						? previous : null, executor);
+				gridCache[factor] = threadSafe ? values : null;
+
+				this.grid = new Rect[sh][sw];
+				for (int i = 0; i < sh; i++) {
+					for (int j = 0; j < sw; j++) {
+						Rect rect = new Rect(j, i, frx, fry,
+								values.singular[i][j]);
+						rect.coords.val[0] = (ox + j) * frx;
+						rect.coords.val[1] = (oy + i) * fry;
+						rect.evals[0] = values.values[i][j];
+						rect.evals[1] = values.values[i][j + 1];
+						rect.evals[2] = values.values[i + 1][j + 1];
+						rect.evals[3] = values.values[i + 1][j];
 						rect.status = edgeConfig(rect);
 						rect.shares = 0xff;
-						fx = xcoords[j] - 0.5 * frx;
-						dx = derivativeX(fx, fy);
-						dy = derivativeY(fx, fy);
-						dx = Math.abs(dx) + Math.abs(dy);
-						if (DoubleUtil.isZero(dx, 0.001)) {
-							rect.singular = true;
-						}
-						this.grid[i - 1][j - 1] = rect;
-						vertices[j - 1] = prev;
-						prev = cur;
+						this.grid[i][j] = rect;
 					}
-					vertices[sw] = prev;
 				}
 
 				timer.record();
@@ -1771,13 +1767,7 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 					LIST_THRESHOLD = 24;
 				}
 
-				for (i = 0; i < sh; i++) {
-					for (j = 0; j < sw; j++) {
-						if (grid[i][j].status != EMPTY) {
-							plot(grid[i][j], 0, factor);
-						}
-					}
-				}
+				plotTiles(factor, executor);
 
 				timer.record();
 
@@ -1793,48 +1783,218 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 			}
 		}
 
-		public void createTree(Rect r, int depth, int factor) {
-			Rect[] n = r.split(GeoImplicitCurve.this, factor);
-			plot(n[0], depth, factor);
-			plot(n[1], depth, factor);
-			plot(n[2], depth, factor);
-			plot(n[3], depth, factor);
+		/**
+		 * Plots bands of grid rows in parallel, then the cells that were
+		 * marked by the band above, and merges the segments in the order of
+		 * the cells. This gives the same paths as plotting all cells row by
+		 * row.
+		 */
+		private void plotTiles(int factor, TaskExecutor executor) {
+			if (executor != null && sh > TILE_ROWS) {
+				ArrayList<Tile> tiles = new ArrayList<>();
+				for (int i = 0; i < sh; i += TILE_ROWS) {
+					tiles.add(new Tile(i, Math.min(sh, i + TILE_ROWS), factor));
+				}
+				executor.invokeAll(tiles);
+				for (Tile tile : tiles) {
+					for (Rect cell : tile.marked) {
+						if (cell.status == EMPTY) {
+							cell.status = 1;
+						}
+					}
+				}
+			}
+			new Tile(0, sh, factor).run();
+
+			for (int i = 0; i < sh; i++) {
+				for (int j = 0; j < sw; j++) {
+					ArrayList<MyPoint> segments = grid[i][j].segments;
+					for (int k = 0; segments != null
+							&& k < segments.size(); k += 2) {
+						mergeSegment(segments.get(k), segments.get(k + 1));
+					}
+					grid[i][j].segments = null;
+				}
+			}
 		}
 
-		public void plot(Rect r, int depth, int factor) {
-			if (depth < segmentCheckDepth) {
-				createTree(r, depth + 1, factor);
-				return;
+		/**
+		 * Values of a factor at the vertices of the grid and singular flags
+		 * of its cells.
+		 */
+		private class GridValues {
+			protected final long ox;
+			protected final long oy;
+			protected final double frx;
+			protected final double fry;
+			protected final double[][] values = new double[sh + 1][sw + 1];
+			protected final boolean[][] singular = new boolean[sh][sw];
+			private final int factor;
+			/** copies of the coefficients, null if not polynomial */
+			private final double[][] factorCoeff;
+			private final double[][] curveCoeff;
+
+			protected GridValues(long ox, long oy, double frx, double fry,
+					int factor, boolean polynomial) {
+				this.ox = ox;
+				this.oy = oy;
+				this.frx = frx;
+				this.fry = fry;
+				this.factor = factor;
+				this.factorCoeff = polynomial
+						? Cloner.clone2(coeffSquarefree[factor]) : null;
+				this.curveCoeff = polynomial ? Cloner.clone2(coeff) : null;
+			}
+
+			/**
+			 * @return whether the other values are for the same curve and
+			 *         cell size
+			 */
+			protected boolean matches(GridValues other) {
+				return factorCoeff != null && frx == other.frx
+						&& fry == other.fry && factor == other.factor
+						&& Arrays.deepEquals(factorCoeff, other.factorCoeff)
+						&& Arrays.deepEquals(curveCoeff, other.curveCoeff);
+			}
+
+			protected void evaluate(final GridValues previous,
+					TaskExecutor executor) {
+				if (executor == null || sh <= TILE_ROWS) {
+					evaluateRows(0, sh + 1, previous);
+					return;
+				}
+				ArrayList<Runnable> tasks = new ArrayList<>();
+				for (int i = 0; i <= sh; i += TILE_ROWS) {
+					final int first = i;
+					final int last = Math.min(sh + 1, i + TILE_ROWS);
+					tasks.add(new Runnable() {
+						@Override
+						public void run() {
+							evaluateRows(first, last, previous);
+						}
+					});
+				}
+				executor.invokeAll(tasks);
 			}
-			int e = edgeConfig(r);
-			if (grid[r.y][r.x].singular || e != EMPTY) {
-				if (depth >= plotDepth) {
-					if (addSegment(r, factor) == T0101) {
-						createTree(r, depth + 1, factor);
-						return;
-					}
-					if (r.x != 0 && (e & r.shares & 0x1) != 0) {
-						nonempty(r.y, r.x - 1);
 
+			protected void evaluateRows(int first, int last,
+					GridValues previous) {
+				for (int i = first; i < last; i++) {
+					long wy = oy + i;
+					for (int j = 0; j <= sw; j++) {
+						long wx = ox + j;
+						if (previous != null && previous.hasVertex(wx, wy)) {
+							values[i][j] = previous.values[(int) (wy
+									- previous.oy)][(int) (wx - previous.ox)];
+						} else {
+							values[i][j] = evaluateImplicitCurve(wx * frx,
+									wy * fry, factor);
+						}
 					}
-					if (r.x + 1 != sw && (e & r.shares & 0x4) != 0) {
-						nonempty(r.y, r.x + 1);
+					for (int j = 0; i < sh && j < sw; j++) {
+						long wx = ox + j;
+						if (previous != null && previous.hasCell(wx, wy)) {
+							singular[i][j] = previous.singular[(int) (wy
+									- previous.oy)][(int) (wx - previous.ox)];
+						} else {
+							double fx = (wx + 0.5) * frx;
+							double fy = (wy + 0.5) * fry;
+							double d = Math.abs(derivativeX(fx, fy))
+									+ Math.abs(derivativeY(fx, fy));
+							singular[i][j] = DoubleUtil.isZero(d, 0.001);
+						}
 					}
-					if (r.y != 0 && (e & r.shares & 0x8) != 0) {
-						nonempty(r.y - 1, r.x);
+				}
+			}
+
+			private boolean hasVertex(long wx, long wy) {
+				return wx >= ox && wy >= oy && wx - ox < values[0].length
+						&& wy - oy < values.length;
+			}
+
+			private boolean hasCell(long wx, long wy) {
+				return wx >= ox && wy >= oy && wx - ox < singular[0].length
+						&& wy - oy < singular.length;
+			}
+		}
+
+		/**
+		 * Plots a band of grid rows; marks for cells below the band are
+		 * collected and applied after all bands are finished.
+		 */
+		private class Tile implements Runnable {
+			protected final ArrayList<Rect> marked = new ArrayList<>();
+			private final int firstRow;
+			private final int lastRow;
+			private final int factor;
+			private final MyPoint[] pts = new MyPoint[2];
+
+			protected Tile(int firstRow, int lastRow, int factor) {
+				this.firstRow = firstRow;
+				this.lastRow = lastRow;
+				this.factor = factor;
+			}
+
+			@Override
+			public void run() {
+				for (int i = firstRow; i < lastRow; i++) {
+					for (int j = 0; j < sw; j++) {
+						if (grid[i][j].status != EMPTY && !grid[i][j].plotted) {
+							grid[i][j].plotted = true;
+							plot(grid[i][j], 0);
+						}
 					}
-					if (r.y + 1 != sh && (e & r.shares & 0x2) != 0) {
-						nonempty(r.y + 1, r.x);
+				}
+			}
+
+			public void createTree(Rect r, int depth) {
+				Rect[] n = r.split(GeoImplicitCurve.this, factor);
+				plot(n[0], depth);
+				plot(n[1], depth);
+				plot(n[2], depth);
+				plot(n[3], depth);
+			}
+
+			public void plot(Rect r, int depth) {
+				if (depth < segmentCheckDepth) {
+					createTree(r, depth + 1);
+					return;
+				}
+				int e = edgeConfig(r);
+				Rect cell = grid[r.y][r.x];
+				if (cell.singular || e != EMPTY) {
+					if (depth >= plotDepth) {
+						int status = createSegment(r, factor, pts);
+						if (status == T0101) {
+							createTree(r, depth + 1);
+							return;
+						}
+						if (status == VALID) {
+							if (cell.segments == null) {
+								cell.segments = new ArrayList<>();
+							}
+							cell.segments.add(pts[0]);
+							cell.segments.add(pts[1]);
+						}
+						// cells on the left and above were visited already
+						if (r.x + 1 != sw && (e & r.shares & 0x4) != 0) {
+							nonempty(r.y, r.x + 1);
+						}
+						if (r.y + 1 != sh && (e & r.shares & 0x2) != 0) {
+							nonempty(r.y + 1, r.x);
+						}
+					} else {
+						createTree(r, depth + 1);
 					}
-				} else {
-					createTree(r, depth + 1, factor);
 				}
 			}
-		}
 
-		private void nonempty(int ry, int rx) {
-			if (grid[ry][rx].status == EMPTY) {
-				grid[ry][rx].status = 1;
+			private void nonempty(int ry, int rx) {
+				if (ry >= lastRow) {
+					marked.add(grid[ry][rx]);
+				} else if (grid[ry][rx].status == EMPTY) {
+					grid[ry][rx].status = 1;
+				}
 			}
 		}
 
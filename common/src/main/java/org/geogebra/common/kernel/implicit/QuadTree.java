@@ -83,7 +83,6 @@ abstract class QuadTree {
 	private MyPoint[] pts = new MyPoint[2];
 	private PointList p1;
 	private PointList p2;
-	private MyPoint temp;
 	private ListIterator<PointList> itr1;
 	private ListIterator<PointList> itr2;
 
@@ -134,50 +133,75 @@ abstract class QuadTree {
 	}
 
 	public int addSegment(Rect r, int factor) {
-		int status = createSegment(r, factor);
+		int status = createSegment(r, factor, pts);
 		if (status == VALID) {
-			if (pts[0].x > pts[1].x) {
-				temp = pts[0];
-				pts[0] = pts[1];
-				pts[1] = temp;
-			}
-			itr1 = openList.listIterator();
-			itr2 = openList.listIterator();
-			boolean flag1 = false, flag2 = false;
-			while (itr1.hasNext()) {
-				p1 = itr1.next();
-				if (equal(pts[1], p1.start)) {
-					flag1 = true;
-					break;
-				}
-			}
+			mergeSegment(pts[0], pts[1]);
+		}
+		return status;
+	}
 
-			while (itr2.hasNext()) {
-				p2 = itr2.next();
-				if (equal(pts[0], p2.end)) {
-					flag2 = true;
-					break;
-				}
+	/**
+	 * Adds a segment to the open list, joining it with the open paths
+	 * 
+	 * @param start
+	 *            segment start
+	 * @param end
+	 *            segment end
+	 */
+	public void mergeSegment(MyPoint start, MyPoint end) {
+		MyPoint left = start;
+		MyPoint right = end;
+		if (left.x > right.x) {
+			left = end;
+			right = start;
+		}
+		itr1 = openList.listIterator();
+		itr2 = openList.listIterator();
+		boolean flag1 = false, flag2 = false;
+		while (itr1.hasNext()) {
+			p1 = itr1.next();
+			if (equal(right, p1.start)) {
+				flag1 = true;
+				break;
 			}
+		}
 
-			if (flag1 && flag2) {
-				itr1.remove();
-				p2.mergeTo(p1);
-			} else if (flag1) {
-				p1.extendBack(pts[0]);
-			} else if (flag2) {
-				p2.extendFront(pts[1]);
-			} else {
-				openList.addFirst(new PointList(pts[0], pts[1]));
-			}
-			if (openList.size() > LIST_THRESHOLD) {
-				abortList();
+		while (itr2.hasNext()) {
+			p2 = itr2.next();
+			if (equal(left, p2.end)) {
+				flag2 = true;
+				break;
 			}
 		}
-		return status;
+
+		if (flag1 && flag2) {
+			itr1.remove();
+			p2.mergeTo(p1);
+		} else if (flag1) {
+			p1.extendBack(left);
+		} else if (flag2) {
+			p2.extendFront(right);
+		} else {
+			openList.addFirst(new PointList(left, right));
+		}
+		if (openList.size() > LIST_THRESHOLD) {
+			abortList();
+		}
 	}
 
-	public int createSegment(Rect r, int factor) {
+	/**
+	 * Only evaluates the curve, so it may run on several threads if the
+	 * evaluation is thread safe.
+	 * 
+	 * @param r
+	 *            cell
+	 * @param factor
+	 *            squarefree factor
+	 * @param pts
+	 *            array for start and end of the segment
+	 * @return VALID if a segment was found, EMPTY, T0101 or T_INV otherwise
+	 */
+	public int createSegment(Rect r, int factor, MyPoint[] pts) {
 		int gridType = config(r);
 		if (gridType == T0101 || gridType == T_INV) {
 			return gridType;
@@ -252,9 +276,9 @@ abstract class QuadTree {
 			return EMPTY;
 		}
 		// check continuity of the function between P1 and P2
-		double p = Math.abs(this.geoImplicitCurve
+		double p = Math.abs(geoImplicitCurve
 				.evaluateImplicitCurve(pts[0].x, pts[0].y, factor));
-		double q = Math.abs(this.geoImplicitCurve
+		double q = Math.abs(geoImplicitCurve
 				.evaluateImplicitCurve(pts[1].x, pts[1].y, factor));
 		if ((p <= q1 && q <= q2)) {
 			return VALID;
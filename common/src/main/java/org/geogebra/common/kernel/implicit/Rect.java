@@ -1,5 +1,8 @@
 package org.geogebra.common.kernel.implicit;
 
+import java.util.ArrayList;
+
+import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.matrix.Coords;
 
 class Rect {
@@ -19,6 +22,10 @@ class Rect {
 	double fy;
 	boolean singular;
 	Coords coords = new Coords(3);
+	/** start and end points of the segments in this grid cell */
+	ArrayList<MyPoint> segments;
+	/** whether this grid cell was plotted */
+	boolean plotted;
 
 	public Rect(int x, int y, double fx, double fy, boolean singular) {
 		this.x = x;
@@ -119,6 +119,7 @@ public abstract class GeoCurveCartesianND extends GeoElement
 	 *            functions
 	 */
 	public void setFun(Function[] fun) {
+		valueChanged();
 		for (int i = 0; i < fun.length; i++) {
 			if (this.fun[i] == null) {
 				this.fun[i] = fun[i];
@@ -391,6 +392,7 @@ public abstract class GeoCurveCartesianND extends GeoElement
 	 *            new function
 	 */
 	protected void setFun(int i, Function f) {
+		valueChanged();
 		this.fun[i] = f;
 		this.funExpanded[i] = null;
 		this.containsFunctions[i] = AlgoDependentFunction
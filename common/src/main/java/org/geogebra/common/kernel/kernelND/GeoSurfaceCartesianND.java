@@ -177,6 +177,14 @@ public abstract class GeoSurfaceCartesianND extends GeoElement
 		fun2 = null;
 	}
 
+	@Override
+	public SurfaceEvaluable copyForEvaluation() {
+		GeoSurfaceCartesianND copy = (GeoSurfaceCartesianND) copy();
+		copy.setLevelOfDetail(levelOfDetail);
+		copy.setDerivatives();
+		return copy;
+	}
+
 	/**
 	 * Replaces geo and all its dependent geos in this function's expression by
 	 * copies of their values.
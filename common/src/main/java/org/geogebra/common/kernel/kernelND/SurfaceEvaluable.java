@@ -92,4 +92,13 @@ public interface SurfaceEvaluable {
 	 * @return whether this is defined
 	 */
 	public boolean isDefined();
+
+	/**
+	 * Creates a copy with its own evaluation state (function variables,
+	 * derivatives, helper coordinates), so that it can be evaluated on
+	 * another thread while this surface is used.
+	 * 
+	 * @return copy for evaluation
+	 */
+	public SurfaceEvaluable copyForEvaluation();
 }
@@ -34,6 +34,7 @@ import org.geogebra.common.util.debug.Log;
 public abstract class AbstractProverReciosMethod {
 
 	private GeoElement[] fixedPoints;
+	private Prover prover;
 
 	/**
 	 * The prover which tries to prove the statement with the help of Tomas
@@ -45,6 +46,7 @@ public abstract class AbstractProverReciosMethod {
 	 */
 	public ProofResult prove(Prover prover) {
 
+		this.prover = prover;
 		SymbolicParameters s = null;
 		boolean B = false; // use Botana's method or not
 		if ("groebner".equals(ProverSettings.get().proverMethod)) {
@@ -256,11 +258,14 @@ public abstract class AbstractProverReciosMethod {
 		return ProofResult.TRUE;
 	}
 
-	private static ProofResult compute1d(final HashSet<PVariable> freeVariables,
+	private ProofResult compute1d(final HashSet<PVariable> freeVariables,
 			final HashMap<PVariable, BigInteger> values, final int deg,
 			final SymbolicParameters s, AlgebraicStatement as) {
 		PVariable variable = freeVariables.iterator().next();
 		for (int i = 1; i <= deg + 2; i++) {
+			if (isCancelled()) {
+				return ProofResult.UNKNOWN;
+			}
 			values.put(variable, BigInteger.valueOf(i));
 			if (as != null) {
 				// use Botana's method
@@ -297,7 +302,7 @@ public abstract class AbstractProverReciosMethod {
 		return ProofResult.TRUE;
 	}
 
-	private static ProofResult compute2d(final HashSet<PVariable> freeVariables,
+	private ProofResult compute2d(final HashSet<PVariable> freeVariables,
 			final HashMap<PVariable, BigInteger> values, final int deg,
 			final SymbolicParameters s, AlgebraicStatement as) {
 		PVariable[] variables = new PVariable[freeVariables.size()];
@@ -311,6 +316,9 @@ public abstract class AbstractProverReciosMethod {
 		int caseno = 0;
 		for (int i = 1; i < /* = */deg + 2; i++) {
 			for (int j = 1; j <= i; j++) {
+				if (isCancelled()) {
+					return ProofResult.UNKNOWN;
+				}
 				caseno++;
 				values.put(variables[0],
 						BigInteger.valueOf((deg + 2 - i) * (deg + 2 - j)));
@@ -379,6 +387,14 @@ public abstract class AbstractProverReciosMethod {
 			final HashMap<PVariable, BigInteger> values, final int deg,
 			final SymbolicParameters s, AlgebraicStatement as);
 
+	/**
+	 * @return whether the prover was cancelled, then the test points should
+	 *         not be checked any more
+	 */
+	protected boolean isCancelled() {
+		return prover != null && prover.isCancelled();
+	}
+
 	/**
 	 * Returns the elements which are fixed by Recio's method prover
 	 * 
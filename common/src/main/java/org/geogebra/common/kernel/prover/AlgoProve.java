@@ -109,6 +109,7 @@ public class AlgoProve extends AlgoElement implements UsesCAS {
 			p.setProverEngine(ProverEngine.AUTO);
 		}
 		p.setTimeout(proverSettings.proverTimeout);
+		p.setPortfolio(proverSettings.portfolio);
 		p.setConstruction(cons);
 		p.setStatement(root);
 		// Don't compute extra NDG's:
@@ -137,6 +137,7 @@ public class AlgoProveDetails extends AlgoElement implements UsesCAS {
 			p.setProverEngine(ProverEngine.AUTO);
 		}
 		p.setTimeout(proverSettings.proverTimeout);
+		p.setPortfolio(proverSettings.portfolio);
 		p.setConstruction(cons);
 		p.setStatement(root);
 		// Compute extra NDG's:
@@ -1387,6 +1387,11 @@ public class ProverBotanasMethod {
 			return as.result;
 		}
 
+		/* Another engine may have been faster. */
+		if (prover.isCancelled()) {
+			return ProofResult.UNKNOWN;
+		}
+
 		/* Set substitutions. */
 		HashMap<PVariable, BigInteger> substitutions = null;
 		int fixcoords;
@@ -1444,7 +1449,7 @@ public class ProverBotanasMethod {
 										.size()]),
 						substitutions, k, permutation++, true, false,
 						as.freeVariables);
-				if (eliminationIdeal == null) {
+				if (eliminationIdeal == null || prover.isCancelled()) {
 					return ProofResult.UNKNOWN;
 				}
 
@@ -1479,6 +1484,9 @@ public class ProverBotanasMethod {
 							 * not generally true.
 							 */
 							Log.debug("Statement is NOT GENERALLY TRUE");
+							if (prover.isCancelled()) {
+								return ProofResult.UNKNOWN;
+							}
 
 							/*
 							 * It is possible that the statement is not
@@ -1687,6 +1695,9 @@ public class ProverBotanasMethod {
 				}
 				/* Here we know that the statement is not generally true. */
 				Log.debug("Statement is NOT GENERALLY TRUE");
+				if (prover.isCancelled()) {
+					return ProofResult.UNKNOWN;
+				}
 
 				/*
 				 * It is possible that the statement is not generally false,
@@ -7,7 +7,6 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
@@ -26,13 +25,13 @@ import org.geogebra.common.util.debug.Log;
  * 
  */
 public class PPolynomial implements Comparable<PPolynomial> {
-	private TreeMap<PTerm, BigInteger> terms;
+	private final PackedTerms terms;
 
 	/**
 	 * Creates the 0 polynomial
 	 */
 	public PPolynomial() {
-		terms = new TreeMap<>();
+		terms = PackedTerms.ZERO;
 	}
 
 	/**
@@ -42,21 +41,25 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 *            the polynomial to copy
 	 */
 	public PPolynomial(final PPolynomial poly) {
-		terms = new TreeMap<>(poly.getTerms());
+		terms = poly.terms;
 	}
 
-	private PPolynomial(final TreeMap<PTerm, BigInteger> terms) {
+	private PPolynomial(final PackedTerms terms) {
 		this.terms = terms;
 	}
 
 	/**
-	 * Getter for the map which contains the terms and the according
-	 * coefficients.
+	 * Creates a map which contains the terms and the according coefficients.
+	 * Changes of the map don't affect the polynomial.
 	 * 
 	 * @return the map
 	 */
 	public TreeMap<PTerm, BigInteger> getTerms() {
-		return terms;
+		TreeMap<PTerm, BigInteger> map = new TreeMap<>();
+		for (int i = 0; i < terms.size; i++) {
+			map.put(terms.getTerm(i), terms.coefficient(i));
+		}
+		return map;
 	}
 
 	/**
@@ -76,7 +79,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 *            the constant
 	 */
 	public PPolynomial(final long coeff) {
-		this(new BigInteger(Long.toString(coeff)), new PTerm());
+		this(BigInteger.valueOf(coeff), new PTerm());
 	}
 	
 	/**
@@ -86,8 +89,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 *            the variable
 	 */
 	public PPolynomial(final PVariable fv) {
-		this();
-		terms.put(new PTerm(fv), BigInteger.ONE);
+		this(new PTerm(fv));
 	}
 
 	/**
@@ -99,9 +101,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 *            the variable
 	 */
 	public PPolynomial(final BigInteger coeff, final PVariable variable) {
-		this();
-		if (coeff != BigInteger.ZERO)
-			terms.put(new PTerm(variable), coeff);
+		this(coeff, new PTerm(variable));
 	}
 
 	/**
@@ -116,9 +116,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 */
 	public PPolynomial(final BigInteger coeff, final PVariable variable,
 			final int power) {
-		this();
-		if (coeff != BigInteger.ZERO)
-			terms.put(new PTerm(variable, power), coeff);
+		this(coeff, new PTerm(variable, power));
 	}
 
 	/**
@@ -128,8 +126,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 *            the term
 	 */
 	public PPolynomial(final PTerm t) {
-		this();
-		terms.put(t, BigInteger.ONE);
+		this(BigInteger.ONE, t);
 	}
 
 	/**
@@ -141,9 +138,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 *            the term
 	 */
 	public PPolynomial(final BigInteger coeff, final PTerm t) {
-		this();
-		if (coeff != BigInteger.ZERO)
-			terms.put(t, coeff);
+		terms = PackedTerms.of(coeff, t);
 	}
 
 	/**
@@ -154,24 +149,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 * @return the sum
 	 */
 	public PPolynomial add(final PPolynomial poly) {
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>(terms);
-		TreeMap<PTerm, BigInteger> terms2 = poly.getTerms();
-		Iterator<Entry<PTerm, BigInteger>> it = terms2.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			if (terms.containsKey(t)) {
-				BigInteger coefficient = terms.get(t).add(terms2.get(t));
-				if (coefficient == BigInteger.ZERO) {
-					result.remove(t);
-				} else {
-					result.put(t, terms.get(t).add(entry.getValue()));
-				}
-			} else {
-				result.put(t, entry.getValue());
-			}
-		}
-		return new PPolynomial(result);
+		return new PPolynomial(PackedTerms.add(terms, poly.terms));
 	}
 
 	/**
@@ -180,14 +158,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 * @return the negation of the polynomial
 	 */
 	public PPolynomial negate() {
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			result.put(t, BigInteger.ZERO.subtract(entry.getValue()));
-		}
-		return new PPolynomial(result);
+		return new PPolynomial(terms.negate());
 	}
 
 	/**
@@ -209,120 +180,49 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 * @return the product
 	 */
 	public PPolynomial multiply(final PPolynomial poly) {
-
-		/*
-		if (AbstractApplication.singularWS != null && AbstractApplication.singularWS.isAvailable()) {
-			if (poly.toString().length()>100 && this.toString().length()>100) {
-				String singularMultiplicationProgram = getSingularMultiplication("rr", poly, this);
-				AbstractApplication.trace(singularMultiplicationProgram.length() + " bytes -> singular");
-				String singularMultiplication = AbstractApplication.singularWS.directCommand(singularMultiplicationProgram);
-				return new Polynomial(singularMultiplication);
-			}
-		}
-		*/
-		
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
-		TreeMap<PTerm, BigInteger> terms2 = poly.getTerms();
-		Iterator<Entry<PTerm, BigInteger>> it1 = terms.entrySet().iterator();
-		while (it1.hasNext()) {
-			Entry<PTerm, BigInteger> entry1 = it1.next();
-			PTerm t1 = entry1.getKey();
-			Iterator<Entry<PTerm, BigInteger>> it2 = terms2.entrySet()
-					.iterator();
-			while (it2.hasNext()) {
-				Entry<PTerm, BigInteger> entry2 = it2.next();
-				PTerm t2 = entry2.getKey();
-				PTerm product = t1.times(t2);
-				BigInteger productCoefficient = entry1.getValue()
-						.multiply(entry2.getValue());
-				if (result.containsKey(product)) {
-					BigInteger sum = result.get(product).add(productCoefficient);
-					if (sum == BigInteger.ZERO) {
-						result.remove(product);
-					} else {
-						result.put(product, result.get(product).add(productCoefficient));
-					}
-				} else {
-					result.put(product, productCoefficient);
-				}
-			}
-
-		}
-		return new PPolynomial(result);
+		return new PPolynomial(PackedTerms.multiply(terms, poly.terms));
 	}
 
 	@Override
 	public int compareTo(PPolynomial poly) {
-		if (this==poly){
+		if (this == poly) {
 			return 0;
 		}
-
-		TreeMap<PTerm, BigInteger> polyVars = poly.getTerms();
-		if (polyVars.isEmpty()) {
-			if (terms.isEmpty()) {
-				return 0;
+		PackedTerms other = poly.terms;
+		int i = terms.size - 1;
+		int j = other.size - 1;
+		// compare from the highest term
+		for (; i >= 0 && j >= 0; i--, j--) {
+			int compare = PackedTerms.compareTerms(terms, i, other, j);
+			if (compare == 0) {
+				compare = PackedTerms.compareCoefficients(terms, i, other, j);
+			}
+			if (compare != 0) {
+				return compare;
 			}
-			return 1;
-		}
-		if (terms.isEmpty()) {
-			return -1;
-		}
-		
-		PTerm termsLastKey=terms.lastKey(),
-				polyVarsLastKey=polyVars.lastKey();
-
-		int compare = termsLastKey.compareTo(polyVarsLastKey);
-
-		if (compare == 0) {
-			compare = terms.get(termsLastKey).compareTo(polyVars.get(polyVarsLastKey));
 		}
-
-		if (compare != 0) {
-			return compare;
+		if (i < 0) {
+			return j < 0 ? 0 : -1;
 		}
-		
-		do {
-			SortedMap<PTerm, BigInteger> termsSub = terms.headMap(termsLastKey);
-			SortedMap<PTerm, BigInteger> oSub = polyVars.headMap(polyVarsLastKey);
-			if (termsSub.isEmpty()) {
-				if (oSub.isEmpty()) {
-					return 0;
-				}
-				return -1;
-			}
-			if (oSub.isEmpty()) {
-				return 1;
-			}
-			termsLastKey=termsSub.lastKey();
-			polyVarsLastKey=oSub.lastKey();
-			compare = termsLastKey.compareTo(polyVarsLastKey);
-			if (compare == 0) {
-				compare = termsSub.get(termsLastKey).compareTo(
-						oSub.get(polyVarsLastKey));
-			}
-		} while (compare == 0);
-
-		return compare;
+		return 1;
 	}
 
 	@Override
 	public String toString() {
-		StringBuilder sb = new StringBuilder();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		if (!it.hasNext()) {
+		if (terms.size == 0) {
 			return "0";
 		}
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			BigInteger c = entry.getValue();
-			if (!t.getTerm().isEmpty()) {
-				if (c != BigInteger.ONE)
-					sb.append(c + "*");
-				sb.append(t);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < terms.size; i++) {
+			if (!terms.isConstantTerm(i)) {
+				if (!terms.coefficientEquals(i, 1)) {
+					sb.append(terms.coefficient(i));
+					sb.append('*');
+				}
+				terms.appendTerm(sb, i, false);
+			} else {
+				sb.append(terms.coefficient(i));
 			}
-			else
-				sb.append(c);
 			sb.append('+');
 		}
 		String ret = sb.substring(0, sb.length() - 1); // removing closing "+"
@@ -336,16 +236,13 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 * @return the LaTeX formatted polynomial
 	 */
 	public String toTeX() {
-		StringBuilder sb = new StringBuilder();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		if (!it.hasNext()) {
+		if (terms.size == 0) {
 			return "0";
 		}
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			BigInteger c = entry.getValue();
-			if (!t.getTerm().isEmpty()) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < terms.size; i++) {
+			BigInteger c = terms.coefficient(i);
+			if (!terms.isConstantTerm(i)) {
 				if (!c.equals(BigInteger.ONE)) {
 					// c != -1
 					if (!(c.add(BigInteger.ONE)).equals(BigInteger.ZERO)) {
@@ -364,7 +261,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 						sb.append('-');
 					}
 				}
-				sb.append(t.toTeX());
+				terms.appendTerm(sb, i, true);
 			}
 			else
 				sb.append(c);
@@ -380,10 +277,9 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 */
 	public HashSet<PVariable> getVars() {
 		HashSet<PVariable> v = new HashSet<>();
-		Iterator<PTerm> it = terms.keySet().iterator();
-		while (it.hasNext()) {
-			PTerm t = it.next();
-			v.addAll(t.getVars());
+		// the packed terms contain only variables that occur
+		for (PVariable fv : terms.vars) {
+			v.add(fv);
 		}
 		return v;
 	}
@@ -697,49 +593,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 		if (substitutions == null)
 			return this;
 			
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
-
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t1 = entry.getKey();
-			TreeMap<PVariable, Integer> term = new TreeMap<>(t1.getTerm());
-			BigInteger product = BigInteger.ONE;
-			Iterator<Entry<PVariable, BigInteger>> itSubst = substitutions
-					.entrySet()
-					.iterator();
-			while (itSubst.hasNext()) {
-				Entry<PVariable, BigInteger> entrySubst = itSubst.next();
-				PVariable variable = entrySubst.getKey();
-				Integer exponent = term.get(variable);
-				if (exponent != null) {
-					product = product
-							.multiply(entrySubst.getValue().pow(exponent));
-					term.remove(variable);
-				}
-			}
-			product = product.multiply(entry.getValue());
-			PTerm t = new PTerm(term);
-			if (result.containsKey(t)) {
-				BigInteger sum = result.get(t).add(product);
-//				if (sum.compareTo(BigInteger.valueOf(Integer.MAX_VALUE)) > -1) {
-//					throw new ArithmeticException(
-//							"Integer Overflow in polynomial class");
-//				}
-				if (sum.longValue() == 0) {
-					result.remove(t);
-				} else {
-					result.put(t, sum);
-				}
-			} else if (product.intValue() != 0){
-//				if (product.compareTo(BigInteger.valueOf(Integer.MAX_VALUE)) > -1) {
-//					throw new ArithmeticException(
-//							"Integer Overflow in polynomial class");
-//				}
-				result.put(t, product);
-			}
-		}
-		return new PPolynomial(result);
+		return new PPolynomial(terms.substitute(substitutions));
 	}
 	/**
 	 * Substitutes a variable in the polynomial by another variable.
@@ -752,30 +606,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 * @return a new polynomial with the variable substituted.
 	 */
 	public PPolynomial substitute(PVariable oldVar, PVariable newVar) {
-
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t1 = entry.getKey();
-			TreeMap<PVariable, Integer> term = new TreeMap<>(
-					t1.getTerm());
-			Integer oldExponent = term.get(oldVar);
-			if (oldExponent != null) {
-				Integer newExponent = term.get(newVar);
-				if (newExponent == null) {
-					newExponent = 0;
-				} else {
-					term.remove(newVar);
-				}
-				term.remove(oldVar);
-				term.put(newVar, oldExponent + newExponent);
-			}
-			BigInteger coeff = entry.getValue();
-			PTerm t = new PTerm(term);
-			result.put(t, coeff);
-		}
-		return new PPolynomial(result);
+		return new PPolynomial(terms.substitute(oldVar, newVar));
 	}
 	
 	
@@ -797,7 +628,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 * @return true if the polynomial is zero false otherwise
 	 */
 	public boolean isZero() {
-		return terms.isEmpty();
+		return terms.size == 0;
 	}
 	
 	/**
@@ -805,23 +636,18 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 * @return if input is a constant
 	 */
 	public boolean isConstant() {
-		if (terms.size() > 1) {
-			return false;
-		}
-		if (terms.firstKey().equals(new PTerm())) {
-			return true;
-		}
-		return false;
-		}
+		return terms.size == 0
+				|| (terms.size == 1 && terms.isConstantTerm(0));
+	}
 	
 	/**
 	 * @return Integer value of Polynomial if it is constant
 	 */
 	public BigInteger getConstant() {
-		if (terms.size() > 1) {
+		if (terms.size > 1) {
 			return null;
 		}
-		return terms.firstEntry().getValue();
+		return terms.size == 0 ? BigInteger.ZERO : terms.coefficient(0);
 	}
 
 	/**
@@ -0,0 +1,863 @@
+package org.geogebra.common.kernel.prover.polynomial;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable sorted terms of a polynomial in packed form: the exponent vectors
+ * over the variables of the polynomial are stored in longs (four 16 bit
+ * exponents per long), the coefficients as longs which are promoted to
+ * BigInteger on overflow. Terms and coefficients are kept in parallel arrays,
+ * in ascending {@link PTerm} order.
+ *
+ * The variable with the highest order is stored in the highest bits of the
+ * first long, so comparing the longs of two exponent vectors over the same
+ * variables gives the same order as comparing the terms. Variables that do not
+ * occur in any term are removed, so equal polynomials have equal arrays.
+ */
+final class PackedTerms {
+
+	private static final int BITS = 16;
+	private static final int FIELDS = 4;
+	private static final long FIELD_MASK = 0xFFFFL;
+	/** highest bit of each exponent, set only after an overflow */
+	private static final long OVERFLOW_MASK = 0x8000800080008000L;
+	/** maximal exponent of a variable */
+	static final int MAX_EXPONENT = 0x7FFF;
+
+	private static final PVariable[] NO_VARS = new PVariable[0];
+	/** the zero polynomial */
+	static final PackedTerms ZERO = new PackedTerms(NO_VARS, 0, new long[0],
+			new long[0], null);
+
+	/** variables in ascending order */
+	final PVariable[] vars;
+	/** number of longs per exponent vector */
+	final int words;
+	/** number of terms */
+	final int size;
+	private final long[] exps;
+	private final long[] coeffs;
+	/** coefficients which don't fit in a long, null if there are none */
+	private final BigInteger[] bigCoeffs;
+
+	private PackedTerms(PVariable[] vars, int size, long[] exps,
+			long[] coeffs, BigInteger[] bigCoeffs) {
+		this.vars = vars;
+		this.words = wordCount(vars.length);
+		this.size = size;
+		this.exps = exps;
+		this.coeffs = coeffs;
+		this.bigCoeffs = bigCoeffs;
+	}
+
+	private static int wordCount(int varCount) {
+		return (varCount + FIELDS - 1) / FIELDS;
+	}
+
+	private static int wordIndex(int varCount, int k) {
+		return (varCount - 1 - k) / FIELDS;
+	}
+
+	private static int shift(int varCount, int k) {
+		return (FIELDS - 1 - (varCount - 1 - k) % FIELDS) * BITS;
+	}
+
+	/**
+	 * @param coeff
+	 *            coefficient
+	 * @param term
+	 *            term
+	 * @return coeff*term
+	 */
+	static PackedTerms of(BigInteger coeff, PTerm term) {
+		if (coeff.signum() == 0) {
+			return ZERO;
+		}
+		TreeMap<PVariable, Integer> powers = term.getTerm();
+		int n = 0;
+		for (Integer exponent : powers.values()) {
+			if (checkExponent(exponent) > 0) {
+				n++;
+			}
+		}
+		PVariable[] vars = new PVariable[n];
+		int[] exponents = new int[n];
+		int k = 0;
+		for (Map.Entry<PVariable, Integer> entry : powers.entrySet()) {
+			if (entry.getValue() > 0) {
+				vars[k] = entry.getKey();
+				exponents[k] = entry.getValue();
+				k++;
+			}
+		}
+		long[] exps = new long[wordCount(n)];
+		for (k = 0; k < n; k++) {
+			exps[wordIndex(n, k)] |= ((long) exponents[k]) << shift(n, k);
+		}
+		Builder builder = new Builder(vars, 1);
+		builder.append(exps, 0, coeff.longValue(),
+				coeff.bitLength() < 64 ? null : coeff);
+		return builder.buildSorted();
+	}
+
+	private static int checkExponent(int exponent) {
+		if (exponent < 0 || exponent > MAX_EXPONENT) {
+			throw new ArithmeticException("Exponent out of range: " + exponent);
+		}
+		return exponent;
+	}
+
+	/**
+	 * @param term
+	 *            term index
+	 * @param k
+	 *            variable index
+	 * @return exponent of the variable in the term
+	 */
+	int exponent(int term, int k) {
+		int n = vars.length;
+		return (int) ((exps[term * words + wordIndex(n, k)] >>> shift(n, k))
+				& FIELD_MASK);
+	}
+
+	private BigInteger bigCoefficient(int term) {
+		return bigCoeffs == null ? null : bigCoeffs[term];
+	}
+
+	/**
+	 * @param term
+	 *            term index
+	 * @return coefficient of the term
+	 */
+	BigInteger coefficient(int term) {
+		BigInteger big = bigCoefficient(term);
+		return big == null ? BigInteger.valueOf(coeffs[term]) : big;
+	}
+
+	/**
+	 * @param term
+	 *            term index
+	 * @param value
+	 *            value
+	 * @return whether the coefficient of the term equals the value
+	 */
+	boolean coefficientEquals(int term, long value) {
+		return bigCoefficient(term) == null && coeffs[term] == value;
+	}
+
+	/**
+	 * @param term
+	 *            term index
+	 * @return whether the term is constant
+	 */
+	boolean isConstantTerm(int term) {
+		for (int w = 0; w < words; w++) {
+			if (exps[term * words + w] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param term
+	 *            term index
+	 * @return the term as PTerm
+	 */
+	PTerm getTerm(int term) {
+		TreeMap<PVariable, Integer> powers = new TreeMap<>();
+		for (int k = 0; k < vars.length; k++) {
+			int exponent = exponent(term, k);
+			if (exponent > 0) {
+				powers.put(vars[k], exponent);
+			}
+		}
+		return new PTerm(powers);
+	}
+
+	/**
+	 * Same format as {@link PTerm#toString()} and {@link PTerm#toTeX()}.
+	 *
+	 * @param sb
+	 *            output
+	 * @param term
+	 *            term index
+	 * @param tex
+	 *            whether to use LaTeX
+	 */
+	void appendTerm(StringBuilder sb, int term, boolean tex) {
+		boolean first = true;
+		for (int k = 0; k < vars.length; k++) {
+			int power = exponent(term, k);
+			if (power == 0) {
+				continue;
+			}
+			if (tex) {
+				sb.append(vars[k].toTeX());
+			} else {
+				if (!first) {
+					sb.append('*');
+				}
+				sb.append(vars[k]);
+			}
+			first = false;
+			if (power > 1) {
+				sb.append(tex ? "^{" : "^");
+				sb.append(power);
+				if (tex) {
+					sb.append('}');
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param a
+	 *            summand
+	 * @param b
+	 *            summand
+	 * @return sum
+	 */
+	static PackedTerms add(PackedTerms a, PackedTerms b) {
+		if (a.size == 0) {
+			return b;
+		}
+		if (b.size == 0) {
+			return a;
+		}
+		PVariable[] table = union(a.vars, b.vars);
+		return merge(a.recode(table), b.recode(table)).prune();
+	}
+
+	/**
+	 * Merges the terms of polynomials over the same variables.
+	 */
+	private static PackedTerms merge(PackedTerms a, PackedTerms b) {
+		Builder result = new Builder(a.vars, a.size + b.size);
+		int words = a.words;
+		int i = 0;
+		int j = 0;
+		while (i < a.size && j < b.size) {
+			int compare = compareWords(a.exps, i * words, b.exps, j * words,
+					words);
+			if (compare < 0) {
+				result.append(a, i++);
+			} else if (compare > 0) {
+				result.append(b, j++);
+			} else {
+				result.appendSum(a, i++, b, j++);
+			}
+		}
+		while (i < a.size) {
+			result.append(a, i++);
+		}
+		while (j < b.size) {
+			result.append(b, j++);
+		}
+		return result.toTerms();
+	}
+
+	/**
+	 * @return additive inverse
+	 */
+	PackedTerms negate() {
+		Builder result = new Builder(vars, size);
+		for (int i = 0; i < size; i++) {
+			BigInteger big = bigCoefficient(i);
+			long c = coeffs[i];
+			if (big == null && c == Long.MIN_VALUE) {
+				big = BigInteger.valueOf(c);
+			}
+			result.append(exps, i * words, -c,
+					big == null ? null : big.negate());
+		}
+		return result.toTerms();
+	}
+
+	/**
+	 * Multiplies the larger polynomial with each term of the smaller one and
+	 * merges the (sorted) partial products pairwise.
+	 *
+	 * @param a
+	 *            factor
+	 * @param b
+	 *            factor
+	 * @return product
+	 */
+	static PackedTerms multiply(PackedTerms a, PackedTerms b) {
+		if (a.size == 0 || b.size == 0) {
+			return ZERO;
+		}
+		PVariable[] table = union(a.vars, b.vars);
+		PackedTerms large = a.size >= b.size ? a : b;
+		PackedTerms small = large == a ? b : a;
+		large = large.recode(table);
+		small = small.recode(table);
+		PackedTerms[] partial = new PackedTerms[small.size];
+		for (int j = 0; j < small.size; j++) {
+			Builder product = new Builder(table, large.size);
+			for (int i = 0; i < large.size; i++) {
+				product.appendProduct(large, i, small, j);
+			}
+			partial[j] = product.toTerms();
+		}
+		for (int step = 1; step < partial.length; step *= 2) {
+			for (int j = 0; j + step < partial.length; j += 2 * step) {
+				partial[j] = merge(partial[j], partial[j + step]);
+			}
+		}
+		return partial[0].prune();
+	}
+
+	/**
+	 * @param substitutions
+	 *            values of variables
+	 * @return polynomial with the variables substituted
+	 */
+	PackedTerms substitute(Map<PVariable, BigInteger> substitutions) {
+		int n = vars.length;
+		BigInteger[] values = new BigInteger[n];
+		int[] target = new int[n];
+		int kept = 0;
+		for (int k = 0; k < n; k++) {
+			values[k] = substitutions.get(vars[k]);
+			target[k] = values[k] == null ? kept++ : -1;
+		}
+		if (kept == n) {
+			return this;
+		}
+		PVariable[] table = new PVariable[kept];
+		for (int k = 0; k < n; k++) {
+			if (target[k] >= 0) {
+				table[target[k]] = vars[k];
+			}
+		}
+		Builder result = new Builder(table, size);
+		long[] exponents = new long[result.words];
+		terms: for (int i = 0; i < size; i++) {
+			long c = coeffs[i];
+			BigInteger big = bigCoefficient(i);
+			for (int k = 0; k < n; k++) {
+				int exponent = exponent(i, k);
+				if (target[k] >= 0 || exponent == 0
+						|| BigInteger.ONE.equals(values[k])) {
+					continue;
+				}
+				if (values[k].signum() == 0) {
+					continue terms;
+				}
+				BigInteger power = values[k].pow(exponent);
+				if (big == null && c == (int) c && power.bitLength() < 32) {
+					c *= power.longValue();
+				} else {
+					big = (big == null ? BigInteger.valueOf(c) : big)
+							.multiply(power);
+				}
+			}
+			remap(i, table.length, target, exponents);
+			result.append(exponents, 0, c, big);
+		}
+		return result.buildSorted();
+	}
+
+	/**
+	 * @param oldVar
+	 *            old variable
+	 * @param newVar
+	 *            new variable
+	 * @return polynomial with the old variable replaced by the new one
+	 */
+	PackedTerms substitute(PVariable oldVar, PVariable newVar) {
+		int old = indexOf(vars, oldVar);
+		if (old < 0 || oldVar.equals(newVar)) {
+			return this;
+		}
+		PVariable[] table = union(vars, new PVariable[] { newVar });
+		PVariable[] reduced = new PVariable[table.length - 1];
+		int n = 0;
+		for (PVariable v : table) {
+			if (!v.equals(oldVar)) {
+				reduced[n++] = v;
+			}
+		}
+		int[] target = new int[vars.length];
+		for (int k = 0; k < vars.length; k++) {
+			target[k] = indexOf(reduced, k == old ? newVar : vars[k]);
+		}
+		Builder result = new Builder(reduced, size);
+		long[] exponents = new long[result.words];
+		for (int i = 0; i < size; i++) {
+			remap(i, reduced.length, target, exponents);
+			result.append(exponents, 0, coeffs[i], bigCoefficient(i));
+		}
+		return result.buildSorted();
+	}
+
+	private static int indexOf(PVariable[] table, PVariable v) {
+		for (int k = 0; k < table.length; k++) {
+			if (table[k].equals(v)) {
+				return k;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Writes the exponent vector of a term for other variables.
+	 *
+	 * @param term
+	 *            term index
+	 * @param varCount
+	 *            number of new variables
+	 * @param target
+	 *            new index of each variable, negative for removed variables
+	 * @param out
+	 *            exponent vector for the new variables, exponents of variables
+	 *            with the same target are added
+	 */
+	private void remap(int term, int varCount, int[] target, long[] out) {
+		for (int w = 0; w < out.length; w++) {
+			out[w] = 0;
+		}
+		for (int k = 0; k < vars.length; k++) {
+			int exponent = exponent(term, k);
+			if (exponent == 0 || target[k] < 0) {
+				continue;
+			}
+			int w = wordIndex(varCount, target[k]);
+			int shift = shift(varCount, target[k]);
+			checkExponent((int) ((out[w] >>> shift) & FIELD_MASK) + exponent);
+			out[w] += ((long) exponent) << shift;
+		}
+	}
+
+	/**
+	 * @param table
+	 *            variables, containing all variables of this
+	 * @return the same terms over the given variables
+	 */
+	private PackedTerms recode(PVariable[] table) {
+		if (table == vars || table.length == vars.length) {
+			return this;
+		}
+		int[] target = new int[vars.length];
+		for (int k = 0, t = 0; k < vars.length; k++, t++) {
+			while (!table[t].equals(vars[k])) {
+				t++;
+			}
+			target[k] = t;
+		}
+		// adding variables doesn't change the order of the terms
+		Builder result = new Builder(table, size);
+		long[] exponents = new long[result.words];
+		for (int i = 0; i < size; i++) {
+			remap(i, table.length, target, exponents);
+			result.append(exponents, 0, coeffs[i], bigCoefficient(i));
+		}
+		return result.toTerms();
+	}
+
+	/**
+	 * @return the same terms without the variables that don't occur
+	 */
+	private PackedTerms prune() {
+		long[] used = new long[words];
+		for (int i = 0; i < size; i++) {
+			for (int w = 0; w < words; w++) {
+				used[w] |= exps[i * words + w];
+			}
+		}
+		int n = vars.length;
+		int[] target = new int[n];
+		int kept = 0;
+		for (int k = 0; k < n; k++) {
+			boolean occurs = ((used[wordIndex(n, k)] >>> shift(n, k))
+					& FIELD_MASK) != 0;
+			target[k] = occurs ? kept++ : -1;
+		}
+		if (kept == n) {
+			return this;
+		}
+		PVariable[] table = new PVariable[kept];
+		for (int k = 0; k < n; k++) {
+			if (target[k] >= 0) {
+				table[target[k]] = vars[k];
+			}
+		}
+		// removing variables with zero exponents doesn't change the order
+		Builder result = new Builder(table, size);
+		long[] exponents = new long[result.words];
+		for (int i = 0; i < size; i++) {
+			remap(i, kept, target, exponents);
+			result.append(exponents, 0, coeffs[i], bigCoefficient(i));
+		}
+		return result.toTerms();
+	}
+
+	/**
+	 * @return union of the tables, one of the inputs if possible
+	 */
+	private static PVariable[] union(PVariable[] a, PVariable[] b) {
+		if (a == b) {
+			return a;
+		}
+		PVariable[] result = new PVariable[a.length + b.length];
+		int i = 0;
+		int j = 0;
+		int n = 0;
+		while (i < a.length && j < b.length) {
+			int compare = a[i].compareTo(b[j]);
+			if (compare < 0) {
+				result[n++] = a[i++];
+			} else if (compare > 0) {
+				result[n++] = b[j++];
+			} else {
+				result[n++] = a[i++];
+				j++;
+			}
+		}
+		while (i < a.length) {
+			result[n++] = a[i++];
+		}
+		while (j < b.length) {
+			result[n++] = b[j++];
+		}
+		if (n == a.length) {
+			return a;
+		}
+		if (n == b.length) {
+			return b;
+		}
+		PVariable[] trimmed = new PVariable[n];
+		System.arraycopy(result, 0, trimmed, 0, n);
+		return trimmed;
+	}
+
+	private static boolean sameVars(PVariable[] a, PVariable[] b) {
+		if (a == b) {
+			return true;
+		}
+		if (a.length != b.length) {
+			return false;
+		}
+		for (int k = 0; k < a.length; k++) {
+			if (!a[k].equals(b[k])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int compareWords(long[] a, int offsetA, long[] b,
+			int offsetB, int words) {
+		for (int w = 0; w < words; w++) {
+			// highest bit of each long is never set
+			long x = a[offsetA + w];
+			long y = b[offsetB + w];
+			if (x != y) {
+				return x < y ? -1 : 1;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Compares terms like {@link PTerm#compareTo(PTerm)}.
+	 *
+	 * @param a
+	 *            first polynomial
+	 * @param i
+	 *            term index in first polynomial
+	 * @param b
+	 *            second polynomial
+	 * @param j
+	 *            term index in second polynomial
+	 * @return comparison result of the terms
+	 */
+	static int compareTerms(PackedTerms a, int i, PackedTerms b, int j) {
+		if (sameVars(a.vars, b.vars)) {
+			return compareWords(a.exps, i * a.words, b.exps, j * b.words,
+					a.words);
+		}
+		int ka = a.vars.length - 1;
+		int kb = b.vars.length - 1;
+		while (true) {
+			while (ka >= 0 && a.exponent(i, ka) == 0) {
+				ka--;
+			}
+			while (kb >= 0 && b.exponent(j, kb) == 0) {
+				kb--;
+			}
+			if (ka < 0 || kb < 0) {
+				return ka < 0 ? (kb < 0 ? 0 : -1) : 1;
+			}
+			int compare = a.vars[ka].compareTo(b.vars[kb]);
+			if (compare != 0) {
+				return compare;
+			}
+			compare = a.exponent(i, ka) - b.exponent(j, kb);
+			if (compare != 0) {
+				return compare < 0 ? -1 : 1;
+			}
+			ka--;
+			kb--;
+		}
+	}
+
+	/**
+	 * @param a
+	 *            first polynomial
+	 * @param i
+	 *            term index in first polynomial
+	 * @param b
+	 *            second polynomial
+	 * @param j
+	 *            term index in second polynomial
+	 * @return comparison result of the coefficients
+	 */
+	static int compareCoefficients(PackedTerms a, int i, PackedTerms b,
+			int j) {
+		if (a.bigCoefficient(i) == null && b.bigCoefficient(j) == null) {
+			long x = a.coeffs[i];
+			long y = b.coeffs[j];
+			return x < y ? -1 : (x == y ? 0 : 1);
+		}
+		return a.coefficient(i).compareTo(b.coefficient(j));
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (PVariable v : vars) {
+			hash = 31 * hash + v.hashCode();
+		}
+		for (int i = 0; i < size * words; i++) {
+			hash = 31 * hash + (int) (exps[i] ^ (exps[i] >>> 32));
+		}
+		for (int i = 0; i < size; i++) {
+			BigInteger big = bigCoefficient(i);
+			hash = 31 * hash + (big == null
+					? (int) (coeffs[i] ^ (coeffs[i] >>> 32)) : big.hashCode());
+		}
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof PackedTerms)) {
+			return false;
+		}
+		PackedTerms other = (PackedTerms) o;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (compareTerms(this, i, other, i) != 0
+					|| compareCoefficients(this, i, other, i) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Collects terms over given variables.
+	 */
+	private static final class Builder {
+		private final PVariable[] vars;
+		final int words;
+		private int size = 0;
+		private long[] exps;
+		private long[] coeffs;
+		private BigInteger[] bigCoeffs;
+
+		Builder(PVariable[] vars, int capacity) {
+			this.vars = vars;
+			this.words = wordCount(vars.length);
+			int initial = Math.max(1, capacity);
+			exps = new long[initial * words];
+			coeffs = new long[initial];
+		}
+
+		private int next() {
+			if (size == coeffs.length) {
+				int capacity = 2 * size;
+				long[] newExps = new long[capacity * words];
+				System.arraycopy(exps, 0, newExps, 0, size * words);
+				exps = newExps;
+				long[] newCoeffs = new long[capacity];
+				System.arraycopy(coeffs, 0, newCoeffs, 0, size);
+				coeffs = newCoeffs;
+				if (bigCoeffs != null) {
+					BigInteger[] newBig = new BigInteger[capacity];
+					System.arraycopy(bigCoeffs, 0, newBig, 0, size);
+					bigCoeffs = newBig;
+				}
+			}
+			return size++;
+		}
+
+		/**
+		 * Appends a term, zero coefficients are skipped.
+		 *
+		 * @param src
+		 *            exponent vectors
+		 * @param offset
+		 *            offset of the exponent vector
+		 * @param c
+		 *            coefficient
+		 * @param big
+		 *            coefficient if it doesn't fit in a long, null otherwise
+		 */
+		void append(long[] src, int offset, long c, BigInteger big) {
+			if (big == null ? c == 0 : big.signum() == 0) {
+				return;
+			}
+			int i = next();
+			System.arraycopy(src, offset, exps, i * words, words);
+			setCoefficient(i, c, big);
+		}
+
+		void append(PackedTerms src, int i) {
+			append(src.exps, i * words, src.coeffs[i], src.bigCoefficient(i));
+		}
+
+		void appendSum(PackedTerms a, int i, PackedTerms b, int j) {
+			long x = a.coeffs[i];
+			long y = b.coeffs[j];
+			long sum = x + y;
+			if (a.bigCoefficient(i) == null && b.bigCoefficient(j) == null
+					&& ((x ^ sum) & (y ^ sum)) >= 0) {
+				append(a.exps, i * words, sum, null);
+			} else {
+				append(a.exps, i * words, 0,
+						a.coefficient(i).add(b.coefficient(j)));
+			}
+		}
+
+		void appendProduct(PackedTerms a, int i, PackedTerms b, int j) {
+			long x = a.coeffs[i];
+			long y = b.coeffs[j];
+			int k = next();
+			int offset = k * words;
+			for (int w = 0; w < words; w++) {
+				long product = a.exps[i * words + w] + b.exps[j * words + w];
+				if ((product & OVERFLOW_MASK) != 0) {
+					size--;
+					throw new ArithmeticException("Exponent out of range");
+				}
+				exps[offset + w] = product;
+			}
+			if (a.bigCoefficient(i) == null && b.bigCoefficient(j) == null
+					&& x == (int) x && y == (int) y) {
+				setCoefficient(k, x * y, null);
+			} else {
+				setCoefficient(k, 0, a.coefficient(i).multiply(b.coefficient(j)));
+			}
+		}
+
+		private void setCoefficient(int i, long c, BigInteger big) {
+			if (big != null && big.bitLength() < 64) {
+				coeffs[i] = big.longValue();
+				if (bigCoeffs != null) {
+					bigCoeffs[i] = null;
+				}
+				return;
+			}
+			coeffs[i] = c;
+			if (big != null && bigCoeffs == null) {
+				bigCoeffs = new BigInteger[coeffs.length];
+			}
+			if (bigCoeffs != null) {
+				bigCoeffs[i] = big;
+			}
+		}
+
+		/**
+		 * @return terms, which must have been appended in ascending order
+		 */
+		PackedTerms toTerms() {
+			if (size == 0) {
+				return ZERO;
+			}
+			return new PackedTerms(vars, size, exps, coeffs, bigCoeffs);
+		}
+
+		/**
+		 * @return terms sorted, with equal terms combined and unused variables
+		 *         removed
+		 */
+		PackedTerms buildSorted() {
+			int[] order = new int[size];
+			boolean sorted = true;
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+				sorted &= i == 0 || compareWords(exps, (i - 1) * words, exps,
+						i * words, words) < 0;
+			}
+			if (sorted) {
+				return toTerms().prune();
+			}
+			sort(order, new int[size], 0, size);
+			PackedTerms unsorted = toTerms();
+			Builder result = new Builder(vars, size);
+			int i = 0;
+			while (i < size) {
+				int first = order[i];
+				long c = coeffs[first];
+				BigInteger big = unsorted.bigCoefficient(first);
+				int j = i + 1;
+				while (j < size && compareWords(exps, first * words, exps,
+						order[j] * words, words) == 0) {
+					long y = coeffs[order[j]];
+					long sum = c + y;
+					BigInteger bigY = unsorted.bigCoefficient(order[j]);
+					if (big == null && bigY == null
+							&& ((c ^ sum) & (y ^ sum)) >= 0) {
+						c = sum;
+					} else {
+						big = (big == null ? BigInteger.valueOf(c) : big)
+								.add(bigY == null ? BigInteger.valueOf(y)
+										: bigY);
+					}
+					j++;
+				}
+				result.append(exps, first * words, c, big);
+				i = j;
+			}
+			return result.toTerms().prune();
+		}
+
+		/**
+		 * Stable merge sort of term indices by exponent vector.
+		 */
+		private void sort(int[] order, int[] tmp, int from, int to) {
+			if (to - from < 2) {
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			sort(order, tmp, from, mid);
+			sort(order, tmp, mid, to);
+			int i = from;
+			int j = mid;
+			int k = from;
+			while (i < mid && j < to) {
+				if (compareWords(exps, order[j] * words, exps,
+						order[i] * words, words) < 0) {
+					tmp[k++] = order[j++];
+				} else {
+					tmp[k++] = order[i++];
+				}
+			}
+			while (i < mid) {
+				tmp[k++] = order[i++];
+			}
+			while (j < to) {
+				tmp[k++] = order[j++];
+			}
+			System.arraycopy(tmp, from, order, from, to - from);
+		}
+	}
+}
@@ -14,7 +14,6 @@ package org.geogebra.common.kernel.statistics;
 
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.algos.AlgoElement;
-import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumeric;
@@ -154,6 +153,9 @@ public abstract class AlgoStats2D extends AlgoElement {
 		double valx, valy;
 		int sizex = geoListx.size();
 		int sizey = sizex;
+		// shared copies of the values, see GeoList.getPointStatistics()
+		ListStatistics points = mode == MODE_LISTOFPOINTS
+				? geoListx.getPointStatistics() : null;
 		if (mode == MODE_DOUBLELIST) {
 			sizey = geoListy.size();
 			if (!geoListx.isDefined() || !geoListy.isDefined() || sizex == 0
@@ -162,24 +164,28 @@ public abstract class AlgoStats2D extends AlgoElement {
 				return;
 			}
 
+			ListStatistics statsx = geoListx.getNumberStatistics();
+			ListStatistics statsy = geoListy.getNumberStatistics();
+			if (statsx == null || statsy == null) {
+				result.setUndefined();
+				return;
+			}
+			double[] xs = statsx.getX();
+			double[] ys = statsy.getX();
+			sumx = statsx.getSumX();
+			sumxx = statsx.getSumXX();
+			sumy = statsy.getSumX();
+			sumyy = statsy.getSumXX();
 			for (int i = 0; i < sizex; i++) {
-				GeoElement geox = geoListx.get(i);
-				GeoElement geoy = geoListy.get(i);
-				if (geox instanceof NumberValue
-						&& geoy instanceof NumberValue) {
-					valx = geox.evaluateDouble();
-					valy = geoy.evaluateDouble();
-					sumx += valx;
-					sumy += valy;
-					sumxx += valx * valx;
-					sumyy += valy * valy;
-					sumxy += valx * valy;
-				} else {
-					result.setUndefined();
-					return;
-				}
+				sumxy += xs[i] * ys[i];
 			}
-		} else { // MODE_LISTOFPOINTS
+		} else if (points != null) {
+			sumx = points.getSumX();
+			sumy = points.getSumY();
+			sumxx = points.getSumXX();
+			sumyy = points.getSumYY();
+			sumxy = points.getSumXY();
+		} else { // MODE_LISTOFPOINTS with 3D points
 			for (int i = 0; i < sizex; i++) {
 				GeoElement geo = geoListx.get(i);
 				if (geo.isGeoPoint()) {
@@ -0,0 +1,236 @@
+package org.geogebra.common.kernel.statistics;
+
+import java.util.Arrays;
+
+import org.geogebra.common.kernel.arithmetic.NumberValue;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoPoint;
+
+/**
+ * Values of a list of numbers or of a list of 2D points as primitive arrays,
+ * together with the sums needed by the statistics commands. Instances are
+ * cached by the list (see {@link GeoList#getNumberStatistics()} and
+ * {@link GeoList#getPointStatistics()}), so all statistics of one list share
+ * one copy of its values until the list or one of its elements is updated.
+ *
+ * The sums are accumulated in list order, so they are equal to the sums the
+ * statistics algorithms computed element by element. The arrays must not be
+ * modified.
+ */
+public final class ListStatistics {
+
+	private final int listVersion;
+	/** elements the values were read from */
+	private final GeoElement[] elements;
+	/** update versions of the elements when the values were read */
+	private final int[] elementVersions;
+	private final int size;
+	/** numbers or x-coordinates, null if the list has other elements */
+	private final double[] x;
+	/** y-coordinates, null for numbers */
+	private final double[] y;
+	private final double sumX;
+	private final double sumXX;
+	private final double productX;
+	private final double sumY;
+	private final double sumYY;
+	private final double sumXY;
+	private volatile double[] sortedX;
+
+	private ListStatistics(GeoList list, double[] x, double[] y) {
+		this.listVersion = list.getUpdateVersion();
+		this.size = list.size();
+		this.elements = new GeoElement[size];
+		this.elementVersions = new int[size];
+		for (int i = 0; i < size; i++) {
+			elements[i] = list.get(i);
+			elementVersions[i] = elements[i].getUpdateVersion();
+		}
+		this.x = x;
+		this.y = y;
+		double sx = 0;
+		double sxx = 0;
+		double px = 1;
+		double sy = 0;
+		double syy = 0;
+		double sxy = 0;
+		if (x != null) {
+			for (int i = 0; i < x.length; i++) {
+				sx += x[i];
+				sxx += x[i] * x[i];
+				px *= x[i];
+			}
+		}
+		if (x != null && y != null) {
+			for (int i = 0; i < y.length; i++) {
+				sy += y[i];
+				syy += y[i] * y[i];
+				sxy += x[i] * y[i];
+			}
+		}
+		sumX = sx;
+		sumXX = sxx;
+		productX = px;
+		sumY = sy;
+		sumYY = syy;
+		sumXY = sxy;
+	}
+
+	/**
+	 * @param list
+	 *            list
+	 * @return statistics of the list; undefined if some element is not a
+	 *         number
+	 */
+	public static ListStatistics forNumbers(GeoList list) {
+		int size = list.size();
+		double[] values = new double[size];
+		for (int i = 0; i < size; i++) {
+			GeoElement geo = list.get(i);
+			if (!(geo instanceof NumberValue)) {
+				return new ListStatistics(list, null, null);
+			}
+			values[i] = geo.evaluateDouble();
+		}
+		return new ListStatistics(list, values, null);
+	}
+
+	/**
+	 * @param list
+	 *            list of numbers
+	 * @param values
+	 *            values of the elements in list order, not copied
+	 * @return statistics of the list
+	 */
+	public static ListStatistics forNumbers(GeoList list, double[] values) {
+		return new ListStatistics(list, values, null);
+	}
+
+	/**
+	 * @param list
+	 *            list
+	 * @return statistics of the list; undefined if some element is not a 2D
+	 *         point
+	 */
+	public static ListStatistics forPoints(GeoList list) {
+		int size = list.size();
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		double[] xy = new double[2];
+		for (int i = 0; i < size; i++) {
+			GeoElement geo = list.get(i);
+			if (!(geo instanceof GeoPoint)) {
+				return new ListStatistics(list, null, null);
+			}
+			((GeoPoint) geo).getInhomCoords(xy);
+			xs[i] = xy[0];
+			ys[i] = xy[1];
+		}
+		return new ListStatistics(list, xs, ys);
+	}
+
+	/**
+	 * @param list
+	 *            list these statistics were created for
+	 * @return whether neither the list nor its elements were updated since
+	 */
+	public boolean isValidFor(GeoList list) {
+		if (list.getUpdateVersion() != listVersion || list.size() != size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			GeoElement geo = list.get(i);
+			if (geo != elements[i]
+					|| geo.getUpdateVersion() != elementVersions[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether all elements had the right type
+	 */
+	public boolean isDefined() {
+		return x != null;
+	}
+
+	/**
+	 * @return number of values
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return numbers or x-coordinates of points; must not be modified
+	 */
+	public double[] getX() {
+		return x;
+	}
+
+	/**
+	 * @return y-coordinates of points; must not be modified
+	 */
+	public double[] getY() {
+		return y;
+	}
+
+	/**
+	 * @return numbers or x-coordinates in ascending order; must not be
+	 *         modified
+	 */
+	public double[] getSortedX() {
+		double[] sorted = sortedX;
+		if (sorted == null) {
+			sorted = new double[size];
+			System.arraycopy(x, 0, sorted, 0, size);
+			Arrays.sort(sorted);
+			sortedX = sorted;
+		}
+		return sorted;
+	}
+
+	/**
+	 * @return sum of numbers or x-coordinates
+	 */
+	public double getSumX() {
+		return sumX;
+	}
+
+	/**
+	 * @return sum of squares of numbers or x-coordinates
+	 */
+	public double getSumXX() {
+		return sumXX;
+	}
+
+	/**
+	 * @return product of numbers or x-coordinates
+	 */
+	public double getProductX() {
+		return productX;
+	}
+
+	/**
+	 * @return sum of y-coordinates
+	 */
+	public double getSumY() {
+		return sumY;
+	}
+
+	/**
+	 * @return sum of squares of y-coordinates
+	 */
+	public double getSumYY() {
+		return sumYY;
+	}
+
+	/**
+	 * @return sum of products x * y
+	 */
+	public double getSumXY() {
+		return sumXY;
+	}
+}
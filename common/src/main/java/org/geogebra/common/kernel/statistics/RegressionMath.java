@@ -316,7 +316,8 @@ public final class RegressionMath {
 			return false;
 		}
 		double ySign = ylist[0] < 0 ? -1 : 1;
-		// Transform y->ln(y):
+		// Transform y->ln(y), on a copy of the shared values:
+		ylist = ylist.clone();
 		for (int i = 0; i < size; i++) {
 			y = ylist[i] * ySign;
 			if (y < 0.0d) { // log(minus)!
@@ -357,7 +358,8 @@ public final class RegressionMath {
 		if (error) {
 			return false;
 		}
-		// Transform x->ln(x):
+		// Transform x->ln(x), on a copy of the shared values:
+		xlist = xlist.clone();
 		for (int i = 0; i < size; i++) {
 			x = xlist[i];
 			if (x < 0.0d) { // log(minus)!
@@ -401,7 +403,9 @@ public final class RegressionMath {
 			return false;
 		}
 		double ySign = ylist[0] < 0 ? -1 : 1;
-		// Transform y->ln(y) and x->ln(x):
+		// Transform y->ln(y) and x->ln(x), on copies of the shared values:
+		xlist = xlist.clone();
+		ylist = ylist.clone();
 		for (int i = 0; i < size; i++) {
 			x = xlist[i];
 			y = ylist[i] * ySign;
@@ -572,6 +576,13 @@ public final class RegressionMath {
 
 	/* Get points to local array */
 	private void getPoints() {
+		ListStatistics points = geolist.getPointStatistics();
+		if (points != null) {
+			// shared with other statistics of the list, must not be modified
+			xlist = points.getX();
+			ylist = points.getY();
+			return;
+		}
 		// double x,y;
 		double[] xy = new double[2];
 		GeoElement geoelement;
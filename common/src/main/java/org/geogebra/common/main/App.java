@@ -4694,7 +4694,7 @@ public abstract class App implements UpdateSelection, AppInterface, EuclidianHos
 	/**
 	 * @return next prover variable ID
 	 */
-	public int getNextVariableID() {
+	public synchronized int getNextVariableID() {
 		return nextVariableID++;
 	}
 
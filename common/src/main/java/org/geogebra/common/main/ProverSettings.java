@@ -52,6 +52,12 @@ public class ProverSettings {
 	 */
 	public boolean captionAlgebra = false;
 
+	/**
+	 * Run the engines of the Auto prover concurrently (desktop only). The
+	 * result is the same as when running them one after another.
+	 */
+	public boolean portfolio = false;
+
 	/**
 	 * @return singleton instance
 	 */
@@ -0,0 +1,10 @@
+package org.geogebra.common.plugin;
+
+/**
+ * Event listener that can receive the events after the kernel update that
+ * caused them, see {@link EventDispatcher#setAsyncExecutor}. Listeners that
+ * don't implement this interface are always notified synchronously.
+ */
+public interface AsyncEventListener extends EventListener {
+	// just tagging interface
+}
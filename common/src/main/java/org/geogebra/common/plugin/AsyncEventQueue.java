@@ -0,0 +1,196 @@
+package org.geogebra.common.plugin;
+
+import java.util.HashMap;
+
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.util.TaskExecutor;
+
+/**
+ * Bounded ring buffer of the events for {@link AsyncEventListener}s. The
+ * events are delivered in order by a task of the executor; an update of an
+ * element that is still waiting for delivery is merged into the pending
+ * update. When the buffer is full, the caller delivers the pending events
+ * first.
+ *
+ * The executor has to run the tasks one after another on the thread that
+ * updates the kernel (e.g. by posting them to the UI event queue), since the
+ * listeners run scripts.
+ */
+public class AsyncEventQueue {
+
+	/** default number of pending events */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private final EventDispatcher dispatcher;
+	private final TaskExecutor executor;
+	private final Event[] events;
+	private int head = 0;
+	private int size = 0;
+	/** pending update event per element */
+	private final HashMap<GeoElement, Event> pendingUpdates = new HashMap<>();
+	private boolean scheduled = false;
+	private boolean draining = false;
+
+	private long queued = 0;
+	private long coalesced = 0;
+	private long overflows = 0;
+	private long delivered = 0;
+	private int maxSize = 0;
+
+	private final Runnable drainTask = new Runnable() {
+		@Override
+		public void run() {
+			drain();
+		}
+	};
+
+	/**
+	 * @param dispatcher
+	 *            dispatcher that delivers the events
+	 * @param executor
+	 *            executor for delivery
+	 * @param capacity
+	 *            maximal number of pending events
+	 */
+	public AsyncEventQueue(EventDispatcher dispatcher, TaskExecutor executor,
+			int capacity) {
+		this.dispatcher = dispatcher;
+		this.executor = executor;
+		this.events = new Event[Math.max(1, capacity)];
+	}
+
+	/**
+	 * @param evt
+	 *            event for asynchronous listeners
+	 */
+	public void add(Event evt) {
+		GeoElement target = evt.target;
+		if (target != null) {
+			if (evt.type == EventType.UPDATE && !evt.isAlwaysDispatched()) {
+				if (pendingUpdates.containsKey(target)) {
+					coalesced++;
+					return;
+				}
+				pendingUpdates.put(target, evt);
+			} else {
+				// later updates must not be delivered before this event
+				pendingUpdates.remove(target);
+			}
+		}
+		if (size == events.length) {
+			overflows++;
+			drain();
+		}
+		events[(head + size) % events.length] = evt;
+		size++;
+		queued++;
+		maxSize = Math.max(maxSize, size);
+		if (!scheduled && !draining) {
+			scheduled = true;
+			executor.execute(drainTask);
+		}
+	}
+
+	private Event poll() {
+		if (size == 0) {
+			return null;
+		}
+		Event evt = events[head];
+		events[head] = null;
+		head = (head + 1) % events.length;
+		size--;
+		if (evt.target != null && pendingUpdates.get(evt.target) == evt) {
+			pendingUpdates.remove(evt.target);
+		}
+		return evt;
+	}
+
+	/**
+	 * Delivers all pending events.
+	 */
+	public void drain() {
+		if (draining) {
+			return;
+		}
+		draining = true;
+		try {
+			Event evt = poll();
+			while (evt != null) {
+				delivered++;
+				dispatcher.deliverAsync(evt);
+				evt = poll();
+			}
+		} finally {
+			draining = false;
+			scheduled = false;
+		}
+	}
+
+	/**
+	 * @return whether the events are being delivered; events dispatched by
+	 *         the listeners are then delivered synchronously
+	 */
+	public boolean isDraining() {
+		return draining;
+	}
+
+	/**
+	 * Drops the pending events.
+	 */
+	public void clear() {
+		while (poll() != null) {
+			// drop
+		}
+		pendingUpdates.clear();
+	}
+
+	/**
+	 * @return number of pending events
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return maximal number of pending events so far
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return number of events added to the buffer
+	 */
+	public long getQueued() {
+		return queued;
+	}
+
+	/**
+	 * @return number of updates merged into pending updates
+	 */
+	public long getCoalesced() {
+		return coalesced;
+	}
+
+	/**
+	 * @return number of times the buffer was full and the caller had to
+	 *         deliver the pending events
+	 */
+	public long getOverflows() {
+		return overflows;
+	}
+
+	/**
+	 * @return number of delivered events
+	 */
+	public long getDelivered() {
+		return delivered;
+	}
+
+	@Override
+	public String toString() {
+		return "pending: " + size + ", max pending: " + maxSize + ", queued: "
+				+ queued + ", coalesced: " + coalesced + ", overflows: "
+				+ overflows + ", delivered: " + delivered;
+	}
+}
@@ -8,6 +8,7 @@ import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
 import org.geogebra.common.main.App;
+import org.geogebra.common.util.TaskExecutor;
 import org.geogebra.common.util.debug.GeoGebraProfiler;
 
 /**
@@ -21,6 +22,9 @@ import org.geogebra.common.util.debug.GeoGebraProfiler;
  * because they are not part of the View interface (the clicked GeoElement is
  * responsible for relaying the event to the event dispatcher)
  * 
+ * Scripting listeners can be notified asynchronously, so that slow scripts
+ * don't slow down dragging, see {@link #setAsyncExecutor}.
+ * 
  * @author arno
  * 
  */
@@ -28,6 +32,7 @@ public class EventDispatcher implements ClientView {
 
 	private App app;
 	private ArrayList<EventListener> listeners = new ArrayList<>();
+	private AsyncEventQueue asyncQueue;
 
 	/**
 	 * @param app
@@ -66,6 +71,33 @@ public class EventDispatcher implements ClientView {
 		return listeners;
 	}
 
+	/**
+	 * Enables or disables asynchronous dispatch: events for
+	 * {@link AsyncEventListener}s are then collected in a bounded queue and
+	 * delivered by the executor, other listeners are still notified
+	 * synchronously. When disabled, pending events are delivered first.
+	 *
+	 * @param executor
+	 *            executor that runs the delivery on the thread that updates
+	 *            the kernel; null for synchronous dispatch
+	 * @param capacity
+	 *            maximal number of pending events
+	 */
+	public void setAsyncExecutor(TaskExecutor executor, int capacity) {
+		if (asyncQueue != null) {
+			asyncQueue.drain();
+		}
+		asyncQueue = executor == null ? null
+				: new AsyncEventQueue(this, executor, capacity);
+	}
+
+	/**
+	 * @return queue of asynchronous events, null if dispatch is synchronous
+	 */
+	public AsyncEventQueue getAsyncEventQueue() {
+		return asyncQueue;
+	}
+
 	/**
 	 * Dispatch an event to all registered event listeners
 	 * 
@@ -73,13 +105,38 @@ public class EventDispatcher implements ClientView {
 	 *            the event to be dispatched
 	 */
 	public void dispatchEvent(Event evt) {
+		if (asyncQueue == null || asyncQueue.isDraining()) {
+			deliver(evt, true, true);
+		} else {
+			deliver(evt, true, false);
+			asyncQueue.add(evt);
+		}
+	}
+
+	/**
+	 * @param evt
+	 *            event from the asynchronous queue
+	 */
+	void deliverAsync(Event evt) {
+		GeoElement target = evt.target;
+		if (target != null && evt.type != EventType.REMOVE
+				&& !target.isLabelSet() && !target.isGeoCasCell()) {
+			// removed while the event was pending
+			return;
+		}
+		deliver(evt, false, true);
+	}
+
+	private void deliver(Event evt, boolean sync, boolean async) {
 		boolean affectsSelfGeo = app.getKernel().getConstruction() != null
 				&& evt.target != null;
 		if (affectsSelfGeo) {
 			app.getKernel().getConstruction().setSelfGeo(evt.target);
 		}
 		for (EventListener listener : listeners) {
-			listener.sendEvent(evt);
+			if (listener instanceof AsyncEventListener ? async : sync) {
+				listener.sendEvent(evt);
+			}
 		}
 		if (affectsSelfGeo) {
 			app.getKernel().getConstruction().restoreSelfGeo();
@@ -191,6 +248,9 @@ public class EventDispatcher implements ClientView {
 		// As I understand it, this happens when a new file is started. This is
 		// the time to call the reset() function of the registered event
 		// listeners.
+		if (asyncQueue != null) {
+			asyncQueue.clear();
+		}
 		for (EventListener listener : listeners) {
 			listener.reset();
 		}
@@ -6,7 +6,7 @@ import org.geogebra.common.plugin.script.Script;
 /**
  * Runs GGB Scripts
  */
-public class GeoScriptRunner implements EventListener {
+public class GeoScriptRunner implements AsyncEventListener {
 
 	private App app;
 
@@ -13,7 +13,7 @@ import org.geogebra.common.main.App;
 import org.geogebra.common.plugin.script.JsScript;
 import org.geogebra.common.util.debug.Log;
 
-public abstract class ScriptManager implements EventListener {
+public abstract class ScriptManager implements AsyncEventListener {
 
 	protected App app;
 	protected boolean listenersEnabled = true;
@@ -3,17 +3,22 @@ package org.geogebra.common.util;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.TreeSet;
 
+import org.geogebra.common.factories.UtilFactory;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.algos.AlgoDependentBoolean;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.algos.AlgoJoinPoints;
 import org.geogebra.common.kernel.algos.AlgoJoinPointsSegment;
+import org.geogebra.common.kernel.algos.SymbolicParametersAlgo;
+import org.geogebra.common.kernel.algos.SymbolicParametersBotanaAlgo;
+import org.geogebra.common.kernel.algos.SymbolicParametersBotanaAlgoAre;
 import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoLine;
@@ -21,6 +26,7 @@ import org.geogebra.common.kernel.geos.GeoNumeric;
 import org.geogebra.common.kernel.geos.GeoPoint;
 import org.geogebra.common.kernel.geos.GeoSegment;
 import org.geogebra.common.kernel.prover.AbstractProverReciosMethod;
+import org.geogebra.common.kernel.prover.NoSymbolicParametersException;
 import org.geogebra.common.kernel.prover.ProverBotanasMethod;
 import org.geogebra.common.kernel.prover.ProverPureSymbolicMethod;
 import org.geogebra.common.main.Localization;
@@ -148,6 +154,76 @@ public abstract class Prover {
 	private List<ProverEngine> proveAutoOrder;
 	private List<ProverEngine> proveDetailsAutoOrder;
 
+	/**
+	 * Should the AUTO prover run its engines concurrently?
+	 */
+	private boolean portfolio = false;
+	private HashMap<ProverEngine, Integer> engineTimeouts = new HashMap<>();
+	private ArrayList<EngineRun> engineRuns = new ArrayList<>();
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Statistics of one engine used for the proof.
+	 */
+	public static class EngineRun {
+		private final ProverEngine engine;
+		private final ProofResult result;
+		private final double time;
+		private final boolean completed;
+
+		/**
+		 * @param engine
+		 *            the engine
+		 * @param result
+		 *            its result (UNKNOWN if not completed)
+		 * @param time
+		 *            time spent in the engine (in milliseconds)
+		 * @param completed
+		 *            false if the engine was cancelled or timed out
+		 */
+		public EngineRun(ProverEngine engine, ProofResult result, double time,
+				boolean completed) {
+			this.engine = engine;
+			this.result = result;
+			this.time = time;
+			this.completed = completed;
+		}
+
+		/**
+		 * @return the engine
+		 */
+		public ProverEngine getEngine() {
+			return engine;
+		}
+
+		/**
+		 * @return the result of the engine
+		 */
+		public ProofResult getResult() {
+			return result;
+		}
+
+		/**
+		 * @return time spent in the engine (in milliseconds)
+		 */
+		public double getTime() {
+			return time;
+		}
+
+		/**
+		 * @return false if the engine was cancelled or timed out
+		 */
+		public boolean isCompleted() {
+			return completed;
+		}
+
+		@Override
+		public String toString() {
+			return engine + ": " + (completed ? result : "cancelled") + " in "
+					+ (int) time + " ms";
+		}
+	}
+
 	/**
 	 * An object which contains a condition description (e.g. "AreCollinear")
 	 * and an ordered list of GeoElement's (e.g. A, B, C)
@@ -546,23 +622,15 @@ public abstract class Prover {
 
 		// Step 3: Non-AUTO provers
 		if (engine != ProverEngine.AUTO) {
-			callEngine(engine);
+			proveWith(engine);
 			return;
 		}
 
 		// Step 4: AUTO prover
 		Log.debug("Using " + engine);
-		Iterator<ProverEngine> it;
-		if (isReturnExtraNDGs()) {
-			it = proveDetailsAutoOrder.iterator();
-		} else {
-			it = proveAutoOrder.iterator();
-		}
-		result = ProofResult.UNKNOWN;
-		while ((result == ProofResult.UNKNOWN
-				|| result == ProofResult.TRUE_NDG_UNREADABLE)
-				&& it.hasNext()) {
-			ProverEngine pe = it.next();
+		List<ProverEngine> engines = new ArrayList<>();
+		for (ProverEngine pe : isReturnExtraNDGs() ? proveDetailsAutoOrder
+				: proveAutoOrder) {
 			if (pe == ProverEngine.OPENGEOPROVER_WU
 					|| pe == ProverEngine.OPENGEOPROVER_AREA) {
 				/*
@@ -577,10 +645,220 @@ public abstract class Prover {
 					continue; /* try the next prover */
 				}
 			}
-			callEngine(pe);
+			engines.add(pe);
+		}
+		engineRuns.clear();
+		result = ProofResult.UNKNOWN;
+		if (portfolio && engines.size() > 1) {
+			decidePortfolio(engines);
+		} else {
+			decideSequentially(engines);
+		}
+		Log.debug("Engines used: " + engineRuns);
+	}
+
+	/**
+	 * Tries the engines one after another until one of them gives a
+	 * conclusive result.
+	 * 
+	 * @param engines
+	 *            engines in order of preference
+	 */
+	protected void decideSequentially(List<ProverEngine> engines) {
+		Iterator<ProverEngine> it = engines.iterator();
+		while (!isConclusive(result) && it.hasNext() && !cancelled) {
+			ProverEngine pe = it.next();
+			double startTime = UtilFactory.getPrototype().getMillisecondTime();
+			ProofResult engineResult = proveWith(pe);
+			addEngineRun(new EngineRun(pe, engineResult,
+					UtilFactory.getPrototype().getMillisecondTime()
+							- startTime,
+					true));
 		}
 	}
 
+	/**
+	 * Runs the engines concurrently. The first conclusive result wins; if
+	 * several results are available at that time, the order of the engines
+	 * decides. Platforms without threads try the engines one after another.
+	 * 
+	 * @param engines
+	 *            engines in order of preference
+	 */
+	protected void decidePortfolio(List<ProverEngine> engines) {
+		decideSequentially(engines);
+	}
+
+	/**
+	 * @param pr
+	 *            result of an engine
+	 * @return whether the AUTO prover can stop at this result
+	 */
+	public static boolean isConclusive(ProofResult pr) {
+		return pr != null && pr != ProofResult.UNKNOWN
+				&& pr != ProofResult.TRUE_NDG_UNREADABLE;
+	}
+
+	/**
+	 * Builds the symbolic data which the engines create lazily and store in
+	 * the statement and its predecessors: Botana's variables and polynomials
+	 * and the free variables of Recio's symbolic parameters. Engines running
+	 * concurrently on copies of this prover then only read these.
+	 */
+	public void preparePolynomials() {
+		for (GeoElement geo : statement.getAllPredecessors()) {
+			if (geo instanceof SymbolicParametersBotanaAlgo) {
+				try {
+					((SymbolicParametersBotanaAlgo) geo).getBotanaVars(geo);
+					((SymbolicParametersBotanaAlgo) geo)
+							.getBotanaPolynomials(geo);
+				} catch (NoSymbolicParametersException e) {
+					// the engines will report this themselves
+				}
+			}
+		}
+		AlgoElement algo = statement.getParentAlgorithm();
+		try {
+			if (algo instanceof SymbolicParametersBotanaAlgoAre) {
+				((SymbolicParametersBotanaAlgoAre) algo).getBotanaPolynomials();
+			}
+			if (statement instanceof SymbolicParametersAlgo) {
+				((SymbolicParametersAlgo) statement).getSymbolicParameters()
+						.getFreeVariables();
+			} else if (algo instanceof SymbolicParametersAlgo) {
+				((SymbolicParametersAlgo) algo).getSymbolicParameters()
+						.getFreeVariables();
+			}
+		} catch (NoSymbolicParametersException e) {
+			// the engines will report this themselves
+		}
+	}
+
+	/**
+	 * Runs one engine on the statement. The NDG conditions of this prover are
+	 * always replaced by those of the engine. The result is replaced by the
+	 * result of the engine, except that an UNKNOWN result keeps a result set
+	 * by an earlier engine (see {@link #decideSequentially(List)}).
+	 * 
+	 * @param pe
+	 *            engine
+	 * @return the result of the engine
+	 */
+	public ProofResult proveWith(ProverEngine pe) {
+		ProofResult engineResult = runEngine(pe);
+		if (engineResult == null) {
+			return ProofResult.UNKNOWN;
+		}
+		result = override(engineResult);
+		return engineResult;
+	}
+
+	/**
+	 * Creates a prover for running one engine concurrently with others: the
+	 * copy has the input and settings of this prover, but its own result and
+	 * NDG conditions.
+	 * 
+	 * @param pe
+	 *            engine
+	 * @return new prover
+	 */
+	public Prover copyForEngine(ProverEngine pe) {
+		Prover copy = UtilFactory.getPrototype().newProver();
+		copy.setProverEngine(pe);
+		copy.setTimeout(getEngineTimeout(pe));
+		copy.setConstruction(construction);
+		copy.setStatement(statement);
+		copy.setReturnExtraNDGs(returnExtraNDGs);
+		return copy;
+	}
+
+	/**
+	 * Takes the result and NDG conditions of another prover (e.g. the winner
+	 * of a portfolio run).
+	 * 
+	 * @param other
+	 *            other prover
+	 */
+	public void adoptResult(Prover other) {
+		result = other.result;
+		ndgConditions = other.ndgConditions;
+	}
+
+	/**
+	 * Asks the engines to stop: they check this flag between the steps of
+	 * the computation and return UNKNOWN.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @return whether the computation was cancelled
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Adds statistics of an engine.
+	 * 
+	 * @param run
+	 *            engine statistics
+	 */
+	public void addEngineRun(EngineRun run) {
+		engineRuns.add(run);
+	}
+
+	/**
+	 * @return statistics of the engines used by the last AUTO proof
+	 */
+	public List<EngineRun> getEngineRuns() {
+		return engineRuns;
+	}
+
+	/**
+	 * Run the engines of the AUTO prover concurrently (if the platform
+	 * supports threads). Off by default: the engines work on the same
+	 * construction concurrently.
+	 * 
+	 * @param portfolio
+	 *            whether to run the engines concurrently
+	 */
+	public void setPortfolio(boolean portfolio) {
+		this.portfolio = portfolio;
+	}
+
+	/**
+	 * @return whether the engines of the AUTO prover run concurrently
+	 */
+	public boolean isPortfolio() {
+		return portfolio;
+	}
+
+	/**
+	 * Sets the maximal time for one engine in a portfolio run.
+	 * 
+	 * @param pe
+	 *            engine
+	 * @param engineTimeout
+	 *            timeout in seconds
+	 */
+	public void setEngineTimeout(ProverEngine pe, int engineTimeout) {
+		engineTimeouts.put(pe, engineTimeout);
+	}
+
+	/**
+	 * @param pe
+	 *            engine
+	 * @return maximal time for the engine in seconds, by default the timeout
+	 *         of the prover
+	 */
+	public int getEngineTimeout(ProverEngine pe) {
+		Integer engineTimeout = engineTimeouts.get(pe);
+		return engineTimeout == null ? timeout
+				: Math.min(engineTimeout, timeout);
+	}
+
 	/**
 	 * A helper method to override the last found proof result with the new one,
 	 * if the new one is not unknown, or if the result is null yet, then we
@@ -597,25 +875,21 @@ public abstract class Prover {
 		return result;
 	}
 
-	private void callEngine(ProverEngine currentEngine) {
+	private ProofResult runEngine(ProverEngine currentEngine) {
 		Log.debug("Using " + currentEngine);
 		ndgConditions = new HashSet<>(); // reset
 		if (currentEngine == ProverEngine.BOTANAS_PROVER) {
 			ProverBotanasMethod pbm = new ProverBotanasMethod();
-			result = override(pbm.prove(this));
-			return;
+			return pbm.prove(this);
 		} else if (currentEngine == ProverEngine.RECIOS_PROVER) {
-			result = override(getReciosProver().prove(this));
-			return;
+			return getReciosProver().prove(this);
 		} else if (currentEngine == ProverEngine.PURE_SYMBOLIC_PROVER) {
-			result = override(ProverPureSymbolicMethod.prove(this));
-			return;
+			return ProverPureSymbolicMethod.prove(this);
 		} else if (currentEngine == ProverEngine.OPENGEOPROVER_WU
 				|| currentEngine == ProverEngine.OPENGEOPROVER_AREA) {
-			result = override(openGeoProver(currentEngine));
-			return;
+			return openGeoProver(currentEngine);
 		}
-
+		return null;
 	}
 
 	/**
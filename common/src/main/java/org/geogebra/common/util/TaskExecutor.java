@@ -0,0 +1,27 @@
+package org.geogebra.common.util;
+
+import java.util.List;
+
+/**
+ * Runs expensive drawing or computation tasks on worker threads. Platforms
+ * without threads do not provide one; callers then run the work on the
+ * calling thread as before.
+ */
+public interface TaskExecutor {
+
+	/**
+	 * Runs the task asynchronously.
+	 * 
+	 * @param task
+	 *            task
+	 */
+	void execute(Runnable task);
+
+	/**
+	 * Runs the tasks in parallel and waits until all of them are finished.
+	 * 
+	 * @param tasks
+	 *            independent tasks
+	 */
+	void invokeAll(List<? extends Runnable> tasks);
+}
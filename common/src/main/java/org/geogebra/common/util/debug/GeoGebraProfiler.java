@@ -20,6 +20,10 @@ public class GeoGebraProfiler {
 	private static volatile long eventTime;
 	private static volatile long cascadeTime;
 
+	private static volatile int casCacheHits;
+	private static volatile int casCacheMisses;
+	private static volatile int casCacheEvictions;
+
 	private static final Object lock = new Object();
 
 	/**
@@ -65,6 +69,17 @@ public class GeoGebraProfiler {
 		}
 	}
 
+	/**
+	 * Display statistics of the CAS result cache
+	 */
+	public static void printCasCacheMeasurementData() {
+		if (casCacheHits + casCacheMisses > 0) {
+			Log.debug("Profile CAS cache: " + casCacheHits + " hits, "
+					+ casCacheMisses + " misses, " + casCacheEvictions
+					+ " evictions");
+		}
+	}
+
 	/**
 	 * Log a repaint
 	 * 
@@ -121,4 +136,53 @@ public class GeoGebraProfiler {
 			dragTime += time;
 		}
 	}
+
+	/**
+	 * Log a CAS result served from cache
+	 */
+	public static void addCasCacheHit() {
+		synchronized (lock) {
+			casCacheHits++;
+		}
+	}
+
+	/**
+	 * Log a CAS computation that was not cached
+	 */
+	public static void addCasCacheMiss() {
+		synchronized (lock) {
+			casCacheMisses++;
+		}
+	}
+
+	/**
+	 * @param count
+	 *            number of CAS results removed from cache
+	 */
+	public static void addCasCacheEvictions(int count) {
+		synchronized (lock) {
+			casCacheEvictions += count;
+		}
+	}
+
+	/**
+	 * @return number of CAS results served from cache
+	 */
+	public static int getCasCacheHits() {
+		return casCacheHits;
+	}
+
+	/**
+	 * @return number of CAS computations that were not cached
+	 */
+	public static int getCasCacheMisses() {
+		return casCacheMisses;
+	}
+
+	/**
+	 * @return number of CAS results removed from cache
+	 */
+	public static int getCasCacheEvictions() {
+		return casCacheEvictions;
+	}
 }
@@ -14,6 +14,8 @@ package org.geogebra.desktop;
 
 import java.awt.Frame;
 import java.awt.Toolkit;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.net.URL;
 
 import org.geogebra.common.GeoGebraConstants;
@@ -22,6 +24,7 @@ import org.geogebra.common.util.Util;
 import org.geogebra.common.util.debug.Log;
 import org.geogebra.desktop.gui.app.GeoGebraFrame;
 import org.geogebra.desktop.main.AppD;
+import org.geogebra.desktop.main.GeoGebraBatch;
 import org.geogebra.desktop.main.GeoGebraServer;
 
 public class GeoGebra {
@@ -61,6 +64,25 @@ public class GeoGebra {
 		GeoGebraPreferencesXML.setDefaultWindowY((int) (600.0 * sf));
 	}
 
+	/**
+	 * Evaluates jobs from stdin, or from a local port if given, without GUI.
+	 */
+	private static void startBatch(CommandLineArguments args) {
+		String port = args.getStringValue("batch");
+		if (port.isEmpty()) {
+			// stdout is for the results only, the log goes to stderr
+			PrintStream results = System.out;
+			System.setOut(System.err);
+			new GeoGebraBatch().runStdin(results);
+			return;
+		}
+		try {
+			new GeoGebraBatch().listen(Integer.parseInt(port));
+		} catch (IOException e) {
+			Log.error(e.getMessage());
+		}
+	}
+
 	protected void doMain(String[] cmdArgs) {
 
 		CommandLineArguments args = new CommandLineArguments(cmdArgs);
@@ -78,6 +100,10 @@ public class GeoGebra {
 		if (!args.getBooleanValue("showSplash", true)) {
 			showSplash = false;
 		}
+		if (args.containsArg("batch")) {
+			startBatch(args);
+			return;
+		}
 		if (args.containsArg("startHttpServer")) {
 			Log.error("startHttpServer");
 			new GeoGebraServer(args.getStringValue("startHttpServer")).start();
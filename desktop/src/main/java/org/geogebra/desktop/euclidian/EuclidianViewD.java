@@ -24,6 +24,7 @@ import java.awt.GraphicsConfiguration;
 import java.awt.Image;
 import java.awt.Point;
 import java.awt.Toolkit;
+import java.awt.Transparency;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
 import java.awt.event.MouseEvent;
@@ -103,6 +104,8 @@ public class EuclidianViewD extends EuclidianView
 	/** Java component for this view */
 	protected EuclidianViewJPanelD evjpanel;
 
+	private static final Color LAYER_BACKGROUND = new Color(0, 0, 0, 0);
+
 	// set EuclidianView no - 2 for 2nd EulidianView, 1 for 1st EuclidianView
 	// and Applet
 	// EVNO_GENERAL for others
@@ -155,6 +158,7 @@ public class EuclidianViewD extends EuclidianView
 
 		attachView();
 
+		setDrawableLayerCached(getApplication().isDrawableLayerCached());
 		initView(false);
 
 		// updateRightAngleStyle(app.getLocale());
@@ -833,6 +837,28 @@ public class EuclidianViewD extends EuclidianView
 		}
 	}
 
+	@Override
+	protected GBufferedImage newDrawableLayerImage(int width, int height) {
+		GraphicsConfiguration gc = evjpanel.getGraphicsConfiguration();
+		if (gc == null) {
+			return null;
+		}
+		try {
+			return new GBufferedImageD(gc.createCompatibleImage(width, height,
+					Transparency.TRANSLUCENT));
+		} catch (OutOfMemoryError e) {
+			return null;
+		}
+	}
+
+	@Override
+	protected void clearDrawableLayer(GGraphics2D g, int x, int y, int width,
+			int height) {
+		Graphics2D g2 = GGraphics2DD.getAwtGraphics(g);
+		g2.setBackground(LAYER_BACKGROUND);
+		g2.clearRect(x, y, width, height);
+	}
+
 	@Override
 	public void clearView() {
 		evjpanel.removeAll(); // remove hotEqns
@@ -46,6 +46,8 @@ import org.geogebra.common.gui.view.algebra.AlgebraView;
 import org.geogebra.common.kernel.LayerView;
 import org.geogebra.common.kernel.ModeSetter;
 import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.batch.QueuedView;
+import org.geogebra.common.kernel.batch.ViewDelivery;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
 import org.geogebra.common.main.App;
@@ -65,7 +67,8 @@ import org.geogebra.desktop.main.AppD;
  * @author Markus
  */
 public class AlgebraViewD extends AlgebraTree
-		implements LayerView, Gridable, AlgebraView, SettingListener {
+		implements LayerView, Gridable, AlgebraView, QueuedView,
+		SettingListener {
 
 	private static final long serialVersionUID = 1L;
 
@@ -949,6 +952,16 @@ public class AlgebraViewD extends AlgebraTree
 		return App.VIEW_ALGEBRA;
 	}
 
+	@Override
+	public ViewDelivery getDelivery() {
+		return ViewDelivery.FRAME;
+	}
+
+	@Override
+	public int getNotificationPriority() {
+		return 1;
+	}
+
 	@Override
 	public AppD getApplication() {
 		return app;
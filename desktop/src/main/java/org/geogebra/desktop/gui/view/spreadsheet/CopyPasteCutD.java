@@ -4,21 +4,30 @@ import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
 import java.awt.datatransfer.Transferable;
-import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
+import java.net.URLConnection;
+
+import javax.swing.JDialog;
+import javax.swing.JProgressBar;
 
 import org.geogebra.common.gui.view.spreadsheet.CellRange;
+import org.geogebra.common.gui.view.spreadsheet.ColumnarDataImport;
 import org.geogebra.common.gui.view.spreadsheet.CopyPasteCut;
 import org.geogebra.common.gui.view.spreadsheet.DataImport;
 import org.geogebra.common.gui.view.spreadsheet.RelativeCopy;
+import org.geogebra.common.jre.io.DataImportJre;
+import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.main.App;
+import org.geogebra.common.util.AsyncOperation;
 import org.geogebra.common.util.Charsets;
-import org.geogebra.common.util.StringUtil;
+import org.geogebra.common.util.opencsv.CSVException;
+import org.geogebra.desktop.main.AppD;
 
 public class CopyPasteCutD extends CopyPasteCut {
 
@@ -164,64 +173,100 @@ public class CopyPasteCutD extends CopyPasteCut {
 	public boolean pasteFromURL(URL url, CellRange targetRange,
 			boolean clearSpreadsheet) {
 
-		// read file
-		StringBuilder contents = new StringBuilder();
-
-		boolean isCSV = getExtension(url.getFile()).equals("csv");
+		// read file line by line, keeping the data formatted for the
+		// spreadsheet only as long as it fits
+		ImportProgress progress = new ImportProgress();
+		ColumnarDataImport data = new ColumnarDataImport(
+				Kernel.MAX_SPREADSHEET_ROWS_DESKTOP - targetRange.getMinRow(),
+				progress);
 
 		try {
-			InputStream is = url.openStream();
-			BufferedReader input = new BufferedReader(
-					new InputStreamReader(is, Charsets.getUtf8()));
-			try {
-				String line = null;
-				while ((line = input.readLine()) != null) {
-					contents.append(line);
-					contents.append(System.getProperty("line.separator"));
-				}
-			} finally {
-				input.close();
-
-			}
-		} catch (IOException ex) {
+			URLConnection connection = url.openConnection();
+			progress.length = connection.getContentLength();
+			DataImportJre.read(new InputStreamReader(
+					progress.count(connection.getInputStream()),
+					Charsets.getUtf8()), data);
+		} catch (IOException | CSVException ex) {
 			ex.printStackTrace();
 			return false;
+		} finally {
+			progress.close();
 		}
 
-		// System.out.println(dataFile.getName() + ": " + contents.capacity());
-
-		boolean succ = true;
+		if (clearSpreadsheet) {
+			deleteAll();
+		}
 
-		String[][] data = DataImport.parseExternalData(app,
-				contents.toString(), isCSV);
+		String[][] cells = data.getStrings();
 
-		if (data != null) {
-			if (clearSpreadsheet) {
-				deleteAll();
-			}
-			succ = pasteExternalMultiple(data, targetRange);
-		} else {
-			succ = false;
+		if (cells != null) {
+			return pasteExternalMultiple(cells, targetRange);
 		}
 
-		return succ;
+		// too many rows for the spreadsheet: one list per column
+		return data.createLists(app.getKernel().getConstruction()).length > 0;
 
 	}
 
 	/**
-	 * Return the extension portion of the file's name.
-	 * 
-	 * @param f
-	 * @return "ext" for file "filename.ext"
+	 * Shows the number of rows and bytes read in a small window once the
+	 * import takes more than a few thousand rows.
 	 */
-	private static String getExtension(String filename) {
-		if (filename != null) {
-			int i = filename.lastIndexOf('.');
-			if (i > 0 && i < filename.length() - 1) {
-				return StringUtil.toLowerCaseUS(filename.substring(i + 1));
+	private class ImportProgress implements AsyncOperation<Integer> {
+		/** length of the data in bytes, -1 if not known */
+		int length = -1;
+		private long read = 0;
+		private JDialog dialog;
+		private JProgressBar progressBar;
+
+		InputStream count(InputStream in) {
+			return new FilterInputStream(in) {
+				@Override
+				public int read() throws IOException {
+					int b = super.read();
+					if (b >= 0) {
+						read++;
+					}
+					return b;
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len)
+						throws IOException {
+					int n = super.read(b, off, len);
+					if (n > 0) {
+						read += n;
+					}
+					return n;
+				}
+			};
+		}
+
+		@Override
+		public void callback(Integer rows) {
+			if (dialog == null) {
+				progressBar = new JProgressBar(0, Math.max(length, 0));
+				progressBar.setStringPainted(true);
+				dialog = new JDialog(((AppD) app).getFrame(),
+						app.getLocalization().getMenu("Loading"), false);
+				dialog.add(progressBar);
+				dialog.pack();
+				dialog.setLocationRelativeTo(((AppD) app).getFrame());
+				dialog.setVisible(true);
+			}
+			progressBar
+					.setValue((int) Math.min(read, progressBar.getMaximum()));
+			progressBar.setString(
+					rows + " " + app.getLocalization().getMenu("Rows"));
+			// the import blocks the event thread
+			progressBar.paint(progressBar.getGraphics());
+		}
+
+		void close() {
+			if (dialog != null) {
+				dialog.dispose();
 			}
 		}
-		return null;
 	}
 
 }
@@ -37,6 +37,8 @@ import org.geogebra.common.gui.view.spreadsheet.MyTableInterface;
 import org.geogebra.common.gui.view.spreadsheet.SpreadsheetViewInterface;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.ModeSetter;
+import org.geogebra.common.kernel.batch.QueuedView;
+import org.geogebra.common.kernel.batch.ViewDelivery;
 import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoElementSpreadsheet;
@@ -54,7 +56,8 @@ import org.geogebra.desktop.main.SpreadsheetTableModelD;
 import org.geogebra.desktop.util.GuiResourcesD;
 
 public class SpreadsheetViewD implements SpreadsheetViewInterface,
-		ComponentListener, FocusListener, Gridable, SettingListener {
+		QueuedView, ComponentListener, FocusListener, Gridable,
+		SettingListener {
 
 	// ggb fields
 	protected AppD app;
@@ -1093,6 +1096,16 @@ public class SpreadsheetViewD implements SpreadsheetViewInterface,
 		return App.VIEW_SPREADSHEET;
 	}
 
+	@Override
+	public ViewDelivery getDelivery() {
+		return ViewDelivery.FRAME;
+	}
+
+	@Override
+	public int getNotificationPriority() {
+		return 0;
+	}
+
 	@Override
 	public int[] getGridColwidths() {
 		int[] colWidths = new int[2 + tableModel.getHighestUsedColumn()];
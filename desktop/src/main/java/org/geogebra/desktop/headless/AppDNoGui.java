@@ -12,6 +12,7 @@ import org.geogebra.common.euclidian3D.EuclidianView3DInterface;
 import org.geogebra.common.factories.CASFactory;
 import org.geogebra.common.factories.UtilFactory;
 import org.geogebra.common.io.MyXMLio;
+import org.geogebra.common.jre.factory.PooledCASFactory;
 import org.geogebra.common.jre.gui.MyImageJre;
 import org.geogebra.common.jre.headless.App3DCompanionHeadless;
 import org.geogebra.common.jre.headless.AppCommon;
@@ -65,6 +66,7 @@ public class AppDNoGui extends AppCommon implements AppDI {
 	private SoundManager soundManager;
 	private boolean is3Dactive;
 	private EuclidianView3DNoGui ev3d;
+	private int casPoolSize = 1;
 
 	/**
 	 * @param loc
@@ -177,7 +179,18 @@ public class AppDNoGui extends AppCommon implements AppDI {
 
 	@Override
 	public CASFactory getCASFactory() {
-		return new LoggingCASFactoryD();
+		return new PooledCASFactory(new LoggingCASFactoryD(), casPoolSize);
+	}
+
+	/**
+	 * Sets the number of CAS engines used for concurrent evaluation; needs to
+	 * be called before the CAS is first used.
+	 * 
+	 * @param casPoolSize
+	 *            maximum number of CAS engines
+	 */
+	public void setCasPoolSize(int casPoolSize) {
+		this.casPoolSize = casPoolSize;
 	}
 
 	@Override
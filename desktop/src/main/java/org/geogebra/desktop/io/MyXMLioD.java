@@ -22,6 +22,7 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -107,21 +108,14 @@ public class MyXMLioD extends MyXMLioJre {
 				// load JavaScript
 				kernel.setLibraryJavaScript(UtilD.loadIntoString(zip));
 				javaScriptFound = true;
-			} else if (StringUtil.toLowerCaseUS(name).endsWith("svg")) {
-				String svg = UtilD.loadIntoString(zip);
-
-				MyImageD img = new MyImageD(svg, name);
-
-				((AppDI) app).addExternalImage(name, img);
-
 			} else {
 				// try to load image
 				try {
-					BufferedImage img = ImageIO.read(zip);
+					MyImageJre img = readImage(name, zip);
 					if ("".equals(name)) {
 						Log.warn("image in zip file with empty name");
 					} else {
-						((AppDI) app).addExternalImage(name, new MyImageD(img));
+						((AppDI) app).addExternalImage(name, img);
 					}
 				} catch (IOException e) {
 					Log.debug("readZipFromURL: image could not be loaded: "
@@ -180,6 +174,25 @@ public class MyXMLioD extends MyXMLioJre {
 		}
 	}
 
+	/**
+	 * SVG images are parsed by the shared SVG universe, which is not thread
+	 * safe.
+	 */
+	@Override
+	protected final boolean canReadImageConcurrently(String name) {
+		return !StringUtil.toLowerCaseUS(name).endsWith("svg");
+	}
+
+	@Override
+	protected final MyImageJre readImage(String name, InputStream is)
+			throws IOException {
+		if (StringUtil.toLowerCaseUS(name).endsWith("svg")) {
+			return new MyImageD(UtilD.loadIntoString(is), name);
+		}
+		BufferedImage img = ImageIO.read(is);
+		return new MyImageD(img);
+	}
+
 	@Override
 	final protected MyImageJre getExportImage(double width, double height) {
 		return ((AppDI) app).getExportImage(THUMBNAIL_PIXELS_X,
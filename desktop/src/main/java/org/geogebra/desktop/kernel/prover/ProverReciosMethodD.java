@@ -127,7 +127,7 @@ public class ProverReciosMethodD extends AbstractProverReciosMethod {
 		}
 
 		do {
-			if (Thread.interrupted()) {
+			if (Thread.interrupted() || isCancelled()) {
 				interruptThreads();
 				return ProofResult.UNKNOWN;
 			}
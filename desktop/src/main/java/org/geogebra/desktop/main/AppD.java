@@ -117,6 +117,8 @@ import org.geogebra.common.GeoGebraConstants.Platform;
 import org.geogebra.common.awt.GDimension;
 import org.geogebra.common.awt.GFont;
 import org.geogebra.common.awt.MyImage;
+import org.geogebra.common.cas.cache.LruCasResultCache;
+import org.geogebra.common.cas.cache.TieredCasResultCache;
 import org.geogebra.common.euclidian.EuclidianConstants;
 import org.geogebra.common.euclidian.EuclidianController;
 import org.geogebra.common.euclidian.EuclidianCursor;
@@ -137,13 +139,17 @@ import org.geogebra.common.io.layout.DockPanelData;
 import org.geogebra.common.io.layout.Perspective;
 import org.geogebra.common.io.layout.PerspectiveDecoder;
 import org.geogebra.common.javax.swing.GImageIcon;
+import org.geogebra.common.jre.cas.MappedFileCasResultCache;
 import org.geogebra.common.jre.factory.FormatFactoryJre;
+import org.geogebra.common.jre.factory.PooledCASFactory;
 import org.geogebra.common.jre.gui.MyImageJre;
 import org.geogebra.common.jre.headless.AppDI;
+import org.geogebra.common.jre.kernel.BytecodeFunctionCompiler;
 import org.geogebra.common.jre.kernel.commands.CommandDispatcher3DJre;
 import org.geogebra.common.jre.kernel.commands.CommandDispatcherJre;
 import org.geogebra.common.jre.main.TemplateHelper;
 import org.geogebra.common.jre.util.Base64;
+import org.geogebra.common.jre.util.ForkJoinTaskExecutor;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.Macro;
@@ -168,6 +174,7 @@ import org.geogebra.common.main.settings.updater.SettingsUpdaterBuilder;
 import org.geogebra.common.media.VideoManager;
 import org.geogebra.common.move.ggtapi.models.json.JSONObject;
 import org.geogebra.common.move.ggtapi.models.json.JSONTokener;
+import org.geogebra.common.plugin.AsyncEventQueue;
 import org.geogebra.common.plugin.ScriptManager;
 import org.geogebra.common.util.AsyncOperation;
 import org.geogebra.common.util.Charsets;
@@ -179,6 +186,7 @@ import org.geogebra.common.util.LowerCaseDictionary;
 import org.geogebra.common.util.NormalizerMinimal;
 import org.geogebra.common.util.StringUtil;
 import org.geogebra.common.util.Util;
+import org.geogebra.common.util.debug.GeoGebraProfiler;
 import org.geogebra.common.util.debug.Log;
 import org.geogebra.common.util.debug.Log.LogDestination;
 import org.geogebra.desktop.CommandLineArguments;
@@ -233,6 +241,7 @@ import org.geogebra.desktop.plugin.GgbAPID;
 import org.geogebra.desktop.plugin.ScriptManagerD;
 import org.geogebra.desktop.sound.SoundManagerD;
 import org.geogebra.desktop.util.CopyPasteD;
+import org.geogebra.desktop.util.EventQueueTaskExecutor;
 import org.geogebra.desktop.util.FrameCollector;
 import org.geogebra.desktop.util.GTimerD;
 import org.geogebra.desktop.util.GuiResourcesD;
@@ -288,6 +297,9 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 	 */
 	public static final int MAX_RECENT_FILES = 8;
 
+	/** maximum size of the persistent CAS cache (--casCacheFile) */
+	private static final long CAS_CACHE_FILE_BYTES = 64 * 1024 * 1024;
+
 	// ==============================================================
 	// RESOURCE fields
 	// ==============================================================
@@ -366,6 +378,8 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 	// ==============================================================
 
 	private boolean allowToolTips = true;
+	/** whether graphics views keep their drawables in an image */
+	private boolean drawableLayerCached = true;
 
 	protected boolean isErrorDialogShowing = false;
 
@@ -496,6 +510,11 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 		initFactories();
 		initKernel();
 		kernel.setPrintDecimals(getConfig().getDefaultPrintDecimals());
+		if (args != null && args.getBooleanValue("compileFunctions", false)) {
+			kernel.setFunctionCompiler(new BytecodeFunctionCompiler());
+		}
+		drawableLayerCached = args == null
+				|| args.getBooleanValue("cacheDrawables", true);
 
 		// init settings
 		initSettings();
@@ -755,6 +774,13 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 					+ "  --logFile=FILENAME\tset log file\n"
 					+ "  --silent\tCompletely mute logging\n"
 					+ "  --prover=OPTIONS\tSet options for the prover subsystem (use --proverhelp for more information)\n"
+					+ "  --casCacheFile=FILENAME\tstore CAS results in a persistent cache file\n"
+					+ "  --casEngines=NUMBER\tnumber of CAS engines for concurrent evaluation\n"
+					+ "  --workerThreads=NUMBER\tcompute 3D surfaces on background threads\n"
+					+ "  --compileFunctions=BOOLEAN\tcompile functions to bytecode (default: false)\n"
+					+ "  --cacheDrawables=BOOLEAN\tredraw only the changed parts of graphics views (default: true)\n"
+					+ "  --asyncScripts[=NUMBER]\trun scripts after the update that triggered them, with at most NUMBER pending events\n"
+					+ "  --batch[=PORT]\tevaluate JSON jobs from stdin or from a local port without GUI\n"
 			/*
 			 * +
 			 * "  --singularWS=OPTIONS\tSet options for SingularWS (use --singularWShelp for more information)\n"
@@ -798,6 +824,8 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 							+ "      captionalgebra:BOOLEAN\tshow algebraic debug information in object captions ["
 							+ proverSettings.captionAlgebra
 							+ "] (Botana only)\n"
+							+ "      portfolio:BOOLEAN\trun the engines concurrently, first conclusive result wins ["
+							+ proverSettings.portfolio + "] (Auto only)\n"
 							+ "  Example: --prover=engine:Botana,timeout:10,fpnevercoll:true,usefixcoords:43\n");
 			AppD.exit(0);
 		}
@@ -1123,6 +1151,39 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 
 	}
 
+	private void setCasCacheFile(String fileName) {
+		try {
+			MappedFileCasResultCache fileCache = new MappedFileCasResultCache(
+					new File(fileName), CAS_CACHE_FILE_BYTES,
+					GeoGebraConstants.VERSION_STRING);
+			kernel.setCasCache(new TieredCasResultCache(
+					new LruCasResultCache(Kernel.GEOGEBRA_CAS_CACHE_SIZE,
+							Kernel.GEOGEBRA_CAS_CACHE_BYTES),
+					fileCache));
+			closeOnExit(fileCache);
+		} catch (IOException e) {
+			Log.warn("Cannot open CAS cache file " + fileName + ": "
+					+ e.getMessage());
+		}
+	}
+
+	/**
+	 * Logs the CAS cache statistics and closes the cache file on exit.
+	 */
+	private static void closeOnExit(final MappedFileCasResultCache fileCache) {
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				GeoGebraProfiler.printCasCacheMeasurementData();
+				try {
+					fileCache.close();
+				} catch (IOException e) {
+					// exiting anyway
+				}
+			}
+		});
+	}
+
 	private static void setProverOption(String option) {
 		String[] str = option.split(":", 2);
 		ProverSettings proverSettings = ProverSettings.get();
@@ -1190,6 +1251,10 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 			proverSettings.captionAlgebra = Boolean.parseBoolean(str[1]);
 			return;
 		}
+		if ("portfolio".equalsIgnoreCase(str[0])) {
+			proverSettings.portfolio = Boolean.parseBoolean(str[1]);
+			return;
+		}
 		Log.warn("Prover option not recognized: ".concat(option));
 	}
 
@@ -1276,6 +1341,39 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 				setProverOption(proverOptions[i]);
 			}
 		}
+		if (args.containsArg("casEngines")) {
+			try {
+				CASFactory.setPrototype(new PooledCASFactory(new CASFactoryD(),
+						Integer.parseInt(args.getStringValue("casEngines"))));
+			} catch (NumberFormatException e) {
+				Log.warn("Option casEngines not recognized : "
+						+ args.getStringValue("casEngines"));
+			}
+		}
+		if (args.containsArg("casCacheFile")) {
+			setCasCacheFile(args.getStringValue("casCacheFile"));
+		}
+		if (args.containsArg("workerThreads")) {
+			try {
+				kernel.setTaskExecutor(new ForkJoinTaskExecutor(Integer
+						.parseInt(args.getStringValue("workerThreads"))));
+			} catch (IllegalArgumentException e) {
+				Log.warn("Option workerThreads not recognized : "
+						+ args.getStringValue("workerThreads"));
+			}
+		}
+		if (args.containsArg("asyncScripts")) {
+			String capacity = args.getStringValue("asyncScripts");
+			try {
+				getEventDispatcher().setAsyncExecutor(
+						new EventQueueTaskExecutor(),
+						"".equals(capacity) || "true".equals(capacity)
+								? AsyncEventQueue.DEFAULT_CAPACITY
+								: Integer.parseInt(capacity));
+			} catch (NumberFormatException e) {
+				Log.warn("Option asyncScripts not recognized : " + capacity);
+			}
+		}
 		if (args.containsArg("singularWS")) {
 			String[] singularWSOptions = args.getStringValue("singularWS")
 					.split(",");
@@ -1289,6 +1387,14 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 	// STATUS
 	// **************************************************************************
 
+	/**
+	 * @return whether graphics views keep their drawables in an image and
+	 *         redraw only the changed parts (--cacheDrawables)
+	 */
+	public boolean isDrawableLayerCached() {
+		return drawableLayerCached;
+	}
+
 	@Override
 	final public boolean isApplet() {
 		return isApplet;
@@ -3343,20 +3449,17 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 	 * @return true if successful
 	 */
 	final public boolean loadXML(File file, boolean isMacroFile) {
-		FileInputStream fis = null;
 		try {
-			fis = new FileInputStream(file);
-
 			boolean success = false;
 
 			// pretend we're initializing the application to prevent unnecessary
 			// update
 			if (!initing) {
 				initing = true;
-				success = GFileHandler.loadXML(this, fis, isMacroFile);
+				success = GFileHandler.loadXML(this, file, isMacroFile);
 				initing = false;
 			} else {
-				success = GFileHandler.loadXML(this, fis, isMacroFile);
+				success = GFileHandler.loadXML(this, file, isMacroFile);
 			}
 
 			if (success && !isMacroFile) {
@@ -3371,13 +3474,6 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 			return false;
 		} finally {
 			initing = false;
-			if (fis != null) {
-				try {
-					fis.close();
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-			}
 		}
 	}
 
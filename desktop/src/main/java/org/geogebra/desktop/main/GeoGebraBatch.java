@@ -0,0 +1,274 @@
+package org.geogebra.desktop.main;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.move.ggtapi.models.json.JSONArray;
+import org.geogebra.common.move.ggtapi.models.json.JSONException;
+import org.geogebra.common.move.ggtapi.models.json.JSONObject;
+import org.geogebra.common.plugin.GgbAPI;
+import org.geogebra.common.util.Charsets;
+import org.geogebra.common.util.debug.Log;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.geogebra.desktop.headless.GFileHandler;
+
+/**
+ * Evaluates many jobs in warm headless apps, so that the startup of the app
+ * (commands, localization, CAS) is paid once. Jobs are read as one JSON
+ * object per line, from stdin or from clients of a local socket, and each
+ * result is written as one JSON object per line.
+ *
+ * A job loads a file and/or evaluates commands, e.g.
+ * {"id":1,"file":"a.ggb","commands":["B=2A"],"values":["A","B"]}. The result
+ * contains the id, the values of the given objects (of all objects if
+ * "values" is missing), "errors" for commands that failed, "error" if the
+ * job failed, and the times "loadMs", "evalMs" and "totalMs".
+ *
+ * After every job the construction and macros are removed and the settings
+ * and kernel settings (angle unit, rounding, ...) are set back to those of a
+ * new app. An app whose job failed unexpectedly is replaced by a new one.
+ *
+ * Jobs are evaluated one at a time, also for several clients: apps of one
+ * JVM share static state (e.g. the counters of the CAS and the temporary
+ * sets of the kernel), so they must not evaluate concurrently. Start
+ * several processes to evaluate jobs in parallel.
+ */
+public class GeoGebraBatch {
+
+	private AppDNoGui app;
+	/** kernel settings of a new app as XML */
+	private String kernelDefaults;
+
+	/**
+	 * Creates the app.
+	 */
+	public GeoGebraBatch() {
+		createApp();
+	}
+
+	private void createApp() {
+		app = new AppDNoGui(new LocalizationD(3), true);
+		StringBuilder sb = new StringBuilder("<geogebra format=\"5.0\">");
+		app.getKernel().getKernelXML(sb, false);
+		sb.append("</geogebra>");
+		kernelDefaults = sb.toString();
+	}
+
+	private void resetApp() throws Exception {
+		Kernel kernel = app.getKernel();
+		kernel.clearConstruction(true);
+		kernel.removeAllMacros();
+		app.getSettings().resetSettings(app);
+		app.getSettingsUpdater().resetSettingsAfterClearAll();
+		// angle unit, rounding etc. as in a file without these settings
+		app.getXMLio().processXMLString(kernelDefaults, false, false);
+	}
+
+	/**
+	 * Evaluates one job.
+	 *
+	 * @param line
+	 *            job as JSON
+	 * @return result as JSON
+	 */
+	public synchronized String process(String line) {
+		boolean failed = false;
+		Object id = null;
+		try {
+			JSONObject job = new JSONObject(line);
+			id = job.opt("id");
+			return runJob(app, job).toString();
+		} catch (JSONException e) {
+			return error(id, "Invalid job: " + e.getMessage());
+		} catch (Throwable t) {
+			Log.debug(t);
+			// the state of the app is unknown
+			failed = true;
+			return error(id, t.getMessage());
+		} finally {
+			if (!failed) {
+				try {
+					resetApp();
+				} catch (Throwable t) {
+					Log.debug(t);
+					failed = true;
+				}
+			}
+			if (failed) {
+				createApp();
+			}
+		}
+	}
+
+	private static JSONObject runJob(AppDNoGui app, JSONObject job)
+			throws Exception {
+		long start = System.currentTimeMillis();
+		JSONObject result = new JSONObject();
+		result.put("id", job.opt("id"));
+		GgbAPI api = app.getGgbApi();
+
+		if (job.has("file")) {
+			File file = new File(job.getString("file"));
+			if (!GFileHandler.loadXML(app, file, false)) {
+				result.put("error", "Could not load " + file);
+			}
+		}
+		long loaded = System.currentTimeMillis();
+
+		JSONArray commands = job.optJSONArray("commands");
+		if (commands != null) {
+			JSONArray errors = new JSONArray();
+			for (int i = 0; i < commands.length(); i++) {
+				String command = commands.getString(i);
+				if (!api.evalCommand(command)) {
+					errors.put(command);
+				}
+			}
+			if (errors.length() > 0) {
+				result.put("errors", errors);
+			}
+		}
+
+		JSONArray labels = job.optJSONArray("values");
+		JSONObject values = new JSONObject();
+		if (labels == null) {
+			for (String label : api.getAllObjectNames()) {
+				values.put(label, api.getValueString(label, false));
+			}
+		} else {
+			for (int i = 0; i < labels.length(); i++) {
+				String label = labels.getString(i);
+				values.put(label, api.getValueString(label, false));
+			}
+		}
+		result.put("values", values);
+
+		long end = System.currentTimeMillis();
+		result.put("loadMs", loaded - start);
+		result.put("evalMs", end - loaded);
+		result.put("totalMs", end - start);
+		return result;
+	}
+
+	private static String error(Object id, String message) {
+		JSONObject result = new JSONObject();
+		try {
+			result.put("id", id);
+			result.put("error", message + "");
+		} catch (JSONException e) {
+			Log.debug(e);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Evaluates the jobs of the reader and writes the results.
+	 *
+	 * @param in
+	 *            jobs, one per line
+	 * @param out
+	 *            results, one per line
+	 * @throws IOException
+	 *             on read error
+	 */
+	public void run(BufferedReader in, Writer out) throws IOException {
+		String line;
+		while ((line = in.readLine()) != null) {
+			if (line.trim().isEmpty()) {
+				continue;
+			}
+			write(out, process(line));
+		}
+	}
+
+	private static void write(Writer out, String result) {
+		synchronized (out) {
+			try {
+				out.write(result);
+				out.write('\n');
+				out.flush();
+			} catch (IOException e) {
+				Log.debug("Result not written: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Reads jobs from stdin until it is closed. Everything else printed to
+	 * stdout (e.g. the log of the apps) must have been redirected before, so
+	 * that it does not mix with the results.
+	 *
+	 * @param results
+	 *            the original stdout
+	 */
+	public void runStdin(PrintStream results) {
+		Writer out = new OutputStreamWriter(results, Charsets.getUtf8());
+		try {
+			run(new BufferedReader(
+					new InputStreamReader(System.in, Charsets.getUtf8())),
+					out);
+		} catch (IOException e) {
+			Log.error(e.getMessage());
+		}
+	}
+
+	/**
+	 * Accepts jobs from clients on the loopback interface, one connection per
+	 * client. Results are written in the order of the jobs.
+	 *
+	 * @param port
+	 *            port
+	 * @throws IOException
+	 *             if the port can't be opened
+	 */
+	public void listen(int port) throws IOException {
+		ServerSocket server = new ServerSocket(port, 0,
+				InetAddress.getLoopbackAddress());
+		Log.debug("Batch server listening on port " + port);
+		while (true) {
+			final Socket client = server.accept();
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					serve(client);
+				}
+			}, "GeoGebraBatch client").start();
+		}
+	}
+
+	/**
+	 * Jobs of one client are evaluated one after the other; clients share
+	 * the app.
+	 */
+	private void serve(Socket client) {
+		try {
+			BufferedReader in = new BufferedReader(new InputStreamReader(
+					client.getInputStream(), Charsets.getUtf8()));
+			Writer out = new OutputStreamWriter(client.getOutputStream(),
+					Charsets.getUtf8());
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (!line.trim().isEmpty()) {
+					write(out, process(line));
+				}
+			}
+		} catch (IOException e) {
+			Log.debug("Client failed: " + e.getMessage());
+		} finally {
+			try {
+				client.close();
+			} catch (IOException e) {
+				Log.debug(e.getMessage());
+			}
+		}
+	}
+}
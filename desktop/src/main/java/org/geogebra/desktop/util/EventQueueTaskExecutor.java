@@ -0,0 +1,26 @@
+package org.geogebra.desktop.util;
+
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import org.geogebra.common.util.TaskExecutor;
+
+/**
+ * Runs the tasks one after another on the Swing event dispatch thread, after
+ * the events that are already waiting.
+ */
+public class EventQueueTaskExecutor implements TaskExecutor {
+
+	@Override
+	public void execute(Runnable task) {
+		SwingUtilities.invokeLater(task);
+	}
+
+	@Override
+	public void invokeAll(List<? extends Runnable> tasks) {
+		for (Runnable task : tasks) {
+			task.run();
+		}
+	}
+}
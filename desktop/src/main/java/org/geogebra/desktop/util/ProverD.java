@@ -1,8 +1,10 @@
 package org.geogebra.desktop.util;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Vector;
 
+import org.geogebra.common.jre.util.ProverPortfolio;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.prover.AbstractProverReciosMethod;
 import org.geogebra.common.main.ProverSettings;
@@ -72,6 +74,11 @@ public class ProverD extends Prover {
 		}
 	}
 
+	@Override
+	protected void decidePortfolio(List<ProverEngine> engines) {
+		new ProverPortfolio(this).run(engines);
+	}
+
 	private GeoElement getGeoByLabel(String label) {
 		Iterator<GeoElement> it = statement.getAllPredecessors().iterator();
 		while (it.hasNext()) {
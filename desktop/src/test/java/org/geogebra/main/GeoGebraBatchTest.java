@@ -0,0 +1,77 @@
+package org.geogebra.main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.geogebra.common.move.ggtapi.models.json.JSONObject;
+import org.geogebra.common.util.Charsets;
+import org.geogebra.desktop.main.GeoGebraBatch;
+import org.junit.Test;
+
+public class GeoGebraBatchTest {
+
+	@Test
+	public void jobsShouldRunInResetApps() throws Exception {
+		GeoGebraBatch batch = new GeoGebraBatch();
+		JSONObject first = new JSONObject(batch.process(
+				"{\"id\":1,\"commands\":[\"a=2\",\"b=3a\"],\"values\":[\"b\"]}"));
+		assertEquals(1, first.getInt("id"));
+		assertEquals("b = 6", first.getJSONObject("values").getString("b"));
+		assertTrue(first.has("totalMs"));
+
+		JSONObject second = new JSONObject(
+				batch.process("{\"id\":2,\"values\":[\"a\"]}"));
+		assertEquals("", second.getJSONObject("values").getString("a"));
+	}
+
+	@Test
+	public void failuresShouldBeReported() throws Exception {
+		GeoGebraBatch batch = new GeoGebraBatch();
+		JSONObject result = new JSONObject(batch.process(
+				"{\"id\":3,\"commands\":[\"a=\"]}"));
+		assertEquals("a=", result.getJSONArray("errors").getString(0));
+		assertFalse(result.has("error"));
+		assertTrue(new JSONObject(batch.process("no json")).has("error"));
+	}
+
+	@Test
+	public void settingsOfFileShouldBeReset() throws Exception {
+		File file = File.createTempFile("batch", ".ggb");
+		file.deleteOnExit();
+		ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file));
+		try {
+			zip.putNextEntry(new ZipEntry("geogebra.xml"));
+			zip.write(("<geogebra format=\"5.0\"><kernel>"
+					+ "<angleUnit val=\"radiant\"/><decimals val=\"5\"/>"
+					+ "</kernel><construction></construction></geogebra>")
+							.getBytes(Charsets.getUtf8()));
+			zip.closeEntry();
+		} finally {
+			zip.close();
+		}
+		String commands = "\"commands\":[\"b=1/3\","
+				+ "\"c=Angle((1,0),(0,0),(0,1))\"],\"values\":[\"b\",\"c\"]";
+		GeoGebraBatch batch = new GeoGebraBatch();
+		String defaults = new JSONObject(batch.process("{" + commands + "}"))
+				.getJSONObject("values").toString();
+
+		JSONObject loaded = new JSONObject(batch.process("{\"file\":"
+				+ JSONObject.quote(file.getAbsolutePath()) + "," + commands
+				+ "}"));
+		assertFalse(loaded.has("error"));
+		assertEquals("b = 0.33333",
+				loaded.getJSONObject("values").getString("b"));
+		assertNotEquals(defaults,
+				loaded.getJSONObject("values").toString());
+
+		JSONObject next = new JSONObject(batch.process("{" + commands + "}"));
+		assertEquals(defaults, next.getJSONObject("values").toString());
+	}
+}
@@ -25,6 +25,8 @@ public class AlgebraMathEditorAPI implements MathEditorAPI {
 	@Override
 	public void setState(String text, GeoElement geo) {
 		RadioTreeItem algebraItem;
+		// items of elements created by the last command may be queued
+		algebraView.getApp().getKernel().flushQueue(algebraView);
 		if (geo != null) {
 			algebraItem = algebraView.getNode(geo);
 		} else {
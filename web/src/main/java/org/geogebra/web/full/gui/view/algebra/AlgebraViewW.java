@@ -15,6 +15,8 @@ import org.geogebra.common.kernel.ModeSetter;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.algos.AlgoCurveCartesian;
 import org.geogebra.common.kernel.algos.AlgoDependentText;
+import org.geogebra.common.kernel.batch.QueuedView;
+import org.geogebra.common.kernel.batch.ViewDelivery;
 import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoNumeric;
@@ -73,7 +75,8 @@ import com.himamis.retex.editor.share.util.GWTKeycodes;
  *
  */
 public class AlgebraViewW extends Tree implements LayerView, AlgebraView,
-		OpenHandler<TreeItem>, SettingListener, ProvidesResize, PrintableW {
+		QueuedView, OpenHandler<TreeItem>, SettingListener, ProvidesResize,
+		PrintableW {
 
 	/** app */
 	private final AppW app;
@@ -401,6 +404,16 @@ public class AlgebraViewW extends Tree implements LayerView, AlgebraView,
 		return App.VIEW_ALGEBRA;
 	}
 
+	@Override
+	public ViewDelivery getDelivery() {
+		return ViewDelivery.FRAME;
+	}
+
+	@Override
+	public int getNotificationPriority() {
+		return 1;
+	}
+
 	// TODO EuclidianView#setHighlighted() doesn't exist
 	/**
 	 * updates node of GeoElement geo (needed for highlighting)
@@ -9,6 +9,8 @@ import org.geogebra.common.gui.view.spreadsheet.CellRange;
 import org.geogebra.common.gui.view.spreadsheet.SpreadsheetViewInterface;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.ModeSetter;
+import org.geogebra.common.kernel.batch.QueuedView;
+import org.geogebra.common.kernel.batch.ViewDelivery;
 import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoElementSpreadsheet;
@@ -43,7 +45,7 @@ import com.google.gwt.user.client.ui.Widget;
 //import geogebra.web.gui.view.Gridable;
 
 public class SpreadsheetViewW implements SpreadsheetViewInterface,
-		SettingListener, SetLabels, PrintableW {
+		QueuedView, SettingListener, SetLabels, PrintableW {
 
 	// ggb fields
 	protected AppW app;
@@ -963,6 +965,16 @@ public class SpreadsheetViewW implements SpreadsheetViewInterface,
 		return App.VIEW_SPREADSHEET;
 	}
 
+	@Override
+	public ViewDelivery getDelivery() {
+		return ViewDelivery.FRAME;
+	}
+
+	@Override
+	public int getNotificationPriority() {
+		return 0;
+	}
+
 	@Override
 	public boolean isShowing() {
 		// if this is attached, we shall make sure its parents are visible too
@@ -1023,7 +1023,14 @@ public abstract class AppW extends App implements SetLabels, HasLanguage {
 
 	@Override
 	public final UndoManager getUndoManager(Construction cons) {
-		return new UndoManagerW(cons);
+		UndoManagerW undoManager = new UndoManagerW(cons);
+		int memoryLimit = articleElement.getDataParamUndoMemoryLimit();
+		if (memoryLimit > 0) {
+			// deltas keep more steps within the limit
+			undoManager.setDeltaStorage(true);
+			undoManager.setMemoryBudget(memoryLimit * 1024L * 1024L);
+		}
+		return undoManager;
 	}
 
 	@Override
@@ -316,6 +316,11 @@ public class TestArticleElement implements ArticleElementInterface {
 		return false;
 	}
 
+	@Override
+	public int getDataParamUndoMemoryLimit() {
+		return 0;
+	}
+
 	@Override
 	public void initID(int i) {
 		// intentionally empty
@@ -641,6 +641,14 @@ public final class ArticleElement extends Element implements ArticleElementInter
 		return getBoolDataParam("enableFileFeatures", true);
 	}
 
+	/* (non-Javadoc)
+	 * @see org.geogebra.web.html5.util.ArticleElementInterface#getDataParamUndoMemoryLimit()
+	 */
+	@Override
+	public int getDataParamUndoMemoryLimit() {
+		return getIntegerAttribute("undoMemoryLimit", 0);
+	}
+
 	/**
 	 * @return list of articles on the page that have the proper class (
 	 *         {@value GeoGebraConstants#GGM_CLASS_NAME})
@@ -355,6 +355,12 @@ public interface ArticleElementInterface {
 	 */
 	boolean getDataParamEnableFileFeatures();
 
+	/**
+	 * @return memory limit of the undo history in MB, 0 to limit the number
+	 *         of undo steps (default: 0)
+	 */
+	int getDataParamUndoMemoryLimit();
+
 	/**
 	 * Set the ID of this article to something unique; prefer getDataParamId,
 	 * append number in case of conflicts. If not set, use a string that